@@ -1,109 +1,200 @@
 package org.liberator.ratdriver;
 
 import com.sun.javafx.PlatformUtil;
-import org.openqa.selenium.WebDriver;
+import org.liberator.ratdriver.enums.ErrorAction;
+import org.liberator.ratdriver.errors.ErrorPolicy;
+import org.liberator.ratdriver.errors.ErrorRule;
+import org.liberator.ratdriver.errors.FailureArtifacts;
+import org.liberator.ratdriver.logging.RatLog;
+import org.openqa.selenium.*;
+import org.openqa.selenium.interactions.InvalidCoordinatesException;
+import org.openqa.selenium.interactions.MoveTargetOutOfBoundsException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ErrorHandler {
 
+    /**
+     * The errors handled on each thread, used to detect commands that failed without throwing
+     */
+    private static final ThreadLocal<HandledErrors> handledErrors = ThreadLocal.withInitial(HandledErrors::new);
+
+    /**
+     * The number of errors handled, by exception class
+     */
+    private static final ConcurrentMap<Class<?>, LongAdder> errorCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Explanations of the common WebDriver exceptions, by exception class
+     */
+    private static final Map<Class<?>, String> explanations = new HashMap<>();
+
+    /**
+     * Decides what happens to the session after an error
+     */
+    private static volatile ErrorPolicy policy = ErrorPolicy.defaults();
+
+    /**
+     * Collects screenshots and page sources when errors are handled. Null unless set.
+     */
+    private static volatile FailureArtifacts artifacts;
+
+    static {
+        explanations.put(UnhandledAlertException.class, "An alert has been detected but has not been handled.");
+        explanations.put(ElementClickInterceptedException.class, "The element cannot be clicked as the click was intercepted.");
+        explanations.put(ElementNotInteractableException.class, "The element chosen has reported as being non-interactable.");
+        explanations.put(ElementNotSelectableException.class, "The element cannot be selected.");
+        explanations.put(ElementNotVisibleException.class, "The element requested is not visible.");
+        explanations.put(ImeActivationFailedException.class, "Activation of the input method engine has failed.");
+        explanations.put(ImeNotAvailableException.class, "The Input method engine is not available.");
+        explanations.put(InvalidArgumentException.class, "An invalid argument was passed");
+        explanations.put(InvalidCookieDomainException.class, "An invalid cookie domain was requested.");
+        explanations.put(InvalidElementStateException.class, "The element state is invalid.");
+        explanations.put(InvalidSelectorException.class, "An invalid selector has been used and has caused an exception");
+        explanations.put(JavascriptException.class, "There has been an exception thrown in JavaScript execution.");
+        explanations.put(NoAlertPresentException.class, "An alert was expected but has not been detected.");
+        explanations.put(NoSuchContextException.class, "No such content was found.");
+        explanations.put(NoSuchCookieException.class, "No such cookie has been found.");
+        explanations.put(NoSuchElementException.class, "There is no element meeting the definition provided.");
+        explanations.put(NoSuchFrameException.class, "There is no frame meeting the definition provided.");
+        explanations.put(NoSuchSessionException.class, "The required session does not exist.");
+        explanations.put(NoSuchWindowException.class, "There is no window meeting the definition provided.");
+        explanations.put(NotFoundException.class, "The element was not found.");
+        explanations.put(ScriptTimeoutException.class, "A JavaScript has timed out.");
+        explanations.put(SessionNotCreatedException.class, "The required session was not created.");
+        explanations.put(StaleElementReferenceException.class, "Element has a stale reference.");
+        explanations.put(TimeoutException.class, "The driver has encountered a timeout.");
+        explanations.put(UnableToSetCookieException.class, "Unable to set the required cookie.");
+        explanations.put(UnsupportedCommandException.class, "The command sent was unsupported.");
+        explanations.put(WebDriverException.class, "The WebDriver has encountered an exception.");
+        explanations.put(MoveTargetOutOfBoundsException.class, "The requested action results in the cursor moving off screen.");
+        explanations.put(InvalidCoordinatesException.class, "The coordinates passed are invalid.");
+    }
+
+    /**
+     * @return The number of errors handled so far on the current thread
+     */
+    public static int handledErrorCount() {
+        return handledErrors.get().count;
+    }
+
+    /**
+     * @return The most recent exception handled on the current thread, or null if there has been none
+     */
+    public static Throwable lastHandledError() {
+        return handledErrors.get().last;
+    }
+
+    /**
+     * Gets the number of errors handled since the JVM started
+     * @return The number of errors, keyed by the simple name of the exception class
+     */
+    public static Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entry : errorCounts.entrySet()) {
+            counts.merge(entry.getKey().getSimpleName(), entry.getValue().sum(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * @return The policy deciding what happens to the session after an error
+     */
+    public static ErrorPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets the policy deciding what happens to the session after an error. Use new ErrorPolicy() to quit on
+     * every error.
+     * @param errorPolicy The policy
+     */
+    public static void setPolicy(ErrorPolicy errorPolicy) {
+        policy = errorPolicy == null ? new ErrorPolicy() : errorPolicy;
+    }
+
+    /**
+     * @return The collector of failure artifacts, or null if artifacts are not being collected
+     */
+    public static FailureArtifacts getArtifacts() {
+        return artifacts;
+    }
+
+    /**
+     * Starts collecting a screenshot, the page source, the console log and the URL for every error that is not
+     * about to be retried
+     * @param failureArtifacts The collector, or null to stop collecting
+     */
+    public static void setArtifacts(FailureArtifacts failureArtifacts) {
+        artifacts = failureArtifacts;
+    }
+
     public static void HandleErrors(WebDriver driver, Exception ex, String module, String method, String description) {
+        HandledErrors handled = handledErrors.get();
+        handled.count++;
+        handled.last = ex;
+        LongAdder count = errorCounts.get(ex.getClass());
+        if (count == null) {
+            count = errorCounts.computeIfAbsent(ex.getClass(), type -> new LongAdder());
+        }
+        count.increment();
         String classname = ex.getClass().getName();
-        System.out.format("\nAn exception of type '%s' was thrown in the module '%s'. The failing method was '%s", classname, module, method);
-        System.out.format("\nThe exception message was: %s", ex.getMessage());
-        System.out.format("\n%s", description);
+        RatLog.human("An exception of type '%s' was thrown in the module '%s'. The failing method was '%s'.", classname, module, method);
+        RatLog.message("The exception message was: %s", ex.getMessage());
+        RatLog.stackTrace(ex);
+        RatLog.human(description);
 
-        switch (classname) {
-            case "UnhandledAlertException":
-                System.out.println("An alert has been detected but has not been handled.");
-                break;
-            case "ElementClickInterceptedException":
-                System.out.println("The element cannot be clicked as the click was intercepted.");
-                break;
-            case "ElementNotInteractableException":
-                System.out.println("The element chosen has reported as being non-interactable.");
-                break;
-            case "ElementNotSelectableException":
-                System.out.println("The element cannot be selected.");
-                break;
-            case "ElementNotVisibleException":
-                System.out.println("The element requested is not visible.");
-                break;
-            case "ImeActivationFailedException":
-                System.out.println("Activation of the input method engine has failed.");
-                break;
-            case "ImeNotAvailableException":
-                System.out.println("The Input method engine is not available.");
-                break;
-            case "InvalidArgumentException":
-                System.out.println("An invalid argument was passed");
-                break;
-            case "InvalidCookieDomainException":
-                System.out.println("An invalid cookie domain was requested.");
-                break;
-            case "InvalidElementStateException":
-                System.out.println("The element state is invalid.");
-                break;
-            case "InvalidSelectorException":
-                System.out.println("An invalid selector has been used and has caused an exception");
-                break;
-            case "JavascriptException":
-                System.out.println("There has been an exception thrown in JavaScript execution.");
-                break;
-            case "NoAlertPresentException":
-                System.out.println("An alert was expected but has not been detected.");
-                break;
-            case "NoSuchContextException":
-                System.out.println("No such content was found.");
-                break;
-            case "NoSuchCookieException":
-                System.out.println("No such cookie has been found.");
-                break;
-            case "NoSuchElementException":
-                System.out.println("There is no element meeting the definition provided.");
-                break;
-            case "NoSuchFrameException":
-                System.out.println("There is no frame meeting the definition provided.");
-                break;
-            case "NoSuchSessionException":
-                System.out.println("The required session does not exist.");
-                break;
-            case "NoSuchWindowException":
-                System.out.println("There is no window meeting the definition provided.");
-                break;
-            case "NotFoundException":
-                System.out.println("The element was not found.");
-                break;
-            case "ScriptTimeoutException":
-                System.out.println("A JavaScript has timed out.");
-                break;
-            case "SessionNotCreatedException":
-                System.out.println("The required session was not created.");
-                break;
-            case "StaleElementReferenceException":
-                System.out.println("Element has a stale reference.");
-                break;
-            case "TimeoutException":
-                System.out.println("The driver has encountered a timeout.");
-                break;
-            case "UnableToSetCookieException":
-                System.out.println("Unable to set the required cookie.");
-                break;
-            case "UnsupportedCommandException":
-                System.out.println("The command sent was unsupported.");
-                break;
-            case "WebDriverException":
-                System.out.println("The WebDriver has encountered an exception.");
+        String explanation = explain(ex.getClass());
+        if (explanation != null) {
+            RatLog.human(explanation);
+        }
+        if (ex instanceof MoveTargetOutOfBoundsException && PlatformUtil.isWindows()) {
+            RatLog.human("If using Internet Explorer, please check that zoom settings are set to 100%.");
+            RatLog.human("If using Parallels, please change the resolution setting to 'Scaled'.");
+        }
+
+        ErrorRule rule = policy.ruleFor(ex.getClass());
+        FailureArtifacts collector = artifacts;
+        if (collector != null && driver != null && rule.getAction() != ErrorAction.Retry) {
+            collector.capture(driver, ex, module, method);
+        }
+        switch (rule.getAction()) {
+            case Quit:
+                RatLog.human("The browser session is being closed.");
+                if (driver != null) {
+                    driver.quit();
+                }
                 break;
-            case "MoveTargetOutOfBoundsException":
-                System.out.println("The requested action results in the cursor moving off screen.");
-                if (PlatformUtil.isWindows()) {
-                    System.out.println("If using Internet Explorer, please check that zoom settings are set to 100%.");
-                    System.out.println("If using Parallels, please change the resolution setting to 'Scaled'.");
+            case Rethrow:
+                if (ex instanceof RuntimeException) {
+                    throw (RuntimeException) ex;
                 }
+                throw new WebDriverException(ex);
+            default:
                 break;
-            case "InvalidCoordinatesException":
-                System.out.println("The coordinates passed are invalid.");
         }
+    }
+
+    private static String explain(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            String explanation = explanations.get(current);
+            if (explanation != null) {
+                return explanation;
+            }
+        }
+        return null;
+    }
 
-        driver.quit();
+    /**
+     * The errors handled on one thread
+     */
+    private static final class HandledErrors {
+        int count;
+        Throwable last;
     }
 }
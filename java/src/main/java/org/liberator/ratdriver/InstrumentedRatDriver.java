@@ -0,0 +1,240 @@
+package org.liberator.ratdriver;
+
+import org.liberator.ratdriver.enums.CommandOutcome;
+import org.liberator.ratdriver.performance.RatClock;
+import org.liberator.ratdriver.performance.RatCommandEvent;
+import org.liberator.ratdriver.performance.RatCommandMetrics;
+import org.liberator.ratdriver.performance.RatCommandStats;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An opt-in decorator that records the latency, outcome and call count of every IRatDriver command.
+ * <p>
+ * Each interface method is bound on its first call to a MethodHandle on the wrapped driver and to the statistics
+ * for its command, so later calls cost two clock readings, one map lookup and a few atomic increments. Commands are
+ * named by their signature (see signature), so each overload has its own statistics.
+ * Each call is also reported as a RatCommandEvent when a Flight Recorder recording is running.
+ * <p>
+ * Lookups and waits that take a locator (see isRetryable) are run through the ErrorHandler's policy, so that when
+ * they fail with an exception the policy marks for retry they are run again after its pause. Each attempt is recorded
+ * separately. Every other command is run once.
+ */
+@SuppressWarnings("unused")
+public class InstrumentedRatDriver implements InvocationHandler {
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /**
+     * The names of the commands that only read the page or wait on it
+     */
+    private static final String[] IDEMPOTENT_PREFIXES = {"find", "get", "waitFor", "extract", "elementExists", "has",
+            "is", "are", "contains", "compare", "childElementCount"};
+
+    private final IRatDriver target;
+    private final RatCommandMetrics metrics;
+    private final RatClock clock;
+    private final ConcurrentMap<Method, Binding> bindings = new ConcurrentHashMap<>();
+
+    private InstrumentedRatDriver(IRatDriver target, RatCommandMetrics metrics) {
+        this.target = target;
+        this.metrics = metrics;
+        this.clock = metrics.getClock();
+    }
+
+    /**
+     * Wraps a driver so that every command is recorded into a new set of metrics
+     * @param driver The driver to wrap
+     * @return An instrumented driver
+     */
+    public static IRatDriver instrument(IRatDriver driver) {
+        return instrument(driver, new RatCommandMetrics());
+    }
+
+    /**
+     * Wraps a driver so that every command is recorded into a set of metrics
+     * @param driver The driver to wrap
+     * @param metrics The metrics to record into. May be shared between several drivers.
+     * @return An instrumented driver
+     */
+    public static IRatDriver instrument(IRatDriver driver, RatCommandMetrics metrics) {
+        return (IRatDriver) Proxy.newProxyInstance(IRatDriver.class.getClassLoader(),
+                new Class<?>[]{IRatDriver.class},
+                new InstrumentedRatDriver(driver, metrics));
+    }
+
+    /**
+     * Gets the metrics recorded by an instrumented driver
+     * @param driver A driver returned by instrument
+     * @return The metrics, or null if the driver is not instrumented
+     */
+    public static RatCommandMetrics metricsOf(IRodent driver) {
+        if (driver != null && Proxy.isProxyClass(driver.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(driver);
+            if (handler instanceof InstrumentedRatDriver) {
+                return ((InstrumentedRatDriver) handler).metrics;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the driver wrapped by an instrumented driver
+     * @param driver A driver returned by instrument
+     * @return The wrapped driver, or the driver itself if it is not instrumented
+     */
+    public static IRatDriver unwrap(IRatDriver driver) {
+        if (driver != null && Proxy.isProxyClass(driver.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(driver);
+            if (handler instanceof InstrumentedRatDriver) {
+                return ((InstrumentedRatDriver) handler).target;
+            }
+        }
+        return driver;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Binding binding = bindings.get(method);
+        if (binding == null) {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, method, args);
+            }
+            binding = bindings.computeIfAbsent(method, this::bind);
+        }
+
+        if (!binding.retryable) {
+            return run(binding, args);
+        }
+        Binding bound = binding;
+        return ErrorHandler.getPolicy().execute(() -> {
+            try {
+                return run(bound, args);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new UndeclaredThrowableException(ex);
+            }
+        });
+    }
+
+    /**
+     * Runs a command once, recording its latency and outcome
+     */
+    private Object run(Binding binding, Object[] args) throws Throwable {
+        RatCommandEvent event = new RatCommandEvent();
+        event.begin();
+        int errorsBefore = ErrorHandler.handledErrorCount();
+        long start = clock.nanoTime();
+        Object result;
+        try {
+            result = binding.handle.invokeExact(args == null ? NO_ARGUMENTS : args);
+        } catch (Throwable ex) {
+            binding.stats.record(clock.nanoTime() - start, CommandOutcome.Exception);
+            commitEvent(event, binding, CommandOutcome.Exception);
+            throw ex;
+        }
+        CommandOutcome outcome = ErrorHandler.handledErrorCount() != errorsBefore ? CommandOutcome.HandledError : CommandOutcome.Success;
+        binding.stats.record(clock.nanoTime() - start, outcome);
+        commitEvent(event, binding, outcome);
+        return result;
+    }
+
+    private static void commitEvent(RatCommandEvent event, Binding binding, CommandOutcome outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = binding.stats.getName();
+            event.outcome = outcome.name();
+            event.commit();
+        }
+    }
+
+    private Binding bind(Method method) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method)
+                    .bindTo(target)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new Binding(handle, metrics.getCommand(signature(method)), isRetryable(method));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Unable to bind the command " + method.getName(), ex);
+        }
+    }
+
+    /**
+     * Names a command by its method name and parameter types, such as clickElement(By,Boolean), so that each overload
+     * is recorded separately
+     * @param method The interface method
+     * @return The command's name
+     */
+    public static String signature(Method method) {
+        StringJoiner parameters = new StringJoiner(",", method.getName() + "(", ")");
+        for (Class<?> type : method.getParameterTypes()) {
+            parameters.add(type.getSimpleName());
+        }
+        return parameters.toString();
+    }
+
+    /**
+     * Decides whether a command can safely be run again after it fails: lookups and waits that find their elements
+     * by a locator. Commands that act on the page, and commands given a WebElement, which stays stale however often
+     * it is retried, are run once.
+     * @param method The interface method
+     * @return Whether the command is retried under the ErrorHandler's policy
+     */
+    public static boolean isRetryable(Method method) {
+        boolean locator = false;
+        for (Class<?> type : method.getParameterTypes()) {
+            if (WebElement.class.isAssignableFrom(type)) {
+                return false;
+            }
+            locator |= By.class.isAssignableFrom(type);
+        }
+        if (!locator) {
+            return false;
+        }
+        for (String prefix : IDEMPOTENT_PREFIXES) {
+            if (method.getName().startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return "Instrumented " + target;
+        }
+    }
+
+    /**
+     * A command bound to the wrapped driver and to the statistics it records into
+     */
+    private static final class Binding {
+        final MethodHandle handle;
+        final RatCommandStats stats;
+        final boolean retryable;
+
+        Binding(MethodHandle handle, RatCommandStats stats, boolean retryable) {
+            this.handle = handle;
+            this.stats = stats;
+            this.retryable = retryable;
+        }
+    }
+}
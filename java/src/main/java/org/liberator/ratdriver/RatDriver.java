@@ -8,15 +8,25 @@ import org.liberator.ratdriver.entities.DomRectangle;
 import org.liberator.ratdriver.entities.ElementSize;
 import org.liberator.ratdriver.entities.HeightWidth;
 import org.liberator.ratdriver.enums.*;
+import org.liberator.ratdriver.logging.RatLog;
+import org.liberator.ratdriver.performance.RatClock;
+import org.liberator.ratdriver.performance.RatMetricsRegistry;
+import org.liberator.ratdriver.performance.RatNavigationEvent;
+import org.liberator.ratdriver.performance.RatScreenshotEvent;
+import org.liberator.ratdriver.performance.RatSpan;
+import org.liberator.ratdriver.performance.RatTracer;
+import org.liberator.ratdriver.performance.RatWaitEvent;
 import org.liberator.ratdriver.performance.RatWatch;
 import org.liberator.ratdriver.preferences.BasePreferences;
-import org.liberator.ratdriver.settings.BaseSettings;
+import org.liberator.ratdriver.sessions.RatSessionRegistry;
+import org.liberator.ratdriver.settings.RatSessionConfig;
 import org.openqa.selenium.*;
 import org.openqa.selenium.firefox.FirefoxProfile;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.interactions.MoveTargetOutOfBoundsException;
 import org.openqa.selenium.logging.LogEntries;
 import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -24,6 +34,8 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 @SuppressWarnings("unused")
@@ -115,6 +127,7 @@ public class RatDriver implements IRatDriver {
     /**
      * Contains timers for
      */
+    @Getter
     private RatWatch RatTimerCollection;
 
     /**
@@ -131,6 +144,40 @@ public class RatDriver implements IRatDriver {
     @Setter
     private WebDriver EncapsulatedDriver;
 
+    /**
+     * The number of RatDriver sessions started and not yet quit in this JVM
+     */
+    private static final AtomicInteger LiveSessions = new AtomicInteger();
+
+    /**
+     * Whether this instance is counted in the live sessions
+     */
+    private final AtomicBoolean sessionLive = new AtomicBoolean();
+
+    /**
+     * Quits the browser within a time, and quits it if this instance is garbage collected without being quit
+     */
+    private RatSessionRegistry.Registration registration;
+
+    /**
+     * Traces nested operations, such as the waits made inside clickLinkAndWaitForUrl. Disabled until a listener is added.
+     */
+    @Getter
+    private final RatTracer Tracer = new RatTracer();
+
+    /**
+     * The settings this session was started with, which its waits and timeouts are read from
+     */
+    @Getter
+    private RatSessionConfig Config = RatSessionConfig.fromSettings();
+
+    /**
+     * The preferences this session was started with, which a recycled browser is started with too
+     */
+    @Getter
+    @Setter
+    private BasePreferences Preferences;
+
     //endregion
 
 
@@ -141,19 +188,24 @@ public class RatDriver implements IRatDriver {
 
             if (RecordPerformance) {
                 initialiseRatWatch(false);
-                RatTimerCollection.StartTimer();
             }
 
             establishDriverType(type, null);
+            registerSession();
 
             if (RecordPerformance) {
-                RatTimerCollection.StopTimer(Timing.Instantiation);
+                if (EncapsulatedDriver != null) {
+                    RatTimerCollection.StopTimer(Timing.Instantiation);
+                } else {
+                    discardTimer();
+                }
             }
 
 
             WindowHandles.put(EncapsulatedDriver.getTitle(), EncapsulatedDriver.getWindowHandle());
         } catch (Exception ex) {
-            System.out.println("An unexpected error has been detected.");
+            discardTimer();
+            RatLog.human("An unexpected error has been detected.");
         }
     }
 
@@ -161,33 +213,46 @@ public class RatDriver implements IRatDriver {
         try {
             if (RecordPerformance) {
                 initialiseRatWatch(false);
-                RatTimerCollection.StartTimer();
             }
             establishDriverType(type, preferences);
+            registerSession();
             if (RecordPerformance) {
-                RatTimerCollection.StopTimer(Timing.Instantiation);
+                if (EncapsulatedDriver != null) {
+                    RatTimerCollection.StopTimer(Timing.Instantiation);
+                } else {
+                    discardTimer();
+                }
             }
 
             WindowHandles.put(EncapsulatedDriver.getTitle(), EncapsulatedDriver.getWindowHandle());
         } catch (Exception ex) {
-            System.out.println("An unexpected error has been detected.");
+            discardTimer();
+            RatLog.human("An unexpected error has been detected.");
         }
     }
 
     public RatDriver(DriverType type, BasePreferences preferences, Boolean performanceTimings) {
+        WindowHandles = new Hashtable<>();
         try {
+            RecordPerformance = performanceTimings;
             if (RecordPerformance) {
                 initialiseRatWatch(performanceTimings);
                 RatTimerCollection.StartTimer();
             }
             establishDriverType(type, preferences);
+            registerSession();
             if (RecordPerformance) {
-                RatTimerCollection.StopTimer(Timing.Instantiation);
+                if (EncapsulatedDriver != null) {
+                    RatTimerCollection.StopTimer(Timing.Instantiation);
+                } else {
+                    discardTimer();
+                }
             }
 
             WindowHandles.put(EncapsulatedDriver.getTitle(), EncapsulatedDriver.getWindowHandle());
         } catch (Exception ex) {
-            System.out.println("An unexpected error has been detected.");
+            discardTimer();
+            RatLog.human("An unexpected error has been detected.");
         }
     }
 
@@ -202,9 +267,14 @@ public class RatDriver implements IRatDriver {
             }
 
             establishDriverType(type, null);
+            registerSession();
 
             if (RecordPerformance) {
-                RatTimerCollection.StopTimer(Timing.Instantiation);
+                if (EncapsulatedDriver != null) {
+                    RatTimerCollection.StopTimer(Timing.Instantiation);
+                } else {
+                    discardTimer();
+                }
             }
 
             if (EncapsulatedDriver.getTitle().length() == 0) {
@@ -214,7 +284,44 @@ public class RatDriver implements IRatDriver {
             }
             WindowHandles.put(title, EncapsulatedDriver.getWindowHandle());
         } catch (Exception ex) {
-            System.out.println("An unexpected error has been detected.");
+            discardTimer();
+            RatLog.human("An unexpected error has been detected.");
+        }
+    }
+
+    /**
+     * Wraps a driver that has already been started, for example by a session pool
+     *
+     * @param driver             The started driver
+     * @param type               The type of the driver
+     * @param performanceTimings Whether to record performance statistics
+     */
+    public RatDriver(WebDriver driver, DriverType type, Boolean performanceTimings) {
+        this(driver, type, performanceTimings, RatSessionConfig.fromSettings());
+    }
+
+    /**
+     * Wraps a driver that has already been started with the given settings
+     *
+     * @param driver             The started driver
+     * @param type               The type of the driver
+     * @param performanceTimings Whether to record performance statistics
+     * @param config             The settings the driver was started with
+     */
+    public RatDriver(WebDriver driver, DriverType type, Boolean performanceTimings, RatSessionConfig config) {
+        WindowHandles = new Hashtable<>();
+        try {
+            Config = config != null ? config : RatSessionConfig.fromSettings();
+            RecordPerformance = performanceTimings;
+            if (RecordPerformance) {
+                RatTimerCollection = new RatWatch();
+            }
+            DriverName = type.name();
+            EncapsulatedDriver = driver;
+            registerSession();
+            WindowHandles.put(EncapsulatedDriver.getTitle(), EncapsulatedDriver.getWindowHandle());
+        } catch (Exception ex) {
+            ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "RatDriver", "Could not wrap the driver.");
         }
     }
 
@@ -926,9 +1033,9 @@ public class RatDriver implements IRatDriver {
     public WebDriver returnEncapsulatedDriver() {
         try {
             EncapsulatedDriver = Driver;
-            EncapsulatedDriver.manage().timeouts().pageLoadTimeout(BaseSettings.PageLoad, TimeUnit.SECONDS);
-            EncapsulatedDriver.manage().timeouts().implicitlyWait(BaseSettings.ImplicitWait, TimeUnit.SECONDS);
-            EncapsulatedDriver.manage().timeouts().setScriptTimeout(BaseSettings.AsyncJavaScript, TimeUnit.SECONDS);
+            EncapsulatedDriver.manage().timeouts().pageLoadTimeout(Config.getPageLoad(), TimeUnit.SECONDS);
+            EncapsulatedDriver.manage().timeouts().implicitlyWait(Config.getImplicitWait(), TimeUnit.SECONDS);
+            EncapsulatedDriver.manage().timeouts().setScriptTimeout(Config.getAsyncJavaScript(), TimeUnit.SECONDS);
             return EncapsulatedDriver;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "returnEncapsulatedDriver", "Could not return encapsulated driver.");
@@ -946,7 +1053,7 @@ public class RatDriver implements IRatDriver {
     public Boolean doesCookieExist(String cookieName) {
         try {
             EncapsulatedDriver.manage().getCookieNamed(cookieName);
-            System.out.println("Named cookie exists");
+            RatLog.human("Named cookie exists");
             return true;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "doesCookieExist", "Named cookie does not exist");
@@ -965,9 +1072,9 @@ public class RatDriver implements IRatDriver {
         try {
             Cookie cookie = new Cookie(name, value);
             EncapsulatedDriver.manage().addCookie(cookie);
-            System.out.println("Named cookie was added.");
+            RatLog.human("Named cookie was added.");
         } catch (Exception ex) {
-            System.out.println("Named cookie was not added.");
+            RatLog.human("Named cookie was not added.");
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "addCookie", "Named cookie was not added.");
         }
     }
@@ -984,9 +1091,9 @@ public class RatDriver implements IRatDriver {
         try {
             Cookie cookie = new Cookie(name, value, path);
             EncapsulatedDriver.manage().addCookie(cookie);
-            System.out.println("Named cookie was added.");
+            RatLog.human("Named cookie was added.");
         } catch (Exception ex) {
-            System.out.println("Named cookie was not added.");
+            RatLog.human("Named cookie was not added.");
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "addCookie", "Named cookie was not added.");
         }
     }
@@ -1004,7 +1111,7 @@ public class RatDriver implements IRatDriver {
         try {
             Cookie cookie = new Cookie(name, value, path, expiry);
             EncapsulatedDriver.manage().addCookie(cookie);
-            System.out.println("Named cookie was added.");
+            RatLog.human("Named cookie was added.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "addCookie", "Named cookie was not added.");
         }
@@ -1024,7 +1131,7 @@ public class RatDriver implements IRatDriver {
         try {
             Cookie cookie = new Cookie(name, value, domain, path, expiry);
             EncapsulatedDriver.manage().addCookie(cookie);
-            System.out.println("Named cookie was added.");
+            RatLog.human("Named cookie was added.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "addCookie", "Named cookie was not added.");
         }
@@ -1039,7 +1146,7 @@ public class RatDriver implements IRatDriver {
     public void addCookie(Cookie cookie) {
         try {
             EncapsulatedDriver.manage().addCookie(cookie);
-            System.out.println("Named cookie was added.");
+            RatLog.human("Named cookie was added.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "addCookie", "Named cookie was not added.");
         }
@@ -1054,7 +1161,7 @@ public class RatDriver implements IRatDriver {
     public Set<Cookie> getCookies() {
         try {
             Set<Cookie> cookies = EncapsulatedDriver.manage().getCookies();
-            System.out.println("Cookie set returned.");
+            RatLog.human("Cookie set returned.");
             return cookies;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getCookies", "Could not return the cookies.");
@@ -1069,7 +1176,7 @@ public class RatDriver implements IRatDriver {
     public void deleteAllCookies() {
         try {
             EncapsulatedDriver.manage().deleteAllCookies();
-            System.out.println("All cookies deleted.");
+            RatLog.human("All cookies deleted.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "deleteAllCookies", "Could not delete all cookies.");
         }
@@ -1084,7 +1191,7 @@ public class RatDriver implements IRatDriver {
     public void deleteCookie(Cookie cookie) {
         try {
             EncapsulatedDriver.manage().deleteCookie(cookie);
-            System.out.println("Cookie was deleted.");
+            RatLog.human("Cookie was deleted.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "deleteCookieNamed", "Cookie was not deleted.");
         }
@@ -1099,7 +1206,7 @@ public class RatDriver implements IRatDriver {
     public void deleteCookieNamed(String cookie) {
         try {
             EncapsulatedDriver.manage().deleteCookieNamed(cookie);
-            System.out.println("Cookie was deleted.");
+            RatLog.human("Cookie was deleted.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "deleteCookieNamed", "Cookie was not deleted.");
         }
@@ -1115,7 +1222,7 @@ public class RatDriver implements IRatDriver {
     public Cookie getCookieNamed(String cookie) {
         try {
             Cookie returnedCookie = EncapsulatedDriver.manage().getCookieNamed(cookie);
-            System.out.println("Cookie was returned.");
+            RatLog.human("Cookie was returned.");
             return returnedCookie;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getCookieNamed", "Cookie could not be returned.");
@@ -1210,7 +1317,7 @@ public class RatDriver implements IRatDriver {
     public Set<String> getAvailableLogTypes() {
         try {
             Set<String> logTypes = EncapsulatedDriver.manage().logs().getAvailableLogTypes();
-            System.out.println("Returning log types.");
+            RatLog.human("Returning log types.");
             return logTypes;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getAvailableLogTypes", "Could not return log types.");
@@ -1228,7 +1335,7 @@ public class RatDriver implements IRatDriver {
     public List<LogEntry> getAvailableLogEntries(String logKind) {
         try {
             LogEntries log = EncapsulatedDriver.manage().logs().get(logKind);
-            System.out.println("Returning log entries.");
+            RatLog.human("Returning log entries.");
             return log.getAll();
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getAvailableLogEntries", "Could not return log entries.");
@@ -1248,7 +1355,7 @@ public class RatDriver implements IRatDriver {
         try {
             long millis = (minutes * 60 + seconds) * 1000 + milliseconds;
             EncapsulatedDriver.manage().timeouts().implicitlyWait(millis, TimeUnit.MILLISECONDS);
-            System.out.println("Set implicit timeout.");
+            RatLog.human("Set implicit timeout.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "setImplicitWait", "Could not set implicit timeout.");
         }
@@ -1266,7 +1373,7 @@ public class RatDriver implements IRatDriver {
         try {
             long millis = (minutes * 60 + seconds) * 1000 + milliseconds;
             EncapsulatedDriver.manage().timeouts().pageLoadTimeout(millis, TimeUnit.MILLISECONDS);
-            System.out.println("Set page load timeout.");
+            RatLog.human("Set page load timeout.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "setPageLoadTimeout", "Could not set page load timeout.");
         }
@@ -1284,7 +1391,7 @@ public class RatDriver implements IRatDriver {
         try {
             long millis = (minutes * 60 + seconds) * 1000 + milliseconds;
             EncapsulatedDriver.manage().timeouts().setScriptTimeout(millis, TimeUnit.MILLISECONDS);
-            System.out.println("Set script timeout.");
+            RatLog.human("Set script timeout.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "setScriptTimeout", "Could not set script timeout.");
         }
@@ -1297,7 +1404,7 @@ public class RatDriver implements IRatDriver {
     public void maximiseView() {
         try {
             EncapsulatedDriver.manage().window().maximize();
-            System.out.println("Browser window was maximised.");
+            RatLog.human("Browser window was maximised.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "maximiseView", "Browser window could not be maximised.");
         }
@@ -1312,7 +1419,7 @@ public class RatDriver implements IRatDriver {
     public Point getWindowPosition() {
         try {
             Point point = EncapsulatedDriver.manage().window().getPosition();
-            System.out.println("Browser window was maximised.");
+            RatLog.human("Browser window was maximised.");
             return point;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getWindowPosition", "Browser window could not be maximised.");
@@ -1329,7 +1436,7 @@ public class RatDriver implements IRatDriver {
     public Dimension getWindowSize() {
         try {
             Dimension dimension = EncapsulatedDriver.manage().window().getSize();
-            System.out.println("Browser size was returned.");
+            RatLog.human("Browser size was returned.");
             return dimension;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getWindowSize", "Browser size could not be returned.");
@@ -1348,7 +1455,7 @@ public class RatDriver implements IRatDriver {
         try {
             Dimension dimension = new Dimension(width, height);
             EncapsulatedDriver.manage().window().setSize(dimension);
-            System.out.println("Browser was resized.");
+            RatLog.human("Browser was resized.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "resizeBrowserWindow", "Browser could not be resized.");
         }
@@ -1359,11 +1466,15 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void pressBackButton() {
+        RatNavigationEvent event = new RatNavigationEvent();
+        event.begin();
         try {
             EncapsulatedDriver.navigate().back();
-            System.out.println("Back button was pressed.");
+            RatLog.human("Back button was pressed.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "pressBackButton", "Back button could not be pressed.");
+        } finally {
+            commitNavigation(event, "back", null);
         }
     }
 
@@ -1372,11 +1483,15 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void pressForwardButton() {
+        RatNavigationEvent event = new RatNavigationEvent();
+        event.begin();
         try {
             EncapsulatedDriver.navigate().forward();
-            System.out.println("Forward button was pressed.");
+            RatLog.human("Forward button was pressed.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "pressForwardButton", "Forward button could not be pressed.");
+        } finally {
+            commitNavigation(event, "forward", null);
         }
     }
 
@@ -1387,15 +1502,22 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void navigateToPage(String url) {
+        RatNavigationEvent event = new RatNavigationEvent();
+        RatSpan span = Tracer.startSpan("navigateToPage").tag("url", url);
+        event.begin();
         try {
             if (!DriverName.toLowerCase().contains("internetexplorer")) {
                 EncapsulatedDriver.navigate().to(url);
             } else {
                 EncapsulatedDriver.get(url);
             }
-            System.out.println("\nNavigation request sent");
+            RatLog.human("Navigation request sent");
         } catch (Exception ex) {
+            span.fail();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "navigateToPage", "Could not send navigation request.");
+        } finally {
+            commitNavigation(event, "navigate", url);
+            Tracer.endSpan(span);
         }
     }
 
@@ -1404,11 +1526,15 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void refreshBrowser() {
+        RatNavigationEvent event = new RatNavigationEvent();
+        event.begin();
         try {
             EncapsulatedDriver.navigate().refresh();
-            System.out.println("\nRefresh request was sent.");
+            RatLog.human("Refresh request was sent.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "refreshBrowser", "Refresh request was not sent.");
+        } finally {
+            commitNavigation(event, "refresh", null);
         }
     }
 
@@ -1422,7 +1548,7 @@ public class RatDriver implements IRatDriver {
     public Boolean checkPageSourceForText(String text) {
         try {
             boolean contains = EncapsulatedDriver.getPageSource().contains(text);
-            System.out.println("\nPage source checked for presence of text.");
+            RatLog.human("Page source checked for presence of text.");
             return contains;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "checkPageSourceForText", "Could not check page source for presence of text.");
@@ -1439,7 +1565,7 @@ public class RatDriver implements IRatDriver {
     public String getPageSource() {
         try {
             String pageSource = EncapsulatedDriver.getPageSource();
-            System.out.println("\nPage source requested.");
+            RatLog.human("Page source requested.");
             return pageSource;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getPageSource", "Page source could not be requested.");
@@ -1453,8 +1579,13 @@ public class RatDriver implements IRatDriver {
     @Override
     public void closePagesAndQuitDriver() {
         try {
-            EncapsulatedDriver.quit();
-            System.out.println("\nTerminated driver.");
+            sessionLive.set(false);
+            if (registration != null) {
+                registration.quit();
+            } else {
+                EncapsulatedDriver.quit();
+            }
+            RatLog.human("Terminated driver.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "closePagesAndQuitDriver", "Could not terminate driver.");
         }
@@ -1470,7 +1601,7 @@ public class RatDriver implements IRatDriver {
     public Boolean isWindowOpen(String window) {
         try {
             EncapsulatedDriver.switchTo().window(window);
-            System.out.println("\nWindow presence confirmed.");
+            RatLog.human("Window presence confirmed.");
             return true;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "isWindowOpen", "Could not confirm window presence.");
@@ -1485,7 +1616,7 @@ public class RatDriver implements IRatDriver {
     public void switchToActiveWebElement() {
         try {
             EncapsulatedDriver.switchTo().activeElement();
-            System.out.println("\nSwitched to active element.");
+            RatLog.human("Switched to active element.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToActiveWebElement", "Could not switch to active element.");
         }
@@ -1498,7 +1629,7 @@ public class RatDriver implements IRatDriver {
     public void switchToAlertDialog() {
         try {
             EncapsulatedDriver.switchTo().alert();
-            System.out.println("Switched to alert.");
+            RatLog.human("Switched to alert.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToAlertDialog", "Could not switch to alert.");
         }
@@ -1513,7 +1644,7 @@ public class RatDriver implements IRatDriver {
     public void switchToDefaultContent() {
         try {
             EncapsulatedDriver.switchTo().defaultContent();
-            System.out.println("Switched to default content.");
+            RatLog.human("Switched to default content.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToDefaultContent", "Could not switch to default content.");
         }
@@ -1528,7 +1659,7 @@ public class RatDriver implements IRatDriver {
     public void switchToFrame(int frameIndex) {
         try {
             EncapsulatedDriver.switchTo().frame(frameIndex);
-            System.out.println("Switched to frame with given index.");
+            RatLog.human("Switched to frame with given index.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToFrame", "Could not switch to a frame with that index.");
         }
@@ -1543,7 +1674,7 @@ public class RatDriver implements IRatDriver {
     public void switchToFrame(WebElement frameElement) {
         try {
             EncapsulatedDriver.switchTo().frame(frameElement);
-            System.out.println("Switched to the chosen frame element.");
+            RatLog.human("Switched to the chosen frame element.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToFrame", "Could not switch to the web element.");
         }
@@ -1559,7 +1690,7 @@ public class RatDriver implements IRatDriver {
         try {
             WebElement webElement = EncapsulatedDriver.findElement(frameLocator);
             EncapsulatedDriver.switchTo().frame(webElement);
-            System.out.println("Switched to the chosen frame element.");
+            RatLog.human("Switched to the chosen frame element.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToFrame", "Could not switch to the web element.");
         }
@@ -1574,7 +1705,7 @@ public class RatDriver implements IRatDriver {
     public void switchToFrame(String frameName) {
         try {
             EncapsulatedDriver.switchTo().frame(frameName);
-            System.out.println("Switched to the named frame element.");
+            RatLog.human("Switched to the named frame element.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToFrame", "Could not switch to a frame with thew given name.");
         }
@@ -1587,7 +1718,7 @@ public class RatDriver implements IRatDriver {
     public void switchToParentFrame() {
         try {
             EncapsulatedDriver.switchTo().parentFrame();
-            System.out.println("Switched to the parent frame.");
+            RatLog.human("Switched to the parent frame.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToParentFrame", "Could not switch to the parent frame.");
         }
@@ -1602,7 +1733,7 @@ public class RatDriver implements IRatDriver {
     public void switchToWindow(String windowName) {
         try {
             EncapsulatedDriver.switchTo().window(windowName);
-            System.out.println("Switched to the window.");
+            RatLog.human("Switched to the window.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "switchToWindow", "Could not switch to the window.");
         }
@@ -1617,7 +1748,7 @@ public class RatDriver implements IRatDriver {
     public String getBrowserWindowTitle() {
         try {
             String title = EncapsulatedDriver.getTitle();
-            System.out.println("Returned the browser window title.");
+            RatLog.human("Returned the browser window title.");
             return title;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getBrowserWindowTitle", "Could not return the browser window title.");
@@ -1634,7 +1765,7 @@ public class RatDriver implements IRatDriver {
     public String getBrowserWindowUrl() {
         try {
             String windowUrl = EncapsulatedDriver.getCurrentUrl();
-            System.out.println("Returned the url for the current browser window.");
+            RatLog.human("Returned the url for the current browser window.");
             return windowUrl;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getBrowserWindowUrl", "Could not return the current url.");
@@ -1651,7 +1782,7 @@ public class RatDriver implements IRatDriver {
     public String getCurrentWindowHandle() {
         try {
             String windowUrl = EncapsulatedDriver.getWindowHandle();
-            System.out.println("Returned the handle for the current browser window.");
+            RatLog.human("Returned the handle for the current browser window.");
             return windowUrl;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getCurrentWindowHandle", "Could not return the current window handle.");
@@ -1668,7 +1799,7 @@ public class RatDriver implements IRatDriver {
     public Set<String> getAllWindowHandles() {
         try {
             Set<String> handles = EncapsulatedDriver.getWindowHandles();
-            System.out.println("Returned the handle for the current browser window.");
+            RatLog.human("Returned the handle for the current browser window.");
             return handles;
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "getAllWindowHandles", "Could not return the current window handle.");
@@ -1699,7 +1830,7 @@ public class RatDriver implements IRatDriver {
                 Element.sendKeys(Keys.chord(Keys.CONTROL, "t"));
             }
 
-            System.out.println("Opened a new tab.");
+            RatLog.human("Opened a new tab.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "openNewView", "Could not open a new tab.");
         }
@@ -1712,7 +1843,7 @@ public class RatDriver implements IRatDriver {
     public void closeView() {
         try {
             EncapsulatedDriver.close();
-            System.out.println("Closed the open view.");
+            RatLog.human("Closed the open view.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "closeView", "Could not close the current view.");
         }
@@ -1726,9 +1857,8 @@ public class RatDriver implements IRatDriver {
     @Override
     public void waitForElementToLoad(WebElement element) {
         try {
-            WebDriverWait webDriverWait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            webDriverWait.until(ExpectedConditions.visibilityOf(element));
-            System.out.println("Element confirmed as visible.");
+            waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForElementToLoad", ExpectedConditions.visibilityOf(element));
+            RatLog.human("Element confirmed as visible.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "waitForElementToLoad", "Element was not visible within the timeout period.");
         }
@@ -1742,9 +1872,8 @@ public class RatDriver implements IRatDriver {
     @Override
     public void waitForElementToLoad(By locator) {
         try {
-            WebDriverWait webDriverWait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            webDriverWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-            System.out.println("Element confirmed as visible.");
+            waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForElementToLoad", ExpectedConditions.visibilityOfElementLocated(locator));
+            RatLog.human("Element confirmed as visible.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "waitForElementToLoad", "Element was not visible within the timeout period.");
         }
@@ -1759,9 +1888,8 @@ public class RatDriver implements IRatDriver {
     @Override
     public void waitForElementToLoad(WebElement element, int seconds) {
         try {
-            WebDriverWait webDriverWait = new WebDriverWait(EncapsulatedDriver, seconds);
-            webDriverWait.until(ExpectedConditions.visibilityOf(element));
-            System.out.println("Element confirmed as visible.");
+            waitUntil(EncapsulatedDriver, seconds, "waitForElementToLoad", ExpectedConditions.visibilityOf(element));
+            RatLog.human("Element confirmed as visible.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "waitForElementToLoad", "Element was not visible within the timeout period.");
         }
@@ -1776,9 +1904,8 @@ public class RatDriver implements IRatDriver {
     @Override
     public void waitForElementToLoad(By locator, int seconds) {
         try {
-            WebDriverWait webDriverWait = new WebDriverWait(EncapsulatedDriver, seconds);
-            webDriverWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-            System.out.println("Element confirmed as visible.");
+            waitUntil(EncapsulatedDriver, seconds, "waitForElementToLoad", ExpectedConditions.visibilityOfElementLocated(locator));
+            RatLog.human("Element confirmed as visible.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "waitForElementToLoad", "Element was not visible within the timeout period.");
         }
@@ -1792,9 +1919,8 @@ public class RatDriver implements IRatDriver {
     @Override
     public void waitForPageToLoad(WebElement element) {
         try {
-            WebDriverWait webDriverWait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            webDriverWait.until(ExpectedConditions.stalenessOf(element));
-            System.out.println("Element confirmed as visible.");
+            waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForPageToLoad", ExpectedConditions.stalenessOf(element));
+            RatLog.human("Element confirmed as visible.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "waitForPageToLoad", "Element was not visible within the timeout period.");
         }
@@ -1808,9 +1934,8 @@ public class RatDriver implements IRatDriver {
     @Override
     public void waitForInvisibilityOfElement(By locator) {
         try {
-            WebDriverWait webDriverWait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            webDriverWait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
-            System.out.println("Element confirmed as visible.");
+            waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForInvisibilityOfElement", ExpectedConditions.invisibilityOfElementLocated(locator));
+            RatLog.human("Element confirmed as visible.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "waitForInvisibilityOfElement", "Element was not visible within the timeout period.");
         }
@@ -1825,9 +1950,8 @@ public class RatDriver implements IRatDriver {
     @Override
     public void waitForInvisibilityOfElementWithText(By locator, String text) {
         try {
-            WebDriverWait webDriverWait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            webDriverWait.until(ExpectedConditions.invisibilityOfElementWithText(locator, text));
-            System.out.println("Element confirmed as visible.");
+            waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForInvisibilityOfElementWithText", ExpectedConditions.invisibilityOfElementWithText(locator, text));
+            RatLog.human("Element confirmed as visible.");
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "waitForInvisibilityOfElementWithText", "Element was not visible within the timeout period.");
         }
@@ -1841,6 +1965,7 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void clickLink(WebElement element, Boolean wait) {
+        RatSpan span = Tracer.startSpan("clickLink");
         try {
             if (wait == null || wait) {
                 waitForElementToBeClickable(element);
@@ -1851,7 +1976,10 @@ public class RatDriver implements IRatDriver {
                 Element.click();
             }
         } catch (Exception ex) {
+            span.fail();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "clickLink", "Clicked on the element.");
+        } finally {
+            Tracer.endSpan(span);
         }
     }
 
@@ -1863,6 +1991,7 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void clickLink(By locator, Boolean wait) {
+        RatSpan span = Tracer.startSpan("clickLink").tag("locator", locator);
         try {
             Element = EncapsulatedDriver.findElement(locator);
             if (wait == null || wait) {
@@ -1874,7 +2003,10 @@ public class RatDriver implements IRatDriver {
                 Element.click();
             }
         } catch (Exception ex) {
+            span.fail();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "clickLink", "Clicked on the element.");
+        } finally {
+            Tracer.endSpan(span);
         }
     }
 
@@ -1885,6 +2017,7 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void clickLinkAndWait(WebElement element) {
+        RatSpan span = Tracer.startSpan("clickLinkAndWait");
         try {
             if (RecordPerformance) {
                 RatTimerCollection.StartTimer();
@@ -1899,16 +2032,22 @@ public class RatDriver implements IRatDriver {
             } else {
                 Element.click();
             }
-            System.out.println("Clicked on the element.");
+            RatLog.human("Clicked on the element.");
             waitForPageToLoad(element);
             if (RecordPerformance) {
                 RatTimerCollection.StopTimer(Timing.PageLoad);
             }
         } catch (MoveTargetOutOfBoundsException ex) {
+            discardTimer();
+            span.fail();
             scripts().executeAsyncScript("arguments[0].click();", Element);
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "clickLinkAndWait", "Element is reporting an out of bounds exception.");
         } catch (Exception e) {
+            discardTimer();
+            span.fail();
             ErrorHandler.HandleErrors(EncapsulatedDriver, e, "RatDriver", "clickLinkAndWait", "Could not click on the element.");
+        } finally {
+            Tracer.endSpan(span);
         }
     }
 
@@ -1919,6 +2058,7 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void clickLinkAndWait(By locator) {
+        RatSpan span = Tracer.startSpan("clickLinkAndWait").tag("locator", locator);
         try {
             if (RecordPerformance) {
                 RatTimerCollection.StartTimer();
@@ -1930,13 +2070,17 @@ public class RatDriver implements IRatDriver {
             } else {
                 Element.click();
             }
-            System.out.println("Clicked on the element.");
+            RatLog.human("Clicked on the element.");
             waitForPageToLoad(Element);
             if (RecordPerformance) {
                 RatTimerCollection.StopTimer(Timing.PageLoad);
             }
         } catch (Exception ex) {
+            discardTimer();
+            span.fail();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "clickLinkAndWait", "Could not click on the element.");
+        } finally {
+            Tracer.endSpan(span);
         }
     }
 
@@ -1949,21 +2093,26 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void clickLinkAndWaitForUrl(WebElement element, String url) {
+        RatSpan span = Tracer.startSpan("clickLinkAndWaitForUrl").tag("url", url);
         try {
             if (RecordPerformance) {
                 RatTimerCollection.StartTimer();
             }
             Element = element;
             clickLink(Element, null);
-            System.out.println("Clicked on the element.");
+            RatLog.human("Clicked on the element.");
             waitForPageToLoad(Element);
             waitForUrlToContain(url);
             if (RecordPerformance) {
                 RatTimerCollection.StopTimer(Timing.PageLoad);
             }
-            System.out.println("Url of page confirmed.");
+            RatLog.human("Url of page confirmed.");
         } catch (Exception ex) {
+            discardTimer();
+            span.fail();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "clickLinkAndWaitForUrl", "Failure during attempt to click a link which opens a page.");
+        } finally {
+            Tracer.endSpan(span);
         }
     }
 
@@ -1975,6 +2124,7 @@ public class RatDriver implements IRatDriver {
      */
     @Override
     public void clickLinkAndWaitForUrl(By locator, String url) {
+        RatSpan span = Tracer.startSpan("clickLinkAndWaitForUrl").tag("locator", locator).tag("url", url);
         try {
             if (RecordPerformance) {
                 RatTimerCollection.StartTimer();
@@ -1986,15 +2136,19 @@ public class RatDriver implements IRatDriver {
             } else {
                 Element.click();
             }
-            System.out.println("Clicked on the element.");
+            RatLog.human("Clicked on the element.");
             waitForPageToLoad(Element);
             waitForUrlToContain(url);
             if (RecordPerformance) {
                 RatTimerCollection.StopTimer(Timing.PageLoad);
             }
-            System.out.println("Url of page confirmed.");
+            RatLog.human("Url of page confirmed.");
         } catch (Exception ex) {
+            discardTimer();
+            span.fail();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "clickLinkAndWaitForUrl", "Failure during attempt to click a link which opens a page.");
+        } finally {
+            Tracer.endSpan(span);
         }
     }
 
@@ -2142,6 +2296,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementByCssSelector", "Could not find an element using the CSS Selector");
             return null;
         }
@@ -2169,6 +2324,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementsByCssSelector", "Could not find an element using the CSS Selector");
             return null;
         }
@@ -2199,6 +2355,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByCssSelector", "Could not find an element using the CSS Selector");
             return null;
         }
@@ -2229,6 +2386,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByCssSelector", "Could not find the sub elements using the CSS Selector");
             return null;
         }
@@ -2256,6 +2414,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementByClassName", "Could not find an element using the class name");
             return null;
         }
@@ -2283,6 +2442,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementsByClassName", "Could not find an element using the class name");
             return null;
         }
@@ -2313,6 +2473,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByClassName", "Could not find an element using the class name");
             return null;
         }
@@ -2344,6 +2505,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByClassName", "Could not find an element using the class name");
             return null;
         }
@@ -2371,6 +2533,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementById", "Could not find an element using the id");
             return null;
         }
@@ -2400,6 +2563,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementByLinkText", "Could not find an element using the link text");
             return null;
         }
@@ -2427,6 +2591,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementsByLinkText", "Could not find an element using the link text");
             return null;
         }
@@ -2457,6 +2622,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByLinkText", "Could not find an element using the link text");
             return null;
         }
@@ -2488,6 +2654,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByLinkText", "Could not find an element using the link text");
             return null;
         }
@@ -2515,6 +2682,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementByName", "Could not find an element using the name");
             return null;
         }
@@ -2542,6 +2710,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementsByName", "Could not find an element using the name");
             return null;
         }
@@ -2572,6 +2741,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByName", "Could not find an element using the name");
             return null;
         }
@@ -2603,6 +2773,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByName", "Could not find an element using the name");
             return null;
         }
@@ -2630,6 +2801,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementByPartialLinkText", "Could not find an element using the partial link text");
             return null;
         }
@@ -2657,6 +2829,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementsByPartialLinkText", "Could not find an element using the partial link text");
             return null;
         }
@@ -2687,6 +2860,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByPartialLinkText", "Could not find an element using the partial link text");
             return null;
         }
@@ -2718,6 +2892,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByPartialLinkText", "Could not find an element using the partial link text");
             return null;
         }
@@ -2745,6 +2920,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementByTag", "Could not find an element using the tag name");
             return null;
         }
@@ -2772,6 +2948,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementsByTag", "Could not find an element using the tag name");
             return null;
         }
@@ -2802,6 +2979,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByTag", "Could not find an element using the tag name");
             return null;
         }
@@ -2833,6 +3011,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByTag", "Could not find an element using the tag name");
             return null;
         }
@@ -2860,6 +3039,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementByXPath", "Could not find an element using xpath");
             return null;
         }
@@ -2887,6 +3067,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findElementsByXPath", "Could not find an element using xpath");
             return null;
         }
@@ -2917,6 +3098,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByXPath", "Could not find an element using xpath");
             return null;
         }
@@ -2948,6 +3130,7 @@ public class RatDriver implements IRatDriver {
             }
             return Elements;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "findSubElementsByXPath", "Could not find an element using xpath");
             return null;
         }
@@ -2981,6 +3164,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "extractElementFromCollectionByAttribute", "Unable to extract the element required with defined parameters.");
             return null;
         }
@@ -3015,6 +3199,7 @@ public class RatDriver implements IRatDriver {
             }
             return Element;
         } catch (Exception ex) {
+            discardTimer();
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "extractElementFromCollectionByAttribute", "Unable to extract the element required with defined parameters.");
             return null;
         }
@@ -3041,10 +3226,19 @@ public class RatDriver implements IRatDriver {
     @SuppressWarnings("ResultOfMethodCallIgnored")
     @Override
     public void takeScreenshot(String path) {
+        RatScreenshotEvent event = new RatScreenshotEvent();
+        event.begin();
         try {
             File screenshotFile = ((TakesScreenshot) Driver).getScreenshotAs(OutputType.FILE);
             File destinationFile = new File(path);
             screenshotFile.renameTo(destinationFile);
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = path;
+                event.size = destinationFile.length();
+                event.driverName = DriverName;
+                event.commit();
+            }
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "takeScreenshot", "Unable to save a screenshot.");
         }
@@ -3773,8 +3967,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForAlertToBePresent() {
         try {
-            WebDriverWait wait = new WebDriverWait(this.Driver, BaseSettings.Timeout);
-            Alert alert = wait.until(ExpectedConditions.alertIsPresent());
+            Alert alert = waitUntil(this.Driver, Config.getTimeout(), "waitForAlertToBePresent", ExpectedConditions.alertIsPresent());
             if (alert == null) {
                 throw new Exception("Could not confirm selection of the element required.");
             }
@@ -3793,8 +3986,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementToBeClickable(WebElement element) {
         try {
-            WebDriverWait wait = new WebDriverWait(Driver, BaseSettings.Timeout);
-            WebElement ele = wait.until(ExpectedConditions.elementToBeClickable(element));
+            WebElement ele = waitUntil(Driver, Config.getTimeout(), "waitForElementToBeClickable", ExpectedConditions.elementToBeClickable(element));
             if (ele == null) {
                 throw new Exception("Could not confirm click-ability of the element required.");
             }
@@ -3813,8 +4005,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementToBeClickable(By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(this.Driver, BaseSettings.Timeout);
-            WebElement ele = wait.until(ExpectedConditions.elementToBeClickable(locator));
+            WebElement ele = waitUntil(this.Driver, Config.getTimeout(), "waitForElementToBeClickable", ExpectedConditions.elementToBeClickable(locator));
             if (ele == null) {
                 throw new Exception("Could not confirm click-ability of the element required.");
             }
@@ -3834,8 +4025,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementToBeSelected(By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(this.Driver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.elementToBeSelected(locator));
+            Boolean bool = waitUntil(this.Driver, Config.getTimeout(), "waitForElementToBeSelected", ExpectedConditions.elementToBeSelected(locator));
             if (bool) {
                 throw new Exception("Could not confirm selection of the element required.");
             }
@@ -3854,8 +4044,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementToBeSelected(WebElement element) {
         try {
-            WebDriverWait wait = new WebDriverWait(this.Driver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.elementToBeSelected(element));
+            Boolean bool = waitUntil(this.Driver, Config.getTimeout(), "waitForElementToBeSelected", ExpectedConditions.elementToBeSelected(element));
             if (bool) {
                 throw new Exception("Could not confirm selection of the element required.");
             }
@@ -3874,8 +4063,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementToBeVisible(By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(this.Driver, BaseSettings.Timeout);
-            WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+            WebElement element = waitUntil(this.Driver, Config.getTimeout(), "waitForElementToBeVisible", ExpectedConditions.visibilityOfElementLocated(locator));
             if (element == null) {
                 throw new Exception("Could not confirm visibility of the element required.");
             }
@@ -3895,8 +4083,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementSelectionStateToBe(By locator, Boolean state) {
         try {
-            WebDriverWait wait = new WebDriverWait(this.Driver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.elementSelectionStateToBe(locator, state));
+            Boolean bool = waitUntil(this.Driver, Config.getTimeout(), "waitForElementSelectionStateToBe", ExpectedConditions.elementSelectionStateToBe(locator, state));
             if (bool) {
                 throw new Exception("Could not confirm selection state of the element required.");
             }
@@ -3916,8 +4103,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementSelectionStateToBe(WebElement element, Boolean state) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.elementSelectionStateToBe(element, state));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForElementSelectionStateToBe", ExpectedConditions.elementSelectionStateToBe(element, state));
             if (bool) {
                 throw new Exception("Could not confirm selection state of the element required.");
             }
@@ -3936,8 +4122,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementInvisibility(By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForElementInvisibility", ExpectedConditions.invisibilityOfElementLocated(locator));
             if (bool) {
                 throw new Exception("Could not confirm invisibility of the element required.");
             }
@@ -3957,8 +4142,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForElementInvisibilityWithText(By locator, String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.invisibilityOfElementWithText(locator, text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForElementInvisibilityWithText", ExpectedConditions.invisibilityOfElementWithText(locator, text));
             if (bool) {
                 throw new Exception("Could not confirm invisibility of the element required.");
             }
@@ -3977,8 +4161,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForPresenceOfAllElementsLocatedBy(By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            List<WebElement> elements = wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+            List<WebElement> elements = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForPresenceOfAllElementsLocatedBy", ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
             if (elements.size() == 0) {
                 throw new Exception("Could not confirm presence of the elements required.");
             }
@@ -3997,8 +4180,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForStalenessOf(WebElement element) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.stalenessOf(element));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForStalenessOf", ExpectedConditions.stalenessOf(element));
             if (bool) {
                 throw new Exception("Could not confirm staleness of the element required.");
             }
@@ -4018,8 +4200,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForTextToBePresentInElement(WebElement element, String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.textToBePresentInElement(element, text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForTextToBePresentInElement", ExpectedConditions.textToBePresentInElement(element, text));
             if (bool) {
                 throw new Exception("Text does not appear within the timeout period.");
             }
@@ -4039,8 +4220,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForTextToBePresentInElement(By locator, String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForTextToBePresentInElement", ExpectedConditions.textToBePresentInElementLocated(locator, text));
             if (bool) {
                 throw new Exception("Text does not appear within the timeout period.");
             }
@@ -4060,8 +4240,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForTextToBePresentInElementValue(By locator, String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.textToBePresentInElementValue(locator, text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForTextToBePresentInElementValue", ExpectedConditions.textToBePresentInElementValue(locator, text));
             if (bool) {
                 throw new Exception("Text does not appear within the timeout period.");
             }
@@ -4081,8 +4260,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForTextToBePresentInElementValue(WebElement element, String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.textToBePresentInElementValue(element, text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForTextToBePresentInElementValue", ExpectedConditions.textToBePresentInElementValue(element, text));
             if (bool) {
                 throw new Exception("Text does not appear within the timeout period.");
             }
@@ -4101,8 +4279,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForTitleToContain(String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.titleContains(text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForTitleToContain", ExpectedConditions.titleContains(text));
             if (bool) {
                 throw new Exception("Title does not appear within the timeout period.");
             }
@@ -4121,8 +4298,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForTitleToBe(String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.titleIs(text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForTitleToBe", ExpectedConditions.titleIs(text));
             if (bool) {
                 throw new Exception("Title does not appear within the timeout period.");
             }
@@ -4141,8 +4317,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForUrlToContain(String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.urlContains(text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForUrlToContain", ExpectedConditions.urlContains(text));
             if (bool) {
                 throw new Exception("URL does not appear within the timeout period.");
             }
@@ -4161,8 +4336,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForUrlToMatch(String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.urlMatches(text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForUrlToMatch", ExpectedConditions.urlMatches(text));
             if (bool) {
                 throw new Exception("URL does not appear within the timeout period.");
             }
@@ -4181,8 +4355,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForUrlToBe(String text) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            Boolean bool = wait.until(ExpectedConditions.urlToBe(text));
+            Boolean bool = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForUrlToBe", ExpectedConditions.urlToBe(text));
             if (bool) {
                 throw new Exception("URL does not appear within the timeout period.");
             }
@@ -4201,8 +4374,7 @@ public class RatDriver implements IRatDriver {
     @Override
     public Boolean waitForVisibilityOfAllElementsLocatedBy(By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(EncapsulatedDriver, BaseSettings.Timeout);
-            List<WebElement> elements = wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+            List<WebElement> elements = waitUntil(EncapsulatedDriver, Config.getTimeout(), "waitForVisibilityOfAllElementsLocatedBy", ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
             if (elements.size() == 0) {
                 throw new Exception("Could not confirm the visibility of the element required.");
             }
@@ -4214,6 +4386,75 @@ public class RatDriver implements IRatDriver {
 
     //endregion
 
+    /**
+     * Commits a navigation event if one is being recorded
+     *
+     * @param event  The event, begun before the navigation request was sent
+     * @param action The kind of navigation
+     * @param url    The URL requested, if known
+     */
+    private void commitNavigation(RatNavigationEvent event, String action, String url) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.url = url;
+            event.driverName = DriverName;
+            event.commit();
+        }
+    }
+
+    /**
+     * Waits for an expected condition, recording a Flight Recorder event when one is being captured
+     *
+     * @param driver    The driver to wait on
+     * @param timeout   The maximum number of seconds to wait
+     * @param waitName  The name of the RatDriver wait
+     * @param condition The condition to wait for
+     * @param <T>       The type returned by the condition
+     * @return The value returned by the condition once it is satisfied
+     */
+    private <T> T waitUntil(WebDriver driver, long timeout, String waitName, ExpectedCondition<T> condition) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        RatWaitEvent event = new RatWaitEvent();
+        RatSpan span = Tracer.startSpan(waitName);
+        if (span.isRecording()) {
+            span.tag("condition", condition.toString());
+        }
+        if (!event.isEnabled()) {
+            try {
+                return wait.until(condition);
+            } catch (RuntimeException ex) {
+                span.fail();
+                throw ex;
+            } finally {
+                Tracer.endSpan(span);
+            }
+        }
+        int[] polls = new int[1];
+        event.begin();
+        try {
+            T result = wait.until(webDriver -> {
+                polls[0]++;
+                return condition.apply(webDriver);
+            });
+            event.satisfied = true;
+            return result;
+        } catch (RuntimeException ex) {
+            span.fail();
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.waitName = waitName;
+                event.condition = condition.toString();
+                event.timeout = timeout;
+                event.polls = polls[0];
+                event.commit();
+            }
+            Tracer.endSpan(span);
+        }
+    }
+
     private void getCollectionOfElements(LocatorType type, String locator) {
         List<WebElement> collection = new LinkedList<WebElement>() {
         };
@@ -4247,56 +4488,187 @@ public class RatDriver implements IRatDriver {
         Elements = collection;
     }
 
+    /**
+     * Starts a fresh browser with the preferences this session was started with, and replaces the current browser
+     * with it
+     *
+     * @param reason Why the browser is being replaced, for the log
+     * @return Whether the browser was replaced. If a fresh browser could not be started the current one is kept.
+     */
+    public boolean recycleDriver(String reason) {
+        try {
+            BrowserControl controller = controllerFor(DriverType.valueOf(DriverName));
+            if (controller == null) {
+                return false;
+            }
+            RatClock clock = RatTimerCollection != null ? RatTimerCollection.getClock() : null;
+            long start = clock != null ? clock.nanoTime() : 0;
+            WebDriver replacement = Preferences == null ? controller.startDriver() : controller.startDriver(Preferences);
+            if (replacement == null) {
+                RatLog.human("Could not start a fresh %s browser, so the current one is kept.", DriverName);
+                return false;
+            }
+            if (clock != null) {
+                RatTimerCollection.recordTiming(Timing.Instantiation, start, clock.nanoTime() - start);
+            }
+            if (controller.getConfig() != null) {
+                Config = controller.getConfig();
+            }
+            replaceDriver(replacement, reason);
+            return true;
+        } catch (Exception ex) {
+            ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "recycleDriver", "Could not recycle the browser.");
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the browser with a freshly started one, which is taken back to the current page with the page's
+     * cookies, and quits the old browser. Elements found in the old browser cannot be used in the new one.
+     *
+     * @param replacement The freshly started driver
+     * @param reason      Why the browser is being replaced, for the log
+     */
+    public void replaceDriver(WebDriver replacement, String reason) {
+        WebDriver retired = EncapsulatedDriver;
+        String retiredProfile = getBrowserProfileDirectory();
+        String url = null;
+        Set<Cookie> cookies = Collections.emptySet();
+        try {
+            url = retired.getCurrentUrl();
+            cookies = retired.manage().getCookies();
+        } catch (Exception ex) {
+            RatLog.human("Could not read the page and cookies of the %s browser being replaced.", DriverName);
+        }
+
+        EncapsulatedDriver = replacement;
+        if (registration != null) {
+            registration.update(replacement, getBrowserProfileDirectory());
+        }
+        Element = null;
+        Elements = null;
+        restorePage(url, cookies);
+        WindowHandles = new Hashtable<>();
+        try {
+            WindowHandles.put(EncapsulatedDriver.getTitle(), EncapsulatedDriver.getWindowHandle());
+        } catch (Exception ex) {
+            RatLog.human("Could not record the window of the replacement %s browser.", DriverName);
+        }
+
+        try {
+            RatSessionRegistry registry = RatSessionRegistry.getInstance();
+            registry.quit(retired, DriverName, retiredProfile, registry.getQuitTimeoutMillis());
+        } catch (Exception ex) {
+            RatLog.human("Could not quit the replaced %s browser.", DriverName);
+        }
+        RatLog.human("Replaced the %s browser after %s.", DriverName, reason);
+    }
+
+    private void restorePage(String url, Set<Cookie> cookies) {
+        if (url == null || !(url.startsWith("http:") || url.startsWith("https:"))) {
+            return;
+        }
+        try {
+            EncapsulatedDriver.navigate().to(url);
+            if (cookies == null || cookies.isEmpty()) {
+                return;
+            }
+            for (Cookie cookie : cookies) {
+                try {
+                    EncapsulatedDriver.manage().addCookie(cookie);
+                } catch (WebDriverException ex) {
+                    RatLog.human("Could not carry over the cookie %s.", cookie.getName());
+                }
+            }
+            EncapsulatedDriver.navigate().refresh();
+        } catch (Exception ex) {
+            ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "replaceDriver", "Could not return to " + url);
+        }
+    }
+
+    /**
+     * Gets the profile or user data directory the browser was started with, which Firefox reports as moz:profile
+     * and Chromium based browsers report as the userDataDir of their own capability
+     *
+     * @return The directory, or null if the browser does not report one
+     */
+    public String getBrowserProfileDirectory() {
+        if (!(EncapsulatedDriver instanceof HasCapabilities)) {
+            return null;
+        }
+        try {
+            Capabilities capabilities = ((HasCapabilities) EncapsulatedDriver).getCapabilities();
+            Object profile = capabilities.getCapability("moz:profile");
+            if (profile != null) {
+                return profile.toString();
+            }
+            for (Object value : capabilities.asMap().values()) {
+                if (value instanceof Map && ((Map<?, ?>) value).get("userDataDir") != null) {
+                    return ((Map<?, ?>) value).get("userDataDir").toString();
+                }
+            }
+        } catch (RuntimeException ex) {
+            RatLog.human("Could not read the profile directory of the %s browser.", DriverName);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of sessions started and not yet quit
+     *
+     * @return The number of live sessions in this JVM
+     */
+    public static int getLiveSessionCount() {
+        return LiveSessions.get();
+    }
+
+    private void registerSession() {
+        if (EncapsulatedDriver != null && sessionLive.compareAndSet(false, true)) {
+            if (Id == null) {
+                Id = UUID.randomUUID();
+            }
+            LiveSessions.incrementAndGet();
+            registration = RatSessionRegistry.getInstance().register(this, EncapsulatedDriver, DriverName,
+                    getBrowserProfileDirectory(), Id, RatDriver::retireSession);
+            if (RatTimerCollection != null) {
+                RatMetricsRegistry.getInstance().register(Id, DriverType.valueOf(DriverName), RatTimerCollection);
+            }
+        }
+        Tracer.setDriverName(DriverName);
+    }
+
+    /**
+     * Stops counting a session that was quit, reaped or quit at shutdown. Static, so that the registry's cleanup
+     * state does not refer to the RatDriver.
+     *
+     * @param id The session's Id
+     */
+    private static void retireSession(UUID id) {
+        LiveSessions.decrementAndGet();
+        RatMetricsRegistry.getInstance().retire(id);
+    }
+
+    /**
+     * Discards the timer started by a command that failed before it could be stopped
+     */
+    private void discardTimer() {
+        if (RecordPerformance != null && RecordPerformance && RatTimerCollection != null) {
+            RatTimerCollection.DiscardTimer();
+        }
+    }
+
     private void initialiseRatWatch(Boolean performanceTimings) {
-        System.out.println("Creating RatWatch to monitor event timings.");
+        RatLog.human("Creating RatWatch to monitor event timings.");
         RatTimerCollection = new RatWatch();
-        RatTimerCollection.StartTimer();
         RecordPerformance = performanceTimings;
-        System.out.println("-- Initialised.");
+        RatLog.human("-- Initialised.");
     }
 
     private void establishDriverType(DriverType driverType, BasePreferences preferences) {
         try {
             DriverName = driverType.name();
-            BrowserControl controller = null;
-
-            switch (DriverName.toLowerCase()) {
-                case "chromedriver":
-                    controller = new ChromeControl(null);
-                    break;
-                case "firefoxdriver":
-                    controller = new FirefoxControl(null);
-                    break;
-                case "operadriver":
-                    controller = new OperaControl(null);
-                    break;
-                case "safaridriver":
-                    if (PlatformUtil.isMac()) {
-                        controller = new SafariControl(null);
-                    } else {
-                        System.out.println("Safari is a Mac only browser.");
-                    }
-                    break;
-                case "edgedriver":
-                    if (PlatformUtil.isWindows()) {
-                        controller = new EdgeControl(null);
-                    } else {
-                        System.out.println("Edge is a Windows only browser.");
-                    }
-                    break;
-                case "internetexplorerdriver":
-                    if (PlatformUtil.isWindows()) {
-                        controller = new IEControl(null);
-                    } else {
-                        System.out.println("Internet Exploiter is a Windows only browser.");
-                    }
-                    break;
-                case "remotedriver":
-                    controller = new RemoteControl();
-                    break;
-                default:
-                    throw new Exception();
-            }
+            Preferences = preferences;
+            BrowserControl controller = controllerFor(driverType);
 
             if (controller != null) {
                 if (preferences != null) {
@@ -4304,13 +4676,53 @@ public class RatDriver implements IRatDriver {
                 } else {
                     EncapsulatedDriver = controller.startDriver();
                 }
+                Config = controller.getConfig() != null ? controller.getConfig() : RatSessionConfig.from(preferences);
             } else {
-                System.out.println("Unable to load the driver control class requested.");
-                System.out.println("Please check that your driver is supported.");
+                RatLog.human("Unable to load the driver control class requested.");
+                RatLog.human("Please check that your driver is supported.");
                 throw new Exception();
             }
         } catch (Exception ex) {
             ErrorHandler.HandleErrors(EncapsulatedDriver, ex, "RatDriver", "establishDriverType", "Could not establish the driver type");
         }
     }
+
+    /**
+     * Creates the control class that starts a type of driver
+     *
+     * @param driverType The type of driver
+     * @return The control class, or null if the browser is not available on this platform
+     */
+    static BrowserControl controllerFor(DriverType driverType) {
+        switch (driverType) {
+            case ChromeDriver:
+                return new ChromeControl(null);
+            case FirefoxDriver:
+                return new FirefoxControl(null);
+            case OperaDriver:
+                return new OperaControl(null);
+            case SafariDriver:
+                if (PlatformUtil.isMac()) {
+                    return new SafariControl(null);
+                }
+                RatLog.human("Safari is a Mac only browser.");
+                return null;
+            case EdgeDriver:
+                if (PlatformUtil.isWindows()) {
+                    return new EdgeControl(null);
+                }
+                RatLog.human("Edge is a Windows only browser.");
+                return null;
+            case InternetExplorerDriver:
+                if (PlatformUtil.isWindows()) {
+                    return new IEControl(null);
+                }
+                RatLog.human("Internet Exploiter is a Windows only browser.");
+                return null;
+            case RemoteDriver:
+                return new RemoteControl();
+            default:
+                return null;
+        }
+    }
 }
@@ -0,0 +1,178 @@
+package org.liberator.ratdriver;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.liberator.ratdriver.control.BrowserControl;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.performance.RatClock;
+import org.liberator.ratdriver.performance.RatWatch;
+import org.liberator.ratdriver.preferences.BasePreferences;
+import org.liberator.ratdriver.sessions.RatSessionFactory;
+import org.liberator.ratdriver.settings.RatSessionConfig;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Starts RatDriver sessions on a bounded pool of threads, so that a suite can launch many browsers at once.
+ * <p>
+ * Unlike the RatDriver constructors, a launch that fails is reported: create throws a SessionNotCreatedException
+ * caused by the error the driver controller handled, and the futures returned by createAsync complete with it.
+ * Each launch is timed as Timing.Instantiation, both in the factory's own watch and, when PerformanceTimings is set,
+ * in the new session's watch.
+ * <p>
+ * Sessions launched at the same time may be given different preferences: each session keeps the settings it was
+ * started with in its own RatSessionConfig.
+ */
+@SuppressWarnings("unused")
+public class RatDriverFactory implements RatSessionFactory, AutoCloseable {
+
+    /**
+     * Whether the sessions started record performance statistics
+     */
+    @Getter
+    @Setter
+    public volatile Boolean PerformanceTimings = false;
+
+    /**
+     * The launch times of every session started by this factory
+     */
+    @Getter
+    private final RatWatch Timings = new RatWatch();
+
+    private final ThreadPoolExecutor executor;
+    private final Function<DriverType, BrowserControl> controllers;
+
+    /**
+     * Creates a factory that launches one browser per available processor at a time
+     */
+    public RatDriverFactory() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates a factory
+     * @param parallelism The most browsers launched at the same time. Further launches wait their turn.
+     */
+    public RatDriverFactory(int parallelism) {
+        this(parallelism, RatDriver::controllerFor);
+    }
+
+    /**
+     * Creates a factory that starts its browsers through the given control classes
+     * @param parallelism The most browsers launched at the same time. Further launches wait their turn.
+     * @param controllers Creates the control class that starts a type of driver, or returns null if the type is not
+     *                    available
+     */
+    public RatDriverFactory(int parallelism, Function<DriverType, BrowserControl> controllers) {
+        this.controllers = controllers;
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ratdriver-launch-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts a session on the calling thread
+     * @param type The type of driver
+     * @param preferences The preferences, or null for the driver's defaults
+     * @return The started session
+     * @throws SessionNotCreatedException if the browser could not be started
+     */
+    @Override
+    public RatDriver create(DriverType type, BasePreferences preferences) {
+        RatClock clock = Timings.getClock();
+        long start = clock.nanoTime();
+        int handled = ErrorHandler.handledErrorCount();
+
+        BrowserControl controller = controllers.apply(type);
+        if (controller == null) {
+            throw new SessionNotCreatedException(type + " is not available on this platform.");
+        }
+        WebDriver webDriver = preferences == null ? controller.startDriver() : controller.startDriver(preferences);
+        if (webDriver == null) {
+            Throwable cause = ErrorHandler.handledErrorCount() != handled ? ErrorHandler.lastHandledError() : null;
+            throw new SessionNotCreatedException("Could not start a " + type + " session.", cause);
+        }
+        long duration = clock.nanoTime() - start;
+        Timings.recordTiming(Timing.Instantiation, start, duration);
+
+        RatSessionConfig config = controller.getConfig() != null ? controller.getConfig() : RatSessionConfig.from(preferences);
+        RatDriver driver = new RatDriver(webDriver, type, PerformanceTimings, config);
+        driver.setPreferences(preferences);
+        if (driver.getRatTimerCollection() != null) {
+            driver.getRatTimerCollection().recordTiming(Timing.Instantiation, start, duration);
+        }
+        return driver;
+    }
+
+    /**
+     * Starts a session with the driver's default preferences in the background
+     * @param type The type of driver
+     * @return The session, once started
+     */
+    public CompletableFuture<RatDriver> createAsync(DriverType type) {
+        return createAsync(type, null);
+    }
+
+    /**
+     * Starts a session in the background
+     * @param type The type of driver
+     * @param preferences The preferences, or null for the driver's defaults
+     * @return The session, once started
+     */
+    public CompletableFuture<RatDriver> createAsync(DriverType type, BasePreferences preferences) {
+        return CompletableFuture.supplyAsync(() -> create(type, preferences), executor);
+    }
+
+    /**
+     * Starts several sessions at once. If any fails to start, the others are quit and the first failure is reported.
+     * @param type The type of driver
+     * @param preferences The preferences, or null for the driver's defaults
+     * @param count The number of sessions
+     * @return The sessions, once all have started
+     */
+    public CompletableFuture<List<RatDriver>> createAllAsync(DriverType type, BasePreferences preferences, int count) {
+        List<CompletableFuture<RatDriver>> launches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            launches.add(createAsync(type, preferences));
+        }
+        return CompletableFuture.allOf(launches.toArray(new CompletableFuture<?>[0])).handle((ignored, failure) -> {
+            List<RatDriver> drivers = new ArrayList<>(count);
+            for (CompletableFuture<RatDriver> launch : launches) {
+                if (!launch.isCompletedExceptionally()) {
+                    drivers.add(launch.join());
+                }
+            }
+            if (failure == null) {
+                return drivers;
+            }
+            for (RatDriver driver : drivers) {
+                driver.closePagesAndQuitDriver();
+            }
+            throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+        });
+    }
+
+    /**
+     * Stops accepting launches. Launches already queued still run.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
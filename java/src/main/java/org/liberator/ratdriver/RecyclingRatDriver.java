@@ -0,0 +1,167 @@
+package org.liberator.ratdriver;
+
+import org.liberator.ratdriver.logging.RatLog;
+import org.liberator.ratdriver.performance.RatProcessMemory;
+import org.liberator.ratdriver.sessions.RatRecyclingPolicy;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * An opt-in decorator that replaces a long-lived session's browser once it has run too many commands, run for too
+ * long or grown too large, as set by a RatRecyclingPolicy.
+ * <p>
+ * The limits are checked before each IRatDriver command, so a browser is only replaced between steps. The
+ * replacement is started with the session's preferences and taken back to the current page with the page's cookies
+ * (see RatDriver.replaceDriver), and the session keeps its Id, metrics and timings. A browser's memory is read from
+ * /proc, by finding the browser started with the session's profile or user data directory.
+ * <p>
+ * May be combined with InstrumentedRatDriver, which should then wrap the recycling driver.
+ */
+@SuppressWarnings("unused")
+public class RecyclingRatDriver implements InvocationHandler {
+
+    private final RatDriver target;
+    private final RatRecyclingPolicy policy;
+    private final Supplier<WebDriver> launcher;
+
+    private long commands;
+    private long startedNanos;
+    private long recycleCount;
+    private String profileDirectory;
+
+    private RecyclingRatDriver(RatDriver target, RatRecyclingPolicy policy, Supplier<WebDriver> launcher) {
+        this.target = target;
+        this.policy = policy;
+        this.launcher = launcher;
+        reset();
+    }
+
+    /**
+     * Wraps a session so that its browser is replaced with one started like it whenever the policy says so
+     * @param driver The session to wrap
+     * @param policy The limits to replace the browser at
+     * @return A recycling driver
+     */
+    public static IRatDriver recycle(RatDriver driver, RatRecyclingPolicy policy) {
+        return recycle(driver, policy, null);
+    }
+
+    /**
+     * Wraps a session so that its browser is replaced whenever the policy says so
+     * @param driver The session to wrap
+     * @param policy The limits to replace the browser at
+     * @param launcher Starts the replacement browsers, or null to start them like the session's first browser
+     * @return A recycling driver
+     */
+    public static IRatDriver recycle(RatDriver driver, RatRecyclingPolicy policy, Supplier<WebDriver> launcher) {
+        return (IRatDriver) Proxy.newProxyInstance(IRatDriver.class.getClassLoader(),
+                new Class<?>[]{IRatDriver.class},
+                new RecyclingRatDriver(driver, policy, launcher));
+    }
+
+    /**
+     * Gets the number of times a recycling driver has replaced its browser
+     * @param driver A driver returned by recycle
+     * @return The number of replacements, or 0 if the driver does not recycle
+     */
+    public static long recycleCountOf(IRodent driver) {
+        RecyclingRatDriver handler = handlerOf(driver);
+        if (handler == null) {
+            return 0;
+        }
+        synchronized (handler) {
+            return handler.recycleCount;
+        }
+    }
+
+    /**
+     * Gets the session wrapped by a recycling driver
+     * @param driver A driver returned by recycle
+     * @return The wrapped session, or null if the driver does not recycle
+     */
+    public static RatDriver unwrap(IRodent driver) {
+        RecyclingRatDriver handler = handlerOf(driver);
+        return handler != null ? handler.target : null;
+    }
+
+    private static RecyclingRatDriver handlerOf(IRodent driver) {
+        if (driver != null && Proxy.isProxyClass(driver.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(driver);
+            if (handler instanceof RecyclingRatDriver) {
+                return (RecyclingRatDriver) handler;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "Recycling " + target;
+            }
+        }
+        if (!method.getName().equals("closePagesAndQuitDriver")) {
+            recycleIfDue();
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Replaces the browser if it has reached a limit with the commands it has already run, then counts the command
+     * about to run against whichever browser runs it
+     */
+    private synchronized void recycleIfDue() {
+        long residentKilobytes = -1;
+        if (commands > 0 && policy.isResidentCheckDue(commands)) {
+            residentKilobytes = RatProcessMemory.browserResidentKilobytes(profileDirectory);
+        }
+        String reason = policy.reasonToRecycle(commands, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos),
+                residentKilobytes);
+        if (reason != null) {
+            recycle(reason);
+        }
+        commands++;
+    }
+
+    private void recycle(String reason) {
+        boolean replaced;
+        if (launcher == null) {
+            replaced = target.recycleDriver(reason);
+        } else {
+            WebDriver replacement = launcher.get();
+            replaced = replacement != null;
+            if (replaced) {
+                target.replaceDriver(replacement, reason);
+            }
+        }
+        if (replaced) {
+            recycleCount++;
+        } else {
+            RatLog.human("The %s browser is due to be replaced after %s, but will be kept until the limits are reached again.",
+                    target.getDriverName(), reason);
+        }
+        reset();
+    }
+
+    private void reset() {
+        commands = 0;
+        startedNanos = System.nanoTime();
+        profileDirectory = policy.getMaxResidentKilobytes() > 0 ? target.getBrowserProfileDirectory() : null;
+    }
+}
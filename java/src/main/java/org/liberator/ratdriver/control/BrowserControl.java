@@ -1,14 +1,40 @@
 package org.liberator.ratdriver.control;
 
+import lombok.Getter;
+import org.liberator.ratdriver.enums.DriverType;
 import org.liberator.ratdriver.preferences.BasePreferences;
+import org.liberator.ratdriver.settings.RatSessionConfig;
 import org.openqa.selenium.Proxy;
 import org.openqa.selenium.WebDriver;
 
 public abstract class BrowserControl {
 
+    /**
+     * Held while preferences are copied into the static settings classes and the driver options are built from
+     * them, so that drivers started at the same time each see their own preferences. Not held while the browser
+     * starts.
+     */
+    protected static final Object SETTINGS_LOCK = new Object();
 
     Proxy proxy;
 
+    /**
+     * The settings the driver was started with, or null if no driver has been started
+     */
+    @Getter
+    protected volatile RatSessionConfig config;
+
+    /**
+     * Finds and verifies a driver executable through the DriverBinaryRegistry, so that a missing or wrong driver
+     * fails before the browser is started
+     * @param type The type of driver
+     * @param location The configured location of the executable
+     * @return The absolute path of the verified executable
+     */
+    protected static String resolveDriver(DriverType type, String location) {
+        return DriverBinaryRegistry.getInstance().resolve(type, location).getPath();
+    }
+
     /**
      * Starts a web driver
      * @return A web driver instance
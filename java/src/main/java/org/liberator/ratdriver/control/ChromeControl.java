@@ -1,14 +1,19 @@
 package org.liberator.ratdriver.control;
 
 import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.logging.RatLog;
 import org.liberator.ratdriver.preferences.BasePreferences;
 import org.liberator.ratdriver.preferences.ChromePreferences;
+import org.liberator.ratdriver.profiles.ChromeUserDataTemplates;
+import org.liberator.ratdriver.profiles.ProfileCloner;
 import org.liberator.ratdriver.settings.BaseSettings;
 import org.liberator.ratdriver.settings.ChromeSettings;
+import org.liberator.ratdriver.settings.RatSessionConfig;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.Platform;
 import org.openqa.selenium.Proxy;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.logging.LogType;
@@ -18,6 +23,8 @@ import org.openqa.selenium.remote.CapabilityType;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Level;
@@ -58,6 +65,11 @@ public class ChromeControl extends RemoteControl {
      */
     private ChromePreferences chromePreferences;
 
+    /**
+     * The user data template to clone for the driver being started, or null if it does not use one
+     */
+    private Path userDataTemplate = null;
+
     /**
      * Constructor for ChromeControl
      *
@@ -66,8 +78,6 @@ public class ChromeControl extends RemoteControl {
     public ChromeControl(ChromePreferences chromePreferences) {
         chromeOptions = new ChromeOptions();
         this.chromePreferences = chromePreferences;
-
-        setImportedPreferences(chromePreferences);
     }
 
     /**
@@ -102,6 +112,7 @@ public class ChromeControl extends RemoteControl {
                 ChromeSettings.IsCollectingNetworkEvents = chromePreferences.IsCollectingNetworkEvents;
                 ChromeSettings.IsCollectingPageEvents = chromePreferences.IsCollectingPageEvents;
                 ChromeSettings.LeaveBrowserRunning = chromePreferences.LeaveBrowserRunning;
+                ChromeSettings.Headless = chromePreferences.Headless;
                 ChromeSettings.LocalStatePreferences = chromePreferences.LocalStatePreferences;
                 ChromeSettings.LogPath = chromePreferences.LogPath;
                 ChromeSettings.MinidumpPath = chromePreferences.MinidumpPath;
@@ -112,6 +123,8 @@ public class ChromeControl extends RemoteControl {
                 ChromeSettings.TracingCategories = chromePreferences.TracingCategories;
                 ChromeSettings.UserAgent = chromePreferences.UserAgent;
                 ChromeSettings.UserProfilePreferences = chromePreferences.UserProfilePreferences;
+                ChromeSettings.UserDataDirectory = chromePreferences.UserDataDirectory;
+                ChromeSettings.UserDataTemplate = chromePreferences.UserDataTemplate;
                 ChromeSettings.WhitelistedIPAddresses = chromePreferences.WhitelistedIPAddresses;
                 ChromeSettings.Width = chromePreferences.Width;
             }
@@ -134,21 +147,41 @@ public class ChromeControl extends RemoteControl {
      * @return A web driver instance
      */
     public WebDriver startDriver() {
+        Path userData = null;
         try {
-            setOptions();
-            setService();
-            setProxy();
+            boolean collectingNetworkEvents;
+            ChromeDriverService.Builder builder;
+            String serviceKey;
+            int port;
+            Path template;
+            synchronized (SETTINGS_LOCK) {
+                setImportedPreferences(chromePreferences);
+                config = RatSessionConfig.fromSettings();
+                ChromeSettings.ChromeDriverLocation = resolveDriver(DriverType.ChromeDriver, ChromeSettings.ChromeDriverLocation);
+                setOptions();
+                setProxy();
+
+                collectingNetworkEvents = ChromeSettings.IsCollectingNetworkEvents;
+                builder = createServiceBuilder();
+                serviceKey = getServiceKey();
+                port = ChromeSettings.Port;
+                template = userDataTemplate;
+            }
+            userData = cloneUserData(template);
 
-            if (ChromeSettings.IsCollectingNetworkEvents) {
+            Capabilities capabilities = chromeOptions;
+            if (collectingNetworkEvents) {
                 //NB: Whilst Desired Capabilities are deprecated, ChromeDriver have not provided an alternative
                 //TODO: Find alternative for this code smell due to ChromeDriver
                 desiredCapabilities.setCapability(ChromeOptions.CAPABILITY, chromeOptions);
-                driver = new ChromeDriver(chromeDriverService, desiredCapabilities);
-            } else {
-                driver = new ChromeDriver(chromeDriverService, chromeOptions);
+                capabilities = desiredCapabilities;
             }
+            Path clone = userData;
+            driver = DriverServiceRegistry.getInstance().startSession(serviceKey, port, p -> buildService(builder, p), capabilities,
+                    () -> ProfileCloner.delete(clone));
             return driver;
         } catch (Exception exception) {
+            ProfileCloner.delete(userData);
             ErrorHandler.HandleErrors(
                     driver,
                     exception,
@@ -160,6 +193,19 @@ public class ChromeControl extends RemoteControl {
         }
     }
 
+    /**
+     * Builds the options the driver would be started with, without starting it
+     *
+     * @return The options
+     */
+    public ChromeOptions buildOptions() {
+        synchronized (SETTINGS_LOCK) {
+            setImportedPreferences(chromePreferences);
+            setOptions();
+            return chromeOptions;
+        }
+    }
+
     /**
      * Starts a web driver
      *
@@ -168,14 +214,9 @@ public class ChromeControl extends RemoteControl {
      */
     public WebDriver startDriver(BasePreferences driverSettings) {
         try {
-            if (!driverSettings.equals(chromePreferences)) {
-                chromePreferences = (ChromePreferences) driverSettings;
-                setImportedPreferences(chromePreferences);
-            }
+            chromePreferences = (ChromePreferences) driverSettings;
 
-            startDriver();
-
-            return driver;
+            return startDriver();
         } catch (Exception exception) {
             ErrorHandler.HandleErrors(
                     driver,
@@ -202,9 +243,9 @@ public class ChromeControl extends RemoteControl {
                 setSocks();
                 setSslProxy();
             }
-            System.out.println("\nProxy settings added as requested.");
+            RatLog.human("Proxy settings added as requested.");
         } catch (Exception ex) {
-            System.out.println("\nCould not set up the proxy with current settings.");
+            RatLog.human("Could not set up the proxy with current settings.");
         }
     }
 
@@ -212,10 +253,10 @@ public class ChromeControl extends RemoteControl {
         try {
             if (BaseSettings.proxyAutoconfigUrl != null && BaseSettings.proxyAutoconfigUrl.length() > 0) {
                 proxy.setProxyAutoconfigUrl(BaseSettings.proxyAutoconfigUrl);
-                System.out.format("\nSet auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
+                RatLog.human("Set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
+            RatLog.human("Could not set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
         }
     }
 
@@ -223,10 +264,10 @@ public class ChromeControl extends RemoteControl {
         try {
             if (BaseSettings.proxyType != null) {
                 proxy.setProxyType(BaseSettings.proxyType);
-                System.out.format("\nSet proxy type to: %s", BaseSettings.proxyType.name());
+                RatLog.human("Set proxy type to: %s", BaseSettings.proxyType.name());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set proxy type to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Could not set proxy type to: %s", BaseSettings.proxyType.name());
         }
     }
 
@@ -237,9 +278,9 @@ public class ChromeControl extends RemoteControl {
             } else {
                 proxy.setAutodetect(false);
             }
-            System.out.format("\nSet proxy autodetect to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Set proxy autodetect to: %s", BaseSettings.proxyType.name());
         } catch (Exception e) {
-            System.out.format("\nCould not set proxy autodetect to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Could not set proxy autodetect to: %s", BaseSettings.proxyType.name());
         }
     }
 
@@ -247,10 +288,10 @@ public class ChromeControl extends RemoteControl {
         try {
             if (BaseSettings.ftpProxy != null) {
                 proxy.setFtpProxy(BaseSettings.ftpProxy);
-                System.out.format("\nSet ftp proxy to: %s", BaseSettings.ftpProxy);
+                RatLog.human("Set ftp proxy to: %s", BaseSettings.ftpProxy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set ftp proxy to: %s", BaseSettings.ftpProxy);
+            RatLog.human("Could not set ftp proxy to: %s", BaseSettings.ftpProxy);
         }
     }
 
@@ -258,10 +299,10 @@ public class ChromeControl extends RemoteControl {
         try {
             if (BaseSettings.noProxy != null) {
                 proxy.setNoProxy(BaseSettings.noProxy);
-                System.out.format("\net 'no proxy' to: %s", BaseSettings.noProxy);
+                RatLog.human("et 'no proxy' to: %s", BaseSettings.noProxy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set 'no proxy' to: %s", BaseSettings.noProxy);
+            RatLog.human("Could not set 'no proxy' to: %s", BaseSettings.noProxy);
         }
     }
 
@@ -269,10 +310,10 @@ public class ChromeControl extends RemoteControl {
         try {
             if (BaseSettings.httpProxy != null) {
                 proxy.setHttpProxy(BaseSettings.httpProxy);
-                System.out.format("\nSet http proxy to: %s", BaseSettings.httpProxy);
+                RatLog.human("Set http proxy to: %s", BaseSettings.httpProxy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set http proxy to: %s", BaseSettings.httpProxy);
+            RatLog.human("Could not set http proxy to: %s", BaseSettings.httpProxy);
         }
     }
 
@@ -284,13 +325,13 @@ public class ChromeControl extends RemoteControl {
                 proxy.setSocksUsername(BaseSettings.socksUsername);
                 proxy.setSocksPassword(BaseSettings.socksPassword);
 
-                System.out.format("\nSet socks proxy to: %s", BaseSettings.socksProxy);
-                System.out.format("\nSet socks proxy version to: %s", BaseSettings.socksVersion);
-                System.out.format("\nSet socks proxy username to: %s", BaseSettings.socksUsername);
-                System.out.format("\nSet socks proxy password to: %s", BaseSettings.socksPassword);
+                RatLog.human("Set socks proxy to: %s", BaseSettings.socksProxy);
+                RatLog.human("Set socks proxy version to: %s", BaseSettings.socksVersion);
+                RatLog.human("Set socks proxy username to: %s", BaseSettings.socksUsername);
+                RatLog.human("Set socks proxy password to: %s", BaseSettings.socksPassword);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set socks proxy.");
+            RatLog.human("Could not set socks proxy.");
         }
     }
 
@@ -298,31 +339,53 @@ public class ChromeControl extends RemoteControl {
         try {
             if (BaseSettings.sslProxy != null) {
                 proxy.setHttpProxy(BaseSettings.sslProxy);
-                System.out.format("\nSet SSL proxy to: %s", BaseSettings.sslProxy);
+                RatLog.human("Set SSL proxy to: %s", BaseSettings.sslProxy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set SSL proxy to: %s", BaseSettings.sslProxy);
+            RatLog.human("Could not set SSL proxy to: %s", BaseSettings.sslProxy);
         }
     }
 
-    private void setService() {
-        try {
-            ChromeDriverService.Builder builder = new ChromeDriverService.Builder();
+    /**
+     * Identifies the driver service settings, so that sessions with the same settings share one chromedriver
+     *
+     * @return The key for the DriverServiceRegistry
+     */
+    private String getServiceKey() {
+        return String.join("|", "chromedriver", ChromeSettings.ChromeDriverLocation, ChromeSettings.LogPath,
+                ChromeSettings.WhitelistedIPAddresses, ChromeSettings.EnableVerboseLogging,
+                ChromeSettings.SuppressInitialDiagnosticInformation);
+    }
+
+    /**
+     * Configures a driver service builder from the current settings, leaving the port to the DriverServiceRegistry
+     *
+     * @return The builder
+     */
+    private ChromeDriverService.Builder createServiceBuilder() {
+        ChromeDriverService.Builder builder = new ChromeDriverService.Builder();
 
-            setExecutableForDriver(builder);
-            setDriverPort(builder);
-            setLogFile(builder);
-            setWhitelist(builder);
-            setVerboseLogging(builder);
-            setSilentRunning(builder);
+        setExecutableForDriver(builder);
+        setLogFile(builder);
+        setWhitelist(builder);
+        setVerboseLogging(builder);
+        setSilentRunning(builder);
 
-            chromeDriverService = builder.build();
+        return builder;
+    }
 
-            System.out.println("\nChrome Driver Service built as requested.");
-        } catch (Exception ex) {
-            System.out.println("\nUnable to build the Chrome Driver Service as requested.");
-            System.out.println("\nPlease review any required changes to settings on your system.");
-        }
+    /**
+     * Builds the driver service, called by the DriverServiceRegistry when no matching service is running
+     *
+     * @param builder The configured builder
+     * @param port    The port allocated to the service
+     * @return The driver service
+     */
+    private ChromeDriverService buildService(ChromeDriverService.Builder builder, int port) {
+        chromeDriverService = builder.usingPort(port).build();
+
+        RatLog.human("Chrome Driver Service built on port %s.", port);
+        return chromeDriverService;
     }
 
     private void setOptions() {
@@ -338,15 +401,59 @@ public class ChromeControl extends RemoteControl {
             setLeaveBrowserRunning();
             setDebuggerAddress();
             setMinidumpPath();
+            setUserDataDirectory();
             addMobileEmulationPreferences();
             addPerformanceLoggingPrefs();
             //addAdditionalCapabilities();
             addExtensions();
             addLocalStatePreferences();
             addUserProfilePreferences();
+            setHeadless();
 
         } catch (Exception ex) {
-            System.out.println("\nUnable to load driver options settings.");
+            RatLog.human("Unable to load driver options settings.");
+        }
+    }
+
+    /**
+     * Starts Chrome on a clone of the user data template, if one is set, or else on the user data directory
+     */
+    private void setUserDataDirectory() {
+        userDataTemplate = null;
+        try {
+            if (ChromeSettings.UserDataTemplate != null && !ChromeSettings.UserDataTemplate.isEmpty()) {
+                userDataTemplate = Paths.get(ChromeSettings.UserDataTemplate);
+            } else if (ChromeSettings.UserDataDirectory != null && !ChromeSettings.UserDataDirectory.isEmpty()) {
+                chromeOptions.addArguments("--user-data-dir=" + ChromeSettings.UserDataDirectory);
+                RatLog.human("Set the user data directory to: %s", ChromeSettings.UserDataDirectory);
+            }
+        } catch (Exception e) {
+            userDataTemplate = null;
+            RatLog.human("Unable to set the user data directory");
+        }
+    }
+
+    /**
+     * Clones a user data template for the driver being started and points Chrome at the clone. Called once the
+     * settings lock has been released, as the copy may take a while.
+     *
+     * @param template The template, or null if the driver does not use one
+     * @return The clone, or null if no template was cloned
+     */
+    private Path cloneUserData(Path template) {
+        if (template == null) {
+            return null;
+        }
+        Path clone = null;
+        try {
+            clone = ChromeUserDataTemplates.cloneTemplate(template);
+            chromeOptions.addArguments("--user-data-dir=" + clone);
+            RatLog.human("Cloned the user data template to: %s", clone);
+            return clone;
+        } catch (Exception e) {
+            ProfileCloner.delete(clone);
+            RatLog.human("Unable to set the user data directory");
+            return null;
         }
     }
 
@@ -354,10 +461,10 @@ public class ChromeControl extends RemoteControl {
         try {
             if (!ChromeSettings.MinidumpPath.isEmpty() && !ChromeSettings.MinidumpPath.contains("/")) {
                 chromeOptions.setCapability("minidumpPath", ChromeSettings.MinidumpPath);
-                System.out.format("\nSet the minidump path to: %s", ChromeSettings.MinidumpPath);
+                RatLog.human("Set the minidump path to: %s", ChromeSettings.MinidumpPath);
             }
         } catch (Exception e) {
-            System.out.println("\nUnable to set the minidump path");
+            RatLog.human("Unable to set the minidump path");
         }
     }
 
@@ -365,9 +472,28 @@ public class ChromeControl extends RemoteControl {
         try {
             if (ChromeSettings.DebuggerAddress != null && !ChromeSettings.DebuggerAddress.isEmpty())
                 chromeOptions.setCapability("debuggerAddress", ChromeSettings.DebuggerAddress);
-            System.out.format("\nSet the debugger address to: %s", ChromeSettings.DebuggerAddress);
+            RatLog.human("Set the debugger address to: %s", ChromeSettings.DebuggerAddress);
         } catch (Exception e) {
-            System.out.println("\nUnable to set the debugger address.");
+            RatLog.human("Unable to set the debugger address.");
+        }
+    }
+
+    /**
+     * Runs Chrome headless with the low-overhead flags, keeping any extensions that have been asked for
+     */
+    private void setHeadless() {
+        try {
+            if (Boolean.TRUE.equals(ChromeSettings.Headless)) {
+                boolean keepExtensions = ChromeSettings.ExtensionsList != null && !ChromeSettings.ExtensionsList.isEmpty();
+                for (String argument : HeadlessFlags.CHROMIUM) {
+                    if (!(keepExtensions && argument.equals("--disable-extensions"))) {
+                        chromeOptions.addArguments(argument);
+                    }
+                }
+                RatLog.human("Set Chrome to run headless.");
+            }
+        } catch (Exception e) {
+            RatLog.human("Unable to set Chrome to run headless.");
         }
     }
 
@@ -375,22 +501,22 @@ public class ChromeControl extends RemoteControl {
         try {
             if (ChromeSettings.LeaveBrowserRunning.contains("true")) {
                 chromeOptions.setCapability("detach", true);
-                System.out.println("\nSet the driver to leave Chrome running.");
+                RatLog.human("Set the driver to leave Chrome running.");
             } else {
                 chromeOptions.setCapability("detach", false);
-                System.out.println("\nSet the driver to close Chrome.");
+                RatLog.human("Set the driver to close Chrome.");
             }
         } catch (Exception e) {
-            System.out.println("\nUnable to set detachment value.");
+            RatLog.human("Unable to set detachment value.");
         }
     }
 
     private void setChromeBinaryLocation() {
         try {
             chromeOptions.setCapability("binary", ChromeSettings.BinaryLocation);
-            System.out.format("\nSet the binary location to: %s", ChromeSettings.DebuggerAddress);
+            RatLog.human("Set the binary location to: %s", ChromeSettings.DebuggerAddress);
         } catch (Exception e) {
-            System.out.println("\nUnable to set the location of the Chrome binary");
+            RatLog.human("Unable to set the location of the Chrome binary");
         }
     }
 
@@ -409,11 +535,11 @@ public class ChromeControl extends RemoteControl {
                     name = setting[0];
                     objValue = setting[1].split("\\|")[0];
                     chromeOptions.setCapability(name, objValue);
-                    System.out.format("\nSet profile preference '%s' to '%s'.", name, objValue.toString());
+                    RatLog.human("Set profile preference '%s' to '%s'.", name, objValue.toString());
                 }
             }
         } catch (Exception ex) {
-            System.out.println("\nCould not successfully add the local state preferences required.");
+            RatLog.human("Could not successfully add the local state preferences required.");
         }
     }
 
@@ -432,11 +558,11 @@ public class ChromeControl extends RemoteControl {
                     name = setting[0];
                     objValue = setting[1].split("\\|")[0];
                     chromeOptions.setCapability(name, objValue);
-                    System.out.format("\nSet local state preference '%s' to '%s'.", name, objValue.toString());
+                    RatLog.human("Set local state preference '%s' to '%s'.", name, objValue.toString());
                 }
             }
         } catch (Exception ex) {
-            System.out.println("\nCould not successfully add the local state preferences required.");
+            RatLog.human("Could not successfully add the local state preferences required.");
         }
     }
 
@@ -451,10 +577,10 @@ public class ChromeControl extends RemoteControl {
                     extensions[0] = ChromeSettings.ExtensionsList;
                 }
                 chromeOptions.setCapability("extensions", extensions);
-                System.out.format("\nAdded extensions: %s", ChromeSettings.ExtensionsList);
+                RatLog.human("Added extensions: %s", ChromeSettings.ExtensionsList);
             }
         } catch (Exception ex) {
-            System.out.println("\nCould not successfully compile the required extensions required.");
+            RatLog.human("Could not successfully compile the required extensions required.");
         }
     }
 
@@ -478,10 +604,10 @@ public class ChromeControl extends RemoteControl {
                     mobileEmulation.put("userAgent", ChromeSettings.UserAgent);
                 }
                 chromeOptions.setExperimentalOption("mobileEmulation", mobileEmulation);
-                System.out.println("\nSet mobile emulation as requested.");
+                RatLog.human("Set mobile emulation as requested.");
             }
         } catch (Exception ex) {
-            System.out.println("\nCould not set the mobile emulation preferences for Chrome Driver.");
+            RatLog.human("Could not set the mobile emulation preferences for Chrome Driver.");
         }
     }
 
@@ -498,10 +624,10 @@ public class ChromeControl extends RemoteControl {
                 perfLoggingPrefs.put("traceCategories", ChromeSettings.TracingCategories);
                 perfLoggingPrefs.put("bufferUsageReportingInterval", ChromeSettings.BufferUsageReportingInterval);
                 chromeOptions.setExperimentalOption("perfLoggingPrefs", perfLoggingPrefs);
-                System.out.println("S\net performance logging preferences as requested.");
+                RatLog.human("S\net performance logging preferences as requested.");
             }
         } catch (Exception ex) {
-            System.out.println("\nCould not set the performance logging preferences for Chrome Driver.");
+            RatLog.human("Could not set the performance logging preferences for Chrome Driver.");
         }
     }
 
@@ -510,23 +636,10 @@ public class ChromeControl extends RemoteControl {
             if (ChromeSettings.ChromeDriverLocation != null && !ChromeSettings.ChromeDriverLocation.isEmpty()) {
                 System.setProperty("webdriver.chrome.driver", ChromeSettings.ChromeDriverLocation);
                 builder.usingDriverExecutable(new File(ChromeSettings.ChromeDriverLocation));
-                System.out.format("\nSet the chrome driver location to: %s", ChromeSettings.LogPath);
-            }
-        } catch (Exception e) {
-            System.out.println("\nUnable to set the driver executable value");
-        }
-    }
-
-    private void setDriverPort(ChromeDriverService.Builder builder) {
-        try {
-            if (ChromeSettings.Port != 4444) {
-                builder.usingAnyFreePort();
-            } else {
-                builder.usingPort(ChromeSettings.Port);
-                System.out.format("\nSet the driver port to: %s", ChromeSettings.LogPath);
+                RatLog.human("Set the chrome driver location to: %s", ChromeSettings.LogPath);
             }
         } catch (Exception e) {
-            System.out.println("\nUnable to set the driver port.");
+            RatLog.human("Unable to set the driver executable value");
         }
     }
 
@@ -534,10 +647,10 @@ public class ChromeControl extends RemoteControl {
         try {
             if (ChromeSettings.LogPath != null && !ChromeSettings.LogPath.isEmpty()) {
                 builder.withLogFile(new File(ChromeSettings.LogPath));
-                System.out.format("\nSet the log file location to: %s", ChromeSettings.LogPath);
+                RatLog.human("Set the log file location to: %s", ChromeSettings.LogPath);
             }
         } catch (Exception e) {
-            System.out.println("\nUnable to set the log file location.");
+            RatLog.human("Unable to set the log file location.");
         }
     }
 
@@ -545,10 +658,10 @@ public class ChromeControl extends RemoteControl {
         try {
             if (ChromeSettings.WhitelistedIPAddresses != null && !ChromeSettings.WhitelistedIPAddresses.isEmpty()) {
                 builder.withWhitelistedIps(ChromeSettings.WhitelistedIPAddresses);
-                System.out.format("\nIPs added to the White List: %s", ChromeSettings.WhitelistedIPAddresses);
+                RatLog.human("IPs added to the White List: %s", ChromeSettings.WhitelistedIPAddresses);
             }
         } catch (Exception e) {
-            System.out.println("\nUnable to set the Whitelisted IP Addresses.");
+            RatLog.human("Unable to set the Whitelisted IP Addresses.");
         }
     }
 
@@ -560,13 +673,13 @@ public class ChromeControl extends RemoteControl {
                     System.setProperty("webdriver.chrome.verboseLogging", "true");
                 }
                 builder.withVerbose(true);
-                System.out.println("\nEngaged verbose logging.");
+                RatLog.human("Engaged verbose logging.");
             } else {
                 builder.withVerbose(false);
-                System.out.println("\nDisengaged verbose logging.");
+                RatLog.human("Disengaged verbose logging.");
             }
         } catch (Exception e) {
-            System.out.println("\nUnable to set the Verbose Logging value");
+            RatLog.human("Unable to set the Verbose Logging value");
         }
     }
 
@@ -574,13 +687,13 @@ public class ChromeControl extends RemoteControl {
         try {
             if (ChromeSettings.SuppressInitialDiagnosticInformation != null && ChromeSettings.SuppressInitialDiagnosticInformation.toLowerCase().contains("true")) {
                 builder.withSilent(true);
-                System.out.println("\nEngaged silent running.");
+                RatLog.human("Engaged silent running.");
             } else {
                 builder.withSilent(false);
-                System.out.println("\nDisengaged silent running.");
+                RatLog.human("Disengaged silent running.");
             }
         } catch (Exception e) {
-            System.out.println("\nUnable to engage silent running.");
+            RatLog.human("Unable to engage silent running.");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,308 @@
+package org.liberator.ratdriver.control;
+
+import com.sun.javafx.PlatformUtil;
+import org.liberator.ratdriver.entities.DriverBinary;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.logging.RatLog;
+import org.liberator.ratdriver.settings.BaseSettings;
+import org.openqa.selenium.SessionNotCreatedException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds and verifies driver executables, such as chromedriver, before a browser is started.
+ * <p>
+ * A driver is found at its configured location, or on the PATH if there is nothing there, and is verified once by
+ * running it with --version and taking its SHA-256 checksum. The results are kept in an index file, keyed by the
+ * executable's path, size and modification time, so that later launches and later JVMs do not run the driver again
+ * until the file changes. A driver that is missing, cannot be run or reports itself as a different driver fails
+ * straight away with a SessionNotCreatedException, rather than deep inside session creation.
+ */
+@SuppressWarnings("unused")
+public final class DriverBinaryRegistry {
+
+    /**
+     * How long a driver is given to print its version
+     */
+    private static final long PROBE_TIMEOUT_SECONDS = 10;
+
+    private static final int FIELD_COUNT = 4;
+
+    private static DriverBinaryRegistry instance;
+
+    private final Path indexFile;
+    private final Map<String, DriverBinary> binaries = new ConcurrentHashMap<>();
+    private final AtomicInteger probeCount = new AtomicInteger();
+
+    /**
+     * Creates a registry that keeps its index in a given file
+     * @param indexFile The index file, which is read now if it exists
+     */
+    public DriverBinaryRegistry(Path indexFile) {
+        this.indexFile = indexFile;
+        load();
+    }
+
+    /**
+     * @return The registry shared by every session in this JVM, which keeps its index at BaseSettings.DriverIndexLocation
+     */
+    public static synchronized DriverBinaryRegistry getInstance() {
+        if (instance == null) {
+            instance = new DriverBinaryRegistry(Paths.get(BaseSettings.DriverIndexLocation));
+        }
+        return instance;
+    }
+
+    /**
+     * Finds and verifies the executable for a driver
+     * @param type The type of driver
+     * @param location The configured location of the executable, or null or empty to search the PATH
+     * @return The verified executable
+     * @throws SessionNotCreatedException if the executable is missing, cannot be run, or is not the expected driver
+     */
+    public DriverBinary resolve(DriverType type, String location) {
+        Path executable = find(type, location);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(executable, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            throw new SessionNotCreatedException("Could not read the " + type + " executable at " + executable, ex);
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        String key = executable.toString();
+        DriverBinary known = binaries.get(key);
+        if (known != null && known.matches(size, lastModified)) {
+            return known;
+        }
+        if (known != null) {
+            RatLog.human("The %s executable at %s has changed since it was verified, so it will be verified again.", type, key);
+        }
+        DriverBinary verified = binaries.compute(key, (ignored, current) ->
+                current != null && current.matches(size, lastModified) ? current : verify(type, executable, size, lastModified));
+        if (verified != known) {
+            save();
+        }
+        return verified;
+    }
+
+    /**
+     * @return The number of times a driver has been run to verify it
+     */
+    public int getProbeCount() {
+        return probeCount.get();
+    }
+
+    /**
+     * @return The verified executables, by path
+     */
+    public Map<String, DriverBinary> getBinaries() {
+        return Collections.unmodifiableMap(binaries);
+    }
+
+    private Path find(DriverType type, String location) {
+        if (location != null && !location.isEmpty()) {
+            Path configured = Paths.get(location).toAbsolutePath().normalize();
+            if (Files.isRegularFile(configured)) {
+                if (!PlatformUtil.isWindows() && !Files.isExecutable(configured)) {
+                    throw new SessionNotCreatedException("The " + type + " executable at " + configured + " is not executable.");
+                }
+                return configured;
+            }
+            RatLog.human("No %s executable was found at %s, so the PATH will be searched.", type, configured);
+        }
+        String path = System.getenv("PATH");
+        if (path != null) {
+            for (String directory : path.split(File.pathSeparator)) {
+                for (String name : executableNames(type)) {
+                    Path candidate = Paths.get(directory, name).toAbsolutePath().normalize();
+                    if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+        throw new SessionNotCreatedException("No " + type + " executable was found at " + location + " or on the PATH.");
+    }
+
+    private DriverBinary verify(DriverType type, Path executable, long size, long lastModified) {
+        probeCount.incrementAndGet();
+        String version = probeVersion(type, executable);
+        String token = productToken(type);
+        if (token != null && !version.toLowerCase(Locale.ROOT).contains(token.toLowerCase(Locale.ROOT))) {
+            throw new SessionNotCreatedException("The executable at " + executable + " is not a " + type
+                    + " executable. It reports itself as: " + version);
+        }
+        DriverBinary binary = new DriverBinary(executable.toString(), version, checksum(executable), size, lastModified);
+        RatLog.human("Verified the %s executable %s.", type, binary);
+        return binary;
+    }
+
+    private String probeVersion(DriverType type, Path executable) {
+        Path output = null;
+        try {
+            output = Files.createTempFile("ratdriver-version", ".txt");
+            Process process = new ProcessBuilder(executable.toString(), "--version")
+                    .redirectErrorStream(true)
+                    .redirectOutput(output.toFile())
+                    .start();
+            if (!process.waitFor(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new SessionNotCreatedException("The " + type + " executable at " + executable
+                        + " did not report its version within " + PROBE_TIMEOUT_SECONDS + " seconds.");
+            }
+            String printed = new String(Files.readAllBytes(output), StandardCharsets.UTF_8).trim();
+            if (process.exitValue() != 0) {
+                throw new SessionNotCreatedException("The " + type + " executable at " + executable
+                        + " could not report its version: " + printed);
+            }
+            return printed.isEmpty() ? "unknown" : printed.split("\\R", 2)[0].trim();
+        } catch (IOException ex) {
+            throw new SessionNotCreatedException("The " + type + " executable at " + executable + " could not be run.", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while verifying the " + type + " executable.", ex);
+        } finally {
+            deleteQuietly(output);
+        }
+    }
+
+    private static String checksum(Path executable) {
+        try (InputStream input = Files.newInputStream(executable)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new SessionNotCreatedException("Could not checksum the executable at " + executable, ex);
+        }
+    }
+
+    /**
+     * The names the driver's executable is installed under
+     */
+    private static List<String> executableNames(DriverType type) {
+        String suffix = PlatformUtil.isWindows() ? ".exe" : "";
+        switch (type) {
+            case ChromeDriver:
+                return Collections.singletonList("chromedriver" + suffix);
+            case FirefoxDriver:
+                return Collections.singletonList("geckodriver" + suffix);
+            case OperaDriver:
+                return Collections.singletonList("operadriver" + suffix);
+            case EdgeDriver:
+                return Arrays.asList("msedgedriver" + suffix, "MicrosoftWebDriver" + suffix);
+            case InternetExplorerDriver:
+                return Collections.singletonList("IEDriverServer" + suffix);
+            case SafariDriver:
+                return Collections.singletonList("safaridriver");
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    /**
+     * A word the driver prints in its version, used to catch one driver's path pointing at another, or null if the
+     * driver's version text is not known well enough to check
+     */
+    private static String productToken(DriverType type) {
+        switch (type) {
+            case ChromeDriver:
+                return "ChromeDriver";
+            case FirefoxDriver:
+                return "geckodriver";
+            case OperaDriver:
+                return "OperaDriver";
+            case EdgeDriver:
+                return "Edge";
+            default:
+                return null;
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+        Properties index = new Properties();
+        try (InputStream input = Files.newInputStream(indexFile)) {
+            index.load(input);
+        } catch (IOException ex) {
+            RatLog.human("Unable to read the driver index %s, so drivers will be verified again.", indexFile);
+            return;
+        }
+        for (String path : index.stringPropertyNames()) {
+            String[] fields = index.getProperty(path).split("\\|", FIELD_COUNT);
+            try {
+                binaries.put(path, new DriverBinary(path, fields[3], fields[2], Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+            } catch (RuntimeException ex) {
+                RatLog.human("Ignoring the malformed driver index entry for %s.", path);
+            }
+        }
+    }
+
+    private synchronized void save() {
+        Properties index = new Properties();
+        for (DriverBinary binary : binaries.values()) {
+            index.setProperty(binary.Path, String.join("|", String.valueOf(binary.Size),
+                    String.valueOf(binary.LastModified), binary.Sha256, binary.Version));
+        }
+        Path temporary = null;
+        try {
+            Path directory = indexFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, indexFile.getFileName().toString(), ".tmp");
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                index.store(output, "Driver executables verified by RatDriver: size|modified|sha256|version");
+            }
+            try {
+                Files.move(temporary, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            RatLog.human("Unable to write the driver index %s.", indexFile);
+            deleteQuietly(temporary);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            // left for the temporary directory's own clean-up
+        }
+    }
+}
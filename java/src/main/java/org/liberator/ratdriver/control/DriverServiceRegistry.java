@@ -0,0 +1,320 @@
+package org.liberator.ratdriver.control;
+
+import org.liberator.ratdriver.logging.RatLog;
+import org.liberator.ratdriver.performance.RatProcessMemory;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.net.PortProber;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Shares driver service processes, such as chromedriver, between the sessions of a JVM.
+ * <p>
+ * Each distinct service configuration is started once, on the first session that needs it, and the sessions talk to
+ * it through a RemoteWebDriver. The service is stopped when the last of its sessions quits. Ports are handed out by
+ * the registry, which remembers the ports it has given out so that two services started at once are never given the
+ * same free port.
+ */
+@SuppressWarnings("unused")
+public final class DriverServiceRegistry {
+
+    /**
+     * Starts a driver service listening on a given port
+     */
+    @FunctionalInterface
+    public interface ServiceFactory {
+        DriverService create(int port) throws IOException;
+    }
+
+    /**
+     * How long a port handed out by allocatePort stays reserved, long enough for a driver to bind it
+     */
+    private static final long PORT_RESERVATION_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The number of ports tried before giving up on starting a service
+     */
+    private static final int START_ATTEMPTS = 3;
+
+    private static final DriverServiceRegistry INSTANCE = new DriverServiceRegistry();
+
+    private final Map<String, SharedService> services = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> reservedPorts = new ConcurrentHashMap<>();
+
+    DriverServiceRegistry() {
+    }
+
+    /**
+     * @return The registry shared by every session in this JVM
+     */
+    public static DriverServiceRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts a session on a shared driver service, starting the service if no other session is using it
+     * @param key Identifies the service configuration, such as the driver executable and its logging settings
+     * @param preferredPort The port to start the service on if it is free, or zero or less for any free port
+     * @param factory Builds the service for a port
+     * @param capabilities The capabilities requested for the session
+     * @return A driver that releases its share of the service when it quits
+     */
+    public RemoteWebDriver startSession(String key, int preferredPort, ServiceFactory factory, Capabilities capabilities) {
+        return startSession(key, preferredPort, factory, capabilities, null);
+    }
+
+    /**
+     * Starts a session on a shared driver service, starting the service if no other session is using it
+     * @param key Identifies the service configuration, such as the driver executable and its logging settings
+     * @param preferredPort The port to start the service on if it is free, or zero or less for any free port
+     * @param factory Builds the service for a port
+     * @param capabilities The capabilities requested for the session
+     * @param onQuit Run once the session has quit, for example to delete its profile, or null
+     * @return A driver that releases its share of the service when it quits
+     */
+    public RemoteWebDriver startSession(String key, int preferredPort, ServiceFactory factory, Capabilities capabilities,
+                                        Runnable onQuit) {
+        SharedService service = services.computeIfAbsent(key, SharedService::new);
+        int generation = acquire(service, preferredPort, factory);
+        try {
+            return new SharedServiceDriver(this, service, generation, capabilities, onQuit);
+        } catch (RuntimeException ex) {
+            release(service, generation);
+            throw ex;
+        }
+    }
+
+    /**
+     * Reserves a free port for a service that is not shared, such as geckodriver, which hosts one session at a time
+     * @return A port that is free and has not been handed out by this registry within the last minute
+     */
+    public int allocatePort() {
+        while (true) {
+            int port = PortProber.findFreePort();
+            long now = System.currentTimeMillis();
+            Long reservedUntil = reservedPorts.get(port);
+            if (reservedUntil == null) {
+                if (reservedPorts.putIfAbsent(port, now + PORT_RESERVATION_MILLIS) == null) {
+                    return port;
+                }
+            } else if (reservedUntil < now && reservedPorts.replace(port, reservedUntil, now + PORT_RESERVATION_MILLIS)) {
+                return port;
+            }
+        }
+    }
+
+    /**
+     * @return The number of shared services running
+     */
+    public int getRunningServiceCount() {
+        int running = 0;
+        for (SharedService service : services.values()) {
+            synchronized (service) {
+                if (service.service != null) {
+                    running++;
+                }
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Gets the number of sessions using a shared service
+     * @param key Identifies the service configuration
+     * @return The number of sessions
+     */
+    public int getSessionCount(String key) {
+        SharedService service = services.get(key);
+        if (service == null) {
+            return 0;
+        }
+        synchronized (service) {
+            return service.sessions;
+        }
+    }
+
+    /**
+     * Stops every running service, whether or not sessions are still using it, as when the JVM shuts down
+     */
+    public void stopAll() {
+        for (SharedService shared : services.values()) {
+            synchronized (shared) {
+                if (shared.service != null) {
+                    stop(shared);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a share of a service, starting it if needed
+     * @return The generation of the service, so that sessions of a service that died and was restarted do not
+     * release the new one
+     */
+    private int acquire(SharedService shared, int preferredPort, ServiceFactory factory) {
+        synchronized (shared) {
+            if (shared.service != null && !shared.service.isRunning()) {
+                RatLog.human("The %s driver service has stopped, so it will be restarted.", shared.key);
+                stop(shared);
+            }
+            if (shared.service == null) {
+                start(shared, preferredPort, factory);
+            }
+            shared.sessions++;
+            return shared.generation;
+        }
+    }
+
+    private void release(SharedService shared, int generation) {
+        synchronized (shared) {
+            if (shared.generation == generation && shared.service != null && --shared.sessions == 0) {
+                stop(shared);
+            }
+        }
+    }
+
+    private void start(SharedService shared, int preferredPort, ServiceFactory factory) {
+        WebDriverException failure = null;
+        for (int attempt = 0; attempt < START_ATTEMPTS; attempt++) {
+            int port = attempt == 0 && preferredPort > 0 && isFree(preferredPort) ? preferredPort : allocatePort();
+            reservedPorts.put(port, Long.MAX_VALUE);
+            DriverService service = null;
+            try {
+                service = factory.create(port);
+                Set<Long> before = ProcessHandle.current().children().map(ProcessHandle::pid).collect(Collectors.toSet());
+                service.start();
+                shared.service = service;
+                shared.process = processOf(before, port);
+                shared.port = port;
+                shared.generation++;
+                return;
+            } catch (IOException | RuntimeException ex) {
+                if (service != null && service.isRunning()) {
+                    service.stop();
+                }
+                reservedPorts.remove(port);
+                failure = new WebDriverException("Could not start the " + shared.key + " driver service on port " + port, ex);
+            }
+        }
+        throw failure;
+    }
+
+    private void stop(SharedService shared) {
+        try {
+            shared.service.stop();
+        } catch (RuntimeException ex) {
+            RatLog.human("Unable to stop the %s driver service.", shared.key);
+        }
+        if (shared.process != null && shared.process.isAlive()) {
+            RatLog.human("The %s driver service is still running, so its processes will be killed.", shared.key);
+            shared.process.descendants().forEach(ProcessHandle::destroyForcibly);
+            shared.process.destroyForcibly();
+        }
+        reservedPorts.remove(shared.port);
+        shared.service = null;
+        shared.process = null;
+        shared.sessions = 0;
+    }
+
+    /**
+     * Finds the process of a service that has just started: the new child of this JVM with its port on its command line
+     * @param before The children of this JVM before the service started
+     * @param port The port of the service
+     * @return The process, or null if it cannot be found
+     */
+    private static ProcessHandle processOf(Set<Long> before, int port) {
+        return ProcessHandle.current().children()
+                .filter(child -> !before.contains(child.pid()))
+                .filter(child -> RatProcessMemory.commandLine(child).contains(String.valueOf(port)))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private boolean isFree(int port) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Integer, Long> reservation : reservedPorts.entrySet()) {
+            if (reservation.getValue() < now) {
+                reservedPorts.remove(reservation.getKey(), reservation.getValue());
+            }
+        }
+        if (reservedPorts.containsKey(port)) {
+            return false;
+        }
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(true);
+            socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * A driver service and the number of sessions using it. Guarded by its own monitor.
+     */
+    private static final class SharedService {
+        final String key;
+        DriverService service;
+        ProcessHandle process;
+        int port;
+        int sessions;
+        int generation;
+
+        SharedService(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * A session on a shared service, which gives up its share of the service when it quits
+     */
+    private static final class SharedServiceDriver extends RemoteWebDriver {
+        private final DriverServiceRegistry registry;
+        private final SharedService shared;
+        private final int generation;
+        private final Runnable onQuit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SharedServiceDriver(DriverServiceRegistry registry, SharedService shared, int generation, Capabilities capabilities,
+                            Runnable onQuit) {
+            super(urlOf(shared), capabilities);
+            this.registry = registry;
+            this.shared = shared;
+            this.generation = generation;
+            this.onQuit = onQuit;
+        }
+
+        private static URL urlOf(SharedService shared) {
+            synchronized (shared) {
+                return shared.service.getUrl();
+            }
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    registry.release(shared, generation);
+                    if (onQuit != null) {
+                        onQuit.run();
+                    }
+                }
+            }
+        }
+    }
+}
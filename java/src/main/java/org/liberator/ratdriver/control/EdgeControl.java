@@ -1,12 +1,14 @@
 package org.liberator.ratdriver.control;
 
 import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.logging.RatLog;
 import org.liberator.ratdriver.preferences.BasePreferences;
 import org.liberator.ratdriver.preferences.EdgePreferences;
 import org.liberator.ratdriver.settings.BaseSettings;
 import org.liberator.ratdriver.settings.EdgeSettings;
+import org.liberator.ratdriver.settings.RatSessionConfig;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 
@@ -30,6 +32,9 @@ public class EdgeControl extends RemoteControl {
 
     public EdgeDriverService.Builder builder;
 
+
+    private EdgePreferences edgePreferences;
+
     //endregion
 
 
@@ -38,7 +43,7 @@ public class EdgeControl extends RemoteControl {
 
     public EdgeControl(EdgePreferences edgePreferences) {
         options = new EdgeOptions();
-        setImportedPreferences(edgePreferences);
+        this.edgePreferences = edgePreferences;
     }
 
     private void setImportedPreferences(EdgePreferences edgePreferences) {
@@ -84,18 +89,24 @@ public class EdgeControl extends RemoteControl {
      */
     public WebDriver startDriver() {
         try {
-            System.setProperty("webdriver.edge.driver", BaseSettings.EdgeDriverLocation);
-
-            setEdgeOptions();
-            setEdgeDriverService();
-
-            if (service != null && options != null) {
-                driver = new EdgeDriver(service, options);
-            } else if (options == null && service != null) {
-                driver = new EdgeDriver(service);
-            } else if (options != null) {
-                driver = new EdgeDriver(options);
+            EdgeOptions edgeOptions;
+            EdgeDriverService.Builder serviceBuilder;
+            String serviceKey;
+            int port;
+            synchronized (SETTINGS_LOCK) {
+                setImportedPreferences(edgePreferences);
+                config = RatSessionConfig.fromSettings();
+                BaseSettings.EdgeDriverLocation = resolveDriver(DriverType.EdgeDriver, BaseSettings.EdgeDriverLocation);
+                System.setProperty("webdriver.edge.driver", BaseSettings.EdgeDriverLocation);
+
+                setEdgeOptions();
+
+                edgeOptions = options;
+                serviceBuilder = createEdgeDriverServiceBuilder();
+                serviceKey = getServiceKey();
+                port = EdgeSettings.Port != null ? EdgeSettings.Port : 0;
             }
+            driver = DriverServiceRegistry.getInstance().startSession(serviceKey, port, p -> buildEdgeDriverService(serviceBuilder, p), edgeOptions);
 
             return driver;
         } catch (Exception exception) {
@@ -118,10 +129,8 @@ public class EdgeControl extends RemoteControl {
      */
     public WebDriver startDriver(BasePreferences driverSettings) {
         try {
-            System.setProperty("webdriver.edge.driver", BaseSettings.EdgeDriverLocation);
-            setImportedPreferences((EdgePreferences) driverSettings);
-            startDriver();
-            return driver;
+            edgePreferences = (EdgePreferences) driverSettings;
+            return startDriver();
         } catch (Exception exception) {
             ErrorHandler.HandleErrors(
                     driver,
@@ -143,9 +152,9 @@ public class EdgeControl extends RemoteControl {
             setTakesScreenshot();
             setUnexpectedAlertBehaviour();
             setUnhandledPromptBehaviour();
-            System.out.println("Options set for Edge Driver.");
+            RatLog.human("Options set for Edge Driver.");
         } catch (Exception ex) {
-            System.out.println("Could not set the options of the Edge Driver.");
+            RatLog.human("Could not set the options of the Edge Driver.");
         }
     }
 
@@ -153,10 +162,10 @@ public class EdgeControl extends RemoteControl {
         try {
             if (EdgeSettings.PageLoadStrategy != null) {
                 options.setPageLoadStrategy(String.valueOf(EdgeSettings.PageLoadStrategy));
-                System.out.format("\nSet the page load strategy to: %s", EdgeSettings.PageLoadStrategy);
+                RatLog.human("Set the page load strategy to: %s", EdgeSettings.PageLoadStrategy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set the page load strategy to: %s", EdgeSettings.PageLoadStrategy);
+            RatLog.human("Could not set the page load strategy to: %s", EdgeSettings.PageLoadStrategy);
         }
     }
 
@@ -164,10 +173,10 @@ public class EdgeControl extends RemoteControl {
         try {
             if (EdgeSettings.AcceptInsecureCertificates != null) {
                 options.setCapability(ACCEPT_INSECURE_CERTS, EdgeSettings.AcceptInsecureCertificates);
-                System.out.format("\nSet accept insecure certificates to: %s", EdgeSettings.AcceptInsecureCertificates.toString());
+                RatLog.human("Set accept insecure certificates to: %s", EdgeSettings.AcceptInsecureCertificates.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set accept insecure certificates to: %s", EdgeSettings.AcceptInsecureCertificates.toString());
+            RatLog.human("Could not set accept insecure certificates to: %s", EdgeSettings.AcceptInsecureCertificates.toString());
 
         }
     }
@@ -176,10 +185,10 @@ public class EdgeControl extends RemoteControl {
         try {
             if (EdgeSettings.AcceptSSLCertificates != null) {
                 options.setCapability(ACCEPT_SSL_CERTS, EdgeSettings.AcceptSSLCertificates);
-                System.out.format("\nSet accept SSL certificates to: %s", EdgeSettings.AcceptSSLCertificates.toString());
+                RatLog.human("Set accept SSL certificates to: %s", EdgeSettings.AcceptSSLCertificates.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set accept SSL certificates to: %s", EdgeSettings.AcceptSSLCertificates.toString());
+            RatLog.human("Could not set accept SSL certificates to: %s", EdgeSettings.AcceptSSLCertificates.toString());
 
         }
     }
@@ -188,10 +197,10 @@ public class EdgeControl extends RemoteControl {
         try {
             if (EdgeSettings.TakesScreenshot != null) {
                 options.setCapability(TAKES_SCREENSHOT, EdgeSettings.TakesScreenshot);
-                System.out.format("\nSet Takes Screenshot to: %s", EdgeSettings.TakesScreenshot.toString());
+                RatLog.human("Set Takes Screenshot to: %s", EdgeSettings.TakesScreenshot.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set Takes Screenshot to: %s", EdgeSettings.TakesScreenshot.toString());
+            RatLog.human("Could not set Takes Screenshot to: %s", EdgeSettings.TakesScreenshot.toString());
 
         }
     }
@@ -200,10 +209,10 @@ public class EdgeControl extends RemoteControl {
         try {
             if (EdgeSettings.UnexpectedAlertBehaviour != null) {
                 options.setCapability(UNEXPECTED_ALERT_BEHAVIOUR, EdgeSettings.UnexpectedAlertBehaviour);
-                System.out.format("\nSet Unexpected Alert Behaviour to: %s", EdgeSettings.UnexpectedAlertBehaviour);
+                RatLog.human("Set Unexpected Alert Behaviour to: %s", EdgeSettings.UnexpectedAlertBehaviour);
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set Unexpected Alert Behaviour to: %s", EdgeSettings.UnexpectedAlertBehaviour);
+            RatLog.human("Could not set Unexpected Alert Behaviour to: %s", EdgeSettings.UnexpectedAlertBehaviour);
 
         }
     }
@@ -212,46 +221,53 @@ public class EdgeControl extends RemoteControl {
         try {
             if (EdgeSettings.UnhandledPromptBehaviour != null) {
                 options.setCapability(UNHANDLED_PROMPT_BEHAVIOUR, EdgeSettings.UnhandledPromptBehaviour);
-                System.out.format("\nSet Unhandled Prompt Behaviour to: %s", EdgeSettings.UnhandledPromptBehaviour);
+                RatLog.human("Set Unhandled Prompt Behaviour to: %s", EdgeSettings.UnhandledPromptBehaviour);
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set Unhandled Prompt Behaviour to: %s", EdgeSettings.UnhandledPromptBehaviour);
+            RatLog.human("Could not set Unhandled Prompt Behaviour to: %s", EdgeSettings.UnhandledPromptBehaviour);
 
         }
     }
 
-    private void setEdgeDriverService() {
-        try {
-            builder = new EdgeDriverService.Builder();
-            setDriverExecutable();
-            setDriverPort();
-            service = builder.build();
-            System.out.println("Created the Edge Driver Service.");
-        } catch (Exception ex){
-            System.out.println("Unable to create the Edge Driver Service.");
-        }
+    /**
+     * Identifies the driver service settings, so that sessions with the same settings share one Edge driver
+     *
+     * @return The key for the DriverServiceRegistry
+     */
+    private String getServiceKey() {
+        return String.join("|", "edgedriver", EdgeSettings.EdgeDriverLocation);
     }
 
-    private void setDriverExecutable() {
-        try {
-            builder.usingDriverExecutable(new File(EdgeSettings.EdgeDriverLocation));
-            System.out.format("\nSet the driver executable to: %s", EdgeSettings.EdgeDriverLocation);
-        } catch (Exception e) {
-            System.out.format("\nUnable to set the driver executable to: %s", EdgeSettings.EdgeDriverLocation);
-        }
+    /**
+     * Configures a driver service builder from the current settings, leaving the port to the DriverServiceRegistry
+     *
+     * @return The builder
+     */
+    private EdgeDriverService.Builder createEdgeDriverServiceBuilder() {
+        builder = new EdgeDriverService.Builder();
+        setDriverExecutable();
+        return builder;
     }
 
-    private void setDriverPort() {
+    /**
+     * Builds the driver service, called by the DriverServiceRegistry when no matching service is running
+     *
+     * @param serviceBuilder The configured builder
+     * @param port           The port allocated to the service
+     * @return The driver service
+     */
+    private EdgeDriverService buildEdgeDriverService(EdgeDriverService.Builder serviceBuilder, int port) {
+        service = serviceBuilder.usingPort(port).build();
+        RatLog.human("Created the Edge Driver Service.");
+        return service;
+    }
+
+    private void setDriverExecutable() {
         try {
-            if (EdgeSettings.Port != null && EdgeSettings.Port > 0){
-                builder.usingPort(EdgeSettings.Port);
-                System.out.format("\nSet port to: %s", EdgeSettings.Port.toString());
-            } else if(EdgeSettings.Port != null) {
-                builder.usingAnyFreePort();
-                System.out.println("Using any free port, as no specific port was chosen.");
-            }
+            builder.usingDriverExecutable(new File(EdgeSettings.EdgeDriverLocation));
+            RatLog.human("Set the driver executable to: %s", EdgeSettings.EdgeDriverLocation);
         } catch (Exception e) {
-            System.out.format("\nCould not set the port to: %s", EdgeSettings.Port.toString());
+            RatLog.human("Unable to set the driver executable to: %s", EdgeSettings.EdgeDriverLocation);
         }
     }
 
@@ -1,15 +1,21 @@
 package org.liberator.ratdriver.control;
 
+import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.logging.RatLog;
 import org.liberator.ratdriver.preferences.BasePreferences;
 import org.liberator.ratdriver.preferences.FirefoxPreferences;
+import org.liberator.ratdriver.profiles.FirefoxProfileTemplates;
+import org.liberator.ratdriver.profiles.ProfileCloner;
 import org.liberator.ratdriver.settings.BaseSettings;
 import org.liberator.ratdriver.settings.FirefoxSettings;
+import org.liberator.ratdriver.settings.RatSessionConfig;
 import org.openqa.selenium.Proxy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.firefox.*;
 
 import java.io.File;
-import java.util.Arrays;
+import java.nio.file.Path;
 
 public class FirefoxControl extends RemoteControl {
 
@@ -22,6 +28,11 @@ public class FirefoxControl extends RemoteControl {
 
     private Proxy proxy;
 
+    /**
+     * Identifies the profile template for the driver being started, or null if it does not use a template
+     */
+    private String TemplateKey = null;
+
     /**
      * Holds the preset values for Firefox Options
      */
@@ -37,6 +48,8 @@ public class FirefoxControl extends RemoteControl {
      */
     public WebDriver Driver = null;
 
+    private FirefoxPreferences firefoxPreferences;
+
     //endregion
 
     //region Constructors
@@ -48,6 +61,10 @@ public class FirefoxControl extends RemoteControl {
      * @param firefoxPreferences The preferences file to be used.
      */
     public FirefoxControl(FirefoxPreferences firefoxPreferences) {
+        this.firefoxPreferences = firefoxPreferences;
+    }
+
+    private void setImportedPreferences(FirefoxPreferences firefoxPreferences) {
         if (firefoxPreferences != null) {
 
             FirefoxSettings.Timeout = firefoxPreferences.Timeout;
@@ -64,6 +81,8 @@ public class FirefoxControl extends RemoteControl {
             FirefoxSettings.AlwaysLoadNoFocusLibrary = firefoxPreferences.AlwaysLoadNoFocusLibrary;
             FirefoxSettings.AssumeUntrustedCertificateIssuer = firefoxPreferences.AssumeUntrustedCertificateIssuer;
             FirefoxSettings.CleanProfile = firefoxPreferences.CleanProfile;
+            FirefoxSettings.UseProfileTemplates = firefoxPreferences.UseProfileTemplates;
+            FirefoxSettings.Headless = firefoxPreferences.Headless;
             FirefoxSettings.CommunicationPort = firefoxPreferences.ConnectToRunningBrowser;
             FirefoxSettings.ConnectToRunningBrowser = firefoxPreferences.ConnectToRunningBrowser;
             FirefoxSettings.DeleteAfterUse = firefoxPreferences.DeleteAfterUse;
@@ -90,29 +109,64 @@ public class FirefoxControl extends RemoteControl {
      * @return A web driver instance
      */
     public WebDriver startDriver() {
+        Path profile = null;
         try {
-            System.setProperty("webdriver.gecko.driver", FirefoxSettings.FirefoxDriverLocation);
-            setOptions();
-            setFirefoxProfile(Options);
-            setDriverService();
-            addPreferencesToFirefoxProfile();
-            setProxy();
-
-            if (Service != null && Options != null) {
-                Driver = new FirefoxDriver(Service, Options);
-            } else if (Options == null && Service != null) {
-                Driver = new FirefoxDriver(Service);
-            } else if (Options != null) {
-                Driver = new FirefoxDriver(Options);
+            FirefoxOptions options;
+            GeckoDriverService service;
+            String templateKey;
+            FirefoxProfile template;
+            synchronized (SETTINGS_LOCK) {
+                setImportedPreferences(firefoxPreferences);
+                config = RatSessionConfig.fromSettings();
+                FirefoxSettings.FirefoxDriverLocation = resolveDriver(DriverType.FirefoxDriver, FirefoxSettings.FirefoxDriverLocation);
+                System.setProperty("webdriver.gecko.driver", FirefoxSettings.FirefoxDriverLocation);
+                setOptions();
+                setFirefoxProfile(Options);
+                setDriverService();
+                setProxy();
+
+                options = Options;
+                service = Service;
+                templateKey = TemplateKey;
+                template = Profile;
+            }
+            profile = cloneProfile(options, templateKey, template);
+
+            if (service != null && options != null) {
+                Driver = new ClonedProfileDriver(service, options, profile);
+            } else if (options == null && service != null) {
+                Driver = new FirefoxDriver(service);
+            } else if (options != null) {
+                Driver = new ClonedProfileDriver(options, profile);
             }
 
             return Driver;
-        } catch (Exception e) {
-            System.out.println("Could not start the Firefox Driver.");
+        } catch (Exception exception) {
+            ProfileCloner.delete(profile);
+            ErrorHandler.HandleErrors(
+                    Driver,
+                    exception,
+                    "FirefoxControl",
+                    "startDriver",
+                    "Could not start the Firefox Driver."
+            );
             return null;
         }
     }
 
+    /**
+     * Builds the options the driver would be started with, without starting it
+     *
+     * @return The options, or null if no option has been set
+     */
+    public FirefoxOptions buildOptions() {
+        synchronized (SETTINGS_LOCK) {
+            setImportedPreferences(firefoxPreferences);
+            setOptions();
+            return Options;
+        }
+    }
+
     /**
      * Starts a web driver
      *
@@ -120,28 +174,8 @@ public class FirefoxControl extends RemoteControl {
      * @return A web driver instance
      */
     public WebDriver startDriver(BasePreferences driverSettings) {
-        try {
-            System.setProperty("webdriver.gecko.driver", FirefoxSettings.FirefoxDriverLocation);
-
-            setOptions();
-            setFirefoxProfile(Options);
-            setDriverService();
-            addPreferencesToFirefoxProfile();
-            setProxy();
-
-            if (Service != null && Options != null) {
-                Driver = new FirefoxDriver(Service, Options);
-            } else if (Options == null && Service != null) {
-                Driver = new FirefoxDriver(Service);
-            } else if (Options != null) {
-                Driver = new FirefoxDriver(Options);
-            }
-
-            return Driver;
-        } catch (Exception e) {
-            System.out.println("Could not start the Firefox Driver.");
-            return null;
-        }
+        firefoxPreferences = (FirefoxPreferences) driverSettings;
+        return startDriver();
     }
 
 
@@ -153,13 +187,15 @@ public class FirefoxControl extends RemoteControl {
             if (FirefoxSettings.AcceptUntrustedCertificates != null ||
                     FirefoxSettings.LogLevel != null ||
                     FirefoxSettings.PageLoadStrategy != null ||
-                    FirefoxSettings.UnexpectedAlertBehaviour != null) {
+                    FirefoxSettings.UnexpectedAlertBehaviour != null ||
+                    Boolean.TRUE.equals(FirefoxSettings.Headless)) {
                 FirefoxOptions options = new FirefoxOptions();
 
                 setAcceptInsecureCertificates(options);
                 setLogLevel(options);
                 setPageLoadStrategy(options);
                 setUnexpectedAlertBehaviour(options);
+                setHeadless(options);
 
                 Options = options;
             } else {
@@ -168,15 +204,15 @@ public class FirefoxControl extends RemoteControl {
         } catch (Exception ex) {
             switch (FirefoxSettings.DebugLevel) {
                 case Human:
-                    System.out.println("Could not set the Firefox option settings.");
+                    RatLog.human("Could not set the Firefox option settings.");
                     break;
                 case NotSpecified:
                 case Message:
-                    System.out.println(ex.getMessage());
+                    RatLog.message(ex);
                     break;
                 case StackTrace:
-                    System.out.println(ex.getMessage());
-                    System.out.println(Arrays.toString(ex.getStackTrace()));
+                    RatLog.message(ex);
+                    RatLog.stackTrace(ex);
                     break;
             }
             Options = null;
@@ -192,12 +228,11 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (FirefoxSettings.UnexpectedAlertBehaviour != null) {
                 options.setUnhandledPromptBehaviour(FirefoxSettings.UnexpectedAlertBehaviour);
-                System.out.format("The alert behaviour was set to: %s", FirefoxSettings.UnexpectedAlertBehaviour.toString());
-                System.out.println();
+                RatLog.human("The alert behaviour was set to: %s", FirefoxSettings.UnexpectedAlertBehaviour.toString());
             }
         } catch (Exception e) {
-            System.out.println("Could not set the unexpected alert behaviour.");
-            System.out.format("Intended behaviour was: %s", FirefoxSettings.UnexpectedAlertBehaviour.toString());
+            RatLog.human("Could not set the unexpected alert behaviour.");
+            RatLog.human("Intended behaviour was: %s", FirefoxSettings.UnexpectedAlertBehaviour.toString());
         }
     }
 
@@ -208,12 +243,11 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (FirefoxSettings.PageLoadStrategy != null) {
                 options.setPageLoadStrategy(FirefoxSettings.PageLoadStrategy);
-                System.out.format("The page load strategy was set to: %s", FirefoxSettings.PageLoadStrategy.toString());
-                System.out.println();
+                RatLog.human("The page load strategy was set to: %s", FirefoxSettings.PageLoadStrategy.toString());
             }
         } catch (Exception e) {
-            System.out.println("Could not set the page load strategy");
-            System.out.format("Intended strategy was: %s", FirefoxSettings.PageLoadStrategy.toString());
+            RatLog.human("Could not set the page load strategy");
+            RatLog.human("Intended strategy was: %s", FirefoxSettings.PageLoadStrategy.toString());
         }
     }
 
@@ -224,12 +258,11 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (FirefoxSettings.LogLevel != null) {
                 options.setLogLevel(FirefoxSettings.LogLevel);
-                System.out.format("The log level was set to: %s", FirefoxSettings.LogLevel.toString());
-                System.out.println();
+                RatLog.human("The log level was set to: %s", FirefoxSettings.LogLevel.toString());
             }
         } catch (Exception e) {
-            System.out.println("Could not set the Log Level.");
-            System.out.format("The log level was set to: %s", FirefoxSettings.LogLevel.toString());
+            RatLog.human("Could not set the Log Level.");
+            RatLog.human("The log level was set to: %s", FirefoxSettings.LogLevel.toString());
         }
     }
 
@@ -241,28 +274,114 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (FirefoxSettings.UseLegacyImplementation != null) {
                 options.setLegacy(FirefoxSettings.UseLegacyImplementation);
-                System.out.format("Set use legacy implementation to: %s", FirefoxSettings.UseLegacyImplementation.toString());
-                System.out.println();
+                RatLog.human("Set use legacy implementation to: %s", FirefoxSettings.UseLegacyImplementation.toString());
             }
         } catch (Exception e) {
-            System.out.println("Could not set the legacy implementation.");
-            System.out.format("The property was set to: %s", FirefoxSettings.UseLegacyImplementation.toString());
+            RatLog.human("Could not set the legacy implementation.");
+            RatLog.human("The property was set to: %s", FirefoxSettings.UseLegacyImplementation.toString());
         }
     }
 
     /**
+     * Builds the profile from the settings. When profile templates are turned off, the profile is sent to the driver;
+     * otherwise it is kept in memory with the key of its template, and laid out and cloned by cloneProfile once the
+     * settings lock has been released.
+     *
      * @param options The Options object
      */
     private void setFirefoxProfile(FirefoxOptions options) {
+        TemplateKey = null;
+        Profile = null;
         try {
-            if (FirefoxSettings.ProfileDirectory != null) {
-                Profile = new FirefoxProfile(new File(FirefoxSettings.ProfileDirectory));
-                options.setProfile(Profile);
-            } else {
-                createBasicProfile();
+            if (Boolean.FALSE.equals(FirefoxSettings.UseProfileTemplates)) {
+                buildProfile();
+                if (Profile != null) {
+                    options.setProfile(Profile);
+                }
+            } else if (options != null && (hasProfileDirectory() || hasBasicProfileSettings())) {
+                buildProfile();
+                TemplateKey = getProfileKey();
+            }
+        } catch (Exception e) {
+            TemplateKey = null;
+            RatLog.human("Could not add the profile to the FirefoxOptions.");
+        }
+    }
+
+    /**
+     * Points the options at a clone of the profile's template, laying the template out on disk on first use
+     *
+     * @param options The Options object
+     * @param templateKey Identifies the template, or null if the driver does not use one
+     * @param profile The profile the template is laid out from
+     * @return The clone, or null if no profile was cloned
+     */
+    private static Path cloneProfile(FirefoxOptions options, String templateKey, FirefoxProfile profile) {
+        if (templateKey == null || profile == null) {
+            return null;
+        }
+        Path clone = null;
+        try {
+            clone = FirefoxProfileTemplates.getInstance().cloneTemplate(templateKey, () -> profile);
+            options.addArguments("-profile", clone.toString());
+            RatLog.human("Cloned the Firefox profile to: %s", clone);
+            return clone;
+        } catch (Exception e) {
+            ProfileCloner.delete(clone);
+            RatLog.human("Could not add the profile to the FirefoxOptions.");
+            return null;
+        }
+    }
+
+    /**
+     * Builds the profile from the profile directory, or from the certificate settings, and adds the listed preferences
+     */
+    private void buildProfile() {
+        if (hasProfileDirectory()) {
+            Profile = new FirefoxProfile(new File(FirefoxSettings.ProfileDirectory));
+        } else {
+            createBasicProfile();
+        }
+        addPreferencesToFirefoxProfile();
+    }
+
+    private boolean hasProfileDirectory() {
+        return FirefoxSettings.ProfileDirectory != null && !FirefoxSettings.ProfileDirectory.isEmpty();
+    }
+
+    private boolean hasBasicProfileSettings() {
+        return FirefoxSettings.AcceptUntrustedCertificates != null ||
+                FirefoxSettings.AlwaysLoadNoFocusLibrary != null ||
+                FirefoxSettings.AssumeUntrustedCertificateIssuer != null;
+    }
+
+    /**
+     * Identifies the profile settings, so that sessions with the same settings share one profile template
+     *
+     * @return The key for the FirefoxProfileTemplates
+     */
+    private String getProfileKey() {
+        return String.join("|",
+                hasProfileDirectory() ? new File(FirefoxSettings.ProfileDirectory).getAbsolutePath() : "",
+                String.valueOf(FirefoxSettings.AcceptUntrustedCertificates),
+                String.valueOf(FirefoxSettings.AlwaysLoadNoFocusLibrary),
+                String.valueOf(FirefoxSettings.AssumeUntrustedCertificateIssuer),
+                String.valueOf(FirefoxSettings.Preferences));
+    }
+
+    /**
+     * Runs Firefox headless with the low-overhead preferences
+     *
+     * @param options The Options object
+     */
+    private void setHeadless(FirefoxOptions options) {
+        try {
+            if (Boolean.TRUE.equals(FirefoxSettings.Headless)) {
+                HeadlessFlags.applyTo(options);
+                RatLog.human("Set Firefox to run headless.");
             }
         } catch (Exception e) {
-            System.out.println("Could not add the profile to the FirefoxOptions.");
+            RatLog.human("Could not set Firefox to run headless.");
         }
     }
 
@@ -273,12 +392,11 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (FirefoxSettings.AcceptUntrustedCertificates != null) {
                 options.setAcceptInsecureCerts(FirefoxSettings.AcceptUntrustedCertificates);
-                System.out.format("Set the acceptance of untrusted certificates to: %s", FirefoxSettings.AcceptUntrustedCertificates.toString());
-                System.out.println();
+                RatLog.human("Set the acceptance of untrusted certificates to: %s", FirefoxSettings.AcceptUntrustedCertificates.toString());
             }
         } catch (Exception e) {
-            System.out.println("Could not set the acceptance of untrusted certificates");
-            System.out.format("The property could not be set to: %s", FirefoxSettings.AcceptUntrustedCertificates.toString());
+            RatLog.human("Could not set the acceptance of untrusted certificates");
+            RatLog.human("The property could not be set to: %s", FirefoxSettings.AcceptUntrustedCertificates.toString());
         }
     }
 
@@ -287,9 +405,7 @@ public class FirefoxControl extends RemoteControl {
      */
     private void createBasicProfile() {
         try {
-            if (FirefoxSettings.AcceptUntrustedCertificates != null ||
-                    FirefoxSettings.AlwaysLoadNoFocusLibrary != null ||
-                    FirefoxSettings.AssumeUntrustedCertificateIssuer != null) {
+            if (hasBasicProfileSettings()) {
 
                 FirefoxProfile profile = new FirefoxProfile();
 
@@ -298,22 +414,21 @@ public class FirefoxControl extends RemoteControl {
                 setAssumeUntrustedIssuer(profile);
 
                 Profile = profile;
-                Options.setProfile(profile);
             } else {
                 Profile = null;
             }
         } catch (Exception ex) {
             switch (FirefoxSettings.DebugLevel) {
                 case Human:
-                    System.out.println("Could not create the Firefox profile specified in the config file.");
+                    RatLog.human("Could not create the Firefox profile specified in the config file.");
                     break;
                 case NotSpecified:
                 case Message:
-                    System.out.println(ex.getMessage());
+                    RatLog.message(ex);
                     break;
                 case StackTrace:
-                    System.out.println(ex.getMessage());
-                    System.out.println(Arrays.toString(ex.getStackTrace()));
+                    RatLog.message(ex);
+                    RatLog.stackTrace(ex);
                     break;
             }
             Profile = null;
@@ -326,8 +441,8 @@ public class FirefoxControl extends RemoteControl {
                 profile.setAssumeUntrustedCertificateIssuer(FirefoxSettings.AssumeUntrustedCertificateIssuer);
             }
         } catch (Exception e) {
-            System.out.println("Could not set the AssumeUntrustedCertificateIssuer profile preference.");
-            System.out.format("The property was set to: %s", FirefoxSettings.AssumeUntrustedCertificateIssuer.toString());
+            RatLog.human("Could not set the AssumeUntrustedCertificateIssuer profile preference.");
+            RatLog.human("The property was set to: %s", FirefoxSettings.AssumeUntrustedCertificateIssuer.toString());
         }
     }
 
@@ -342,8 +457,8 @@ public class FirefoxControl extends RemoteControl {
                 profile.setAlwaysLoadNoFocusLib(FirefoxSettings.AlwaysLoadNoFocusLibrary);
             }
         } catch (Exception e) {
-            System.out.println("Could not set the AlwaysLoadNoFocusLibrary profile preference.");
-            System.out.format("The property was set to: %s", FirefoxSettings.AlwaysLoadNoFocusLibrary.toString());
+            RatLog.human("Could not set the AlwaysLoadNoFocusLibrary profile preference.");
+            RatLog.human("The property was set to: %s", FirefoxSettings.AlwaysLoadNoFocusLibrary.toString());
         }
     }
 
@@ -359,8 +474,8 @@ public class FirefoxControl extends RemoteControl {
                 profile.setAcceptUntrustedCertificates(FirefoxSettings.AcceptUntrustedCertificates);
             }
         } catch (Exception e) {
-            System.out.println("Could not set the Accept Untrusted Certificates profile preference.");
-            System.out.format("The property was set to: %s", FirefoxSettings.AcceptUntrustedCertificates.toString());
+            RatLog.human("Could not set the Accept Untrusted Certificates profile preference.");
+            RatLog.human("The property was set to: %s", FirefoxSettings.AcceptUntrustedCertificates.toString());
         }
     }
 
@@ -381,15 +496,15 @@ public class FirefoxControl extends RemoteControl {
         } catch (Exception ex) {
             switch (FirefoxSettings.DebugLevel) {
                 case Human:
-                    System.out.println("Could not set the Firefox driver service settings.");
+                    RatLog.human("Could not set the Firefox driver service settings.");
                     break;
                 case NotSpecified:
                 case Message:
-                    System.out.println(ex.getMessage());
+                    RatLog.message(ex);
                     break;
                 case StackTrace:
-                    System.out.println(ex.getMessage());
-                    System.out.println(Arrays.toString(ex.getStackTrace()));
+                    RatLog.message(ex);
+                    RatLog.stackTrace(ex);
                     break;
             }
             Service = null;
@@ -406,10 +521,10 @@ public class FirefoxControl extends RemoteControl {
             if (FirefoxSettings.CommunicationPort != null) {
                 builder.usingPort(Integer.parseInt(FirefoxSettings.CommunicationPort));
             } else {
-                builder.usingAnyFreePort();
+                builder.usingPort(DriverServiceRegistry.getInstance().allocatePort());
             }
         } catch (NumberFormatException e) {
-            System.out.println("Could not set the communication port for the service.");
+            RatLog.human("Could not set the communication port for the service.");
         }
     }
 
@@ -425,7 +540,7 @@ public class FirefoxControl extends RemoteControl {
                 builder.usingDriverExecutable(driverFile);
             }
         } catch (Exception e) {
-            System.out.println("Could not add the driver executable to the service.");
+            RatLog.human("Could not add the driver executable to the service.");
         }
     }
 
@@ -441,7 +556,7 @@ public class FirefoxControl extends RemoteControl {
                 builder.usingFirefoxBinary(firefoxBinary);
             }
         } catch (Exception e) {
-            System.out.println("Could not add the firefox binary to the service.");
+            RatLog.human("Could not add the firefox binary to the service.");
         }
     }
 
@@ -478,16 +593,16 @@ public class FirefoxControl extends RemoteControl {
         } catch (Exception ex) {
             switch (FirefoxSettings.DebugLevel) {
                 case Human:
-                    System.out.println("Could not add the listed preferences to Firefox.");
-                    System.out.println("Please reset the config file to its default settings.");
+                    RatLog.human("Could not add the listed preferences to Firefox.");
+                    RatLog.human("Please reset the config file to its default settings.");
                     break;
                 case NotSpecified:
                 case Message:
-                    System.out.println(ex.getMessage());
+                    RatLog.message(ex);
                     break;
                 case StackTrace:
-                    System.out.println(ex.getMessage());
-                    System.out.println(Arrays.toString(ex.getStackTrace()));
+                    RatLog.message(ex);
+                    RatLog.stackTrace(ex);
                     break;
             }
         }
@@ -507,7 +622,7 @@ public class FirefoxControl extends RemoteControl {
                 setSslProxy();
             }
         } catch (Exception ex){
-            System.out.println("Could not set up the proxy with current settings.");
+            RatLog.human("Could not set up the proxy with current settings.");
         }
     }
 
@@ -515,10 +630,10 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (BaseSettings.proxyAutoconfigUrl != null && BaseSettings.proxyAutoconfigUrl.length() > 0) {
                 proxy.setProxyAutoconfigUrl(BaseSettings.proxyAutoconfigUrl);
-                System.out.format("Set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
+                RatLog.human("Set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
             }
         } catch (Exception e) {
-            System.out.format("Could not set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
+            RatLog.human("Could not set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
         }
     }
 
@@ -526,10 +641,10 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (BaseSettings.proxyType != null) {
                 proxy.setProxyType(BaseSettings.proxyType);
-                System.out.format("Set proxy type to: %s", BaseSettings.proxyType.name());
+                RatLog.human("Set proxy type to: %s", BaseSettings.proxyType.name());
             }
         } catch (Exception e) {
-            System.out.format("Could not set proxy type to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Could not set proxy type to: %s", BaseSettings.proxyType.name());
         }
     }
 
@@ -540,9 +655,9 @@ public class FirefoxControl extends RemoteControl {
             } else {
                 proxy.setAutodetect(false);
             }
-            System.out.format("Set proxy autodetect to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Set proxy autodetect to: %s", BaseSettings.proxyType.name());
         } catch (Exception e) {
-            System.out.format("Could not set proxy autodetect to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Could not set proxy autodetect to: %s", BaseSettings.proxyType.name());
         }
     }
 
@@ -550,10 +665,10 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (BaseSettings.ftpProxy != null) {
                 proxy.setFtpProxy(BaseSettings.ftpProxy);
-                System.out.format("Set ftp proxy to: %s", BaseSettings.ftpProxy);
+                RatLog.human("Set ftp proxy to: %s", BaseSettings.ftpProxy);
             }
         } catch (Exception e) {
-            System.out.format("Could not set ftp proxy to: %s", BaseSettings.ftpProxy);
+            RatLog.human("Could not set ftp proxy to: %s", BaseSettings.ftpProxy);
         }
     }
 
@@ -561,10 +676,10 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (BaseSettings.noProxy != null) {
                 proxy.setNoProxy(BaseSettings.noProxy);
-                System.out.format("Set 'no proxy' to: %s", BaseSettings.noProxy);
+                RatLog.human("Set 'no proxy' to: %s", BaseSettings.noProxy);
             }
         } catch (Exception e) {
-            System.out.format("Could not set 'no proxy' to: %s", BaseSettings.noProxy);
+            RatLog.human("Could not set 'no proxy' to: %s", BaseSettings.noProxy);
         }
     }
 
@@ -572,10 +687,10 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (BaseSettings.httpProxy != null) {
                 proxy.setHttpProxy(BaseSettings.httpProxy);
-                System.out.format("Set http proxy to: %s", BaseSettings.httpProxy);
+                RatLog.human("Set http proxy to: %s", BaseSettings.httpProxy);
             }
         } catch (Exception e) {
-            System.out.format("Could not set http proxy to: %s", BaseSettings.httpProxy);
+            RatLog.human("Could not set http proxy to: %s", BaseSettings.httpProxy);
         }
     }
 
@@ -587,13 +702,13 @@ public class FirefoxControl extends RemoteControl {
                 proxy.setSocksUsername(BaseSettings.socksUsername);
                 proxy.setSocksPassword(BaseSettings.socksPassword);
 
-                System.out.format("Set socks proxy to: %s", BaseSettings.socksProxy);
-                System.out.format("Set socks proxy version to: %s", BaseSettings.socksVersion);
-                System.out.format("Set socks proxy username to: %s", BaseSettings.socksUsername);
-                System.out.format("Set socks proxy password to: %s", BaseSettings.socksPassword);
+                RatLog.human("Set socks proxy to: %s", BaseSettings.socksProxy);
+                RatLog.human("Set socks proxy version to: %s", BaseSettings.socksVersion);
+                RatLog.human("Set socks proxy username to: %s", BaseSettings.socksUsername);
+                RatLog.human("Set socks proxy password to: %s", BaseSettings.socksPassword);
             }
         } catch (Exception e) {
-            System.out.format("Could not set socks proxy to.");
+            RatLog.human("Could not set socks proxy to.");
         }
     }
 
@@ -601,10 +716,36 @@ public class FirefoxControl extends RemoteControl {
         try {
             if (BaseSettings.sslProxy != null) {
                 proxy.setHttpProxy(BaseSettings.sslProxy);
-                System.out.format("Set SSL proxy to: %s", BaseSettings.sslProxy);
+                RatLog.human("Set SSL proxy to: %s", BaseSettings.sslProxy);
             }
         } catch (Exception e) {
-            System.out.format("Could not set SSL proxy to: %s", BaseSettings.sslProxy);
+            RatLog.human("Could not set SSL proxy to: %s", BaseSettings.sslProxy);
+        }
+    }
+
+    /**
+     * A Firefox driver running on a cloned profile, which deletes the clone when it quits
+     */
+    private static final class ClonedProfileDriver extends FirefoxDriver {
+        private final Path profile;
+
+        ClonedProfileDriver(GeckoDriverService service, FirefoxOptions options, Path profile) {
+            super(service, options);
+            this.profile = profile;
+        }
+
+        ClonedProfileDriver(FirefoxOptions options, Path profile) {
+            super(options);
+            this.profile = profile;
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                ProfileCloner.delete(profile);
+            }
         }
     }
 }
@@ -0,0 +1,86 @@
+package org.liberator.ratdriver.control;
+
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The launch flags used when a browser runs headless. Besides hiding the window, they turn off the work a test
+ * browser has no use for: GPU compositing, extensions, background networking such as updates, sync and safe
+ * browsing, and spare renderer processes.
+ */
+final class HeadlessFlags {
+
+    /**
+     * The size of the headless window, which would otherwise be 800x600 and trigger mobile layouts
+     */
+    static final int WIDTH = 1920;
+    static final int HEIGHT = 1080;
+
+    /**
+     * Arguments for Chromium based browsers, such as Chrome and Opera
+     */
+    static final List<String> CHROMIUM = Collections.unmodifiableList(Arrays.asList(
+            "--headless",
+            "--disable-gpu",
+            "--disable-extensions",
+            "--disable-background-networking",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--disable-sync",
+            "--disable-features=Translate,MediaRouter,OptimizationHints",
+            "--disable-dev-shm-usage",
+            "--renderer-process-limit=2",
+            "--metrics-recording-only",
+            "--mute-audio",
+            "--no-first-run",
+            "--hide-scrollbars",
+            "--window-size=" + WIDTH + "," + HEIGHT));
+
+    /**
+     * Preferences for Firefox, which takes most of its tuning as preferences rather than arguments
+     */
+    static final Map<String, Object> FIREFOX_PREFERENCES;
+
+    static {
+        Map<String, Object> preferences = new LinkedHashMap<>();
+        preferences.put("layers.acceleration.disabled", true);
+        preferences.put("dom.ipc.processCount", 2);
+        preferences.put("extensions.update.enabled", false);
+        preferences.put("app.update.auto", false);
+        preferences.put("browser.shell.checkDefaultBrowser", false);
+        preferences.put("browser.safebrowsing.malware.enabled", false);
+        preferences.put("browser.safebrowsing.phishing.enabled", false);
+        preferences.put("datareporting.healthreport.uploadEnabled", false);
+        preferences.put("datareporting.policy.dataSubmissionEnabled", false);
+        preferences.put("toolkit.telemetry.enabled", false);
+        preferences.put("media.volume_scale", "0.0");
+        FIREFOX_PREFERENCES = Collections.unmodifiableMap(preferences);
+    }
+
+    private HeadlessFlags() {
+    }
+
+    /**
+     * Makes Firefox headless and applies the low-overhead preferences
+     * @param options The options to change
+     */
+    static void applyTo(FirefoxOptions options) {
+        options.setHeadless(true);
+        options.addArguments("--width=" + WIDTH, "--height=" + HEIGHT);
+        for (Map.Entry<String, Object> preference : FIREFOX_PREFERENCES.entrySet()) {
+            Object value = preference.getValue();
+            if (value instanceof Boolean) {
+                options.addPreference(preference.getKey(), (Boolean) value);
+            } else if (value instanceof Integer) {
+                options.addPreference(preference.getKey(), (Integer) value);
+            } else {
+                options.addPreference(preference.getKey(), String.valueOf(value));
+            }
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package org.liberator.ratdriver.control;
 
 import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.logging.RatLog;
 import org.liberator.ratdriver.preferences.BasePreferences;
 import org.liberator.ratdriver.preferences.IEPreferences;
 import org.liberator.ratdriver.settings.BaseSettings;
 import org.liberator.ratdriver.settings.IESettings;
+import org.liberator.ratdriver.settings.RatSessionConfig;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.ie.InternetExplorerDriver;
 import org.openqa.selenium.ie.InternetExplorerDriverService;
@@ -33,6 +36,8 @@ public class IEControl extends RemoteControl {
 
     public WebDriver driver;
 
+    private IEPreferences iePreferences;
+
     //endregion
 
     //region Constructor
@@ -45,7 +50,7 @@ public class IEControl extends RemoteControl {
      * @param iePreferences The settings file to be used.
      */
     public IEControl(IEPreferences iePreferences) {
-        setImportedPreferences(iePreferences);
+        this.iePreferences = iePreferences;
     }
 
     /**
@@ -122,21 +127,31 @@ public class IEControl extends RemoteControl {
      */
     public WebDriver startDriver() {
         try {
-            System.setProperty("webdriver.ie.driver", BaseSettings.InternetExplorerDriverLocation);
-
-            setOptions();
-            setService();
-            setProxy();
-
-            if (internetExplorerDriverService != null && internetExplorerOptions != null) {
-                driver = new InternetExplorerDriver(internetExplorerDriverService, internetExplorerOptions);
-            } else if (internetExplorerOptions == null && internetExplorerDriverService != null) {
-                driver = new InternetExplorerDriver(internetExplorerDriverService);
-            } else if (internetExplorerOptions != null) {
-                driver = new InternetExplorerDriver(internetExplorerOptions);
+            InternetExplorerOptions options;
+            InternetExplorerDriverService service;
+            synchronized (SETTINGS_LOCK) {
+                setImportedPreferences(iePreferences);
+                config = RatSessionConfig.fromSettings();
+                BaseSettings.InternetExplorerDriverLocation = resolveDriver(DriverType.InternetExplorerDriver, BaseSettings.InternetExplorerDriverLocation);
+                System.setProperty("webdriver.ie.driver", BaseSettings.InternetExplorerDriverLocation);
+
+                setOptions();
+                setService();
+                setProxy();
+
+                options = internetExplorerOptions;
+                service = internetExplorerDriverService;
+            }
+
+            if (service != null && options != null) {
+                driver = new InternetExplorerDriver(service, options);
+            } else if (options == null && service != null) {
+                driver = new InternetExplorerDriver(service);
+            } else if (options != null) {
+                driver = new InternetExplorerDriver(options);
             }
 
-            System.out.println("Starting IE Driver.");
+            RatLog.human("Starting IE Driver.");
             return driver;
         } catch (Exception exception) {
             ErrorHandler.HandleErrors(
@@ -158,12 +173,9 @@ public class IEControl extends RemoteControl {
      */
     public WebDriver startDriver(BasePreferences driverSettings) {
         try {
-            System.setProperty("webdriver.ie.driver", BaseSettings.InternetExplorerDriverLocation);
+            iePreferences = (IEPreferences) driverSettings;
 
-            setImportedPreferences((IEPreferences) driverSettings);
-            startDriver();
-
-            return driver;
+            return startDriver();
         } catch (Exception exception) {
             ErrorHandler.HandleErrors(
                     driver,
@@ -196,7 +208,7 @@ public class IEControl extends RemoteControl {
             setAttachTimeout();
             setInitialBrowserUrl();
         } catch (Exception ex) {
-            System.out.println("Unable to set the options for IE Driver.");
+            RatLog.human("Unable to set the options for IE Driver.");
         }
     }
 
@@ -204,10 +216,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.PageLoadStrategy != null) {
                 internetExplorerOptions.setPageLoadStrategy(IESettings.PageLoadStrategy);
-                System.out.format("\nSet page load strategy to: %s", IESettings.PageLoadStrategy.toString());
+                RatLog.human("Set page load strategy to: %s", IESettings.PageLoadStrategy.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set page load strategy to: %s", IESettings.PageLoadStrategy.toString());
+            RatLog.human("Could not set page load strategy to: %s", IESettings.PageLoadStrategy.toString());
         }
     }
 
@@ -215,10 +227,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.UnexpectedAlertBehavior != null) {
                 internetExplorerOptions.setUnhandledPromptBehaviour(IESettings.UnexpectedAlertBehavior);
-                System.out.format("\nSet unhandled prompt behaviour to: %s", IESettings.UnexpectedAlertBehavior.toString());
+                RatLog.human("Set unhandled prompt behaviour to: %s", IESettings.UnexpectedAlertBehavior.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set unhandled prompt behaviour to: %s", IESettings.UnexpectedAlertBehavior.toString());
+            RatLog.human("Could not set unhandled prompt behaviour to: %s", IESettings.UnexpectedAlertBehavior.toString());
         }
     }
 
@@ -226,10 +238,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.CommandLineArguments != null && IESettings.CommandLineArguments.length() > 0) {
                 internetExplorerOptions.addCommandSwitches(IESettings.CommandLineArguments);
-                System.out.format("\nSet command line arguments to: %s", IESettings.CommandLineArguments);
+                RatLog.human("Set command line arguments to: %s", IESettings.CommandLineArguments);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set command line arguments to: %s", IESettings.CommandLineArguments);
+            RatLog.human("Could not set command line arguments to: %s", IESettings.CommandLineArguments);
         }
     }
 
@@ -237,10 +249,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.EnsureCleanSession != null) {
                 internetExplorerOptions.destructivelyEnsureCleanSession();
-                System.out.format("\nSet ensure clean session to: %s", IESettings.EnsureCleanSession.toString());
+                RatLog.human("Set ensure clean session to: %s", IESettings.EnsureCleanSession.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set ensure clean session to: %s", IESettings.EnsureCleanSession.toString());
+            RatLog.human("Could not set ensure clean session to: %s", IESettings.EnsureCleanSession.toString());
         }
     }
 
@@ -248,10 +260,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.EnableNativeEvents != null && !IESettings.EnableNativeEvents) {
                 internetExplorerOptions.disableNativeEvents();
-                System.out.format("\nSet native events to: %s", IESettings.EnableNativeEvents.toString());
+                RatLog.human("Set native events to: %s", IESettings.EnableNativeEvents.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set native events to: %s", IESettings.EnableNativeEvents.toString());
+            RatLog.human("Could not set native events to: %s", IESettings.EnableNativeEvents.toString());
         }
     }
 
@@ -259,10 +271,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.ScrollBehavior != null && IESettings.ScrollBehavior.toString().length() > 0) {
                 internetExplorerOptions.elementScrollTo(IESettings.ScrollBehavior);
-                System.out.format("\nSet element scroll behaviour to: %s", IESettings.ScrollBehavior.toString());
+                RatLog.human("Set element scroll behaviour to: %s", IESettings.ScrollBehavior.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set element scroll behaviour to: %s", IESettings.ScrollBehavior.toString());
+            RatLog.human("Could not set element scroll behaviour to: %s", IESettings.ScrollBehavior.toString());
         }
     }
 
@@ -270,10 +282,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.EnablePersistentHover != null && IESettings.EnablePersistentHover) {
                 internetExplorerOptions.enablePersistentHovering();
-                System.out.format("\nSet persistent hovering to: %s", IESettings.EnablePersistentHover.toString());
+                RatLog.human("Set persistent hovering to: %s", IESettings.EnablePersistentHover.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set persistent hovering to: %s", IESettings.EnablePersistentHover.toString());
+            RatLog.human("Could not set persistent hovering to: %s", IESettings.EnablePersistentHover.toString());
         }
     }
 
@@ -281,10 +293,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.IgnoreZoomLevel != null && IESettings.IgnoreZoomLevel) {
                 internetExplorerOptions.ignoreZoomSettings();
-                System.out.format("\nSet ignore zoom to: %s", IESettings.IgnoreZoomLevel.toString());
+                RatLog.human("Set ignore zoom to: %s", IESettings.IgnoreZoomLevel.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set ignore zoom to: %s", IESettings.IgnoreZoomLevel.toString());
+            RatLog.human("Could not set ignore zoom to: %s", IESettings.IgnoreZoomLevel.toString());
         }
     }
 
@@ -292,10 +304,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.IntroduceInstability != null && IESettings.IntroduceInstability) {
                 internetExplorerOptions.introduceFlakinessByIgnoringSecurityDomains();
-                System.out.format("\nSet introduce flakiness by ignoring security domains to: %s", IESettings.IntroduceInstability.toString());
+                RatLog.human("Set introduce flakiness by ignoring security domains to: %s", IESettings.IntroduceInstability.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set introduce flakiness by ignoring security domains to: %s", IESettings.IntroduceInstability.toString());
+            RatLog.human("Could not set introduce flakiness by ignoring security domains to: %s", IESettings.IntroduceInstability.toString());
         }
     }
 
@@ -303,10 +315,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.RequireWindowFocus != null && IESettings.RequireWindowFocus) {
                 internetExplorerOptions.requireWindowFocus();
-                System.out.format("\nSet require window focus to: %s", IESettings.RequireWindowFocus.toString());
+                RatLog.human("Set require window focus to: %s", IESettings.RequireWindowFocus.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set require window focus to: %s", IESettings.RequireWindowFocus.toString());
+            RatLog.human("Could not set require window focus to: %s", IESettings.RequireWindowFocus.toString());
         }
     }
 
@@ -314,10 +326,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.EnableFullPageScreenshot != null && IESettings.EnableFullPageScreenshot) {
                 internetExplorerOptions.takeFullPageScreenshot();
-                System.out.format("\nSet enable full page screenshot to: %s", IESettings.EnableFullPageScreenshot.toString());
+                RatLog.human("Set enable full page screenshot to: %s", IESettings.EnableFullPageScreenshot.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set enable full page screenshot to: %s", IESettings.EnableFullPageScreenshot.toString());
+            RatLog.human("Could not set enable full page screenshot to: %s", IESettings.EnableFullPageScreenshot.toString());
         }
     }
 
@@ -325,10 +337,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.ForceCreateProcessApi != null && IESettings.ForceCreateProcessApi) {
                 internetExplorerOptions.useCreateProcessApiToLaunchIe();
-                System.out.format("\nSet create process API to launch IE to: %s", IESettings.ForceCreateProcessApi.toString());
+                RatLog.human("Set create process API to launch IE to: %s", IESettings.ForceCreateProcessApi.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set create process API to launch IE to: %s", IESettings.ForceCreateProcessApi.toString());
+            RatLog.human("Could not set create process API to launch IE to: %s", IESettings.ForceCreateProcessApi.toString());
         }
     }
 
@@ -336,10 +348,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.ForceShellWindowsApi != null && IESettings.ForceShellWindowsApi) {
                 internetExplorerOptions.useShellWindowsApiToAttachToIe();
-                System.out.format("\nSet use shell windows API to attach to IE to: %s", IESettings.ForceShellWindowsApi.toString());
+                RatLog.human("Set use shell windows API to attach to IE to: %s", IESettings.ForceShellWindowsApi.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set use shell windows API to attach to IE to: %s", IESettings.ForceShellWindowsApi.toString());
+            RatLog.human("Could not set use shell windows API to attach to IE to: %s", IESettings.ForceShellWindowsApi.toString());
         }
     }
 
@@ -347,10 +359,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.FileUploadTimeout != null && IESettings.FileUploadTimeout.getSeconds() > 0) {
                 internetExplorerOptions.waitForUploadDialogUpTo(IESettings.FileUploadTimeout);
-                System.out.format("\nSet file upload timeout to: %s seconds" , IESettings.FileUploadTimeout.getSeconds());
+                RatLog.human("Set file upload timeout to: %s seconds" , IESettings.FileUploadTimeout.getSeconds());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set create process API to launch IE to: %s seconds", IESettings.FileUploadTimeout.getSeconds());
+            RatLog.human("Could not set create process API to launch IE to: %s seconds", IESettings.FileUploadTimeout.getSeconds());
         }
     }
 
@@ -358,10 +370,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.AttachTimeout != null && IESettings.AttachTimeout.getSeconds() > 0) {
                 internetExplorerOptions.withAttachTimeout(IESettings.AttachTimeout);
-                System.out.format("\nSet the attach timeout to: %s", IESettings.AttachTimeout.getSeconds());
+                RatLog.human("Set the attach timeout to: %s", IESettings.AttachTimeout.getSeconds());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set the attach timeout to: %s", IESettings.AttachTimeout.getSeconds());
+            RatLog.human("Could not set the attach timeout to: %s", IESettings.AttachTimeout.getSeconds());
         }
     }
 
@@ -369,10 +381,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.InitialBrowserUrl != null && IESettings.InitialBrowserUrl.length() > 0) {
                 internetExplorerOptions.withInitialBrowserUrl(IESettings.InitialBrowserUrl);
-                System.out.format("\nSet the initial browser URL to: %s", IESettings.InitialBrowserUrl);
+                RatLog.human("Set the initial browser URL to: %s", IESettings.InitialBrowserUrl);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set the initial browser URL to: %s", IESettings.InitialBrowserUrl);
+            RatLog.human("Could not set the initial browser URL to: %s", IESettings.InitialBrowserUrl);
         }
     }
 
@@ -388,7 +400,7 @@ public class IEControl extends RemoteControl {
                 internetExplorerDriverService = builder.build();
             }
         } catch (Exception ex){
-            System.out.println("Could not set the Internet Explorer Driver Service.");
+            RatLog.human("Could not set the Internet Explorer Driver Service.");
         }
     }
 
@@ -396,10 +408,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.SuppressInitialDiagnosticInformation != null){
                 builder.withSilent(IESettings.SuppressInitialDiagnosticInformation);
-                System.out.format("\nSet silent running to: %s", IESettings.SuppressInitialDiagnosticInformation.toString());
+                RatLog.human("Set silent running to: %s", IESettings.SuppressInitialDiagnosticInformation.toString());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set silent running to: %s", IESettings.SuppressInitialDiagnosticInformation.toString());
+            RatLog.human("Could not set silent running to: %s", IESettings.SuppressInitialDiagnosticInformation.toString());
         }
     }
 
@@ -407,10 +419,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.Host != null && IESettings.Host.length() > 0){
                 builder.withHost(IESettings.Host);
-                System.out.format("\nSet host to: %s", IESettings.Host);
+                RatLog.human("Set host to: %s", IESettings.Host);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set host to: %s", IESettings.Host);
+            RatLog.human("Could not set host to: %s", IESettings.Host);
         }
     }
 
@@ -418,10 +430,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.LibraryExtractionPath != null && IESettings.LibraryExtractionPath.length() > 0){
                 builder.withExtractPath(new File(IESettings.LibraryExtractionPath));
-                System.out.format("\nSet library extraction path to: %s", IESettings.LibraryExtractionPath);
+                RatLog.human("Set library extraction path to: %s", IESettings.LibraryExtractionPath);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set library extraction path to: %s", IESettings.LibraryExtractionPath);
+            RatLog.human("Could not set library extraction path to: %s", IESettings.LibraryExtractionPath);
         }
     }
 
@@ -429,10 +441,10 @@ public class IEControl extends RemoteControl {
         try {
             if (IESettings.LoggingLevel != null){
                 builder.withLogLevel(IESettings.LoggingLevel);
-                System.out.format("\nSet logging level to: %s", IESettings.LoggingLevel.name());
+                RatLog.human("Set logging level to: %s", IESettings.LoggingLevel.name());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set logging level to: %s", IESettings.LoggingLevel.name());
+            RatLog.human("Could not set logging level to: %s", IESettings.LoggingLevel.name());
         }
 
     }
@@ -3,18 +3,17 @@ package org.liberator.ratdriver.control;
 import lombok.Getter;
 import lombok.Setter;
 import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.logging.RatLog;
 import org.liberator.ratdriver.preferences.BasePreferences;
 import org.liberator.ratdriver.preferences.OperaPreferences;
 import org.liberator.ratdriver.settings.BaseSettings;
-import org.liberator.ratdriver.settings.FirefoxSettings;
 import org.liberator.ratdriver.settings.OperaSettings;
+import org.liberator.ratdriver.settings.RatSessionConfig;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.opera.OperaDriver;
 import org.openqa.selenium.opera.OperaDriverService;
 import org.openqa.selenium.opera.OperaOptions;
 
-import java.util.Arrays;
-
 import static org.openqa.selenium.remote.CapabilityType.*;
 
 public class OperaControl extends RemoteControl {
@@ -51,6 +50,8 @@ public class OperaControl extends RemoteControl {
 
     private OperaDriverService.Builder builder;
 
+    private OperaPreferences operaPreferences;
+
     //endregion
 
     //region Constructor
@@ -61,9 +62,7 @@ public class OperaControl extends RemoteControl {
      * @param operaPreferences Preset preferences for the test run
      */
     public OperaControl(OperaPreferences operaPreferences) {
-        if (operaPreferences != null) {
-            setImportedPreferences(operaPreferences);
-        }
+        this.operaPreferences = operaPreferences;
     }
 
     private void setImportedPreferences(OperaPreferences operaPreferences) {
@@ -84,6 +83,7 @@ public class OperaControl extends RemoteControl {
                 OperaSettings.EnableVerboseLogging = operaPreferences.EnableVerboseLogging;
                 OperaSettings.HideCommandPromptWindow = operaPreferences.HideCommandPromptWindow;
                 OperaSettings.LeaveBrowserRunning = operaPreferences.LeaveBrowserRunning;
+                OperaSettings.Headless = operaPreferences.Headless;
                 OperaSettings.LogPath = operaPreferences.LogPath;
                 OperaSettings.MinidumpPath = operaPreferences.MinidumpPath;
                 OperaSettings.Port = operaPreferences.Port;
@@ -111,19 +111,25 @@ public class OperaControl extends RemoteControl {
      */
     public WebDriver startDriver() {
         try {
-            System.setProperty("webdriver.opera.driver", BaseSettings.OperaDriverLocation);
-
-            setOperaOptions();
-            setOperaDriverService();
-            setProxy();
-
-            if (operaDriverService != null && operaOptions != null) {
-                driver = new OperaDriver(operaDriverService, operaOptions);
-            } else if (operaOptions == null && operaDriverService != null) {
-                driver = new OperaDriver(operaDriverService);
-            } else if (operaOptions != null) {
-                driver = new OperaDriver(operaOptions);
+            OperaOptions options;
+            OperaDriverService.Builder serviceBuilder;
+            String serviceKey;
+            int port;
+            synchronized (SETTINGS_LOCK) {
+                setImportedPreferences(operaPreferences);
+                config = RatSessionConfig.fromSettings();
+                BaseSettings.OperaDriverLocation = resolveDriver(DriverType.OperaDriver, BaseSettings.OperaDriverLocation);
+                System.setProperty("webdriver.opera.driver", BaseSettings.OperaDriverLocation);
+
+                setOperaOptions();
+                setProxy();
+
+                options = operaOptions;
+                serviceBuilder = createOperaDriverServiceBuilder();
+                serviceKey = getServiceKey();
+                port = OperaSettings.Port != null ? OperaSettings.Port : 0;
             }
+            driver = DriverServiceRegistry.getInstance().startSession(serviceKey, port, p -> buildOperaDriverService(serviceBuilder, p), options);
             return driver;
         } catch (Exception exception) {
             ErrorHandler.HandleErrors(
@@ -137,6 +143,19 @@ public class OperaControl extends RemoteControl {
         }
     }
 
+    /**
+     * Builds the options the driver would be started with, without starting it
+     *
+     * @return The options
+     */
+    public OperaOptions buildOptions() {
+        synchronized (SETTINGS_LOCK) {
+            setImportedPreferences(operaPreferences);
+            setOperaOptions();
+            return operaOptions;
+        }
+    }
+
     /**
      * Starts a web driver
      *
@@ -145,12 +164,9 @@ public class OperaControl extends RemoteControl {
      */
     public WebDriver startDriver(BasePreferences driverSettings) {
         try {
-            setImportedPreferences((OperaPreferences) driverSettings);
-            System.setProperty("webdriver.opera.driver", FirefoxSettings.OperaDriverLocation);
+            operaPreferences = (OperaPreferences) driverSettings;
 
-            startDriver();
-
-            return driver;
+            return startDriver();
         } catch (Exception exception) {
             ErrorHandler.HandleErrors(
                     driver,
@@ -168,8 +184,9 @@ public class OperaControl extends RemoteControl {
         try {
             operaOptions = new OperaOptions();
             operaOptions.setBinary(BaseSettings.OperaLocation);
-            operaOptions.addArguments("--remote-debugging-port=9222");
+            operaOptions.addArguments("--remote-debugging-port=" + DriverServiceRegistry.getInstance().allocatePort());
             operaOptions.addArguments("start-maximized");
+            setHeadless();
             setAcceptInsecureCertificates();
             setSSLCertificates();
             setPageLoadStrategy();
@@ -179,31 +196,40 @@ public class OperaControl extends RemoteControl {
         } catch (Exception ex) {
             switch (BaseSettings.DebugLevel) {
                 case Human:
-                    System.out.println("Could not set the opera diver options.");
-                    System.out.println("Please investigate the changes you have made to your config file.");
+                    RatLog.human("Could not set the opera diver options.");
+                    RatLog.human("Please investigate the changes you have made to your config file.");
                     break;
                 case NotSpecified:
                 case Message:
-                    System.out.println(ex.getMessage());
+                    RatLog.message(ex);
                     break;
                 case StackTrace:
-                    System.out.println(ex.getMessage());
-                    System.out.println(Arrays.toString(ex.getStackTrace()));
+                    RatLog.message(ex);
+                    RatLog.stackTrace(ex);
                     break;
             }
         }
     }
 
+    private void setHeadless() {
+        try {
+            if (Boolean.TRUE.equals(OperaSettings.Headless)) {
+                operaOptions.addArguments(HeadlessFlags.CHROMIUM);
+                RatLog.human("Set Opera to run headless.");
+            }
+        } catch (Exception ex) {
+            RatLog.human("Could not set Opera to run headless.");
+        }
+    }
+
     private void setAcceptInsecureCertificates() {
         try {
             if (OperaSettings.AcceptInsecureCertificates != null) {
                 operaOptions.setCapability(ACCEPT_INSECURE_CERTS, OperaSettings.AcceptInsecureCertificates);
-                System.out.format("Set accept insecure certificates to: %s", OperaSettings.AcceptInsecureCertificates.toString());
-                System.out.println();
+                RatLog.human("Set accept insecure certificates to: %s", OperaSettings.AcceptInsecureCertificates.toString());
             }
         } catch (Exception ex) {
-            System.out.format("Could not set accept insecure certificates to: %s", OperaSettings.AcceptInsecureCertificates.toString());
-            System.out.println();
+            RatLog.human("Could not set accept insecure certificates to: %s", OperaSettings.AcceptInsecureCertificates.toString());
 
         }
     }
@@ -212,10 +238,10 @@ public class OperaControl extends RemoteControl {
         try {
             if (OperaSettings.AcceptSSLCertificates != null) {
                 operaOptions.setCapability(ACCEPT_SSL_CERTS, OperaSettings.AcceptSSLCertificates);
-                System.out.format("\nSet accept SSL certificates to: %s", OperaSettings.AcceptSSLCertificates.toString());
+                RatLog.human("Set accept SSL certificates to: %s", OperaSettings.AcceptSSLCertificates.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set accept SSL certificates to: %s", OperaSettings.AcceptSSLCertificates.toString());
+            RatLog.human("Could not set accept SSL certificates to: %s", OperaSettings.AcceptSSLCertificates.toString());
 
         }
     }
@@ -224,10 +250,10 @@ public class OperaControl extends RemoteControl {
         try {
             if (OperaSettings.PageLoadStrategy != null) {
                 operaOptions.setCapability(PAGE_LOAD_STRATEGY, OperaSettings.PageLoadStrategy);
-                System.out.format("\nSet page load strategy to: %s", OperaSettings.PageLoadStrategy);
+                RatLog.human("Set page load strategy to: %s", OperaSettings.PageLoadStrategy);
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set page load strategy to: %s", OperaSettings.PageLoadStrategy);
+            RatLog.human("Could not set page load strategy to: %s", OperaSettings.PageLoadStrategy);
 
         }
     }
@@ -236,10 +262,10 @@ public class OperaControl extends RemoteControl {
         try {
             if (OperaSettings.TakesScreenshot != null) {
                 operaOptions.setCapability(TAKES_SCREENSHOT, OperaSettings.TakesScreenshot);
-                System.out.format("\nSet Takes Screenshot to: %s", OperaSettings.TakesScreenshot.toString());
+                RatLog.human("Set Takes Screenshot to: %s", OperaSettings.TakesScreenshot.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set Takes Screenshot to: %s", OperaSettings.TakesScreenshot.toString());
+            RatLog.human("Could not set Takes Screenshot to: %s", OperaSettings.TakesScreenshot.toString());
 
         }
     }
@@ -248,10 +274,10 @@ public class OperaControl extends RemoteControl {
         try {
             if (OperaSettings.UnexpectedAlertBehaviour != null) {
                 operaOptions.setCapability(UNEXPECTED_ALERT_BEHAVIOUR, OperaSettings.UnexpectedAlertBehaviour);
-                System.out.format("\nSet Unexpected Alert Behaviour to: %s", OperaSettings.UnexpectedAlertBehaviour);
+                RatLog.human("Set Unexpected Alert Behaviour to: %s", OperaSettings.UnexpectedAlertBehaviour);
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set Unexpected Alert Behaviour to: %s", OperaSettings.UnexpectedAlertBehaviour);
+            RatLog.human("Could not set Unexpected Alert Behaviour to: %s", OperaSettings.UnexpectedAlertBehaviour);
 
         }
     }
@@ -260,48 +286,58 @@ public class OperaControl extends RemoteControl {
         try {
             if (OperaSettings.UnhandledPromptBehaviour != null) {
                 operaOptions.setCapability(UNHANDLED_PROMPT_BEHAVIOUR, OperaSettings.UnhandledPromptBehaviour);
-                System.out.format("\nSet Unhandled Prompt Behaviour to: %s", OperaSettings.UnhandledPromptBehaviour);
+                RatLog.human("Set Unhandled Prompt Behaviour to: %s", OperaSettings.UnhandledPromptBehaviour);
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set Unhandled Prompt Behaviour to: %s", OperaSettings.UnhandledPromptBehaviour);
+            RatLog.human("Could not set Unhandled Prompt Behaviour to: %s", OperaSettings.UnhandledPromptBehaviour);
 
         }
     }
 
 
-    private void setOperaDriverService() {
-        try {
-            builder = new OperaDriverService.Builder();
-            setSilentRunning();
-            setVerboseLogging();
-            setPort();
-            operaDriverService = builder.build();
-        } catch (Exception ex) {
-            switch (BaseSettings.DebugLevel) {
-                case Human:
-                    System.out.println("Could not start the opera driver service.");
-                    System.out.println("Please investigate the changes you have made to your config file.");
-                    break;
-                case NotSpecified:
-                case Message:
-                    System.out.println(ex.getMessage());
-                    break;
-                case StackTrace:
-                    System.out.println(ex.getMessage());
-                    System.out.println(Arrays.toString(ex.getStackTrace()));
-                    break;
-            }
-        }
+    /**
+     * Identifies the driver service settings, so that sessions with the same settings share one operadriver
+     *
+     * @return The key for the DriverServiceRegistry
+     */
+    private String getServiceKey() {
+        return String.join("|", "operadriver", BaseSettings.OperaDriverLocation,
+                String.valueOf(OperaSettings.SuppressInitialDiagnosticInformation),
+                String.valueOf(OperaSettings.EnableVerboseLogging));
+    }
+
+    /**
+     * Configures a driver service builder from the current settings, leaving the port to the DriverServiceRegistry
+     *
+     * @return The builder
+     */
+    private OperaDriverService.Builder createOperaDriverServiceBuilder() {
+        builder = new OperaDriverService.Builder();
+        setSilentRunning();
+        setVerboseLogging();
+        return builder;
+    }
+
+    /**
+     * Builds the driver service, called by the DriverServiceRegistry when no matching service is running
+     *
+     * @param serviceBuilder The configured builder
+     * @param port           The port allocated to the service
+     * @return The driver service
+     */
+    private OperaDriverService buildOperaDriverService(OperaDriverService.Builder serviceBuilder, int port) {
+        operaDriverService = serviceBuilder.usingPort(port).build();
+        return operaDriverService;
     }
 
     private void setSilentRunning() {
         try {
             if (OperaSettings.SuppressInitialDiagnosticInformation != null) {
                 builder.withSilent(OperaSettings.SuppressInitialDiagnosticInformation);
-                System.out.format("\nSet silent running to: %s", OperaSettings.SuppressInitialDiagnosticInformation);
+                RatLog.human("Set silent running to: %s", OperaSettings.SuppressInitialDiagnosticInformation);
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set silent running to: %s", OperaSettings.SuppressInitialDiagnosticInformation);
+            RatLog.human("Could not set silent running to: %s", OperaSettings.SuppressInitialDiagnosticInformation);
         }
     }
 
@@ -309,24 +345,10 @@ public class OperaControl extends RemoteControl {
         try {
             if (OperaSettings.EnableVerboseLogging != null) {
                 builder.withVerbose(OperaSettings.EnableVerboseLogging);
-                System.out.format("\nSet verbose logging to: %s", OperaSettings.EnableVerboseLogging.toString());
-            }
-        } catch (Exception ex) {
-            System.out.format("\nCould not set verbose logging to: %s", OperaSettings.EnableVerboseLogging.toString());
-        }
-    }
-
-    private void setPort() {
-        try {
-            if (OperaSettings.Port != null && OperaSettings.Port > 0) {
-                builder.usingPort(OperaSettings.Port);
-                System.out.format("\nSet port to: %s", OperaSettings.Port.toString());
-            } else {
-                builder.usingAnyFreePort();
-                System.out.println("Using any free port, as no specific port was chosen.");
+                RatLog.human("Set verbose logging to: %s", OperaSettings.EnableVerboseLogging.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set port to: %s", OperaSettings.Port.toString());
+            RatLog.human("Could not set verbose logging to: %s", OperaSettings.EnableVerboseLogging.toString());
         }
     }
 }
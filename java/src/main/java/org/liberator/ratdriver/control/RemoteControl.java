@@ -1,5 +1,6 @@
 package org.liberator.ratdriver.control;
 
+import org.liberator.ratdriver.logging.RatLog;
 import org.liberator.ratdriver.preferences.BasePreferences;
 import org.liberator.ratdriver.settings.BaseSettings;
 import org.openqa.selenium.Proxy;
@@ -29,7 +30,7 @@ public class RemoteControl extends BrowserControl {
                 setSslProxy();
             }
         } catch (Exception ex) {
-            System.out.println("Could not set up the proxy with current settings.");
+            RatLog.human("Could not set up the proxy with current settings.");
         }
     }
 
@@ -37,10 +38,10 @@ public class RemoteControl extends BrowserControl {
         try {
             if (BaseSettings.proxyAutoconfigUrl != null && BaseSettings.proxyAutoconfigUrl.length() > 0) {
                 proxy.setProxyAutoconfigUrl(BaseSettings.proxyAutoconfigUrl);
-                System.out.format("\nSet auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
+                RatLog.human("Set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
+            RatLog.human("Could not set auto-config URL to: %s", BaseSettings.proxyAutoconfigUrl);
         }
     }
 
@@ -48,10 +49,10 @@ public class RemoteControl extends BrowserControl {
         try {
             if (BaseSettings.proxyType != null) {
                 proxy.setProxyType(BaseSettings.proxyType);
-                System.out.format("\nSet proxy type to: %s", BaseSettings.proxyType.name());
+                RatLog.human("Set proxy type to: %s", BaseSettings.proxyType.name());
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set proxy type to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Could not set proxy type to: %s", BaseSettings.proxyType.name());
         }
     }
 
@@ -62,9 +63,9 @@ public class RemoteControl extends BrowserControl {
             } else {
                 proxy.setAutodetect(false);
             }
-            System.out.format("\nSet proxy autodetect to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Set proxy autodetect to: %s", BaseSettings.proxyType.name());
         } catch (Exception e) {
-            System.out.format("\nCould not set proxy autodetect to: %s", BaseSettings.proxyType.name());
+            RatLog.human("Could not set proxy autodetect to: %s", BaseSettings.proxyType.name());
         }
     }
 
@@ -72,10 +73,10 @@ public class RemoteControl extends BrowserControl {
         try {
             if (BaseSettings.ftpProxy != null) {
                 proxy.setFtpProxy(BaseSettings.ftpProxy);
-                System.out.format("\nSet ftp proxy to: %s", BaseSettings.ftpProxy);
+                RatLog.human("Set ftp proxy to: %s", BaseSettings.ftpProxy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set ftp proxy to: %s", BaseSettings.ftpProxy);
+            RatLog.human("Could not set ftp proxy to: %s", BaseSettings.ftpProxy);
         }
     }
 
@@ -83,10 +84,10 @@ public class RemoteControl extends BrowserControl {
         try {
             if (BaseSettings.noProxy != null) {
                 proxy.setNoProxy(BaseSettings.noProxy);
-                System.out.format("\nSet 'no proxy' to: %s", BaseSettings.noProxy);
+                RatLog.human("Set 'no proxy' to: %s", BaseSettings.noProxy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set 'no proxy' to: %s", BaseSettings.noProxy);
+            RatLog.human("Could not set 'no proxy' to: %s", BaseSettings.noProxy);
         }
     }
 
@@ -94,10 +95,10 @@ public class RemoteControl extends BrowserControl {
         try {
             if (BaseSettings.httpProxy != null) {
                 proxy.setHttpProxy(BaseSettings.httpProxy);
-                System.out.format("\nSet http proxy to: %s", BaseSettings.httpProxy);
+                RatLog.human("Set http proxy to: %s", BaseSettings.httpProxy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set http proxy to: %s", BaseSettings.httpProxy);
+            RatLog.human("Could not set http proxy to: %s", BaseSettings.httpProxy);
         }
     }
 
@@ -109,13 +110,13 @@ public class RemoteControl extends BrowserControl {
                 proxy.setSocksUsername(BaseSettings.socksUsername);
                 proxy.setSocksPassword(BaseSettings.socksPassword);
 
-                System.out.format("\nSet socks proxy to: %s", BaseSettings.socksProxy);
-                System.out.format("\nSet socks proxy version to: %s", BaseSettings.socksVersion);
-                System.out.format("\nSet socks proxy username to: %s", BaseSettings.socksUsername);
-                System.out.format("\nSet socks proxy password to: %s", BaseSettings.socksPassword);
+                RatLog.human("Set socks proxy to: %s", BaseSettings.socksProxy);
+                RatLog.human("Set socks proxy version to: %s", BaseSettings.socksVersion);
+                RatLog.human("Set socks proxy username to: %s", BaseSettings.socksUsername);
+                RatLog.human("Set socks proxy password to: %s", BaseSettings.socksPassword);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set socks proxy to.");
+            RatLog.human("Could not set socks proxy to.");
         }
     }
 
@@ -123,10 +124,10 @@ public class RemoteControl extends BrowserControl {
         try {
             if (BaseSettings.sslProxy != null) {
                 proxy.setHttpProxy(BaseSettings.sslProxy);
-                System.out.format("\nSet SSL proxy to: %s", BaseSettings.sslProxy);
+                RatLog.human("Set SSL proxy to: %s", BaseSettings.sslProxy);
             }
         } catch (Exception e) {
-            System.out.format("\nCould not set SSL proxy to: %s", BaseSettings.sslProxy);
+            RatLog.human("Could not set SSL proxy to: %s", BaseSettings.sslProxy);
         }
     }
 }
@@ -1,9 +1,12 @@
 package org.liberator.ratdriver.control;
 
 import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.logging.RatLog;
 import org.liberator.ratdriver.preferences.BasePreferences;
 import org.liberator.ratdriver.preferences.SafariPreferences;
 import org.liberator.ratdriver.settings.BaseSettings;
+import org.liberator.ratdriver.settings.RatSessionConfig;
 import org.liberator.ratdriver.settings.SafariSettings;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.safari.SafariDriver;
@@ -22,27 +25,39 @@ public class SafariControl extends RemoteControl {
 
     public WebDriver driver;
 
+    private SafariPreferences safariPreferences;
+
     public SafariControl(BasePreferences preferences) {
-        setImportedPreferences((SafariPreferences) preferences);
+        safariPreferences = (SafariPreferences) preferences;
     }
 
     public WebDriver startDriver() {
         try {
-            System.setProperty("webdriver.safari.driver", BaseSettings.SafariDriverLocation);
-
-            setSafariOptions();
-            setSafariService();
-            setProxy();
-
-            if (safariDriverService != null && safariOptions != null) {
-                driver = new SafariDriver(safariDriverService, safariOptions);
-            } else if (safariOptions == null && safariDriverService != null) {
-                driver = new SafariDriver(safariDriverService);
-            } else if (safariOptions != null) {
-                driver = new SafariDriver(safariOptions);
+            SafariOptions options;
+            SafariDriverService service;
+            synchronized (SETTINGS_LOCK) {
+                setImportedPreferences(safariPreferences);
+                config = RatSessionConfig.fromSettings();
+                BaseSettings.SafariDriverLocation = resolveDriver(DriverType.SafariDriver, BaseSettings.SafariDriverLocation);
+                System.setProperty("webdriver.safari.driver", BaseSettings.SafariDriverLocation);
+
+                setSafariOptions();
+                setSafariService();
+                setProxy();
+
+                options = safariOptions;
+                service = safariDriverService;
+            }
+
+            if (service != null && options != null) {
+                driver = new SafariDriver(service, options);
+            } else if (options == null && service != null) {
+                driver = new SafariDriver(service);
+            } else if (options != null) {
+                driver = new SafariDriver(options);
             }
 
-            System.out.println("Started safari driver.");
+            RatLog.human("Started safari driver.");
             return driver;
         } catch (Exception exception) {
             ErrorHandler.HandleErrors(
@@ -58,10 +73,8 @@ public class SafariControl extends RemoteControl {
 
     public WebDriver startDriver(BasePreferences preferences) {
         try {
-            System.setProperty("webdriver.safari.driver", BaseSettings.SafariDriverLocation);
-            setImportedPreferences((SafariPreferences) preferences);
-            startDriver();
-            return driver;
+            safariPreferences = (SafariPreferences) preferences;
+            return startDriver();
         } catch (Exception exception) {
             ErrorHandler.HandleErrors(
                     driver,
@@ -110,7 +123,6 @@ public class SafariControl extends RemoteControl {
             setAutomaticProfiling();
             setTechnologyPreview();
         } catch (Exception ex) {
-            System.out.println();
         }
     }
 
@@ -121,10 +133,10 @@ public class SafariControl extends RemoteControl {
                 setDriverExecutable();
                 setDriverPort();
                 safariDriverService = builder.build();
-                System.out.println("Built Safari Driver Service");
+                RatLog.human("Built Safari Driver Service");
             }
         } catch (Exception ex) {
-            System.out.println("Could not build Safari Driver Service");
+            RatLog.human("Could not build Safari Driver Service");
         }
     }
 
@@ -132,10 +144,10 @@ public class SafariControl extends RemoteControl {
         try {
             if (BaseSettings.SafariDriverLocation != null && BaseSettings.SafariDriverLocation.length() > 0) {
                 builder.usingDriverExecutable(new File(BaseSettings.SafariDriverLocation));
-                System.out.format("\nAdded the driver executable at: %s", BaseSettings.SafariDriverLocation);
+                RatLog.human("Added the driver executable at: %s", BaseSettings.SafariDriverLocation);
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not add the driver executable at: %s", BaseSettings.SafariDriverLocation);
+            RatLog.human("Could not add the driver executable at: %s", BaseSettings.SafariDriverLocation);
         }
     }
 
@@ -143,14 +155,13 @@ public class SafariControl extends RemoteControl {
         try {
             if (SafariSettings.Port != null && SafariSettings.Port > 0) {
                 builder.usingPort(SafariSettings.Port);
-                System.out.format("\nAdded port %s to the driver.", SafariSettings.Port.toString());
+                RatLog.human("Added port %s to the driver.", SafariSettings.Port.toString());
             } else {
                 builder.usingAnyFreePort();
-                System.out.println("\nUsed any free port for driver service.");
+                RatLog.human("Used any free port for driver service.");
             }
-            System.out.println();
         } catch (Exception ex) {
-            System.out.println("\nCould not assign port to driver.");
+            RatLog.human("Could not assign port to driver.");
         }
     }
 
@@ -158,10 +169,10 @@ public class SafariControl extends RemoteControl {
         try {
             if (SafariSettings.AutomaticInspection != null) {
                 safariOptions.setAutomaticInspection(SafariSettings.AutomaticInspection);
-                System.out.format("\nSet automatic inspection to: %s", SafariSettings.AutomaticInspection.toString());
+                RatLog.human("Set automatic inspection to: %s", SafariSettings.AutomaticInspection.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set automatic inspection to: %s", SafariSettings.AutomaticInspection.toString());
+            RatLog.human("Could not set automatic inspection to: %s", SafariSettings.AutomaticInspection.toString());
         }
     }
 
@@ -169,10 +180,10 @@ public class SafariControl extends RemoteControl {
         try {
             if (SafariSettings.AutomaticProfiling != null) {
                 safariOptions.setAutomaticProfiling(SafariSettings.AutomaticProfiling);
-                System.out.format("\nSet automatic profiling to: %s", SafariSettings.AutomaticProfiling.toString());
+                RatLog.human("Set automatic profiling to: %s", SafariSettings.AutomaticProfiling.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set automatic profiling to: %s", SafariSettings.AutomaticProfiling.toString());
+            RatLog.human("Could not set automatic profiling to: %s", SafariSettings.AutomaticProfiling.toString());
         }
     }
 
@@ -180,10 +191,10 @@ public class SafariControl extends RemoteControl {
         try {
             if (SafariSettings.TechnologyPreview != null) {
                 safariOptions.setAutomaticProfiling(SafariSettings.TechnologyPreview);
-                System.out.format("\nSet technology preview to: %s", SafariSettings.TechnologyPreview.toString());
+                RatLog.human("Set technology preview to: %s", SafariSettings.TechnologyPreview.toString());
             }
         } catch (Exception ex) {
-            System.out.format("\nCould not set technology preview to: %s", SafariSettings.TechnologyPreview.toString());
+            RatLog.human("Could not set technology preview to: %s", SafariSettings.TechnologyPreview.toString());
         }
     }
 }
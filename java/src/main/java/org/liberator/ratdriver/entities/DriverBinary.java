@@ -0,0 +1,66 @@
+package org.liberator.ratdriver.entities;
+
+import lombok.Getter;
+
+/**
+ * A driver executable that has been found and verified
+ */
+@SuppressWarnings("unused")
+public class DriverBinary
+{
+    /**
+     * The absolute path of the executable
+     */
+    @Getter
+    public final String Path;
+
+    /**
+     * The first line the executable printed for --version
+     */
+    @Getter
+    public final String Version;
+
+    /**
+     * The SHA-256 checksum of the executable, in hexadecimal
+     */
+    @Getter
+    public final String Sha256;
+
+    /**
+     * The size of the executable when it was verified, in bytes
+     */
+    @Getter
+    public final long Size;
+
+    /**
+     * The modification time of the executable when it was verified, in milliseconds since the epoch
+     */
+    @Getter
+    public final long LastModified;
+
+    public DriverBinary(String path, String version, String sha256, long size, long lastModified)
+    {
+        Path = path;
+        Version = version;
+        Sha256 = sha256;
+        Size = size;
+        LastModified = lastModified;
+    }
+
+    /**
+     * Whether the executable still has the size and modification time it was verified with
+     * @param size The current size
+     * @param lastModified The current modification time
+     * @return Whether the executable is unchanged
+     */
+    public boolean matches(long size, long lastModified)
+    {
+        return Size == size && LastModified == lastModified;
+    }
+
+    @Override
+    public String toString()
+    {
+        return Path + " (" + Version + ", sha256 " + Sha256 + ")";
+    }
+}
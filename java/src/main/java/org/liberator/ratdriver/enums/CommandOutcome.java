@@ -0,0 +1,23 @@
+package org.liberator.ratdriver.enums;
+
+/**
+ * The outcome of a RatDriver command
+ */
+@SuppressWarnings("unused")
+public enum CommandOutcome {
+
+    /**
+     * The command completed without error
+     */
+    Success,
+
+    /**
+     * The command caught an exception and passed it to the error handler
+     */
+    HandledError,
+
+    /**
+     * The command threw an exception to its caller
+     */
+    Exception
+}
@@ -24,5 +24,10 @@ public enum ConsoleDebugLevel {
     /**
      * Includes the whole stack trace
      */
-    StackTrace
+    StackTrace,
+
+    /**
+     * Nothing is written to the console
+     */
+    Silent
 }
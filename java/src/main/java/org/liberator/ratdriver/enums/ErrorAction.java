@@ -0,0 +1,29 @@
+package org.liberator.ratdriver.enums;
+
+/**
+ * What the error handler does once it has reported an error
+ */
+@SuppressWarnings("unused")
+public enum ErrorAction {
+
+    /**
+     * Quit the browser, ending the session
+     */
+    Quit,
+
+    /**
+     * Throw the exception on to the caller, leaving the session open
+     */
+    Rethrow,
+
+    /**
+     * Carry on with the session. The command returns its default value.
+     */
+    LogAndContinue,
+
+    /**
+     * Run the command again after a pause, when it was run through an ErrorPolicy or an instrumented driver.
+     * Otherwise the same as LogAndContinue.
+     */
+    Retry
+}
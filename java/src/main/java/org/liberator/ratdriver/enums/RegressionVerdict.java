@@ -0,0 +1,28 @@
+package org.liberator.ratdriver.enums;
+
+/**
+ * The result of comparing a run's timings with a baseline
+ */
+@SuppressWarnings("unused")
+public enum RegressionVerdict {
+
+    /**
+     * No significant shift was found
+     */
+    NoChange,
+
+    /**
+     * The timings are significantly slower than the baseline
+     */
+    Regression,
+
+    /**
+     * The timings are significantly faster than the baseline
+     */
+    Improvement,
+
+    /**
+     * There were too few timings in the run or the baseline to compare
+     */
+    InsufficientData
+}
@@ -0,0 +1,23 @@
+package org.liberator.ratdriver.enums;
+
+/**
+ * Sliding windows over which rolling timings can be viewed
+ */
+@SuppressWarnings("unused")
+public enum TimingWindow {
+
+    /**
+     * The last minute
+     */
+    LastMinute,
+
+    /**
+     * The last five minutes
+     */
+    LastFiveMinutes,
+
+    /**
+     * The last hour
+     */
+    LastHour
+}
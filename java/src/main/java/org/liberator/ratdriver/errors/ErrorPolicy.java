@@ -0,0 +1,209 @@
+package org.liberator.ratdriver.errors;
+
+import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.enums.ErrorAction;
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.InvalidArgumentException;
+import org.openqa.selenium.InvalidCookieDomainException;
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnableToSetCookieException;
+import org.openqa.selenium.UnhandledAlertException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.interactions.MoveTargetOutOfBoundsException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Decides what the error handler does with each type of exception.
+ * <p>
+ * Rules are keyed by exception class, and an exception is handled by the rule for its own class or its nearest
+ * superclass that has one. Exceptions no rule covers are handled by the fallback rule, which quits by default.
+ * <p>
+ * Retries need the command to be run again, so they happen when the command is run through execute, or when an
+ * instrumented driver runs a lookup or wait by locator. Elsewhere a Retry rule logs the error and lets the session
+ * carry on.
+ */
+@SuppressWarnings("unused")
+public class ErrorPolicy {
+
+    private final ConcurrentMap<Class<?>, ErrorRule> rules = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ErrorRule> resolved = new ConcurrentHashMap<>();
+    private volatile ErrorRule fallback = ErrorRule.quit();
+
+    /**
+     * Creates a policy with no rules, which quits on every error as RatDriver always has
+     */
+    public ErrorPolicy() {
+    }
+
+    /**
+     * Creates a policy that keeps the session alive through errors that are usually transient or local to one
+     * command, and quits when the session itself has been lost
+     * @return The policy
+     */
+    public static ErrorPolicy defaults() {
+        return new ErrorPolicy()
+                .on(NoSuchSessionException.class, ErrorRule.quit())
+                .on(SessionNotCreatedException.class, ErrorRule.quit())
+                .on(UnreachableBrowserException.class, ErrorRule.quit())
+                .on(StaleElementReferenceException.class, ErrorRule.retry(3, 100))
+                .on(ElementClickInterceptedException.class, ErrorRule.retry(3, 250))
+                .on(ElementNotInteractableException.class, ErrorRule.retry(2, 250))
+                .on(NotFoundException.class, ErrorRule.logAndContinue())
+                .on(TimeoutException.class, ErrorRule.logAndContinue())
+                .on(NoAlertPresentException.class, ErrorRule.logAndContinue())
+                .on(UnhandledAlertException.class, ErrorRule.logAndContinue())
+                .on(InvalidElementStateException.class, ErrorRule.logAndContinue())
+                .on(InvalidSelectorException.class, ErrorRule.logAndContinue())
+                .on(InvalidArgumentException.class, ErrorRule.logAndContinue())
+                .on(UnableToSetCookieException.class, ErrorRule.logAndContinue())
+                .on(InvalidCookieDomainException.class, ErrorRule.logAndContinue())
+                .on(ScriptTimeoutException.class, ErrorRule.logAndContinue())
+                .on(JavascriptException.class, ErrorRule.logAndContinue())
+                .on(MoveTargetOutOfBoundsException.class, ErrorRule.logAndContinue())
+                .on(UnsupportedCommandException.class, ErrorRule.logAndContinue());
+    }
+
+    /**
+     * Sets the rule for an exception class and its subclasses
+     * @param type The exception class
+     * @param rule The rule
+     * @return This policy
+     */
+    public ErrorPolicy on(Class<? extends Throwable> type, ErrorRule rule) {
+        rules.put(type, rule);
+        resolved.clear();
+        return this;
+    }
+
+    /**
+     * Sets the rule for exceptions that no other rule covers
+     * @param rule The rule
+     * @return This policy
+     */
+    public ErrorPolicy otherwise(ErrorRule rule) {
+        fallback = rule;
+        resolved.clear();
+        return this;
+    }
+
+    /**
+     * @return The rules set on this policy, keyed by exception class
+     */
+    public Map<Class<?>, ErrorRule> getRules() {
+        return Collections.unmodifiableMap(rules);
+    }
+
+    /**
+     * Finds the rule for an exception class
+     * @param type The exception class
+     * @return The rule for the class or its nearest superclass, or the fallback rule
+     */
+    public ErrorRule ruleFor(Class<?> type) {
+        ErrorRule rule = resolved.get(type);
+        if (rule == null) {
+            rule = resolve(type);
+            resolved.putIfAbsent(type, rule);
+        }
+        return rule;
+    }
+
+    /**
+     * Gets the pause before retrying a command that failed
+     * @param failure The exception the command threw or handled
+     * @param attempt The retry about to be made, starting at 1
+     * @return The pause in milliseconds, or -1 if the command should not be retried
+     */
+    public long retryDelay(Throwable failure, int attempt) {
+        if (failure == null) {
+            return -1;
+        }
+        ErrorRule rule = ruleFor(failure.getClass());
+        if (rule.getAction() != ErrorAction.Retry || attempt > rule.getAttempts()) {
+            return -1;
+        }
+        return rule.backoffMillis(attempt);
+    }
+
+    /**
+     * Runs a command, running it again while it fails with an exception whose rule is Retry. A failure counts
+     * whether the exception was thrown or passed to the error handler.
+     * @param command The command, for example () -> driver.getElementText(locator, true)
+     * @param <T> The type returned by the command
+     * @return The result of the last run of the command
+     */
+    public <T> T execute(Supplier<T> command) {
+        for (int attempt = 1; ; attempt++) {
+            int errorsBefore = ErrorHandler.handledErrorCount();
+            T result;
+            Throwable failure;
+            RuntimeException thrown = null;
+            try {
+                result = command.get();
+                failure = ErrorHandler.handledErrorCount() == errorsBefore ? null : ErrorHandler.lastHandledError();
+            } catch (RuntimeException ex) {
+                result = null;
+                failure = ex;
+                thrown = ex;
+            }
+            long delay = retryDelay(failure, attempt);
+            if (delay < 0 || !pause(delay)) {
+                if (thrown != null) {
+                    throw thrown;
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Runs a command, running it again while it fails with an exception whose rule is Retry
+     * @param command The command, for example () -> driver.hoverOverElement(element)
+     */
+    public void execute(Runnable command) {
+        execute(() -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Sleeps before a retry
+     * @param millis The pause in milliseconds
+     * @return False if the thread was interrupted, in which case no retry should be made
+     */
+    public static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private ErrorRule resolve(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            ErrorRule rule = rules.get(current);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return fallback;
+    }
+}
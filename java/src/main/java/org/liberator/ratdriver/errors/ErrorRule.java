@@ -0,0 +1,117 @@
+package org.liberator.ratdriver.errors;
+
+import lombok.Getter;
+import org.liberator.ratdriver.enums.ErrorAction;
+
+/**
+ * The action taken for a type of exception, with the retry settings used when the action is Retry
+ */
+@SuppressWarnings("unused")
+public final class ErrorRule {
+
+    private static final ErrorRule QUIT = new ErrorRule(ErrorAction.Quit, 0, 0, 0, 1d);
+    private static final ErrorRule RETHROW = new ErrorRule(ErrorAction.Rethrow, 0, 0, 0, 1d);
+    private static final ErrorRule LOG_AND_CONTINUE = new ErrorRule(ErrorAction.LogAndContinue, 0, 0, 0, 1d);
+
+    /**
+     * The action to take
+     */
+    @Getter
+    private final ErrorAction action;
+
+    /**
+     * The number of times the command is run again before giving up
+     */
+    @Getter
+    private final int attempts;
+
+    /**
+     * The pause before the first retry, in milliseconds
+     */
+    @Getter
+    private final long initialBackoffMillis;
+
+    /**
+     * The longest pause between retries, in milliseconds
+     */
+    @Getter
+    private final long maximumBackoffMillis;
+
+    /**
+     * The factor the pause grows by after each retry
+     */
+    @Getter
+    private final double multiplier;
+
+    private ErrorRule(ErrorAction action, int attempts, long initialBackoffMillis, long maximumBackoffMillis,
+                      double multiplier) {
+        this.action = action;
+        this.attempts = attempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maximumBackoffMillis = maximumBackoffMillis;
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * @return A rule that quits the browser
+     */
+    public static ErrorRule quit() {
+        return QUIT;
+    }
+
+    /**
+     * @return A rule that throws the exception on to the caller
+     */
+    public static ErrorRule rethrow() {
+        return RETHROW;
+    }
+
+    /**
+     * @return A rule that reports the exception and carries on
+     */
+    public static ErrorRule logAndContinue() {
+        return LOG_AND_CONTINUE;
+    }
+
+    /**
+     * Creates a rule that retries with a pause that doubles each time, up to ten times the first pause
+     * @param attempts The number of times to run the command again
+     * @param initialBackoffMillis The pause before the first retry, in milliseconds
+     * @return The rule
+     */
+    public static ErrorRule retry(int attempts, long initialBackoffMillis) {
+        return retry(attempts, initialBackoffMillis, initialBackoffMillis * 10, 2d);
+    }
+
+    /**
+     * Creates a rule that retries with an exponentially growing pause
+     * @param attempts The number of times to run the command again
+     * @param initialBackoffMillis The pause before the first retry, in milliseconds
+     * @param maximumBackoffMillis The longest pause, in milliseconds
+     * @param multiplier The factor the pause grows by after each retry, at least 1
+     * @return The rule
+     */
+    public static ErrorRule retry(int attempts, long initialBackoffMillis, long maximumBackoffMillis, double multiplier) {
+        if (attempts < 1 || initialBackoffMillis < 0 || maximumBackoffMillis < initialBackoffMillis || multiplier < 1d) {
+            throw new IllegalArgumentException("A retry needs at least one attempt and a pause that does not shrink");
+        }
+        return new ErrorRule(ErrorAction.Retry, attempts, initialBackoffMillis, maximumBackoffMillis, multiplier);
+    }
+
+    /**
+     * Gets the pause before a retry
+     * @param attempt The retry about to be made, starting at 1
+     * @return The pause in milliseconds
+     */
+    public long backoffMillis(int attempt) {
+        double backoff = initialBackoffMillis * Math.pow(multiplier, attempt - 1);
+        return (long) Math.min(backoff, maximumBackoffMillis);
+    }
+
+    @Override
+    public String toString() {
+        return action == ErrorAction.Retry
+                ? String.format("Retry(%d attempts, %dms to %dms)", attempts, initialBackoffMillis, maximumBackoffMillis)
+                : action.name();
+    }
+}
@@ -0,0 +1,253 @@
+package org.liberator.ratdriver.errors;
+
+import lombok.Getter;
+import org.liberator.ratdriver.logging.RatLog;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Collects a screenshot, the page source, the browser console log and the current URL when a command fails.
+ * <p>
+ * The failing thread only asks the browser for the raw data, which must be done before the page changes. Decoding,
+ * compression and writing are handed to a small pool of background threads, and each failure is written to its own
+ * directory through its own file channels, so concurrent failures do not contend. If the pool's queue is full the
+ * failure's artifacts are dropped and counted rather than making the test wait. Nothing is captured once the
+ * session has ended, for example after a NoSuchSessionException.
+ */
+@SuppressWarnings("unused")
+public class FailureArtifacts implements AutoCloseable {
+
+    /**
+     * The number of failures waiting to be written before further failures are dropped
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 32;
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss.SSS");
+
+    /**
+     * The directory each failure's artifacts are written under
+     */
+    @Getter
+    private final Path directory;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * Creates a collector with two writer threads
+     * @param directory The directory each failure's artifacts are written under
+     */
+    public FailureArtifacts(Path directory) {
+        this(directory, 2, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a collector
+     * @param directory The directory each failure's artifacts are written under
+     * @param threads The number of writer threads
+     * @param queueCapacity The number of failures that may wait to be written
+     */
+    public FailureArtifacts(Path directory, int threads, int queueCapacity) {
+        this.directory = directory;
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ratdriver-artifacts-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Captures the state of the browser after a failure and queues it to be written
+     * @param driver The driver the failure happened on
+     * @param ex The exception
+     * @param module The module the failure happened in
+     * @param method The method that failed
+     * @return The directory the artifacts will be written to, completed once they have been written, or completed
+     * with null if the session has ended and there is nothing to capture
+     */
+    public CompletableFuture<Path> capture(WebDriver driver, Throwable ex, String module, String method) {
+        if (isSessionGone(driver, ex)) {
+            return skip(method);
+        }
+        Capture capture = new Capture(ex, module, method);
+        if (driver instanceof TakesScreenshot) {
+            try {
+                capture.screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+            } catch (NoSuchSessionException gone) {
+                return skip(method);
+            } catch (RuntimeException failure) {
+                RatLog.human("Unable to take a screenshot of the failure.");
+            }
+        }
+        try {
+            capture.url = driver.getCurrentUrl();
+            capture.pageSource = driver.getPageSource();
+        } catch (RuntimeException failure) {
+            RatLog.human("Unable to capture the page at the failure.");
+        }
+        try {
+            capture.console = driver.manage().logs().get(LogType.BROWSER).getAll();
+        } catch (RuntimeException failure) {
+            capture.console = Collections.emptyList();
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> write(capture), executor);
+        } catch (RejectedExecutionException rejected) {
+            dropped.increment();
+            RatLog.human("Too many failures are waiting to be written, so the artifacts for %s were dropped.", method);
+            CompletableFuture<Path> future = new CompletableFuture<>();
+            future.completeExceptionally(rejected);
+            return future;
+        }
+    }
+
+    /**
+     * @return The number of failures whose artifacts were not captured because the session had ended
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return The number of failures whose artifacts were dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits for the queued artifacts to be written, then stops the writer threads
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                RatLog.human("Gave up waiting for failure artifacts to be written.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isSessionGone(WebDriver driver, Throwable ex) {
+        return ex instanceof NoSuchSessionException
+                || driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() == null;
+    }
+
+    private CompletableFuture<Path> skip(String method) {
+        skipped.increment();
+        RatLog.human("The browser session has ended, so no failure artifacts were captured for %s.", method);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private Path write(Capture capture) {
+        Path target = directory.resolve(String.format("%s-%s-%s-%d", TIMESTAMP.format(capture.time),
+                safe(capture.module), safe(capture.method), sequence.incrementAndGet()));
+        try {
+            Files.createDirectories(target);
+            if (capture.screenshot != null) {
+                write(target.resolve("screenshot.png"), Base64.getMimeDecoder().decode(capture.screenshot));
+            }
+            if (capture.pageSource != null) {
+                writeCompressed(target.resolve("page-source.html.gz"), capture.pageSource);
+            }
+            if (!capture.console.isEmpty()) {
+                StringBuilder console = new StringBuilder();
+                for (LogEntry entry : capture.console) {
+                    console.append(entry.toString()).append('\n');
+                }
+                writeCompressed(target.resolve("console.log.gz"), console.toString());
+            }
+            StringWriter failure = new StringWriter();
+            try (PrintWriter out = new PrintWriter(failure)) {
+                out.format("Module: %s%nMethod: %s%nUrl: %s%n%n", capture.module, capture.method, capture.url);
+                capture.exception.printStackTrace(out);
+            }
+            write(target.resolve("failure.txt"), failure.toString().getBytes(StandardCharsets.UTF_8));
+            return target;
+        } catch (IOException ex) {
+            RatLog.human("Unable to write the failure artifacts to %s", target);
+            RatLog.message(ex);
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void write(Path path, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static void writeCompressed(Path path, String text) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             OutputStream out = new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String safe(String name) {
+        return name == null ? "unknown" : name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * The raw data taken from the browser on the failing thread
+     */
+    private static final class Capture {
+        final LocalDateTime time = LocalDateTime.now();
+        final Throwable exception;
+        final String module;
+        final String method;
+        String screenshot;
+        String url;
+        String pageSource;
+        List<LogEntry> console;
+
+        Capture(Throwable exception, String module, String method) {
+            this.exception = exception;
+            this.module = module;
+            this.method = method;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.liberator.ratdriver.logging;
+
+import org.liberator.ratdriver.enums.ConsoleDebugLevel;
+import org.liberator.ratdriver.settings.BaseSettings;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Console logging for RatDriver that keeps printing off the threads driving the browsers.
+ * <p>
+ * Lines are gated by BaseSettings.DebugLevel: Human lines are written at every level except Silent, exception
+ * messages from Message upwards, and stack traces only at StackTrace. When no level has been set, or it is
+ * NotSpecified, exception messages are written as they are by the browser controls. A disabled line costs a
+ * single comparison.
+ * <p>
+ * Enabled lines are placed, unformatted, into a fixed size ring that any number of threads can write to without
+ * locking. A single background thread formats and prints them in batches, so sessions never contend for
+ * System.out. Arguments are formatted later on that thread, so they should be values that do not change, such as
+ * strings, numbers and locators. If the ring stays full the line is dropped and counted rather than making the
+ * caller wait for long.
+ */
+@SuppressWarnings("unused")
+public final class RatLog {
+
+    /**
+     * The number of lines the ring holds
+     */
+    public static final int CAPACITY = 8192;
+
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int FULL_RETRIES = 64;
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final String[] formats = new String[CAPACITY];
+    private static final Object[] firstArguments = new Object[CAPACITY];
+    private static final Object[] secondArguments = new Object[CAPACITY];
+    private static final Object[] thirdArguments = new Object[CAPACITY];
+    private static final int[] argumentCounts = new int[CAPACITY];
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+
+    private static final AtomicLong tail = new AtomicLong();
+    private static final AtomicLong head = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final LongAdder dropped = new LongAdder();
+
+    private static volatile boolean writerParked;
+    private static final Thread writer = new Thread(RatLog::drain, "ratdriver-log");
+
+    static {
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(RatLog::flush, "ratdriver-log-flush"));
+    }
+
+    private RatLog() {
+    }
+
+    /**
+     * Checks whether lines of a given level are written at the current debug level
+     * @param level Human, Message or StackTrace
+     * @return Whether the line would be written
+     */
+    public static boolean isEnabled(ConsoleDebugLevel level) {
+        return rank(level) <= threshold();
+    }
+
+    /**
+     * Writes a line of human readable text
+     * @param text The text to write
+     */
+    public static void human(String text) {
+        if (threshold() >= 1) {
+            publish(text, null, null, null, 0);
+        }
+    }
+
+    /**
+     * Writes a formatted line of human readable text
+     * @param format A String.format pattern
+     * @param argument The argument to the pattern
+     */
+    public static void human(String format, Object argument) {
+        if (threshold() >= 1) {
+            publish(format, argument, null, null, 1);
+        }
+    }
+
+    /**
+     * Writes a formatted line of human readable text
+     * @param format A String.format pattern
+     * @param first The first argument to the pattern
+     * @param second The second argument to the pattern
+     */
+    public static void human(String format, Object first, Object second) {
+        if (threshold() >= 1) {
+            publish(format, first, second, null, 2);
+        }
+    }
+
+    /**
+     * Writes a formatted line of human readable text
+     * @param format A String.format pattern
+     * @param first The first argument to the pattern
+     * @param second The second argument to the pattern
+     * @param third The third argument to the pattern
+     */
+    public static void human(String format, Object first, Object second, Object third) {
+        if (threshold() >= 1) {
+            publish(format, first, second, third, 3);
+        }
+    }
+
+    /**
+     * Writes the message of an exception
+     * @param ex The exception
+     */
+    public static void message(Throwable ex) {
+        if (threshold() >= 2) {
+            publish("%s", ex.getMessage(), null, null, 1);
+        }
+    }
+
+    /**
+     * Writes a formatted line that includes exception details
+     * @param format A String.format pattern
+     * @param argument The argument to the pattern
+     */
+    public static void message(String format, Object argument) {
+        if (threshold() >= 2) {
+            publish(format, argument, null, null, 1);
+        }
+    }
+
+    /**
+     * Writes the stack trace of an exception
+     * @param ex The exception
+     */
+    public static void stackTrace(Throwable ex) {
+        if (threshold() >= 3) {
+            publish("%s", Arrays.toString(ex.getStackTrace()), null, null, 1);
+        }
+    }
+
+    /**
+     * Waits for the lines logged so far to be written, for up to five seconds
+     */
+    public static void flush() {
+        long target = tail.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (written.get() < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * @return The number of lines dropped because the ring was full
+     */
+    public static long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Orders the debug levels by how much they write. Unset and NotSpecified write as much as Message.
+     */
+    private static int threshold() {
+        ConsoleDebugLevel level = BaseSettings.DebugLevel;
+        return level == null ? 2 : rank(level);
+    }
+
+    private static int rank(ConsoleDebugLevel level) {
+        switch (level) {
+            case Silent:
+                return 0;
+            case Human:
+                return 1;
+            case StackTrace:
+                return 3;
+            default:
+                return 2;
+        }
+    }
+
+    private static void publish(String format, Object first, Object second, Object third, int count) {
+        long sequence;
+        int attempts = 0;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= CAPACITY) {
+                if (++attempts > FULL_RETRIES) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.unpark(writer);
+                Thread.yield();
+            }
+        } while (sequence - head.get() >= CAPACITY || !tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & MASK;
+        formats[slot] = format;
+        firstArguments[slot] = first;
+        secondArguments[slot] = second;
+        thirdArguments[slot] = third;
+        argumentCounts[slot] = count;
+        published.lazySet(slot, sequence + 1);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private static void drain() {
+        StringBuilder batch = new StringBuilder(4096);
+        long reportedDropped = 0;
+        while (true) {
+            long sequence = head.get();
+            int slot = (int) sequence & MASK;
+            if (published.get(slot) == sequence + 1) {
+                batch.append(format(slot)).append(System.lineSeparator());
+                formats[slot] = null;
+                firstArguments[slot] = null;
+                secondArguments[slot] = null;
+                thirdArguments[slot] = null;
+                head.lazySet(sequence + 1);
+                if (batch.length() < 64 * 1024) {
+                    continue;
+                }
+            }
+            long lost = dropped.sum();
+            if (lost != reportedDropped) {
+                batch.append(lost - reportedDropped).append(" log lines were dropped because the log buffer was full.")
+                        .append(System.lineSeparator());
+                reportedDropped = lost;
+            }
+            if (batch.length() > 0) {
+                System.out.print(batch);
+                System.out.flush();
+                batch.setLength(0);
+                written.set(head.get());
+                continue;
+            }
+            writerParked = true;
+            if (published.get(slot) != sequence + 1) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    private static String format(int slot) {
+        String format = formats[slot];
+        try {
+            switch (argumentCounts[slot]) {
+                case 0:
+                    return format;
+                case 1:
+                    return String.format(format, firstArguments[slot]);
+                case 2:
+                    return String.format(format, firstArguments[slot], secondArguments[slot]);
+                default:
+                    return String.format(format, firstArguments[slot], secondArguments[slot], thirdArguments[slot]);
+            }
+        } catch (RuntimeException ex) {
+            return format;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package org.liberator.ratdriver.performance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Encodes metrics in the OpenMetrics text format straight into a reusable UTF-8 byte buffer, without building
+ * a String for each sample.
+ */
+class OpenMetricsWriter {
+
+    /**
+     * Histogram bucket boundaries in nanoseconds
+     */
+    static final long[] BUCKET_BOUNDARIES = {
+            1_000_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L, 250_000_000L,
+            500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L, 30_000_000_000L,
+            60_000_000_000L
+    };
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private byte[] buffer = new byte[64 * 1024];
+    private int size;
+    private final long[] cumulative = new long[BUCKET_BOUNDARIES.length];
+
+    /**
+     * Discards everything written so far
+     */
+    void reset() {
+        size = 0;
+    }
+
+    /**
+     * @return The number of bytes written
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the encoded bytes to a stream
+     * @param out The stream to write to
+     * @throws IOException If the stream cannot be written
+     */
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /**
+     * Writes the TYPE (and optionally UNIT) metadata for a metric family
+     * @param family The family name
+     * @param type The OpenMetrics type
+     * @param unit The unit, or null
+     * @param help The help text, or null
+     */
+    void family(String family, String type, String unit, String help) {
+        text("# TYPE ").text(family).text(" ").text(type).newline();
+        if (unit != null) {
+            text("# UNIT ").text(family).text(" ").text(unit).newline();
+        }
+        if (help != null) {
+            text("# HELP ").text(family).text(" ").text(help).newline();
+        }
+    }
+
+    /**
+     * Writes a single sample
+     * @param name The sample name
+     * @param labels Alternating label names and values
+     * @param value The sample value
+     */
+    void sample(String name, String[] labels, long value) {
+        text(name);
+        labels(labels, null, null);
+        text(" ").number(value).newline();
+    }
+
+    /**
+     * Writes every sample of a histogram recorded in nanoseconds, converting it to seconds
+     * @param family The family name
+     * @param labels Alternating label names and values
+     * @param histogram The histogram
+     */
+    void histogram(String family, String[] labels, RatHistogram histogram) {
+        long[] counts = histogram.getCounts();
+        Arrays.fill(cumulative, 0);
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            long count = counts[i];
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            // a histogram bucket that straddles a boundary is counted above it, so latencies are never understated
+            long value = histogram.highestEquivalentValue(i);
+            for (int b = 0; b < BUCKET_BOUNDARIES.length; b++) {
+                if (value <= BUCKET_BOUNDARIES[b]) {
+                    cumulative[b] += count;
+                    break;
+                }
+            }
+        }
+
+        long running = 0;
+        for (int b = 0; b < BUCKET_BOUNDARIES.length; b++) {
+            running += cumulative[b];
+            text(family).text("_bucket");
+            labels(labels, "le", null);
+            seconds(BUCKET_BOUNDARIES[b]).text("\"} ").number(running).newline();
+        }
+        text(family).text("_bucket");
+        labels(labels, "le", "+Inf");
+        text(" ").number(total).newline();
+
+        text(family).text("_count");
+        labels(labels, null, null);
+        text(" ").number(total).newline();
+
+        text(family).text("_sum");
+        labels(labels, null, null);
+        text(" ").seconds(histogram.getTotalSum()).newline();
+    }
+
+    /**
+     * Writes the end of exposition marker
+     */
+    void end() {
+        text("# EOF").newline();
+    }
+
+    /**
+     * Writes a label set. When extraValue is null and extraName is not, the set is left open after the extra
+     * label's opening quote so that the caller can write the value itself.
+     */
+    private void labels(String[] labels, String extraName, String extraValue) {
+        if ((labels == null || labels.length == 0) && extraName == null) {
+            return;
+        }
+        text("{");
+        boolean first = true;
+        if (labels != null) {
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (!first) {
+                    text(",");
+                }
+                text(labels[i]).text("=\"").escaped(labels[i + 1]).text("\"");
+                first = false;
+            }
+        }
+        if (extraName != null) {
+            if (!first) {
+                text(",");
+            }
+            text(extraName).text("=\"");
+            if (extraValue != null) {
+                text(extraValue).text("\"}");
+            }
+        } else {
+            text("}");
+        }
+    }
+
+    OpenMetricsWriter newline() {
+        ensure(1);
+        buffer[size++] = '\n';
+        return this;
+    }
+
+    OpenMetricsWriter number(long value) {
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            return text("-9223372036854775808");
+        }
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int start = size;
+        do {
+            buffer[size++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        reverse(start, size - 1);
+        return this;
+    }
+
+    /**
+     * Writes a duration in nanoseconds as a decimal number of seconds
+     */
+    OpenMetricsWriter seconds(long nanos) {
+        number(nanos / NANOS_PER_SECOND);
+        long fraction = Math.abs(nanos % NANOS_PER_SECOND);
+        if (fraction != 0) {
+            ensure(10);
+            buffer[size++] = '.';
+            int digits = 9;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            int end = size + digits;
+            for (int i = end - 1; i >= size; i--) {
+                buffer[i] = (byte) ('0' + (fraction % 10));
+                fraction /= 10;
+            }
+            size = end;
+        }
+        return this;
+    }
+
+    OpenMetricsWriter text(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            character(value.charAt(i), value, i);
+            if (Character.isHighSurrogate(value.charAt(i)) && i + 1 < value.length()) {
+                i++;
+            }
+        }
+        return this;
+    }
+
+    private OpenMetricsWriter escaped(String value) {
+        if (value == null) {
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                ensure(1);
+                buffer[size++] = '\\';
+                character(c, value, i);
+            } else if (c == '\n') {
+                text("\\n");
+            } else {
+                character(c, value, i);
+                if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+                    i++;
+                }
+            }
+        }
+        return this;
+    }
+
+    private void character(char c, String value, int index) {
+        ensure(4);
+        if (c < 0x80) {
+            buffer[size++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[size++] = (byte) (0xC0 | (c >> 6));
+            buffer[size++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length()) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            buffer[size++] = (byte) (0xE0 | (c >> 12));
+            buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[size++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            byte b = buffer[from];
+            buffer[from++] = buffer[to];
+            buffer[to--] = b;
+        }
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.logging.RatLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The timing distributions of one journey, kept so that later runs of the journey can be compared with them.
+ * <p>
+ * A baseline is saved as a small binary file holding only the non-empty histogram buckets.
+ */
+@SuppressWarnings("unused")
+public class RatBaseline {
+
+    private static final int MAGIC = 0x52415442;
+    private static final int VERSION = 1;
+
+    /**
+     * The name of the journey the timings were recorded for
+     */
+    @Getter
+    private final String journey;
+
+    /**
+     * When the timings were captured, in milliseconds since the epoch
+     */
+    @Getter
+    private final long createdMillis;
+
+    private final Map<Timing, RatHistogram> histograms;
+
+    private RatBaseline(String journey, long createdMillis, Map<Timing, RatHistogram> histograms) {
+        this.journey = journey;
+        this.createdMillis = createdMillis;
+        this.histograms = histograms;
+    }
+
+    /**
+     * Captures the timings currently held by a watch
+     * @param journey The name of the journey the watch timed
+     * @param ratWatch The watch
+     * @return A baseline holding copies of the watch's histograms
+     */
+    public static RatBaseline of(String journey, RatWatch ratWatch) {
+        Map<Timing, RatHistogram> histograms = new EnumMap<>(Timing.class);
+        for (Timing timing : Timing.values()) {
+            histograms.put(timing, ratWatch.getHistogram(timing).copy());
+        }
+        return new RatBaseline(journey, System.currentTimeMillis(), histograms);
+    }
+
+    /**
+     * Gets the durations recorded for a timing type
+     * @param timing The type of timing
+     * @return A histogram of durations in nanoseconds, empty if none were recorded
+     */
+    public RatHistogram getHistogram(Timing timing) {
+        RatHistogram histogram = histograms.get(timing);
+        return histogram == null ? new RatHistogram() : histogram;
+    }
+
+    /**
+     * Saves the baseline, replacing any existing file in a single step
+     * @param path The file to save to
+     * @throws IOException If the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeUTF(journey);
+                out.writeLong(createdMillis);
+                out.writeShort(histograms.size());
+                for (Map.Entry<Timing, RatHistogram> entry : histograms.entrySet()) {
+                    RatHistogram histogram = entry.getValue();
+                    long[] counts = histogram.getCounts();
+                    int used = 0;
+                    for (long count : counts) {
+                        if (count != 0) {
+                            used++;
+                        }
+                    }
+                    out.writeUTF(entry.getKey().name());
+                    out.writeLong(histogram.getHighestTrackableValue());
+                    out.writeByte(histogram.getSubBucketBits());
+                    out.writeInt(used);
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] != 0) {
+                            out.writeInt(i);
+                            out.writeLong(counts[i]);
+                        }
+                    }
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Loads a saved baseline. Timing types this version of RatDriver does not know are skipped.
+     * @param path The file to load
+     * @return The baseline
+     * @throws IOException If the file cannot be read, or is not a baseline
+     */
+    public static RatBaseline load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException(path + " is not a RatDriver baseline");
+            }
+            String journey = in.readUTF();
+            long createdMillis = in.readLong();
+            int timings = in.readShort();
+            Map<Timing, RatHistogram> histograms = new EnumMap<>(Timing.class);
+            for (int t = 0; t < timings; t++) {
+                String name = in.readUTF();
+                RatHistogram histogram = new RatHistogram(in.readLong(), in.readByte());
+                int used = in.readInt();
+                for (int i = 0; i < used; i++) {
+                    int index = in.readInt();
+                    long count = in.readLong();
+                    if (index < 0 || index >= histogram.getBucketCount()) {
+                        throw new IOException(path + " is corrupt");
+                    }
+                    histogram.recordValue(histogram.lowestEquivalentValue(index), count);
+                }
+                try {
+                    histograms.put(Timing.valueOf(name), histogram);
+                } catch (IllegalArgumentException ex) {
+                    RatLog.human("Skipping unknown timing type %s in baseline %s", name, path);
+                }
+            }
+            return new RatBaseline(journey, createdMillis, histograms);
+        }
+    }
+}
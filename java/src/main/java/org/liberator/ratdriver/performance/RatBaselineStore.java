@@ -0,0 +1,62 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A directory of baselines, one file per journey
+ */
+@SuppressWarnings("unused")
+public class RatBaselineStore {
+
+    /**
+     * The extension given to baseline files
+     */
+    public static final String EXTENSION = ".ratbaseline";
+
+    /**
+     * The directory holding the baselines
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * Creates a store
+     * @param directory The directory holding the baselines, created when the first baseline is saved
+     */
+    public RatBaselineStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Saves a baseline, replacing the existing baseline for its journey
+     * @param baseline The baseline to save
+     * @throws IOException If the baseline cannot be written
+     */
+    public void save(RatBaseline baseline) throws IOException {
+        baseline.save(pathOf(baseline.getJourney()));
+    }
+
+    /**
+     * Loads the baseline for a journey
+     * @param journey The name of the journey
+     * @return The baseline, or null if none has been saved
+     * @throws IOException If the baseline cannot be read
+     */
+    public RatBaseline load(String journey) throws IOException {
+        Path path = pathOf(journey);
+        return Files.exists(path) ? RatBaseline.load(path) : null;
+    }
+
+    /**
+     * Gets the file a journey's baseline is kept in
+     * @param journey The name of the journey
+     * @return The baseline file
+     */
+    public Path pathOf(String journey) {
+        return directory.resolve(journey.replaceAll("[^A-Za-z0-9._-]", "_") + EXTENSION);
+    }
+}
@@ -0,0 +1,19 @@
+package org.liberator.ratdriver.performance;
+
+/**
+ * A monotonic source of time for RatDriver timers
+ */
+@FunctionalInterface
+public interface RatClock {
+
+    /**
+     * The default clock, backed by System.nanoTime
+     */
+    RatClock SYSTEM = System::nanoTime;
+
+    /**
+     * Reads the clock. Only the difference between two readings is meaningful.
+     * @return The current reading in nanoseconds
+     */
+    long nanoTime();
+}
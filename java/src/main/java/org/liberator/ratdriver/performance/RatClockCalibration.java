@@ -0,0 +1,97 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Measures the cost and resolution of a RatClock, so that the timings of very fast commands can be judged
+ * against the noise introduced by reading the clock.
+ */
+@SuppressWarnings("unused")
+public class RatClockCalibration {
+
+    /**
+     * Number of back to back readings used by default
+     */
+    public static final int DEFAULT_SAMPLES = 100_000;
+
+    /**
+     * The median cost of one reading of the clock, in nanoseconds
+     */
+    @Getter
+    private final long overheadNanos;
+
+    /**
+     * The smallest non-zero step observed between two readings, in nanoseconds
+     */
+    @Getter
+    private final long granularityNanos;
+
+    /**
+     * The largest gap observed between two readings, in nanoseconds
+     */
+    @Getter
+    private final long maximumNanos;
+
+    /**
+     * The number of back to back readings taken
+     */
+    @Getter
+    private final int samples;
+
+    private RatClockCalibration(long overheadNanos, long granularityNanos, long maximumNanos, int samples) {
+        this.overheadNanos = overheadNanos;
+        this.granularityNanos = granularityNanos;
+        this.maximumNanos = maximumNanos;
+        this.samples = samples;
+    }
+
+    /**
+     * Calibrates a clock using the default number of samples
+     * @param clock The clock to calibrate
+     * @return The calibration results
+     */
+    public static RatClockCalibration calibrate(RatClock clock) {
+        return calibrate(clock, DEFAULT_SAMPLES);
+    }
+
+    /**
+     * Calibrates a clock
+     * @param clock The clock to calibrate
+     * @param samples The number of back to back readings to take
+     * @return The calibration results
+     */
+    public static RatClockCalibration calibrate(RatClock clock, int samples) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("At least one sample is required to calibrate a clock");
+        }
+        // Warm the call site so the first readings do not include interpretation or compilation
+        for (int i = 0; i < Math.min(samples, 10_000); i++) {
+            clock.nanoTime();
+        }
+
+        long[] deltas = new long[samples];
+        long granularity = Long.MAX_VALUE;
+        long previous = clock.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            long current = clock.nanoTime();
+            deltas[i] = current - previous;
+            if (deltas[i] > 0 && deltas[i] < granularity) {
+                granularity = deltas[i];
+            }
+            previous = current;
+        }
+        Arrays.sort(deltas);
+        return new RatClockCalibration(deltas[samples / 2],
+                granularity == Long.MAX_VALUE ? 0 : granularity,
+                deltas[samples - 1],
+                samples);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Clock overhead: %d ns, granularity: %d ns, worst gap: %d ns over %d samples",
+                overheadNanos, granularityNanos, maximumNanos, samples);
+    }
+}
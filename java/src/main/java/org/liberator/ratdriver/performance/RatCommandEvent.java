@@ -0,0 +1,25 @@
+package org.liberator.ratdriver.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering a single RatDriver command
+ */
+@Name("org.liberator.ratdriver.Command")
+@Label("RatDriver Command")
+@Category({"RatDriver"})
+@Description("A command sent through an instrumented RatDriver")
+@StackTrace(false)
+public class RatCommandEvent extends Event {
+
+    @Label("Command")
+    public String command;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,71 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A collection of per-command statistics, keyed by command name
+ */
+@SuppressWarnings("unused")
+public class RatCommandMetrics {
+
+    /**
+     * The clock used to time commands
+     */
+    @Getter
+    private final RatClock clock;
+
+    private final ConcurrentMap<String, RatCommandStats> commands = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a collection timed with the system clock
+     */
+    public RatCommandMetrics() {
+        this(RatClock.SYSTEM);
+    }
+
+    /**
+     * Creates a collection
+     * @param clock The clock used to time commands
+     */
+    public RatCommandMetrics(RatClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the statistics for a command, creating them if required
+     * @param name The name of the command
+     * @return The statistics for the command
+     */
+    public RatCommandStats getCommand(String name) {
+        RatCommandStats stats = commands.get(name);
+        if (stats == null) {
+            stats = commands.computeIfAbsent(name, RatCommandStats::new);
+        }
+        return stats;
+    }
+
+    /**
+     * @return The statistics for every command called so far
+     */
+    public Collection<RatCommandStats> getCommands() {
+        List<RatCommandStats> list = new ArrayList<>(commands.values());
+        list.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Clears the statistics for every command
+     */
+    public void reset() {
+        for (RatCommandStats stats : commands.values()) {
+            stats.reset();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+import org.liberator.ratdriver.enums.CommandOutcome;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, outcome and call counts for a single RatDriver command
+ */
+@SuppressWarnings("unused")
+public class RatCommandStats {
+
+    private static final CommandOutcome[] OUTCOMES = CommandOutcome.values();
+
+    /**
+     * The name of the command
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * Histogram of command durations in nanoseconds
+     */
+    @Getter
+    private final RatHistogram latency = new RatHistogram();
+
+    private final LongAdder[] outcomes = new LongAdder[OUTCOMES.length];
+
+    RatCommandStats(String name) {
+        this.name = name;
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a call to the command
+     * @param durationNanos The duration of the call in nanoseconds
+     * @param outcome The outcome of the call
+     */
+    public void record(long durationNanos, CommandOutcome outcome) {
+        latency.recordValue(durationNanos);
+        outcomes[outcome.ordinal()].increment();
+    }
+
+    /**
+     * @return The number of calls made to the command
+     */
+    public long getCalls() {
+        long calls = 0;
+        for (LongAdder outcome : outcomes) {
+            calls += outcome.sum();
+        }
+        return calls;
+    }
+
+    /**
+     * Gets the number of calls that had a given outcome
+     * @param outcome The outcome
+     * @return The number of calls
+     */
+    public long getCount(CommandOutcome outcome) {
+        return outcomes[outcome.ordinal()].sum();
+    }
+
+    /**
+     * Clears all recorded calls
+     */
+    public void reset() {
+        latency.reset();
+        for (LongAdder outcome : outcomes) {
+            outcome.reset();
+        }
+    }
+}
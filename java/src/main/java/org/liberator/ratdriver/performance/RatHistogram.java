@@ -0,0 +1,287 @@
+package org.liberator.ratdriver.performance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size, log-linear histogram of non-negative long values.
+ * <p>
+ * Values below 2^subBucketBits are counted exactly. Above that each power of two is split into
+ * 2^(subBucketBits - 1) linear sub-buckets, giving a constant relative error of 1 / 2^(subBucketBits - 1).
+ * All buckets are allocated up front, so recording a value allocates nothing and takes no lock.
+ */
+@SuppressWarnings("unused")
+public class RatHistogram {
+
+    /**
+     * Default number of bits used for linear sub-buckets (1.6% relative error)
+     */
+    public static final int DEFAULT_SUB_BUCKET_BITS = 7;
+
+    /**
+     * Default highest trackable value: 2^43 nanoseconds, a little over two hours
+     */
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 1L << 43;
+
+    private final int subBucketBits;
+    private final int subBucketHalfCount;
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxValue = new AtomicLong(0);
+
+    /**
+     * Creates a histogram tracking values up to the default highest trackable value
+     */
+    public RatHistogram() {
+        this(DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Creates a histogram
+     * @param highestTrackableValue Values above this are clamped into the top bucket
+     * @param subBucketBits Number of bits used for linear sub-buckets, between 2 and 16
+     */
+    public RatHistogram(long highestTrackableValue, int subBucketBits) {
+        if (subBucketBits < 2 || subBucketBits > 16) {
+            throw new IllegalArgumentException("subBucketBits must be between 2 and 16");
+        }
+        if (highestTrackableValue < (1L << subBucketBits)) {
+            throw new IllegalArgumentException("highestTrackableValue must be at least 2^subBucketBits");
+        }
+        this.subBucketBits = subBucketBits;
+        this.subBucketHalfCount = 1 << (subBucketBits - 1);
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(bucketIndex(highestTrackableValue) + 1);
+    }
+
+    /**
+     * Records a single value
+     * @param value The value to record. Negative values are recorded as zero.
+     */
+    public void recordValue(long value) {
+        recordValue(value, 1);
+    }
+
+    /**
+     * Records a value a number of times
+     * @param value The value to record. Negative values are recorded as zero.
+     * @param count The number of occurrences
+     */
+    public void recordValue(long value, long count) {
+        long clamped = value < 0 ? 0 : Math.min(value, highestTrackableValue);
+        counts.getAndAdd(bucketIndex(clamped), count);
+        totalCount.add(count);
+        totalSum.add(clamped * count);
+        updateMin(clamped);
+        updateMax(clamped);
+    }
+
+    /**
+     * Adds the contents of another histogram with the same layout to this one
+     * @param other The histogram to add
+     */
+    public void add(RatHistogram other) {
+        if (other.subBucketBits != subBucketBits || other.counts.length() != counts.length()) {
+            throw new IllegalArgumentException("Histograms must share the same bucket layout to be added");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.getAndAdd(i, count);
+            }
+        }
+        totalCount.add(other.getTotalCount());
+        totalSum.add(other.totalSum.sum());
+        if (other.getTotalCount() > 0) {
+            updateMin(other.getMinValue());
+            updateMax(other.getMaxValue());
+        }
+    }
+
+    /**
+     * Creates an empty histogram with the same layout as this one
+     * @return A new, empty histogram
+     */
+    public RatHistogram emptyCopy() {
+        return new RatHistogram(highestTrackableValue, subBucketBits);
+    }
+
+    /**
+     * Creates a point in time copy of this histogram
+     * @return A new histogram containing the same counts
+     */
+    public RatHistogram copy() {
+        RatHistogram copy = emptyCopy();
+        copy.add(this);
+        return copy;
+    }
+
+    /**
+     * Clears all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        minValue.set(Long.MAX_VALUE);
+        maxValue.set(0);
+    }
+
+    /**
+     * @return The number of values recorded
+     */
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * @return The sum of all values recorded
+     */
+    public long getTotalSum() {
+        return totalSum.sum();
+    }
+
+    /**
+     * @return The smallest value recorded, or zero if the histogram is empty
+     */
+    public long getMinValue() {
+        long min = minValue.get();
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
+    /**
+     * @return The largest value recorded
+     */
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * @return The mean of all values recorded, or zero if the histogram is empty
+     */
+    public double getMean() {
+        long count = getTotalCount();
+        return count == 0 ? 0d : (double) getTotalSum() / count;
+    }
+
+    /**
+     * Gets the value at a given percentile
+     * @param percentile The percentile, between 0 and 100
+     * @return The highest value equivalent to the bucket holding the percentile
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = getCounts();
+        long count = 0;
+        for (long c : snapshot) {
+            count += c;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        double bounded = Math.min(Math.max(percentile, 0d), 100d);
+        long target = Math.max(1, (long) Math.ceil(bounded / 100d * count));
+        long running = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            running += snapshot[i];
+            if (running >= target) {
+                return Math.min(highestEquivalentValue(i), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    /**
+     * Copies the bucket counts out of the histogram
+     * @return An array of counts, indexed by bucket
+     */
+    public long[] getCounts() {
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return The number of buckets in the histogram
+     */
+    public int getBucketCount() {
+        return counts.length();
+    }
+
+    /**
+     * @return The number of bits used for linear sub-buckets
+     */
+    public int getSubBucketBits() {
+        return subBucketBits;
+    }
+
+    /**
+     * @return The highest value that can be recorded without clamping
+     */
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Gets the bucket a value is counted in
+     * @param value A non-negative value
+     * @return The bucket index
+     */
+    public int bucketIndex(long value) {
+        if (value < (subBucketHalfCount << 1)) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (subBucketBits - 1);
+        int mantissa = (int) (value >>> shift);
+        return shift * subBucketHalfCount + mantissa;
+    }
+
+    /**
+     * Gets the lowest value counted in a bucket
+     * @param index The bucket index
+     * @return The lowest value in the bucket
+     */
+    public long lowestEquivalentValue(int index) {
+        if (index < (subBucketHalfCount << 1)) {
+            return index;
+        }
+        int shift = index / subBucketHalfCount - 1;
+        long mantissa = index - (long) shift * subBucketHalfCount;
+        return mantissa << shift;
+    }
+
+    /**
+     * Gets the highest value counted in a bucket
+     * @param index The bucket index
+     * @return The highest value in the bucket
+     */
+    public long highestEquivalentValue(int index) {
+        if (index < (subBucketHalfCount << 1)) {
+            return index;
+        }
+        int shift = index / subBucketHalfCount - 1;
+        return lowestEquivalentValue(index) + (1L << shift) - 1;
+    }
+
+    private void updateMin(long value) {
+        long current = minValue.get();
+        while (value < current && !minValue.compareAndSet(current, value)) {
+            current = minValue.get();
+        }
+    }
+
+    private void updateMax(long value) {
+        long current = maxValue.get();
+        while (value > current && !maxValue.compareAndSet(current, value)) {
+            current = maxValue.get();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package org.liberator.ratdriver.performance;
+
+import org.liberator.ratdriver.enums.CommandOutcome;
+import org.liberator.ratdriver.enums.Timing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A ring of fixed size timing records in a memory-mapped file.
+ * <p>
+ * Records are written straight into the page cache, so they survive the JVM that wrote them, including when it
+ * crashes. Any number of threads and processes may append to the same file: each append claims a slot by
+ * atomically advancing a cursor in the file header, then stamps the slot with its sequence number once the
+ * record is complete. Readers only accept slots whose stamp is unchanged across the read, so half written
+ * records are skipped. Once the ring is full the oldest records are overwritten.
+ * <p>
+ * Start times come from System.nanoTime, which on Linux is shared by every process on the host, so records from
+ * different shards on one machine can be ordered against each other.
+ */
+@SuppressWarnings("unused")
+public class RatJournal implements RatSpanListener, Closeable {
+
+    /**
+     * The number of records held by default, about 2.5MB of file
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * The size of the file header in bytes
+     */
+    public static final int HEADER_SIZE = 64;
+
+    /**
+     * The size of each record in bytes
+     */
+    public static final int RECORD_SIZE = 40;
+
+    static final int MAGIC = 0x5241544A;
+    static final int VERSION = 1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int CURSOR_OFFSET = 16;
+
+    private static final int STAMP = 0;
+    private static final int START = 8;
+    private static final int DURATION = 16;
+    private static final int COMMAND = 24;
+    private static final int PROCESS = 28;
+    private static final int TIMING = 32;
+    private static final int OUTCOME = 34;
+
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    private static final Timing[] TIMINGS = Timing.values();
+    private static final CommandOutcome[] OUTCOMES = CommandOutcome.values();
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int PROCESS_ID = (int) ProcessHandle.current().pid();
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private RatJournal(Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Opens a journal, creating it with the default capacity if it does not exist
+     * @param path The journal file
+     * @return The open journal
+     * @throws IOException If the file cannot be mapped, or is not a journal
+     */
+    public static RatJournal open(Path path) throws IOException {
+        return open(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens a journal, creating it if it does not exist. An existing journal keeps its own capacity.
+     * @param path The journal file
+     * @param capacity The number of records held by a new journal
+     * @return The open journal
+     * @throws IOException If the file cannot be mapped, or is not a journal
+     */
+    public static RatJournal open(Path path, int capacity) throws IOException {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            int existing;
+            FileLock lock = channel.lock();
+            try {
+                if (channel.size() < HEADER_SIZE) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                    header.putInt(MAGIC_OFFSET, MAGIC)
+                            .putInt(VERSION_OFFSET, VERSION)
+                            .putInt(RECORD_SIZE_OFFSET, RECORD_SIZE)
+                            .putInt(CAPACITY_OFFSET, capacity);
+                    channel.write(header, 0);
+                    channel.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) capacity * RECORD_SIZE - 1);
+                    channel.force(true);
+                }
+                existing = checkHeader(channel, path);
+            } finally {
+                lock.release();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) existing * RECORD_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new RatJournal(path, channel, buffer, existing);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Gets the identifier recorded for a command. This is the hash code of the name, which is the same in every JVM.
+     * @param name The command name
+     * @return The command identifier
+     */
+    public static int commandId(String name) {
+        return name == null ? 0 : name.hashCode();
+    }
+
+    /**
+     * Appends a record to the journal
+     * @param timing The type of timing
+     * @param commandId The command identifier, see commandId
+     * @param startNanos The start of the timing, from System.nanoTime
+     * @param durationNanos The duration of the timing in nanoseconds
+     * @param outcome The outcome of the command
+     */
+    public void append(Timing timing, int commandId, long startNanos, long durationNanos, CommandOutcome outcome) {
+        long sequence = (long) LONGS.getAndAdd(buffer, CURSOR_OFFSET, 1L);
+        int offset = HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+        LONGS.setVolatile(buffer, offset + STAMP, 0L);
+        VarHandle.storeStoreFence();
+        buffer.putLong(offset + START, startNanos);
+        buffer.putLong(offset + DURATION, durationNanos);
+        buffer.putInt(offset + COMMAND, commandId);
+        buffer.putInt(offset + PROCESS, PROCESS_ID);
+        buffer.putShort(offset + TIMING, (short) timing.ordinal());
+        buffer.put(offset + OUTCOME, (byte) outcome.ordinal());
+        LONGS.setRelease(buffer, offset + STAMP, sequence + 1);
+    }
+
+    /**
+     * Appends a finished span, identified by its path
+     * @param span The span that has ended
+     */
+    @Override
+    public void onSpanEnd(RatSpan span) {
+        append(Timing.NotSpecified, commandId(span.getPath()), span.getStartNanos(), span.getDurationNanos(),
+                span.isFailed() ? CommandOutcome.HandledError : CommandOutcome.Success);
+    }
+
+    /**
+     * @return The total number of records appended since the journal was created, including overwritten ones
+     */
+    public long getAppended() {
+        return (long) LONGS.getAcquire(buffer, CURSOR_OFFSET);
+    }
+
+    /**
+     * @return The number of records the ring holds
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The journal file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Reads the complete records currently held by this journal
+     * @return The records, oldest first
+     */
+    public List<RatJournalRecord> snapshot() {
+        return readRecords(buffer, capacity);
+    }
+
+    /**
+     * Writes the mapped pages to disk, so the records also survive the host going down
+     */
+    public void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads the complete records held by a journal file, which may still be being written to
+     * @param path The journal file
+     * @return The records, oldest first
+     * @throws IOException If the file cannot be mapped, or is not a journal
+     */
+    public static List<RatJournalRecord> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int capacity = checkHeader(channel, path);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return readRecords(buffer, capacity);
+        }
+    }
+
+    private static List<RatJournalRecord> readRecords(ByteBuffer buffer, int capacity) {
+        long cursor = (long) LONGS.getAcquire(buffer, CURSOR_OFFSET);
+        List<RatJournalRecord> records = new ArrayList<>((int) Math.min(cursor, capacity));
+        for (long sequence = Math.max(0, cursor - capacity); sequence < cursor; sequence++) {
+            int offset = HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+            if ((long) LONGS.getAcquire(buffer, offset + STAMP) != sequence + 1) {
+                continue;
+            }
+            long start = buffer.getLong(offset + START);
+            long duration = buffer.getLong(offset + DURATION);
+            int command = buffer.getInt(offset + COMMAND);
+            int process = buffer.getInt(offset + PROCESS);
+            int timing = buffer.getShort(offset + TIMING);
+            int outcome = buffer.get(offset + OUTCOME);
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getVolatile(buffer, offset + STAMP) != sequence + 1
+                    || timing < 0 || timing >= TIMINGS.length || outcome < 0 || outcome >= OUTCOMES.length) {
+                continue;
+            }
+            records.add(new RatJournalRecord(sequence, TIMINGS[timing], command, process, start, duration,
+                    OUTCOMES[outcome]));
+        }
+        return records;
+    }
+
+    private static int checkHeader(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int read = 0;
+        while (header.hasRemaining() && read >= 0) {
+            read = channel.read(header, header.position());
+        }
+        if (header.hasRemaining() || header.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException(path + " is not a RatDriver timing journal");
+        }
+        if (header.getInt(VERSION_OFFSET) != VERSION || header.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+            throw new IOException(path + " was written by an incompatible version of RatDriver");
+        }
+        int capacity = header.getInt(CAPACITY_OFFSET);
+        if (capacity < 1 || capacity > MAX_CAPACITY
+                || channel.size() < HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+            throw new IOException(path + " is truncated");
+        }
+        return capacity;
+    }
+}
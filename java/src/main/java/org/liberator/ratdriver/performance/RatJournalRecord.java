@@ -0,0 +1,71 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+import org.liberator.ratdriver.enums.CommandOutcome;
+import org.liberator.ratdriver.enums.Timing;
+
+/**
+ * A timing read back from a RatJournal
+ */
+@SuppressWarnings("unused")
+public class RatJournalRecord {
+
+    /**
+     * The position of the record in the journal it was read from
+     */
+    @Getter
+    private final long sequence;
+
+    /**
+     * The type of timing
+     */
+    @Getter
+    private final Timing timing;
+
+    /**
+     * The command identifier, see RatJournal.commandId
+     */
+    @Getter
+    private final int commandId;
+
+    /**
+     * The id of the process that wrote the record
+     */
+    @Getter
+    private final int processId;
+
+    /**
+     * The start of the timing, from System.nanoTime
+     */
+    @Getter
+    private final long startNanos;
+
+    /**
+     * The duration of the timing in nanoseconds
+     */
+    @Getter
+    private final long durationNanos;
+
+    /**
+     * The outcome of the command
+     */
+    @Getter
+    private final CommandOutcome outcome;
+
+    RatJournalRecord(long sequence, Timing timing, int commandId, int processId, long startNanos,
+                     long durationNanos, CommandOutcome outcome) {
+        this.sequence = sequence;
+        this.timing = timing;
+        this.commandId = commandId;
+        this.processId = processId;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.outcome = outcome;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %d pid=%d start=%d duration=%d %s", timing, commandId, processId, startNanos,
+                durationNanos, outcome);
+    }
+}
@@ -0,0 +1,85 @@
+package org.liberator.ratdriver.performance;
+
+import org.liberator.ratdriver.enums.Timing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The timings from one or more RatJournal files, merged into a single set of histograms.
+ * Typically each shard of a test run writes its own journal, and the journals are merged once the run is over.
+ */
+@SuppressWarnings("unused")
+public class RatJournalReport {
+
+    private final List<RatJournalRecord> records;
+    private final Map<Timing, RatHistogram> timings = new EnumMap<>(Timing.class);
+    private final Map<Integer, RatCommandStats> commands = new TreeMap<>();
+
+    private RatJournalReport(List<RatJournalRecord> records) {
+        this.records = Collections.unmodifiableList(records);
+        for (Timing timing : Timing.values()) {
+            timings.put(timing, new RatHistogram());
+        }
+        for (RatJournalRecord record : records) {
+            timings.get(record.getTiming()).recordValue(record.getDurationNanos());
+            commands.computeIfAbsent(record.getCommandId(), id -> new RatCommandStats(Integer.toHexString(id)))
+                    .record(record.getDurationNanos(), record.getOutcome());
+        }
+    }
+
+    /**
+     * Reads and merges journal files
+     * @param paths The journal files
+     * @return The merged report
+     * @throws IOException If a file cannot be read, or is not a journal
+     */
+    public static RatJournalReport merge(Collection<Path> paths) throws IOException {
+        List<RatJournalRecord> records = new ArrayList<>();
+        for (Path path : paths) {
+            records.addAll(RatJournal.read(path));
+        }
+        records.sort(Comparator.comparingLong(RatJournalRecord::getStartNanos));
+        return new RatJournalReport(records);
+    }
+
+    /**
+     * @return Every record read, ordered by start time
+     */
+    public List<RatJournalRecord> getRecords() {
+        return records;
+    }
+
+    /**
+     * Gets the merged durations for a timing type
+     * @param timing The type of timing
+     * @return A histogram of durations in nanoseconds
+     */
+    public RatHistogram getHistogram(Timing timing) {
+        return timings.get(timing);
+    }
+
+    /**
+     * Gets the merged statistics for a command
+     * @param name The command name, or the span path, that was journaled
+     * @return The statistics, or null if the command was not journaled
+     */
+    public RatCommandStats getCommand(String name) {
+        return commands.get(RatJournal.commandId(name));
+    }
+
+    /**
+     * @return The merged statistics for every command, keyed by command identifier
+     */
+    public Map<Integer, RatCommandStats> getCommands() {
+        return Collections.unmodifiableMap(commands);
+    }
+}
@@ -0,0 +1,172 @@
+package org.liberator.ratdriver.performance;
+
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.enums.Timing;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The process-wide view of the timings recorded by every RatDriver session.
+ * <p>
+ * Each session keeps recording into its own RatWatch, so sessions never contend with each other. Snapshots are
+ * taken by merging the histograms of the live sessions with those of the sessions already quit, which are folded
+ * into a running total for their driver type when they retire. A snapshot only reads the live histograms, so it
+ * can be taken at any time without pausing the sessions.
+ */
+@SuppressWarnings("unused")
+public final class RatMetricsRegistry {
+
+    private static final DriverType[] DRIVER_TYPES = DriverType.values();
+    private static final Timing[] TIMING_TYPES = Timing.values();
+
+    private static final RatMetricsRegistry INSTANCE = new RatMetricsRegistry();
+
+    private final ConcurrentMap<UUID, Session> sessions = new ConcurrentHashMap<>();
+    private final RatHistogram[][] retired = new RatHistogram[DRIVER_TYPES.length][TIMING_TYPES.length];
+    private final LongAdder[] started = new LongAdder[DRIVER_TYPES.length];
+    private final LongAdder[] ended = new LongAdder[DRIVER_TYPES.length];
+
+    RatMetricsRegistry() {
+        for (int type = 0; type < DRIVER_TYPES.length; type++) {
+            for (int timing = 0; timing < TIMING_TYPES.length; timing++) {
+                retired[type][timing] = new RatHistogram();
+            }
+            started[type] = new LongAdder();
+            ended[type] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return The registry shared by every RatDriver in this JVM
+     */
+    public static RatMetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a session's watch to the registry
+     * @param sessionId The id of the RatDriver session
+     * @param driverType The type of browser the session drives
+     * @param ratWatch The watch the session records into
+     */
+    public void register(UUID sessionId, DriverType driverType, RatWatch ratWatch) {
+        if (sessions.putIfAbsent(sessionId, new Session(driverType, ratWatch)) == null) {
+            started[driverType.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Removes a session from the registry, keeping its timings in the totals for its driver type
+     * @param sessionId The id of the RatDriver session
+     */
+    public void retire(UUID sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        RatHistogram[] totals = retired[session.driverType.ordinal()];
+        for (Timing timing : TIMING_TYPES) {
+            totals[timing.ordinal()].add(session.ratWatch.getHistogram(timing));
+        }
+        ended[session.driverType.ordinal()].increment();
+    }
+
+    /**
+     * Gets the watch of a live session
+     * @param sessionId The id of the RatDriver session
+     * @return The session's watch, or null if the session is not live
+     */
+    public RatWatch getSession(UUID sessionId) {
+        Session session = sessions.get(sessionId);
+        return session == null ? null : session.ratWatch;
+    }
+
+    /**
+     * @return The driver type of every live session, keyed by session id
+     */
+    public Map<UUID, DriverType> getSessions() {
+        Map<UUID, DriverType> live = new TreeMap<>();
+        for (Map.Entry<UUID, Session> entry : sessions.entrySet()) {
+            live.put(entry.getKey(), entry.getValue().driverType);
+        }
+        return Collections.unmodifiableMap(live);
+    }
+
+    /**
+     * Gets the durations recorded by every session, live or retired
+     * @param timing The type of timing
+     * @return A point in time histogram of durations in nanoseconds
+     */
+    public RatHistogram snapshot(Timing timing) {
+        RatHistogram snapshot = new RatHistogram();
+        for (RatHistogram[] totals : retired) {
+            snapshot.add(totals[timing.ordinal()]);
+        }
+        for (Session session : sessions.values()) {
+            snapshot.add(session.ratWatch.getHistogram(timing));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the durations recorded by every session of one driver type, live or retired
+     * @param driverType The type of browser
+     * @param timing The type of timing
+     * @return A point in time histogram of durations in nanoseconds
+     */
+    public RatHistogram snapshot(DriverType driverType, Timing timing) {
+        RatHistogram snapshot = retired[driverType.ordinal()][timing.ordinal()].copy();
+        for (Session session : sessions.values()) {
+            if (session.driverType == driverType) {
+                snapshot.add(session.ratWatch.getHistogram(timing));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param driverType The type of browser
+     * @return The number of sessions of the type registered since the JVM started
+     */
+    public long getStartedSessionCount(DriverType driverType) {
+        return started[driverType.ordinal()].sum();
+    }
+
+    /**
+     * @param driverType The type of browser
+     * @return The number of sessions of the type registered and not yet retired
+     */
+    public long getLiveSessionCount(DriverType driverType) {
+        return started[driverType.ordinal()].sum() - ended[driverType.ordinal()].sum();
+    }
+
+    /**
+     * Clears the timings kept for retired sessions. Live sessions and the session counts are unaffected.
+     */
+    public void reset() {
+        for (RatHistogram[] totals : retired) {
+            for (RatHistogram histogram : totals) {
+                histogram.reset();
+            }
+        }
+    }
+
+    /**
+     * A live session and the watch it records into
+     */
+    private static final class Session {
+        final DriverType driverType;
+        final RatWatch ratWatch;
+
+        Session(DriverType driverType, RatWatch ratWatch) {
+            this.driverType = driverType;
+            this.ratWatch = ratWatch;
+        }
+    }
+}
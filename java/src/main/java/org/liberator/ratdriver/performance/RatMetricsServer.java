@@ -0,0 +1,216 @@
+package org.liberator.ratdriver.performance;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.enums.CommandOutcome;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.enums.Timing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An optional, embedded HTTP endpoint that exposes RatDriver timings in the OpenMetrics text format, so that
+ * long running synthetic monitors can be scraped by Prometheus.
+ * <p>
+ * Watches and command metrics are registered under a source name, which becomes the "source" label.
+ * Fleet-wide timings come from the RatMetricsRegistry, error counts from the ErrorHandler and the session gauge
+ * from RatDriver.
+ */
+@SuppressWarnings("unused")
+public class RatMetricsServer {
+
+    /**
+     * The path metrics are served from
+     */
+    public static final String METRICS_PATH = "/metrics";
+
+    private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final Timing[] TIMING_TYPES = Timing.values();
+    private static final DriverType[] DRIVER_TYPES = DriverType.values();
+    private static final CommandOutcome[] OUTCOMES = CommandOutcome.values();
+
+    private final ConcurrentMap<String, RatWatch> watches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RatCommandMetrics> commandMetrics = new ConcurrentHashMap<>();
+    private final OpenMetricsWriter writer = new OpenMetricsWriter();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Starts a server on the loopback address. Use start(InetSocketAddress) to be scraped from other machines.
+     * @param port The port to listen on, or 0 for any free port
+     * @return The running server
+     * @throws IOException If the port cannot be bound
+     */
+    public static RatMetricsServer start(int port) throws IOException {
+        return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Starts a server
+     * @param address The address to listen on
+     * @return The running server
+     * @throws IOException If the address cannot be bound
+     */
+    public static RatMetricsServer start(InetSocketAddress address) throws IOException {
+        RatMetricsServer metricsServer = new RatMetricsServer();
+        metricsServer.server = HttpServer.create(address, 0);
+        metricsServer.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ratdriver-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metricsServer.server.setExecutor(metricsServer.executor);
+        metricsServer.server.createContext(METRICS_PATH, metricsServer::handle);
+        metricsServer.server.start();
+        return metricsServer;
+    }
+
+    /**
+     * Stops the server
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * @return The address the server is listening on
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * @return The port the server is listening on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Exposes the timings held by a watch
+     * @param source The name to label the timings with
+     * @param ratWatch The watch
+     */
+    public void register(String source, RatWatch ratWatch) {
+        watches.put(source, ratWatch);
+    }
+
+    /**
+     * Exposes the per-command metrics recorded by an instrumented driver
+     * @param source The name to label the metrics with
+     * @param metrics The command metrics
+     */
+    public void register(String source, RatCommandMetrics metrics) {
+        commandMetrics.put(source, metrics);
+    }
+
+    /**
+     * Stops exposing everything registered under a source name
+     * @param source The source name
+     */
+    public void unregister(String source) {
+        watches.remove(source);
+        commandMetrics.remove(source);
+    }
+
+    /**
+     * Writes the current metrics to a stream in the OpenMetrics text format
+     * @param out The stream to write to
+     * @throws IOException If the stream cannot be written
+     */
+    public void scrape(OutputStream out) throws IOException {
+        synchronized (writer) {
+            encode();
+            writer.writeTo(out);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            synchronized (writer) {
+                encode();
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, writer.size());
+                try (OutputStream body = exchange.getResponseBody()) {
+                    writer.writeTo(body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void encode() {
+        writer.reset();
+
+        writer.family("ratdriver_timing_seconds", "histogram", "seconds", "RatWatch timings by timing type");
+        for (Map.Entry<String, RatWatch> entry : watches.entrySet()) {
+            for (Timing timing : TIMING_TYPES) {
+                writer.histogram("ratdriver_timing_seconds",
+                        new String[]{"source", entry.getKey(), "timing", timing.name()},
+                        entry.getValue().getHistogram(timing));
+            }
+        }
+
+        writer.family("ratdriver_fleet_timing_seconds", "histogram", "seconds",
+                "RatWatch timings of every RatDriver session in the JVM, by driver type");
+        RatMetricsRegistry registry = RatMetricsRegistry.getInstance();
+        for (DriverType driverType : DRIVER_TYPES) {
+            if (registry.getStartedSessionCount(driverType) == 0) {
+                continue;
+            }
+            for (Timing timing : TIMING_TYPES) {
+                writer.histogram("ratdriver_fleet_timing_seconds",
+                        new String[]{"driver", driverType.name(), "timing", timing.name()},
+                        registry.snapshot(driverType, timing));
+            }
+        }
+
+        writer.family("ratdriver_command_seconds", "histogram", "seconds", "RatDriver command latency");
+        for (Map.Entry<String, RatCommandMetrics> entry : commandMetrics.entrySet()) {
+            for (RatCommandStats stats : entry.getValue().getCommands()) {
+                writer.histogram("ratdriver_command_seconds",
+                        new String[]{"source", entry.getKey(), "command", stats.getName()},
+                        stats.getLatency());
+            }
+        }
+
+        writer.family("ratdriver_command_outcomes", "counter", null, "RatDriver command calls by outcome");
+        for (Map.Entry<String, RatCommandMetrics> entry : commandMetrics.entrySet()) {
+            for (RatCommandStats stats : entry.getValue().getCommands()) {
+                for (CommandOutcome outcome : OUTCOMES) {
+                    writer.sample("ratdriver_command_outcomes_total",
+                            new String[]{"source", entry.getKey(), "command", stats.getName(), "outcome", outcome.name()},
+                            stats.getCount(outcome));
+                }
+            }
+        }
+
+        writer.family("ratdriver_errors", "counter", null, "Errors passed to the RatDriver error handler");
+        for (Map.Entry<String, Long> entry : ErrorHandler.getErrorCounts().entrySet()) {
+            writer.sample("ratdriver_errors_total", new String[]{"exception", entry.getKey()}, entry.getValue());
+        }
+
+        writer.family("ratdriver_sessions", "gauge", null, "RatDriver sessions started and not yet quit");
+        writer.sample("ratdriver_sessions", null, RatDriver.getLiveSessionCount());
+
+        writer.end();
+    }
+}
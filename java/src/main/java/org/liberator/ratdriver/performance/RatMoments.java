@@ -0,0 +1,228 @@
+package org.liberator.ratdriver.performance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming moments of a series of values, computed with Welford's method.
+ * <p>
+ * Writers are spread over a set of stripes. A writer claims a free stripe instead of waiting for a busy one,
+ * so recording never blocks. Readers combine the stripes with Chan's parallel merge, which keeps the memory
+ * used constant however many values are recorded.
+ */
+@SuppressWarnings("unused")
+public class RatMoments {
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    /**
+     * Creates an accumulator with two stripes per available processor
+     */
+    public RatMoments() {
+        int size = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1;
+        stripes = new Stripe[Math.max(size, 2)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        mask = stripes.length - 1;
+    }
+
+    /**
+     * Records a value
+     * @param value The value to record
+     */
+    public void record(double value) {
+        int index = (int) Thread.currentThread().getId();
+        Stripe stripe = stripes[index & mask];
+        while (!stripe.compareAndSet(0, 1)) {
+            stripe = stripes[++index & mask];
+        }
+        try {
+            stripe.add(value);
+        } finally {
+            stripe.set(0);
+        }
+    }
+
+    /**
+     * Adds the values recorded by another accumulator to this one
+     * @param other The accumulator to add
+     */
+    public void add(RatMoments other) {
+        Stripe merged = other.merge();
+        Stripe stripe = stripes[0];
+        acquire(stripe);
+        try {
+            stripe.merge(merged);
+        } finally {
+            stripe.set(0);
+        }
+    }
+
+    /**
+     * Clears all recorded values
+     */
+    public void reset() {
+        for (Stripe stripe : stripes) {
+            acquire(stripe);
+            try {
+                stripe.clear();
+            } finally {
+                stripe.set(0);
+            }
+        }
+    }
+
+    /**
+     * @return The number of values recorded
+     */
+    public long getCount() {
+        return merge().count;
+    }
+
+    /**
+     * @return The arithmetic mean, or zero if nothing has been recorded
+     */
+    public double getArithmeticMean() {
+        return merge().mean;
+    }
+
+    /**
+     * @return The geometric mean, or zero if nothing has been recorded or a value was zero or less
+     */
+    public double getGeometricMean() {
+        Stripe merged = merge();
+        if (merged.count == 0 || merged.nonPositive > 0) {
+            return 0d;
+        }
+        return Math.exp(merged.sumOfLogs / merged.count);
+    }
+
+    /**
+     * @return The harmonic mean, or zero if nothing has been recorded or a value was zero or less
+     */
+    public double getHarmonicMean() {
+        Stripe merged = merge();
+        if (merged.count == 0 || merged.nonPositive > 0) {
+            return 0d;
+        }
+        return merged.count / merged.sumOfReciprocals;
+    }
+
+    /**
+     * @return The unbiased sample variance, or zero with fewer than two values
+     */
+    public double getVariance() {
+        Stripe merged = merge();
+        return merged.count < 2 ? 0d : merged.m2 / (merged.count - 1);
+    }
+
+    /**
+     * @return The sample standard deviation, or zero with fewer than two values
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return The adjusted sample skewness, or zero with fewer than three values
+     */
+    public double getSkewness() {
+        Stripe merged = merge();
+        long n = merged.count;
+        if (n < 3 || merged.m2 == 0d) {
+            return 0d;
+        }
+        double standardDeviation = Math.sqrt(merged.m2 / (n - 1));
+        return ((double) n / ((n - 1d) * (n - 2d))) * merged.m3 / Math.pow(standardDeviation, 3);
+    }
+
+    private Stripe merge() {
+        Stripe merged = new Stripe();
+        for (Stripe stripe : stripes) {
+            acquire(stripe);
+            try {
+                merged.merge(stripe);
+            } finally {
+                stripe.set(0);
+            }
+        }
+        return merged;
+    }
+
+    private static void acquire(Stripe stripe) {
+        while (!stripe.compareAndSet(0, 1)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * A set of moments owned by whichever thread holds its flag
+     */
+    @SuppressWarnings("serial")
+    private static final class Stripe extends AtomicInteger {
+        long count;
+        long nonPositive;
+        double mean;
+        double m2;
+        double m3;
+        double sumOfLogs;
+        double sumOfReciprocals;
+
+        void add(double value) {
+            long previous = count;
+            count++;
+            double delta = value - mean;
+            double deltaN = delta / count;
+            double term = delta * deltaN * previous;
+            mean += deltaN;
+            m3 += term * deltaN * (count - 2) - 3 * deltaN * m2;
+            m2 += term;
+            if (value > 0) {
+                sumOfLogs += Math.log(value);
+                sumOfReciprocals += 1d / value;
+            } else {
+                nonPositive++;
+            }
+        }
+
+        void merge(Stripe other) {
+            if (other.count == 0) {
+                return;
+            }
+            if (count == 0) {
+                count = other.count;
+                nonPositive = other.nonPositive;
+                mean = other.mean;
+                m2 = other.m2;
+                m3 = other.m3;
+                sumOfLogs = other.sumOfLogs;
+                sumOfReciprocals = other.sumOfReciprocals;
+                return;
+            }
+            double na = count;
+            double nb = other.count;
+            double n = na + nb;
+            double delta = other.mean - mean;
+            m3 = m3 + other.m3
+                    + delta * delta * delta * na * nb * (na - nb) / (n * n)
+                    + 3 * delta * (na * other.m2 - nb * m2) / n;
+            m2 = m2 + other.m2 + delta * delta * na * nb / n;
+            mean = mean + delta * nb / n;
+            count += other.count;
+            nonPositive += other.nonPositive;
+            sumOfLogs += other.sumOfLogs;
+            sumOfReciprocals += other.sumOfReciprocals;
+        }
+
+        void clear() {
+            count = 0;
+            nonPositive = 0;
+            mean = 0;
+            m2 = 0;
+            m3 = 0;
+            sumOfLogs = 0;
+            sumOfReciprocals = 0;
+        }
+    }
+}
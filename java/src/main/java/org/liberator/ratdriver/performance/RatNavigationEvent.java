@@ -0,0 +1,26 @@
+package org.liberator.ratdriver.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering a browser navigation
+ */
+@Name("org.liberator.ratdriver.Navigation")
+@Label("RatDriver Navigation")
+@Category({"RatDriver"})
+@Description("A navigation, refresh, back or forward request sent by RatDriver")
+public class RatNavigationEvent extends Event {
+
+    @Label("Action")
+    public String action;
+
+    @Label("URL")
+    public String url;
+
+    @Label("Driver")
+    public String driverName;
+}
@@ -0,0 +1,101 @@
+package org.liberator.ratdriver.performance;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the browser processes started by this JVM and reads their resident memory from /proc. On systems without
+ * /proc every reading is zero.
+ */
+@SuppressWarnings("unused")
+public final class RatProcessMemory {
+
+    private static final Path PROC = Paths.get("/proc");
+
+    private RatProcessMemory() {
+    }
+
+    /**
+     * @return Whether resident memory can be read on this system
+     */
+    public static boolean isSupported() {
+        return Files.isDirectory(PROC.resolve("self"));
+    }
+
+    /**
+     * Gets the resident memory of a process
+     * @param pid The process id
+     * @return The resident memory in kilobytes, or 0 if the process has exited or cannot be read
+     */
+    public static long residentKilobytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(String.valueOf(pid)).resolve("status"), StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // the process has exited, or this is not Linux
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the resident memory of a browser started by this JVM, found by the profile or user data directory on its
+     * command line, together with the processes it started, such as its renderers
+     * @param profileDirectory The directory the browser was started with
+     * @return The resident memory in kilobytes, or 0 if no such browser is running
+     */
+    public static long browserResidentKilobytes(String profileDirectory) {
+        if (profileDirectory == null || profileDirectory.isEmpty() || !isSupported()) {
+            return 0;
+        }
+        Set<Long> pids = new HashSet<>();
+        for (ProcessHandle browser : browserProcesses(profileDirectory)) {
+            pids.add(browser.pid());
+            browser.descendants().forEach(child -> pids.add(child.pid()));
+        }
+        long total = 0;
+        for (long pid : pids) {
+            total += residentKilobytes(pid);
+        }
+        return total;
+    }
+
+    /**
+     * Finds the browser processes started by this JVM with a profile or user data directory on their command line.
+     * The processes they started, such as renderers, are not included.
+     * @param profileDirectory The directory the browser was started with
+     * @return The browser processes, or an empty list if there are none
+     */
+    public static List<ProcessHandle> browserProcesses(String profileDirectory) {
+        if (profileDirectory == null || profileDirectory.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ProcessHandle.current().descendants()
+                .filter(process -> commandLine(process).contains(profileDirectory))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the command line of a process
+     * @param process The process
+     * @return The executable and its arguments, separated by spaces, or an empty string if it cannot be read
+     */
+    public static String commandLine(ProcessHandle process) {
+        try {
+            byte[] arguments = Files.readAllBytes(PROC.resolve(String.valueOf(process.pid())).resolve("cmdline"));
+            return new String(arguments, StandardCharsets.UTF_8).replace('\0', ' ');
+        } catch (IOException | RuntimeException ex) {
+            return process.info().commandLine().orElse("");
+        }
+    }
+}
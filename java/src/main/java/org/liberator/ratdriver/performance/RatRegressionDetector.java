@@ -0,0 +1,141 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.liberator.ratdriver.enums.RegressionVerdict;
+import org.liberator.ratdriver.enums.Timing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the timings of a run with a baseline and flags statistically significant shifts.
+ * <p>
+ * Each timing type is compared with a Mann-Whitney U test, computed directly from the histogram buckets: the
+ * values in a bucket are treated as ties and given the bucket's average rank, and the variance is corrected for
+ * those ties. A shift is only reported when it is significant and the median has also moved by more than
+ * MinimumShift, so that very large runs do not flag changes too small to matter.
+ */
+@SuppressWarnings("unused")
+public class RatRegressionDetector {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /**
+     * The significance level, 0.01 by default
+     */
+    @Getter
+    @Setter
+    public double Alpha = 0.01;
+
+    /**
+     * The smallest relative change in the median that is reported, 0.05 (five percent) by default
+     */
+    @Getter
+    @Setter
+    public double MinimumShift = 0.05;
+
+    /**
+     * The fewest timings either side needs before a comparison is made, 20 by default
+     */
+    @Getter
+    @Setter
+    public long MinimumSamples = 20;
+
+    /**
+     * The timing types compared, all of them by default
+     */
+    @Getter
+    @Setter
+    public Timing[] Timings = Timing.values();
+
+    /**
+     * Compares a run with a baseline
+     * @param baseline The baseline
+     * @param current The timings of the run, for example RatBaseline.of(journey, ratWatch)
+     * @return The comparison of each timing type
+     */
+    public RatRegressionReport compare(RatBaseline baseline, RatBaseline current) {
+        List<RatTimingComparison> comparisons = new ArrayList<>(Timings.length);
+        for (Timing timing : Timings) {
+            RatHistogram before = baseline.getHistogram(timing);
+            RatHistogram after = current.getHistogram(timing);
+            if (before.getTotalCount() == 0 && after.getTotalCount() == 0) {
+                continue;
+            }
+            comparisons.add(compare(timing, before, after));
+        }
+        return new RatRegressionReport(current.getJourney(), Alpha, MinimumShift, comparisons);
+    }
+
+    /**
+     * Compares the durations of one timing type
+     * @param timing The type of timing
+     * @param baseline The baseline durations
+     * @param current The run's durations
+     * @return The comparison
+     */
+    public RatTimingComparison compare(Timing timing, RatHistogram baseline, RatHistogram current) {
+        if (baseline.getSubBucketBits() != current.getSubBucketBits()
+                || baseline.getBucketCount() != current.getBucketCount()) {
+            throw new IllegalArgumentException("Histograms must share the same bucket layout to be compared");
+        }
+        long n1 = baseline.getTotalCount();
+        long n2 = current.getTotalCount();
+        double baselineMedian = baseline.getValueAtPercentile(50) / NANOS_PER_MILLI;
+        double currentMedian = current.getValueAtPercentile(50) / NANOS_PER_MILLI;
+        double baselineP95 = baseline.getValueAtPercentile(95) / NANOS_PER_MILLI;
+        double currentP95 = current.getValueAtPercentile(95) / NANOS_PER_MILLI;
+        double shift = baselineMedian == 0d ? 0d : currentMedian / baselineMedian - 1d;
+        if (n1 < MinimumSamples || n2 < MinimumSamples) {
+            return new RatTimingComparison(timing, RegressionVerdict.InsufficientData, n1, n2, baselineMedian,
+                    currentMedian, baselineP95, currentP95, shift, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        long[] before = baseline.getCounts();
+        long[] after = current.getCounts();
+        double ranked = 0d;
+        double rankSum = 0d;
+        double ties = 0d;
+        for (int i = 0; i < before.length; i++) {
+            double tied = (double) before[i] + after[i];
+            if (tied == 0d) {
+                continue;
+            }
+            rankSum += after[i] * (ranked + (tied + 1d) / 2d);
+            ties += tied * tied * tied - tied;
+            ranked += tied;
+        }
+        double n = (double) n1 + n2;
+        double u = rankSum - n2 * (n2 + 1d) / 2d;
+        double mean = (double) n1 * n2 / 2d;
+        double variance = (double) n1 * n2 / 12d * ((n + 1d) - ties / (n * (n - 1d)));
+        double z = 0d;
+        if (variance > 0d) {
+            double difference = u - mean;
+            z = (difference - Math.signum(difference) * Math.min(0.5d, Math.abs(difference))) / Math.sqrt(variance);
+        }
+        double pValue = erfc(Math.abs(z) / Math.sqrt(2d));
+        double effectSize = 2d * u / ((double) n1 * n2) - 1d;
+
+        RegressionVerdict verdict = RegressionVerdict.NoChange;
+        if (pValue < Alpha && effectSize > 0d && shift >= MinimumShift) {
+            verdict = RegressionVerdict.Regression;
+        } else if (pValue < Alpha && effectSize < 0d && shift <= -MinimumShift) {
+            verdict = RegressionVerdict.Improvement;
+        }
+        return new RatTimingComparison(timing, verdict, n1, n2, baselineMedian, currentMedian, baselineP95,
+                currentP95, shift, u, z, pValue, effectSize);
+    }
+
+    /**
+     * The complementary error function, accurate to about 1.2e-7
+     */
+    private static double erfc(double x) {
+        double t = 1d / (1d + 0.5d * Math.abs(x));
+        double result = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0d ? result : 2d - result;
+    }
+}
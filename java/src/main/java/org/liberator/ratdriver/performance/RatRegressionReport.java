@@ -0,0 +1,156 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+import org.liberator.ratdriver.enums.RegressionVerdict;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of comparing a run with its baseline, which can be written as JSON for a build to act on
+ */
+@SuppressWarnings("unused")
+public class RatRegressionReport {
+
+    /**
+     * The journey compared
+     */
+    @Getter
+    private final String journey;
+
+    /**
+     * The significance level used
+     */
+    @Getter
+    private final double alpha;
+
+    /**
+     * The smallest relative change in the median that was reported
+     */
+    @Getter
+    private final double minimumShift;
+
+    /**
+     * The comparison of each timing type that had timings
+     */
+    @Getter
+    private final List<RatTimingComparison> comparisons;
+
+    RatRegressionReport(String journey, double alpha, double minimumShift, List<RatTimingComparison> comparisons) {
+        this.journey = journey;
+        this.alpha = alpha;
+        this.minimumShift = minimumShift;
+        this.comparisons = Collections.unmodifiableList(comparisons);
+    }
+
+    /**
+     * Gets the overall verdict: a regression in any timing type outweighs an improvement in another
+     * @return The overall verdict
+     */
+    public RegressionVerdict getVerdict() {
+        RegressionVerdict verdict = RegressionVerdict.InsufficientData;
+        for (RatTimingComparison comparison : comparisons) {
+            RegressionVerdict next = comparison.getVerdict();
+            if (next == RegressionVerdict.Regression) {
+                return next;
+            }
+            if (next == RegressionVerdict.Improvement
+                    || (next == RegressionVerdict.NoChange && verdict == RegressionVerdict.InsufficientData)) {
+                verdict = next;
+            }
+        }
+        return verdict;
+    }
+
+    /**
+     * @return Whether any timing type regressed
+     */
+    public boolean isRegression() {
+        return getVerdict() == RegressionVerdict.Regression;
+    }
+
+    /**
+     * Writes the report as JSON
+     * @param path The file to write
+     * @throws IOException If the file cannot be written
+     */
+    public void writeJson(Path path) throws IOException {
+        Files.write(path, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The report as a JSON object
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256 + comparisons.size() * 320);
+        json.append("{\"journey\":");
+        string(json, journey);
+        json.append(",\"verdict\":\"").append(getVerdict().name()).append('"');
+        json.append(",\"alpha\":");
+        number(json, alpha);
+        json.append(",\"minimumShift\":");
+        number(json, minimumShift);
+        json.append(",\"timings\":[");
+        for (int i = 0; i < comparisons.size(); i++) {
+            RatTimingComparison comparison = comparisons.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"timing\":\"").append(comparison.getTiming().name()).append('"');
+            json.append(",\"verdict\":\"").append(comparison.getVerdict().name()).append('"');
+            json.append(",\"baselineCount\":").append(comparison.getBaselineCount());
+            json.append(",\"currentCount\":").append(comparison.getCurrentCount());
+            json.append(",\"baselineMedianMs\":");
+            number(json, comparison.getBaselineMedian());
+            json.append(",\"currentMedianMs\":");
+            number(json, comparison.getCurrentMedian());
+            json.append(",\"baselineP95Ms\":");
+            number(json, comparison.getBaselinePercentile95());
+            json.append(",\"currentP95Ms\":");
+            number(json, comparison.getCurrentPercentile95());
+            json.append(",\"medianShift\":");
+            number(json, comparison.getMedianShift());
+            json.append(",\"u\":");
+            number(json, comparison.getU());
+            json.append(",\"z\":");
+            number(json, comparison.getZ());
+            json.append(",\"pValue\":");
+            number(json, comparison.getPValue());
+            json.append(",\"effectSize\":");
+            number(json, comparison.getEffectSize());
+            json.append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void number(StringBuilder json, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            json.append("null");
+        } else {
+            json.append(value);
+        }
+    }
+
+    private static void string(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,137 @@
+package org.liberator.ratdriver.performance;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed ring of interval histograms giving sliding window and exponentially decayed views of recent values.
+ * <p>
+ * Each slot holds the values recorded during one interval. A recording thread that finds its slot still holding
+ * an older interval claims it with a single compare-and-set and clears it, so rotation needs no lock and neither
+ * recording threads nor readers ever wait for each other. Values recorded concurrently with a rotation may land
+ * in the interval being cleared; readers only see intervals that are inside the window they ask for.
+ */
+@SuppressWarnings("unused")
+public class RatRollingHistogram {
+
+    private static final long UNUSED = Long.MIN_VALUE;
+
+    private final RatClock clock;
+    private final long origin;
+    private final long intervalNanos;
+    private final RatHistogram[] slots;
+    private final AtomicLongArray epochs;
+
+    /**
+     * Creates a ring of interval histograms
+     * @param clock The clock used to decide which interval a value belongs to
+     * @param intervalNanos The length of each interval in nanoseconds
+     * @param slotCount The number of intervals held
+     * @param highestTrackableValue The highest value each interval histogram can hold
+     * @param subBucketBits The precision of each interval histogram
+     */
+    public RatRollingHistogram(RatClock clock, long intervalNanos, int slotCount,
+                               long highestTrackableValue, int subBucketBits) {
+        if (intervalNanos <= 0 || slotCount < 2) {
+            throw new IllegalArgumentException("A rolling histogram needs a positive interval and at least two slots");
+        }
+        this.clock = clock;
+        this.origin = clock.nanoTime();
+        this.intervalNanos = intervalNanos;
+        this.slots = new RatHistogram[slotCount];
+        this.epochs = new AtomicLongArray(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new RatHistogram(highestTrackableValue, subBucketBits);
+            epochs.set(i, UNUSED);
+        }
+    }
+
+    /**
+     * Records a value into the current interval
+     * @param value The value to record
+     */
+    public void recordValue(long value) {
+        long epoch = currentEpoch();
+        int index = (int) (epoch % slots.length);
+        long slotEpoch = epochs.get(index);
+        if (slotEpoch != epoch && slotEpoch < epoch && epochs.compareAndSet(index, slotEpoch, epoch)) {
+            slots[index].reset();
+        }
+        slots[index].recordValue(value);
+    }
+
+    /**
+     * Merges the intervals that overlap a window ending now
+     * @param windowNanos The length of the window in nanoseconds. Clamped to the length of the ring.
+     * @return A new histogram holding the values recorded in the window
+     */
+    public RatHistogram getWindow(long windowNanos) {
+        long epoch = currentEpoch();
+        long intervals = Math.min(slots.length, Math.max(1, (windowNanos + intervalNanos - 1) / intervalNanos));
+        RatHistogram window = slots[0].emptyCopy();
+        for (int i = 0; i < slots.length; i++) {
+            long slotEpoch = epochs.get(i);
+            if (slotEpoch != UNUSED && slotEpoch <= epoch && epoch - slotEpoch < intervals) {
+                window.add(slots[i]);
+            }
+        }
+        return window;
+    }
+
+    /**
+     * Gets a percentile over every interval held, weighting each interval by how recently it was recorded
+     * @param percentile The percentile, between 0 and 100
+     * @param halfLifeNanos The age in nanoseconds at which an interval counts for half as much as the current one
+     * @return The value at the percentile, or zero if nothing has been recorded
+     */
+    public long getDecayedPercentile(double percentile, long halfLifeNanos) {
+        long epoch = currentEpoch();
+        double[] weighted = new double[slots[0].getBucketCount()];
+        double total = 0;
+        long max = 0;
+        for (int i = 0; i < slots.length; i++) {
+            long slotEpoch = epochs.get(i);
+            if (slotEpoch == UNUSED || slotEpoch > epoch || epoch - slotEpoch >= slots.length) {
+                continue;
+            }
+            double weight = Math.pow(0.5d, (double) (epoch - slotEpoch) * intervalNanos / halfLifeNanos);
+            long[] counts = slots[i].getCounts();
+            for (int b = 0; b < counts.length; b++) {
+                if (counts[b] != 0) {
+                    weighted[b] += counts[b] * weight;
+                    total += counts[b] * weight;
+                }
+            }
+            max = Math.max(max, slots[i].getMaxValue());
+        }
+        if (total == 0) {
+            return 0;
+        }
+        double target = Math.min(Math.max(percentile, 0d), 100d) / 100d * total;
+        double running = 0;
+        for (int b = 0; b < weighted.length; b++) {
+            running += weighted[b];
+            if (running >= target && weighted[b] > 0) {
+                return Math.min(slots[0].highestEquivalentValue(b), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return The length of each interval in nanoseconds
+     */
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * @return The total length of time covered by the ring in nanoseconds
+     */
+    public long getSpanNanos() {
+        return intervalNanos * slots.length;
+    }
+
+    private long currentEpoch() {
+        return (clock.nanoTime() - origin) / intervalNanos;
+    }
+}
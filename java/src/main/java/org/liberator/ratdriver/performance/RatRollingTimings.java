@@ -0,0 +1,111 @@
+package org.liberator.ratdriver.performance;
+
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.enums.TimingWindow;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling views of the timings recorded by a RatWatch: the last minute, five minutes and hour per timing type,
+ * plus an exponentially decayed view over the last hour.
+ * <p>
+ * The last minute is served from six ten second intervals, and the longer windows from sixty one minute
+ * intervals, so every window is accurate to within one interval.
+ */
+@SuppressWarnings("unused")
+public class RatRollingTimings {
+
+    private static final Timing[] TIMING_TYPES = Timing.values();
+
+    private static final long FINE_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+    private static final int FINE_SLOTS = 6;
+    private static final long COARSE_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+    private static final int COARSE_SLOTS = 60;
+
+    /**
+     * Interval histograms trade precision for memory: 3% relative error, about 10KB each
+     */
+    private static final int SUB_BUCKET_BITS = 6;
+
+    /**
+     * The default half life used for the decayed view
+     */
+    public static final long DEFAULT_HALF_LIFE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final RatRollingHistogram[] fine;
+    private final RatRollingHistogram[] coarse;
+
+    /**
+     * Creates rolling views for every timing type
+     * @param clock The clock used to decide which interval a timing belongs to
+     */
+    public RatRollingTimings(RatClock clock) {
+        fine = new RatRollingHistogram[TIMING_TYPES.length];
+        coarse = new RatRollingHistogram[TIMING_TYPES.length];
+        for (int i = 0; i < TIMING_TYPES.length; i++) {
+            fine[i] = new RatRollingHistogram(clock, FINE_INTERVAL, FINE_SLOTS,
+                    RatHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, SUB_BUCKET_BITS);
+            coarse[i] = new RatRollingHistogram(clock, COARSE_INTERVAL, COARSE_SLOTS,
+                    RatHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, SUB_BUCKET_BITS);
+        }
+    }
+
+    /**
+     * Records a duration
+     * @param timing The type of timing point
+     * @param durationNanos The duration in nanoseconds
+     */
+    public void record(Timing timing, long durationNanos) {
+        fine[timing.ordinal()].recordValue(durationNanos);
+        coarse[timing.ordinal()].recordValue(durationNanos);
+    }
+
+    /**
+     * Gets a snapshot of the durations recorded in a window
+     * @param timing The type of timing point
+     * @param window The window to view
+     * @return A new histogram of durations in nanoseconds
+     */
+    public RatHistogram getWindow(Timing timing, TimingWindow window) {
+        switch (window) {
+            case LastMinute:
+                return fine[timing.ordinal()].getWindow(TimeUnit.MINUTES.toNanos(1));
+            case LastFiveMinutes:
+                return coarse[timing.ordinal()].getWindow(TimeUnit.MINUTES.toNanos(5));
+            default:
+                return coarse[timing.ordinal()].getWindow(TimeUnit.HOURS.toNanos(1));
+        }
+    }
+
+    /**
+     * Gets a percentile of the durations recorded in a window
+     * @param timing The type of timing point
+     * @param window The window to view
+     * @param percentile The percentile, between 0 and 100
+     * @return The percentile in milliseconds
+     */
+    public double getPercentile(Timing timing, TimingWindow window, double percentile) {
+        return getWindow(timing, window).getValueAtPercentile(percentile) / 1_000_000d;
+    }
+
+    /**
+     * Gets a percentile over the last hour with recent minutes weighted more heavily than older ones
+     * @param timing The type of timing point
+     * @param percentile The percentile, between 0 and 100
+     * @param halfLifeNanos The age at which a minute counts for half as much as the current one
+     * @return The percentile in milliseconds
+     */
+    public double getDecayedPercentile(Timing timing, double percentile, long halfLifeNanos) {
+        return coarse[timing.ordinal()].getDecayedPercentile(percentile, halfLifeNanos) / 1_000_000d;
+    }
+
+    /**
+     * Gets a percentile over the last hour using the default five minute half life
+     * @param timing The type of timing point
+     * @param percentile The percentile, between 0 and 100
+     * @return The percentile in milliseconds
+     */
+    public double getDecayedPercentile(Timing timing, double percentile) {
+        return getDecayedPercentile(timing, percentile, DEFAULT_HALF_LIFE_NANOS);
+    }
+}
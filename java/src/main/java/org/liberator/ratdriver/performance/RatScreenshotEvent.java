@@ -0,0 +1,28 @@
+package org.liberator.ratdriver.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the capture of a screenshot
+ */
+@Name("org.liberator.ratdriver.Screenshot")
+@Label("RatDriver Screenshot")
+@Category({"RatDriver"})
+@Description("A screenshot captured by RatDriver")
+public class RatScreenshotEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    @Label("Driver")
+    public String driverName;
+}
@@ -0,0 +1,218 @@
+package org.liberator.ratdriver.performance;
+
+/**
+ * A timed operation within a RatDriver session, such as a command or one of the steps inside it.
+ * <p>
+ * Spans are owned by the thread that started them and are recycled once they end, so a span must not be held
+ * on to after RatTracer.endSpan. Listeners that need a span's data after the callback must copy it.
+ */
+@SuppressWarnings("unused")
+public final class RatSpan {
+
+    /**
+     * The most tags a span can carry. Further tags are ignored.
+     */
+    public static final int MAX_TAGS = 8;
+
+    /**
+     * A span that records nothing, returned while tracing is disabled
+     */
+    static final RatSpan DISABLED = new RatSpan(false);
+
+    private final boolean recording;
+    private final String[] tagKeys = new String[MAX_TAGS];
+    private final String[] tagValues = new String[MAX_TAGS];
+    private int tagCount;
+
+    private String name;
+    private String path;
+    private RatSpan parent;
+    private long spanId;
+    private long parentSpanId;
+    private int depth;
+    private long threadId;
+    private String threadName;
+    private long startNanos;
+    private long durationNanos;
+    private boolean failed;
+
+    RatSpan() {
+        this(true);
+    }
+
+    private RatSpan(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Adds a tag to the span
+     * @param key The tag name, for example "locator" or "url"
+     * @param value The tag value
+     * @return This span
+     */
+    public RatSpan tag(String key, String value) {
+        if (recording && tagCount < MAX_TAGS) {
+            tagKeys[tagCount] = key;
+            tagValues[tagCount] = value;
+            tagCount++;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a tag to the span, converting the value to a string only while recording
+     * @param key The tag name
+     * @param value The tag value, such as a locator
+     * @return This span
+     */
+    public RatSpan tag(String key, Object value) {
+        return recording ? tag(key, String.valueOf(value)) : this;
+    }
+
+    /**
+     * Marks the operation covered by the span as failed
+     * @return This span
+     */
+    public RatSpan fail() {
+        if (recording) {
+            failed = true;
+        }
+        return this;
+    }
+
+    void open(String name, String path, RatSpan parent, long spanId, Thread thread, long startNanos) {
+        this.name = name;
+        this.path = path;
+        this.parent = parent;
+        this.spanId = spanId;
+        this.parentSpanId = parent == null ? 0 : parent.spanId;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.threadId = thread.getId();
+        this.threadName = thread.getName();
+        this.startNanos = startNanos;
+        this.durationNanos = -1;
+        this.failed = false;
+    }
+
+    void close(long endNanos) {
+        durationNanos = endNanos - startNanos;
+    }
+
+    void recycle() {
+        for (int i = 0; i < tagCount; i++) {
+            tagKeys[i] = null;
+            tagValues[i] = null;
+        }
+        tagCount = 0;
+        name = null;
+        path = null;
+        parent = null;
+    }
+
+    /**
+     * @return Whether the span is recording, false while tracing is disabled
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * @return The name of the operation
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The names of this span and its ancestors, outermost first, separated by '/'
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return The enclosing span, or null for a root span
+     */
+    public RatSpan getParent() {
+        return parent;
+    }
+
+    /**
+     * @return An identifier unique within the JVM
+     */
+    public long getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return The identifier of the enclosing span, or zero for a root span
+     */
+    public long getParentSpanId() {
+        return parentSpanId;
+    }
+
+    /**
+     * @return The number of spans enclosing this one
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The id of the thread the span ran on
+     */
+    public long getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * @return The name of the thread the span ran on
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return The clock reading when the span started, in nanoseconds
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return The duration of the span in nanoseconds, or -1 while it is still open
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return Whether the operation was marked as failed
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * @return The number of tags on the span
+     */
+    public int getTagCount() {
+        return tagCount;
+    }
+
+    /**
+     * @param index The tag index, below getTagCount
+     * @return The tag name
+     */
+    public String getTagKey(int index) {
+        return tagKeys[index];
+    }
+
+    /**
+     * @param index The tag index, below getTagCount
+     * @return The tag value
+     */
+    public String getTagValue(int index) {
+        return tagValues[index];
+    }
+}
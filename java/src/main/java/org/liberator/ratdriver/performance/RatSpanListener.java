@@ -0,0 +1,14 @@
+package org.liberator.ratdriver.performance;
+
+/**
+ * Receives spans as they end
+ */
+@FunctionalInterface
+public interface RatSpanListener {
+
+    /**
+     * Called on the thread that ended the span. The span is recycled when this method returns.
+     * @param span The span that has ended
+     */
+    void onSpanEnd(RatSpan span);
+}
@@ -0,0 +1,39 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+import org.liberator.ratdriver.enums.CommandOutcome;
+
+/**
+ * A span listener that aggregates span durations by path, so that the time spent in each step of a composite
+ * operation (for example "clickLinkAndWaitForUrl/waitForPageToLoad") can be compared across many calls.
+ */
+@SuppressWarnings("unused")
+public class RatSpanMetrics implements RatSpanListener {
+
+    /**
+     * The per-path statistics, keyed by span path
+     */
+    @Getter
+    private final RatCommandMetrics metrics;
+
+    /**
+     * Creates a listener with its own metrics
+     */
+    public RatSpanMetrics() {
+        this(new RatCommandMetrics());
+    }
+
+    /**
+     * Creates a listener
+     * @param metrics The metrics to record into
+     */
+    public RatSpanMetrics(RatCommandMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void onSpanEnd(RatSpan span) {
+        metrics.getCommand(span.getPath())
+                .record(span.getDurationNanos(), span.isFailed() ? CommandOutcome.HandledError : CommandOutcome.Success);
+    }
+}
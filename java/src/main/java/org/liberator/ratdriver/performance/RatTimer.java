@@ -5,29 +5,78 @@ import java.time.Instant;
 public class RatTimer {
 
     RatTimer(){
+        this(RatClock.SYSTEM);
+    }
+
+    RatTimer(RatClock clock){
+        this.clock = clock;
         startTime = Instant.now();
-        endTime = Instant.now();
+        endTime = startTime;
         duration = -1;
+        durationNanos = -1;
     }
 
+    RatTimer(RatClock clock, long startNanos, long endNanos){
+        this.clock = clock;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        durationNanos = endNanos - startNanos;
+        duration = durationNanos / 1_000_000L;
+        endTime = Instant.now();
+        startTime = endTime.minusNanos(durationNanos);
+    }
+
+    private final RatClock clock;
+
+    /**
+     * The wall clock time at which the timer was started, for reporting only
+     */
     public Instant startTime;
+
+    /**
+     * The start time plus the measured duration, for reporting only
+     */
     public Instant endTime;
+
+    /**
+     * The duration in milliseconds
+     */
     public long duration;
 
+    /**
+     * The monotonic clock reading when the timer was started
+     */
+    public long startNanos;
+
+    /**
+     * The monotonic clock reading when the timer was stopped
+     */
+    public long endNanos;
+
+    /**
+     * The duration in nanoseconds
+     */
+    public long durationNanos;
+
     /**
      * Start the timer
      */
     public void Start() {
         startTime = Instant.now();
-        endTime = Instant.now();
+        endTime = startTime;
         duration = 0;
+        durationNanos = 0;
+        startNanos = clock.nanoTime();
+        endNanos = startNanos;
     }
 
     /**
      * Stop the timer
      */
     public void Stop() {
-        endTime = Instant.now();
-        duration = endTime.toEpochMilli() - startTime.toEpochMilli();
+        endNanos = clock.nanoTime();
+        durationNanos = endNanos - startNanos;
+        duration = durationNanos / 1_000_000L;
+        endTime = startTime.plusNanos(durationNanos);
     }
 }
@@ -0,0 +1,109 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+import org.liberator.ratdriver.enums.RegressionVerdict;
+import org.liberator.ratdriver.enums.Timing;
+
+/**
+ * The comparison of one timing type between a baseline and a run
+ */
+@SuppressWarnings("unused")
+public class RatTimingComparison {
+
+    /**
+     * The type of timing compared
+     */
+    @Getter
+    private final Timing timing;
+
+    /**
+     * The outcome of the comparison
+     */
+    @Getter
+    private final RegressionVerdict verdict;
+
+    /**
+     * The number of timings in the baseline
+     */
+    @Getter
+    private final long baselineCount;
+
+    /**
+     * The number of timings in the run
+     */
+    @Getter
+    private final long currentCount;
+
+    /**
+     * The baseline median in milliseconds
+     */
+    @Getter
+    private final double baselineMedian;
+
+    /**
+     * The run's median in milliseconds
+     */
+    @Getter
+    private final double currentMedian;
+
+    /**
+     * The baseline 95th percentile in milliseconds
+     */
+    @Getter
+    private final double baselinePercentile95;
+
+    /**
+     * The run's 95th percentile in milliseconds
+     */
+    @Getter
+    private final double currentPercentile95;
+
+    /**
+     * The relative change in the median, for example 0.1 for ten percent slower
+     */
+    @Getter
+    private final double medianShift;
+
+    /**
+     * The Mann-Whitney U statistic of the run against the baseline
+     */
+    @Getter
+    private final double u;
+
+    /**
+     * The tie corrected normal approximation of U
+     */
+    @Getter
+    private final double z;
+
+    /**
+     * The two sided probability of a shift at least this large if the distributions were the same
+     */
+    @Getter
+    private final double pValue;
+
+    /**
+     * Cliff's delta, from -1 when every run timing is faster than every baseline timing to 1 when every one is slower
+     */
+    @Getter
+    private final double effectSize;
+
+    RatTimingComparison(Timing timing, RegressionVerdict verdict, long baselineCount, long currentCount,
+                        double baselineMedian, double currentMedian, double baselinePercentile95,
+                        double currentPercentile95, double medianShift, double u, double z, double pValue,
+                        double effectSize) {
+        this.timing = timing;
+        this.verdict = verdict;
+        this.baselineCount = baselineCount;
+        this.currentCount = currentCount;
+        this.baselineMedian = baselineMedian;
+        this.currentMedian = currentMedian;
+        this.baselinePercentile95 = baselinePercentile95;
+        this.currentPercentile95 = currentPercentile95;
+        this.medianShift = medianShift;
+        this.u = u;
+        this.z = z;
+        this.pValue = pValue;
+        this.effectSize = effectSize;
+    }
+}
@@ -0,0 +1,18 @@
+package org.liberator.ratdriver.performance;
+
+import org.liberator.ratdriver.enums.Timing;
+
+/**
+ * Receives each timing as a RatWatch records it
+ */
+@FunctionalInterface
+public interface RatTimingListener {
+
+    /**
+     * Called on the thread that stopped the timer
+     * @param timing The type of timing
+     * @param startNanos The clock reading when the timer was started
+     * @param durationNanos The duration in nanoseconds
+     */
+    void onTiming(Timing timing, long startNanos, long durationNanos);
+}
@@ -0,0 +1,269 @@
+package org.liberator.ratdriver.performance;
+
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.logging.RatLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Streams spans and RatWatch timings to a file in the Trace Event JSON format, which chrome://tracing and
+ * Perfetto can open as a timeline with one track per thread.
+ * <p>
+ * Events are encoded as they arrive into a fixed size buffer that is written out through a FileChannel whenever
+ * it fills, so an export of any length uses the same small amount of memory. The trace viewers accept a file
+ * whose closing bracket is missing, so a run that dies part way through still leaves a readable trace.
+ * <p>
+ * Timestamps are taken relative to the clock reading when the exporter was created, so the spans and watches
+ * exported should use the same clock, System.nanoTime by default.
+ */
+@SuppressWarnings("unused")
+public class RatTraceExporter implements RatSpanListener, RatTimingListener, Closeable {
+
+    /**
+     * The size of the buffer events are encoded into
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long PROCESS_ID = ProcessHandle.current().pid();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder event = new StringBuilder(512);
+    private final Set<Long> namedThreads = new HashSet<>();
+    private final long originNanos;
+    private boolean first = true;
+    private boolean closed;
+
+    /**
+     * Creates an exporter, replacing any existing file
+     * @param path The trace file to write
+     * @throws IOException If the file cannot be created
+     */
+    public RatTraceExporter(Path path) throws IOException {
+        this(path, RatClock.SYSTEM);
+    }
+
+    /**
+     * Creates an exporter, replacing any existing file
+     * @param path The trace file to write
+     * @param clock The clock the exported spans and timings are measured with
+     * @throws IOException If the file cannot be created
+     */
+    public RatTraceExporter(Path path, RatClock clock) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        originNanos = clock.nanoTime();
+        synchronized (this) {
+            event.append("[\n");
+            write();
+            processName("RatDriver");
+        }
+    }
+
+    /**
+     * Writes a span as a complete event on its thread's track, with its tags as arguments
+     * @param span The span that has ended
+     */
+    @Override
+    public synchronized void onSpanEnd(RatSpan span) {
+        if (closed) {
+            return;
+        }
+        threadName(span.getThreadId(), span.getThreadName());
+        begin(span.getName(), "RatDriver", span.getThreadId(), span.getStartNanos(), span.getDurationNanos());
+        event.append(",\"args\":{\"path\":");
+        string(span.getPath());
+        if (span.isFailed()) {
+            event.append(",\"failed\":true");
+        }
+        for (int i = 0; i < span.getTagCount(); i++) {
+            event.append(',');
+            string(span.getTagKey(i));
+            event.append(':');
+            string(span.getTagValue(i));
+        }
+        event.append("}}");
+        write();
+    }
+
+    /**
+     * Writes a RatWatch timing as a complete event on the current thread's track
+     * @param timing The type of timing
+     * @param startNanos The clock reading when the timer was started
+     * @param durationNanos The duration in nanoseconds
+     */
+    @Override
+    public synchronized void onTiming(Timing timing, long startNanos, long durationNanos) {
+        if (closed) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        threadName(thread.getId(), thread.getName());
+        begin(timing.name(), "RatWatch", thread.getId(), startNanos, durationNanos);
+        event.append('}');
+        write();
+    }
+
+    /**
+     * Writes the buffered events to the file
+     * @throws IOException If the file cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (!closed) {
+            drain();
+        }
+    }
+
+    /**
+     * Completes the trace and closes the file
+     * @throws IOException If the file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            event.append("\n]\n");
+            write();
+            drain();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private void begin(String name, String category, long threadId, long startNanos, long durationNanos) {
+        separate();
+        event.append("{\"name\":");
+        string(name);
+        event.append(",\"cat\":\"").append(category).append("\",\"ph\":\"X\",\"pid\":").append(PROCESS_ID);
+        event.append(",\"tid\":").append(threadId);
+        event.append(",\"ts\":");
+        micros(startNanos - originNanos);
+        event.append(",\"dur\":");
+        micros(Math.max(0, durationNanos));
+    }
+
+    private void processName(String name) {
+        separate();
+        event.append("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":").append(PROCESS_ID);
+        event.append(",\"args\":{\"name\":");
+        string(name);
+        event.append("}}");
+        write();
+    }
+
+    private void threadName(long threadId, String name) {
+        if (!namedThreads.add(threadId)) {
+            return;
+        }
+        separate();
+        event.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":").append(PROCESS_ID);
+        event.append(",\"tid\":").append(threadId).append(",\"args\":{\"name\":");
+        string(name);
+        event.append("}}");
+        write();
+    }
+
+    private void separate() {
+        if (first) {
+            first = false;
+        } else {
+            event.append(",\n");
+        }
+    }
+
+    private void micros(long nanos) {
+        if (nanos < 0) {
+            event.append('-');
+            nanos = -nanos;
+        }
+        event.append(nanos / 1000);
+        long fraction = nanos % 1000;
+        if (fraction != 0) {
+            event.append('.');
+            if (fraction < 100) {
+                event.append('0');
+            }
+            if (fraction < 10) {
+                event.append('0');
+            }
+            event.append(fraction);
+        }
+    }
+
+    private void string(String value) {
+        if (value == null) {
+            event.append("null");
+            return;
+        }
+        event.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                event.append('\\').append(c);
+            } else if (c < 0x20) {
+                event.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                event.append(c);
+            }
+        }
+        event.append('"');
+    }
+
+    /**
+     * Encodes the pending event into the buffer, writing the buffer out whenever it fills.
+     * A failed write stops the export rather than failing the command that produced the event.
+     */
+    private void write() {
+        try {
+            CharBuffer chars = CharBuffer.wrap(event);
+            encoder.reset();
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                }
+            } while (result.isOverflow());
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+        } catch (IOException ex) {
+            RatLog.human("Unable to write the trace file, so the trace has been stopped.");
+            RatLog.message(ex);
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // the channel is being abandoned
+            }
+        } finally {
+            event.setLength(0);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
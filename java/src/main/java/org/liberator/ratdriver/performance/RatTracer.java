@@ -0,0 +1,182 @@
+package org.liberator.ratdriver.performance;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds trees of spans for nested RatDriver operations.
+ * <p>
+ * Each tracer keeps a stack of open spans and a pool of recycled spans for each thread, so starting and ending a
+ * span takes no lock and, once the pool is warm, allocates nothing. Sessions that share a thread never see each
+ * other's spans. Ending a span that is not open on the current thread does nothing. Tracing is disabled until a
+ * listener is added.
+ */
+@SuppressWarnings("unused")
+public class RatTracer {
+
+    /**
+     * The deepest that spans may be nested on one thread
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private static final AtomicLong NEXT_SPAN_ID = new AtomicLong();
+    private static final ConcurrentMap<String, ConcurrentMap<String, String>> PATHS = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<SpanStack> stacks = ThreadLocal.withInitial(SpanStack::new);
+    private final List<RatSpanListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean enabled;
+
+    /**
+     * The clock used to time spans
+     */
+    @Getter
+    @Setter
+    private RatClock clock = RatClock.SYSTEM;
+
+    /**
+     * The driver type tagged onto root spans
+     */
+    @Getter
+    @Setter
+    private String driverName;
+
+    /**
+     * Adds a listener and enables tracing
+     * @param listener The listener to add
+     */
+    public void addListener(RatSpanListener listener) {
+        listeners.add(listener);
+        enabled = true;
+    }
+
+    /**
+     * Removes a listener, disabling tracing when none are left
+     * @param listener The listener to remove
+     */
+    public void removeListener(RatSpanListener listener) {
+        listeners.remove(listener);
+        enabled = !listeners.isEmpty();
+    }
+
+    /**
+     * @return Whether spans are being recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a span as a child of the current thread's innermost open span
+     * @param name The name of the operation
+     * @return The span, which must be passed to endSpan. A non-recording span is returned while disabled.
+     */
+    public RatSpan startSpan(String name) {
+        if (!enabled) {
+            return RatSpan.DISABLED;
+        }
+        SpanStack stack = stacks.get();
+        if (stack.depth == MAX_DEPTH) {
+            return RatSpan.DISABLED;
+        }
+        RatSpan parent = stack.depth == 0 ? null : stack.open[stack.depth - 1];
+        RatSpan span = stack.borrow();
+        span.open(name, pathOf(parent, name), parent, NEXT_SPAN_ID.incrementAndGet(), Thread.currentThread(),
+                clock.nanoTime());
+        if (parent == null && driverName != null) {
+            span.tag("driver", driverName);
+        }
+        stack.open[stack.depth++] = span;
+        return span;
+    }
+
+    /**
+     * Ends a span, along with any spans opened inside it that were not ended, and passes it to the listeners
+     * @param span The span returned by startSpan
+     */
+    public void endSpan(RatSpan span) {
+        if (span == null || !span.isRecording()) {
+            return;
+        }
+        SpanStack stack = stacks.get();
+        if (!stack.contains(span)) {
+            return;
+        }
+        long end = clock.nanoTime();
+        while (stack.depth > 0) {
+            RatSpan top = stack.open[--stack.depth];
+            stack.open[stack.depth] = null;
+            top.close(end);
+            for (RatSpanListener listener : listeners) {
+                listener.onSpanEnd(top);
+            }
+            stack.release(top);
+            if (top == span) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The current thread's innermost open span, or null if there is none
+     */
+    public RatSpan currentSpan() {
+        SpanStack stack = stacks.get();
+        return stack.depth == 0 ? null : stack.open[stack.depth - 1];
+    }
+
+    private static String pathOf(RatSpan parent, String name) {
+        if (parent == null) {
+            return name;
+        }
+        ConcurrentMap<String, String> children = PATHS.get(parent.getPath());
+        if (children == null) {
+            children = PATHS.computeIfAbsent(parent.getPath(), key -> new ConcurrentHashMap<>());
+        }
+        String path = children.get(name);
+        if (path == null) {
+            path = children.computeIfAbsent(name, key -> parent.getPath() + "/" + key);
+        }
+        return path;
+    }
+
+    /**
+     * The open spans and recycled spans belonging to one thread
+     */
+    private static final class SpanStack {
+        final RatSpan[] open = new RatSpan[MAX_DEPTH];
+        final RatSpan[] pool = new RatSpan[MAX_DEPTH];
+        int depth;
+        int pooled;
+
+        boolean contains(RatSpan span) {
+            for (int i = depth - 1; i >= 0; i--) {
+                if (open[i] == span) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        RatSpan borrow() {
+            if (pooled == 0) {
+                return new RatSpan();
+            }
+            RatSpan span = pool[--pooled];
+            pool[pooled] = null;
+            return span;
+        }
+
+        void release(RatSpan span) {
+            span.recycle();
+            if (pooled < pool.length) {
+                pool[pooled++] = span;
+            }
+        }
+    }
+}
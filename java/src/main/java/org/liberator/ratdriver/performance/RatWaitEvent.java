@@ -0,0 +1,37 @@
+package org.liberator.ratdriver.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event covering a WebDriverWait, including how many times its condition was polled
+ */
+@Name("org.liberator.ratdriver.Wait")
+@Label("RatDriver Wait")
+@Category({"RatDriver"})
+@Description("A RatDriver wait for an expected condition")
+@StackTrace(false)
+public class RatWaitEvent extends Event {
+
+    @Label("Wait")
+    public String waitName;
+
+    @Label("Condition")
+    public String condition;
+
+    @Label("Timeout")
+    @Timespan(Timespan.SECONDS)
+    public long timeout;
+
+    @Label("Polls")
+    @Description("The number of times the condition was evaluated")
+    public int polls;
+
+    @Label("Satisfied")
+    public boolean satisfied;
+}
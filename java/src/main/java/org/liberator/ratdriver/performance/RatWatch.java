@@ -3,16 +3,35 @@ package org.liberator.ratdriver.performance;
 import lombok.Getter;
 import lombok.Setter;
 import org.javatuples.Pair;
+import org.liberator.ratdriver.enums.CommandOutcome;
 import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.logging.RatLog;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * A control class for RatDriver performance metrics.
+ * <p>
+ * Each timing type is recorded into its own preallocated histogram, and start times are held per thread,
+ * so a watch can be shared between threads and recording a timing neither allocates nor locks.
+ */
 @SuppressWarnings("unused")
 public class RatWatch {
 
+    private static final Timing[] TIMING_TYPES = Timing.values();
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /**
+     * The deepest that timers may be nested on one thread
+     */
+    public static final int MAX_NESTED_TIMERS = 32;
+
     /**
-     * Contains the timings for the current analysis cycle
+     * Contains the timings for the current analysis cycle. Only populated when RetainTimings is set.
      */
     @Getter
     @Setter
@@ -20,19 +39,92 @@ public class RatWatch {
 
 
     /**
-     * The timer currently being used
+     * The timer most recently stopped. Only populated when RetainTimings is set.
      */
     @Getter
     @Setter
     public RatTimer CurrentTimer;
 
 
+    /**
+     * Whether to keep every individual timer in the Timings list as well as in the histograms
+     */
+    @Getter
+    @Setter
+    public Boolean RetainTimings;
+
+
+    /**
+     * The monotonic clock used to measure durations. Defaults to System.nanoTime.
+     */
+    @Getter
+    @Setter
+    public RatClock Clock;
+
+
+    /**
+     * A journal that every timing is also appended to, so the timings outlive this JVM. Null when not journaling.
+     */
+    @Getter
+    @Setter
+    public volatile RatJournal Journal;
+
+
+    /**
+     * Listeners told of every timing as it is recorded
+     */
+    private final List<RatTimingListener> listeners = new CopyOnWriteArrayList<>();
+
+
+    /**
+     * Histograms of durations in nanoseconds, indexed by timing type
+     */
+    private final RatHistogram[] histograms;
+
+
+    /**
+     * Streaming moments of durations in nanoseconds, indexed by timing type
+     */
+    private final RatMoments[] moments;
+
+
+    /**
+     * Rolling window views of the timings, created by enableRollingWindows
+     */
+    private volatile RatRollingTimings rollingTimings;
+
+
+    /**
+     * The start times of the timers running on each thread. Element zero holds the nesting depth.
+     */
+    private final ThreadLocal<long[]> startTimes = ThreadLocal.withInitial(() -> new long[MAX_NESTED_TIMERS + 1]);
+
+
     /**
      * Constructor for the RatWatch class
      */
     public RatWatch()
     {
-        Timings = new LinkedList<>();
+        this(RatClock.SYSTEM);
+    }
+
+
+    /**
+     * Constructor for the RatWatch class
+     * @param clock The monotonic clock used to measure durations
+     */
+    public RatWatch(RatClock clock)
+    {
+        Clock = clock;
+        Timings = Collections.synchronizedList(new LinkedList<>());
+        RetainTimings = false;
+        histograms = new RatHistogram[TIMING_TYPES.length];
+        moments = new RatMoments[TIMING_TYPES.length];
+        for (int i = 0; i < histograms.length; i++)
+        {
+            histograms[i] = new RatHistogram();
+            moments[i] = new RatMoments();
+        }
     }
 
 
@@ -43,24 +135,51 @@ public class RatWatch {
     public RatWatch(RatWatch ratWatch)
     {
         CurrentTimer = null;
+        Clock = ratWatch.Clock;
         Timings = ratWatch.Timings;
+        RetainTimings = ratWatch.RetainTimings;
+        Journal = ratWatch.Journal;
+        listeners.addAll(ratWatch.listeners);
+        histograms = new RatHistogram[TIMING_TYPES.length];
+        moments = new RatMoments[TIMING_TYPES.length];
+        for (int i = 0; i < histograms.length; i++)
+        {
+            histograms[i] = ratWatch.histograms[i].copy();
+            moments[i] = new RatMoments();
+            moments[i].add(ratWatch.moments[i]);
+        }
     }
 
 
     /**
-     * Creates a new timer and starts the count
+     * Starts a count for the current thread. Timers may be nested: each StopTimer stops the most recently
+     * started timer on the same thread, so a command that fails before stopping its timer must call DiscardTimer.
+     * A timer that is never stopped or discarded is dropped once MAX_NESTED_TIMERS newer timers are running.
      */
     public void StartTimer()
     {
-        try
+        long[] stack = startTimes.get();
+        int depth = (int) stack[0];
+        if (depth == MAX_NESTED_TIMERS)
         {
-            CurrentTimer = new RatTimer();
-            CurrentTimer.Start();
+            System.arraycopy(stack, 2, stack, 1, MAX_NESTED_TIMERS - 1);
+            depth--;
         }
-        catch (Exception ex)
+        stack[depth + 1] = Clock.nanoTime();
+        stack[0] = depth + 1;
+    }
+
+
+    /**
+     * Discards the current thread's most recently started timer without recording it, for example because the
+     * command it was timing failed
+     */
+    public void DiscardTimer()
+    {
+        long[] stack = startTimes.get();
+        if (stack[0] > 0)
         {
-            System.out.println("Unable to start the timer");
-            System.out.println(ex.getMessage());
+            stack[0]--;
         }
     }
 
@@ -71,36 +190,266 @@ public class RatWatch {
      */
     public long StopTimer()
     {
-        try
+        return record(Timing.NotSpecified) / 1_000_000L;
+    }
+
+    /**
+     * Stops the timer and adds a specified timing point type to the timings list
+     * @param timerType the type of timer to record
+     */
+    public void StopTimer(Timing timerType)
+    {
+        record(timerType == null ? Timing.NotSpecified : timerType);
+    }
+
+
+    /**
+     * Records a timing measured outside the watch, for example the launch of a browser before its RatDriver existed
+     * @param timerType the type of timer to record
+     * @param start When the timing started, read from this watch's clock
+     * @param duration The duration in nanoseconds
+     */
+    public void recordTiming(Timing timerType, long start, long duration)
+    {
+        histograms[timerType.ordinal()].recordValue(duration);
+        moments[timerType.ordinal()].record(duration);
+        RatRollingTimings rolling = rollingTimings;
+        if (rolling != null)
         {
-            CurrentTimer.Stop();
-            Timings.add(new Pair<>(Timing.NotSpecified, CurrentTimer));
-            return CurrentTimer.duration;
+            rolling.record(timerType, duration);
         }
-        catch (Exception ex)
+        RatJournal journal = Journal;
+        if (journal != null)
         {
-            System.out.println("Unable to stop the timer");
-            System.out.println(ex.getMessage());
-            return 0;
+            journal.append(timerType, 0, start, duration, CommandOutcome.Success);
+        }
+        for (RatTimingListener listener : listeners)
+        {
+            listener.onTiming(timerType, start, duration);
+        }
+
+        if (Boolean.TRUE.equals(RetainTimings))
+        {
+            RatTimer timer = new RatTimer(Clock, start, start + duration);
+            CurrentTimer = timer;
+            Timings.add(new Pair<>(timerType, timer));
         }
     }
 
+
     /**
-     * Stops the timer and adds a specified timing point type to the timings list
-     * @param timerType the type of timer to record
+     * Gets the histogram holding the durations recorded for a timing type
+     * @param timerType The type of timing point
+     * @return A live histogram of durations in nanoseconds
      */
-    public void StopTimer(Timing timerType)
+    public RatHistogram getHistogram(Timing timerType)
+    {
+        return histograms[timerType.ordinal()];
+    }
+
+
+    /**
+     * Gets the number of timings recorded for a timing type
+     * @param timerType The type of timing point
+     * @return The number of timings recorded
+     */
+    public long getCount(Timing timerType)
+    {
+        return histograms[timerType.ordinal()].getTotalCount();
+    }
+
+
+    /**
+     * Calculates the arithmetic mean for the timings list
+     * @param timerType Type of timing point
+     * @return The arithmetic mean in milliseconds
+     */
+    public double ArithmeticMean(Timing timerType)
+    {
+        return moments[timerType.ordinal()].getArithmeticMean() / NANOS_PER_MILLI;
+    }
+
+
+    /**
+     * Calculates the geometric mean for the timings list
+     * @param timerType Type of timing point
+     * @return The geometric mean in milliseconds
+     */
+    public double GeometricMean(Timing timerType)
+    {
+        return moments[timerType.ordinal()].getGeometricMean() / NANOS_PER_MILLI;
+    }
+
+
+    /**
+     * Calculates the harmonic mean for the timings list
+     * @param timerType Type of timing point
+     * @return The harmonic mean in milliseconds
+     */
+    public double HarmonicMean(Timing timerType)
+    {
+        return moments[timerType.ordinal()].getHarmonicMean() / NANOS_PER_MILLI;
+    }
+
+
+    /**
+     * Calculates the median value for the timings list
+     * @param timerType Type of timing point
+     * @return The median time in milliseconds
+     */
+    public double Median(Timing timerType)
+    {
+        return Percentile(timerType, 50);
+    }
+
+
+    /**
+     * Calculates the skewness of the values in the timings list
+     * @param timerType Type of timing point
+     * @return The skewness of the timings away from the mean
+     */
+    public double Skewness(Timing timerType)
+    {
+        return moments[timerType.ordinal()].getSkewness();
+    }
+
+
+    /**
+     * Calculates the standard deviation of the timings sample
+     * @param timerType Type of timing point
+     * @return The standard deviation in milliseconds
+     */
+    public double StandardDeviation(Timing timerType)
+    {
+        return moments[timerType.ordinal()].getStandardDeviation() / NANOS_PER_MILLI;
+    }
+
+
+    /**
+     * Calculates the boundary for the upper quartile of the timings list
+     * @param timerType Type of timing point
+     * @return The upper quartile boundary in milliseconds
+     */
+    public double UpperQuartile(Timing timerType)
+    {
+        return Percentile(timerType, 75);
+    }
+
+
+    /**
+     * Calculates the variance of the timings sample
+     * @param timerType Type of timing point
+     * @return The variance in milliseconds squared
+     */
+    public double Variance(Timing timerType)
+    {
+        return moments[timerType.ordinal()].getVariance() / (NANOS_PER_MILLI * NANOS_PER_MILLI);
+    }
+
+
+    /**
+     * Calculates a percentile of the timings list, to within the precision of the histogram
+     * @param timerType Type of timing point
+     * @param percentile The percentile, between 0 and 100. For example 99.9
+     * @return The percentile in milliseconds
+     */
+    public double Percentile(Timing timerType, double percentile)
+    {
+        return histograms[timerType.ordinal()].getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+
+    /**
+     * Starts keeping last minute, five minute and hour views of the timings recorded from now on.
+     * These cost a few megabytes per watch, so they are only kept when asked for.
+     * @return The rolling views
+     */
+    public synchronized RatRollingTimings enableRollingWindows()
+    {
+        if (rollingTimings == null)
+        {
+            rollingTimings = new RatRollingTimings(Clock);
+        }
+        return rollingTimings;
+    }
+
+
+    /**
+     * Gets the rolling window views of the timings
+     * @return The rolling views, or null if enableRollingWindows has not been called
+     */
+    public RatRollingTimings getRollingTimings()
+    {
+        return rollingTimings;
+    }
+
+
+    /**
+     * Adds a listener that is told of every timing recorded from now on
+     * @param listener The listener to add
+     */
+    public void addTimingListener(RatTimingListener listener)
+    {
+        listeners.add(listener);
+    }
+
+
+    /**
+     * Removes a timing listener
+     * @param listener The listener to remove
+     */
+    public void removeTimingListener(RatTimingListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+
+    /**
+     * Measures the overhead and resolution of the clock used by this watch
+     * @return The calibration results
+     */
+    public RatClockCalibration calibrateClock()
+    {
+        return RatClockCalibration.calibrate(Clock);
+    }
+
+
+    /**
+     * Clears all recorded timings
+     */
+    public void reset()
     {
-        try
+        for (int i = 0; i < histograms.length; i++)
         {
-            CurrentTimer.Stop();
-            Timings.add(new Pair<>(timerType, CurrentTimer));
+            histograms[i].reset();
+            moments[i].reset();
         }
-        catch (Exception ex)
+        Timings.clear();
+        CurrentTimer = null;
+    }
+
+
+    /**
+     * Records the duration since the current thread's most recent timer was started
+     * @param timerType the type of timer to record
+     * @return The duration in nanoseconds, or zero if no timer was running
+     */
+    private long record(Timing timerType)
+    {
+        long[] stack = startTimes.get();
+        int depth = (int) stack[0];
+        if (depth == 0)
         {
-            System.out.println("Unable to stop the timer");
-            System.out.println(ex.getMessage());
+            RatLog.human("Unable to stop the timer");
+            RatLog.human("The timer has not been started on this thread.");
+            return 0;
         }
+        long end = Clock.nanoTime();
+        long start = stack[depth];
+        stack[0] = depth - 1;
+        long duration = end - start;
+        recordTiming(timerType, start, duration);
+        return duration;
     }
 
 }
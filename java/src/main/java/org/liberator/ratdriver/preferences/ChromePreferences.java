@@ -22,6 +22,12 @@ public class ChromePreferences extends BasePreferences {
      */
     public String LeaveBrowserRunning;
 
+    /**
+     * Gets or sets a value indicating whether the browser runs headless, with a curated set of low-overhead launch
+     * flags, so that no display is needed. Defaults to false.
+     */
+    public Boolean Headless;
+
     /**
      * Gets or sets the directory in which to store minidump files.
      */
@@ -67,6 +73,16 @@ public class ChromePreferences extends BasePreferences {
      */
     public String UserProfilePreferences;
 
+    /**
+     * Gets or sets a user data directory for Chrome to run on directly, for example to warm one up to capture as a template.
+     */
+    public String UserDataDirectory;
+
+    /**
+     * Gets or sets a user data directory captured by ChromeUserDataTemplates. Each session is started on its own clone of it.
+     */
+    public String UserDataTemplate;
+
     /**
      * Gets or sets the port on which the Android Debug Bridge is listening for commands.
      */
@@ -153,6 +169,7 @@ public class ChromePreferences extends BasePreferences {
         }
 
         LeaveBrowserRunning = "false";
+        Headless = false;
 
         // Driver Performance Pre-Sets
         BufferUsageReportingInterval = 1000;
@@ -185,5 +202,7 @@ public class ChromePreferences extends BasePreferences {
         ExtensionsList = null;
         UserProfilePreferences = null;
         LocalStatePreferences = null;
+        UserDataDirectory = null;
+        UserDataTemplate = null;
     }
 }
@@ -27,6 +27,8 @@ public class FirefoxPreferences extends BasePreferences {
         LogLevel = FirefoxDriverLogLevel.DEBUG;
         ProfileDirectory = "\\BrowserDrivers\\Profiles";
         CleanProfile = false;
+        UseProfileTemplates = true;
+        Headless = false;
         UseLegacyImplementation = false;
 
         AcceptUntrustedCertificates = null;
@@ -59,6 +61,18 @@ public class FirefoxPreferences extends BasePreferences {
      */
     public Boolean CleanProfile;
 
+    /**
+     * Gets or sets a value indicating whether profiles are built once and cloned for each session,
+     * rather than being written out and sent to the driver on every launch. Set to true by default.
+     */
+    public Boolean UseProfileTemplates;
+
+    /**
+     * Gets or sets a value indicating whether the browser runs headless, with a curated set of low-overhead launch
+     * flags, so that no display is needed. Defaults to false.
+     */
+    public Boolean Headless;
+
     /**
      * Gets or sets a value indicating whether to use the legacy driver implementation.
      */
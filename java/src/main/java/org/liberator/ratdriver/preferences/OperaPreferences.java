@@ -6,6 +6,7 @@ public class OperaPreferences extends BasePreferences {
     public OperaPreferences()
     {
         LeaveBrowserRunning = false;
+        Headless = false;
         AndroidDebugBridgePort = -1;
         EnableVerboseLogging = false;
         HideCommandPromptWindow = true;
@@ -35,6 +36,12 @@ public class OperaPreferences extends BasePreferences {
      */
     public Boolean LeaveBrowserRunning;
 
+    /**
+     * Gets or sets a value indicating whether the browser runs headless, with a curated set of low-overhead launch
+     * flags, so that no display is needed. Defaults to false.
+     */
+    public Boolean Headless;
+
     /**
      * Gets or sets the directory in which to store minidump files.
      */
@@ -0,0 +1,67 @@
+package org.liberator.ratdriver.profiles;
+
+import org.liberator.ratdriver.logging.RatLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Captures and clones "golden" Chrome user data directories.
+ * <p>
+ * A new Chrome session normally starts on an empty user data directory: it runs its first-run setup, writes its
+ * preferences and local state again, and has a cold HTTP cache, so the first page of every test downloads every
+ * static asset. Instead, a directory can be warmed once, by running a session on it with
+ * ChromeSettings.UserDataDirectory and visiting the pages under test, captured with capture once that session has
+ * quit, and then given to ChromeSettings.UserDataTemplate. Each session is then started on its own clone of the
+ * template, with the template's preferences and a warm cache.
+ */
+@SuppressWarnings("unused")
+public final class ChromeUserDataTemplates {
+
+    /**
+     * Files that tie a user data directory to the browser that last ran on it, or that would make a clone reopen the
+     * tabs of the warm-up session
+     */
+    private static final List<String> SESSION_FILES = Arrays.asList(
+            "SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile",
+            "Crashpad", "BrowserMetrics", "ShaderCache", "GrShaderCache",
+            "Default/Sessions", "Default/Current Session", "Default/Current Tabs",
+            "Default/Last Session", "Default/Last Tabs");
+
+    private ChromeUserDataTemplates() {
+    }
+
+    /**
+     * Captures a warmed user data directory as a template. The browser using the directory must have quit.
+     * @param userDataDirectory The warmed user data directory
+     * @param template The directory to write the template to, which must be empty or missing
+     * @throws IOException if the directory could not be copied
+     */
+    public static void capture(Path userDataDirectory, Path template) throws IOException {
+        if (Files.exists(userDataDirectory.resolve("SingletonLock"), LinkOption.NOFOLLOW_LINKS)) {
+            RatLog.human("The user data directory %s may still be in use by Chrome.", userDataDirectory);
+        }
+        ProfileCloner.cloneProfile(userDataDirectory, template);
+        for (String file : SESSION_FILES) {
+            ProfileCloner.delete(template.resolve(file));
+        }
+        RatLog.human("Captured the Chrome user data template %s.", template);
+    }
+
+    /**
+     * Clones a template into a new directory for one session
+     * @param template The template
+     * @return The clone, which the caller should delete with ProfileCloner.delete once the browser has quit
+     * @throws IOException if the template could not be cloned
+     */
+    public static Path cloneTemplate(Path template) throws IOException {
+        if (!Files.exists(template.resolve("Local State"))) {
+            RatLog.human("The Chrome user data template %s has no Local State, so it may not have been captured.", template);
+        }
+        return ProfileCloner.cloneToTemporaryDirectory(template, "ratdriver-chrome-profile");
+    }
+}
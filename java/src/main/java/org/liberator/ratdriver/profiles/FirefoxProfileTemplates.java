@@ -0,0 +1,85 @@
+package org.liberator.ratdriver.profiles;
+
+import org.liberator.ratdriver.logging.RatLog;
+import org.openqa.selenium.firefox.FirefoxProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caches Firefox profiles laid out on disk, so that each distinct profile is built once per JVM.
+ * <p>
+ * Passing a FirefoxProfile in the FirefoxOptions makes Selenium write the profile to disk, zip it and send it to
+ * geckodriver, which unzips it again, on every launch. Instead, each session is given a clone of the template made by
+ * the ProfileCloner, and Firefox is pointed at the clone with the -profile argument.
+ */
+@SuppressWarnings("unused")
+public final class FirefoxProfileTemplates {
+
+    private static final FirefoxProfileTemplates INSTANCE = new FirefoxProfileTemplates();
+
+    private final Map<String, Path> templates = new ConcurrentHashMap<>();
+
+    private final AtomicInteger buildCount = new AtomicInteger();
+
+    FirefoxProfileTemplates() {
+    }
+
+    /**
+     * @return The templates shared by every session in this JVM
+     */
+    public static FirefoxProfileTemplates getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the template for a profile, building it if it has not been built yet
+     * @param key Identifies the profile, such as its model directory and preferences
+     * @param profile Builds the profile
+     * @return The directory the profile was laid out in
+     */
+    public Path getTemplate(String key, Supplier<FirefoxProfile> profile) {
+        Path template = templates.get(key);
+        if (template != null && !Files.isDirectory(template)) {
+            RatLog.human("The Firefox profile template %s has been deleted, so it will be rebuilt.", template);
+            templates.remove(key, template);
+        }
+        return templates.computeIfAbsent(key, ignored -> {
+            buildCount.incrementAndGet();
+            return profile.get().layoutOnDisk().toPath();
+        });
+    }
+
+    /**
+     * Clones the template for a profile into a new directory for one session
+     * @param key Identifies the profile, such as its model directory and preferences
+     * @param profile Builds the profile, if it has not been built yet
+     * @return The clone, which the caller should delete with ProfileCloner.delete once the browser has quit
+     * @throws IOException if the template could not be cloned
+     */
+    public Path cloneTemplate(String key, Supplier<FirefoxProfile> profile) throws IOException {
+        return ProfileCloner.cloneToTemporaryDirectory(getTemplate(key, profile), "ratdriver-firefox-profile");
+    }
+
+    /**
+     * @return The number of templates built
+     */
+    public int getBuildCount() {
+        return buildCount.get();
+    }
+
+    /**
+     * Forgets every template, so that they are rebuilt on next use. The template directories are deleted.
+     */
+    public void clear() {
+        for (String key : templates.keySet()) {
+            Path template = templates.remove(key);
+            ProfileCloner.delete(template);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.liberator.ratdriver.profiles;
+
+import com.sun.javafx.PlatformUtil;
+import org.liberator.ratdriver.logging.RatLog;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Copies browser profile directories as cheaply as the file system allows.
+ * <p>
+ * Where the file system supports copy-on-write clones (btrfs and XFS on Linux, APFS on macOS) the whole tree is
+ * reflinked, which shares the data blocks until the browser writes to them. Elsewhere the tree is copied with NIO, and
+ * files the browser never modifies, such as extension archives, are hard linked rather than copied. Files the browser
+ * rewrites in place, such as its databases, are never hard linked, as that would change the template too.
+ */
+@SuppressWarnings("unused")
+public final class ProfileCloner {
+
+    /**
+     * File extensions of profile files that browsers replace rather than modify, and so can be shared by hard links
+     */
+    private static final List<String> IMMUTABLE_EXTENSIONS = Arrays.asList(".xpi", ".jar", ".crx");
+
+    private static final long REFLINK_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Cleared the first time a reflink copy fails, so that file systems without clones are not tried again
+     */
+    private static volatile boolean reflinkSupported = PlatformUtil.isLinux() || PlatformUtil.isMac();
+
+    private ProfileCloner() {
+    }
+
+    /**
+     * Clones a profile into a new temporary directory
+     * @param template The profile to clone
+     * @param prefix The prefix of the temporary directory's name
+     * @return The clone
+     * @throws IOException if the profile could not be copied
+     */
+    public static Path cloneToTemporaryDirectory(Path template, String prefix) throws IOException {
+        Path target = Files.createTempDirectory(prefix);
+        try {
+            cloneProfile(template, target);
+            return target;
+        } catch (IOException | RuntimeException ex) {
+            delete(target);
+            throw ex;
+        }
+    }
+
+    /**
+     * Clones a profile
+     * @param template The profile to clone
+     * @param target An empty or missing directory to clone it into
+     * @throws IOException if the profile could not be copied
+     */
+    public static void cloneProfile(Path template, Path target) throws IOException {
+        if (!Files.isDirectory(template)) {
+            throw new IOException("The profile template " + template + " does not exist.");
+        }
+        if (reflinkSupported && reflink(template, target)) {
+            return;
+        }
+        copyTree(template, target);
+    }
+
+    /**
+     * Deletes a cloned profile. Files that cannot be deleted, for example because the browser still holds them, are
+     * left behind.
+     * @param profile The profile directory
+     */
+    public static void delete(Path profile) {
+        if (profile == null || !Files.exists(profile, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(profile, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    Files.deleteIfExists(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path directory, IOException ex) throws IOException {
+                    Files.deleteIfExists(directory);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ex) {
+            RatLog.human("Unable to delete the profile %s.", profile);
+        }
+    }
+
+    /**
+     * @return Whether profiles are still being cloned with reflinks
+     */
+    public static boolean isReflinkSupported() {
+        return reflinkSupported;
+    }
+
+    private static boolean reflink(Path template, Path target) {
+        try {
+            Files.createDirectories(target);
+            ProcessBuilder builder = PlatformUtil.isMac()
+                    ? new ProcessBuilder("cp", "-c", "-R", template + "/.", target.toString())
+                    : new ProcessBuilder("cp", "--reflink=always", "-R", "--preserve=mode,timestamps", template + "/.", target.toString());
+            Process process = builder.redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            if (process.waitFor(REFLINK_TIMEOUT_SECONDS, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                return true;
+            }
+            process.destroyForcibly();
+        } catch (IOException ex) {
+            // cp is not available, so fall back to copying
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        reflinkSupported = false;
+        RatLog.human("Copy-on-write clones are not supported here, so profiles will be copied.");
+        emptyDirectory(target);
+        return false;
+    }
+
+    private static void copyTree(Path template, Path target) throws IOException {
+        Files.walkFileTree(template, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+                Files.createDirectories(target.resolve(template.relativize(directory).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Path copy = target.resolve(template.relativize(file).toString());
+                if (attributes.isRegularFile() && isImmutable(file)) {
+                    try {
+                        Files.createLink(copy, file);
+                        return FileVisitResult.CONTINUE;
+                    } catch (IOException | UnsupportedOperationException ex) {
+                        // links are not supported across these directories, so copy instead
+                    }
+                }
+                Files.copy(file, copy, LinkOption.NOFOLLOW_LINKS, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean isImmutable(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String extension : IMMUTABLE_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void emptyDirectory(Path directory) {
+        try (Stream<Path> children = Files.list(directory)) {
+            children.forEach(ProfileCloner::delete);
+        } catch (IOException ex) {
+            RatLog.human("Unable to empty the directory %s.", directory);
+        }
+    }
+}
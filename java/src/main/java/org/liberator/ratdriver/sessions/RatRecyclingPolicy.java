@@ -0,0 +1,85 @@
+package org.liberator.ratdriver.sessions;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The limits after which a long-lived session's browser is replaced with a fresh one (see RecyclingRatDriver).
+ * A limit of zero is not checked. Every limit is off by default.
+ */
+@SuppressWarnings("unused")
+public class RatRecyclingPolicy {
+
+    /**
+     * The number of commands a browser runs before it is replaced
+     */
+    @Getter
+    @Setter
+    public volatile long MaxCommands = 0;
+
+    /**
+     * How long a browser runs before it is replaced
+     */
+    @Getter
+    @Setter
+    public volatile long MaxAgeMillis = 0;
+
+    /**
+     * The resident memory, in kilobytes, a browser and its child processes may grow to before it is replaced.
+     * Only checked on systems with /proc, for browsers started on this machine.
+     */
+    @Getter
+    @Setter
+    public volatile long MaxResidentKilobytes = 0;
+
+    /**
+     * The number of commands between readings of the browser's resident memory, 100 by default
+     */
+    @Getter
+    @Setter
+    public volatile long ResidentCheckInterval = 100;
+
+    /**
+     * Creates a policy that replaces a browser after a number of commands or after it has run for a time
+     * @param maxCommands The number of commands, or zero for no limit
+     * @param maxAge The time, or zero for no limit
+     * @param unit The unit of the time
+     * @return The policy
+     */
+    public static RatRecyclingPolicy of(long maxCommands, long maxAge, TimeUnit unit) {
+        RatRecyclingPolicy policy = new RatRecyclingPolicy();
+        policy.MaxCommands = maxCommands;
+        policy.MaxAgeMillis = unit.toMillis(maxAge);
+        return policy;
+    }
+
+    /**
+     * Decides whether a browser is due to be replaced
+     * @param commands The commands the browser has run
+     * @param ageMillis How long the browser has been running
+     * @param residentKilobytes The browser's resident memory, or a negative value if it was not read
+     * @return Why the browser is due to be replaced, or null if it is not
+     */
+    public String reasonToRecycle(long commands, long ageMillis, long residentKilobytes) {
+        if (MaxCommands > 0 && commands >= MaxCommands) {
+            return commands + " commands";
+        }
+        if (MaxAgeMillis > 0 && ageMillis >= MaxAgeMillis) {
+            return ageMillis + " ms";
+        }
+        if (MaxResidentKilobytes > 0 && residentKilobytes >= MaxResidentKilobytes) {
+            return "growing to " + residentKilobytes + " KB";
+        }
+        return null;
+    }
+
+    /**
+     * @param commands The commands the browser has run
+     * @return Whether the browser's resident memory should be read before the next command
+     */
+    public boolean isResidentCheckDue(long commands) {
+        return MaxResidentKilobytes > 0 && commands % Math.max(1, ResidentCheckInterval) == 0;
+    }
+}
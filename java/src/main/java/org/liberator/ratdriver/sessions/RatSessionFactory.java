@@ -0,0 +1,20 @@
+package org.liberator.ratdriver.sessions;
+
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.preferences.BasePreferences;
+
+/**
+ * Starts the sessions held by a RatSessionPool
+ */
+@FunctionalInterface
+public interface RatSessionFactory {
+
+    /**
+     * Starts a new session
+     * @param type The type of driver to start
+     * @param preferences The preferences to start it with, or null for the driver's defaults
+     * @return The started session
+     */
+    RatDriver create(DriverType type, BasePreferences preferences);
+}
@@ -0,0 +1,99 @@
+package org.liberator.ratdriver.sessions;
+
+import lombok.Getter;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.preferences.BasePreferences;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Identifies the sessions that can stand in for one another: those of the same driver type started with equal
+ * preferences.
+ * <p>
+ * Preferences are compared by a fingerprint of their public fields, so two separately built preference objects with
+ * the same values share sessions, and changing a value after a session was pooled selects a different set.
+ */
+@SuppressWarnings("unused")
+public final class RatSessionKey {
+
+    /**
+     * The type of driver
+     */
+    @Getter
+    private final DriverType type;
+
+    /**
+     * The fingerprint of the preferences, empty for the driver's defaults
+     */
+    @Getter
+    private final String fingerprint;
+
+    private RatSessionKey(DriverType type, String fingerprint) {
+        this.type = type;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Creates the key for a driver type and preferences
+     * @param type The type of driver
+     * @param preferences The preferences, or null for the driver's defaults
+     * @return The key
+     */
+    public static RatSessionKey of(DriverType type, BasePreferences preferences) {
+        return new RatSessionKey(Objects.requireNonNull(type, "type"), fingerprint(preferences));
+    }
+
+    /**
+     * Describes the values of a preferences object's public fields, in name order
+     * @param preferences The preferences, or null
+     * @return The fingerprint, or an empty string for null preferences
+     */
+    public static String fingerprint(BasePreferences preferences) {
+        if (preferences == null) {
+            return "";
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Field field : preferences.getClass().getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.add(field);
+            }
+        }
+        fields.sort(Comparator.comparing(Field::getName));
+        StringBuilder builder = new StringBuilder(preferences.getClass().getName());
+        for (Field field : fields) {
+            try {
+                builder.append(';').append(field.getName()).append('=').append(field.get(preferences));
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Could not read preference " + field.getName(), ex);
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RatSessionKey)) {
+            return false;
+        }
+        RatSessionKey key = (RatSessionKey) other;
+        return type == key.type && fingerprint.equals(key.fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + fingerprint.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return fingerprint.isEmpty() ? type.name() : type.name() + "[" + Integer.toHexString(fingerprint.hashCode()) + "]";
+    }
+}
@@ -0,0 +1,442 @@
+package org.liberator.ratdriver.sessions;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.logging.RatLog;
+import org.liberator.ratdriver.preferences.BasePreferences;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps started browser sessions warm and lends them out, so that tests do not each pay for a browser start.
+ * <p>
+ * Sessions are pooled separately for each driver type and set of preferences (see RatSessionKey). A returned session
+ * is reset before it is lent again: other windows are closed, the cookies and web storage of the current page are
+ * cleared and the browser is left on about:blank. Cookies set by pages the test navigated away from are not reachable
+ * through WebDriver and survive the reset, so tests that depend on a clean cookie jar should stay on one site or use
+ * a MaxUses of one.
+ * <p>
+ * A background thread starts sessions until WarmSessions are idle for each key in use, and quits sessions that have
+ * been idle for longer than MaxIdleMillis. Sessions are quit rather than reused once they have been lent MaxUses times.
+ */
+@SuppressWarnings("unused")
+public class RatSessionPool implements AutoCloseable {
+
+    private static final long MAINTENANCE_INTERVAL_MILLIS = 1000;
+
+    /**
+     * How long a waiting borrow sleeps before checking whether a quit session has freed a slot
+     */
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final String CLEAR_STORAGE =
+            "try { window.localStorage.clear(); } catch (e) {} try { window.sessionStorage.clear(); } catch (e) {}";
+
+    /**
+     * The number of idle sessions kept started for each key in use, 1 by default
+     */
+    @Getter
+    @Setter
+    public volatile int WarmSessions = 1;
+
+    /**
+     * The most sessions, idle or lent, held for each key, 4 by default
+     */
+    @Getter
+    @Setter
+    public volatile int MaxSessions = 4;
+
+    /**
+     * How long a session may sit idle before it is quit and replaced, five minutes by default
+     */
+    @Getter
+    @Setter
+    public volatile long MaxIdleMillis = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The number of times a session is lent before it is quit and replaced, 50 by default
+     */
+    @Getter
+    @Setter
+    public volatile int MaxUses = 50;
+
+    /**
+     * How long borrow waits for a session when MaxSessions are already lent, one minute by default
+     */
+    @Getter
+    @Setter
+    public volatile long BorrowTimeoutMillis = TimeUnit.MINUTES.toMillis(1);
+
+    private final RatSessionFactory factory;
+    private final Map<RatSessionKey, Partition> partitions = new ConcurrentHashMap<>();
+    private final Map<RatDriver, PooledSession> lent = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor maintainer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder retired = new LongAdder();
+
+    /**
+     * Creates a pool that starts sessions with the RatDriver constructors, without performance timings
+     */
+    public RatSessionPool() {
+        this((type, preferences) -> preferences == null
+                ? new RatDriver(type, false)
+                : new RatDriver(type, preferences, false));
+    }
+
+    /**
+     * Creates a pool
+     * @param factory Starts the sessions held by the pool
+     */
+    public RatSessionPool(RatSessionFactory factory) {
+        this.factory = factory;
+        AtomicInteger threads = new AtomicInteger();
+        maintainer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ratdriver-pool-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintainer.setRemoveOnCancelPolicy(true);
+        maintainer.scheduleWithFixedDelay(this::maintain, MAINTENANCE_INTERVAL_MILLIS, MAINTENANCE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts warming sessions for a driver type and preferences ahead of the first borrow
+     * @param type The type of driver
+     * @param preferences The preferences, or null for the driver's defaults
+     */
+    public void prewarm(DriverType type, BasePreferences preferences) {
+        replenish(partition(type, preferences));
+    }
+
+    /**
+     * Borrows a session with the driver's default preferences
+     * @param type The type of driver
+     * @return A session, on about:blank
+     */
+    public RatDriver borrow(DriverType type) {
+        return borrow(type, null);
+    }
+
+    /**
+     * Borrows a session, starting one on this thread if none is idle and MaxSessions have not been started
+     * @param type The type of driver
+     * @param preferences The preferences, or null for the driver's defaults
+     * @return A session, on about:blank
+     * @throws TimeoutException if no session became free within BorrowTimeoutMillis
+     */
+    public RatDriver borrow(DriverType type, BasePreferences preferences) {
+        if (closed.get()) {
+            throw new IllegalStateException("The session pool has been closed");
+        }
+        Partition partition = partition(type, preferences);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BorrowTimeoutMillis);
+        try {
+            while (true) {
+                PooledSession session = partition.idle.pollFirst();
+                boolean warm = session != null;
+                if (session == null && partition.reserve(MaxSessions)) {
+                    session = start(partition);
+                } else if (session == null) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new TimeoutException("No " + partition.key + " session became free within "
+                                + BorrowTimeoutMillis + "ms");
+                    }
+                    session = partition.idle.pollFirst(Math.min(remaining, WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS);
+                    if (session == null) {
+                        continue;
+                    }
+                    warm = true;
+                }
+                if (isExpired(session)) {
+                    discard(session);
+                    continue;
+                }
+                if (warm) {
+                    reused.increment();
+                }
+                borrowed.increment();
+                lent.put(session.driver, session);
+                replenish(partition);
+                return session.driver;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for a " + partition.key + " session", ex);
+        }
+    }
+
+    /**
+     * Returns a borrowed session to the pool. Sessions that cannot be reset, or have been lent MaxUses times, are quit.
+     * Returning a session twice, or one the pool did not lend, does nothing.
+     * @param driver The borrowed session
+     */
+    public void release(RatDriver driver) {
+        PooledSession session = driver == null ? null : lent.remove(driver);
+        if (session == null) {
+            return;
+        }
+        session.uses++;
+        if (closed.get() || session.uses >= MaxUses || !reset(session)) {
+            discard(session);
+            replenish(session.partition);
+            return;
+        }
+        session.idleSince = System.nanoTime();
+        session.partition.idle.offerFirst(session);
+    }
+
+    /**
+     * Quits a borrowed session instead of returning it, for example after the browser has crashed
+     * @param driver The borrowed session
+     */
+    public void invalidate(RatDriver driver) {
+        PooledSession session = driver == null ? null : lent.remove(driver);
+        if (session != null) {
+            discard(session);
+            replenish(session.partition);
+        }
+    }
+
+    /**
+     * Gets the number of idle sessions held for a driver type and preferences
+     * @param type The type of driver
+     * @param preferences The preferences, or null for the driver's defaults
+     * @return The number of idle sessions
+     */
+    public int getIdleCount(DriverType type, BasePreferences preferences) {
+        Partition partition = partitions.get(RatSessionKey.of(type, preferences));
+        return partition == null ? 0 : partition.idle.size();
+    }
+
+    /**
+     * @return The number of sessions currently lent out
+     */
+    public int getLentCount() {
+        return lent.size();
+    }
+
+    /**
+     * @return The number of sessions the pool has started
+     */
+    public long getStartedCount() {
+        return started.sum();
+    }
+
+    /**
+     * @return The number of sessions lent
+     */
+    public long getBorrowCount() {
+        return borrowed.sum();
+    }
+
+    /**
+     * @return The number of borrows served by a session that was already started
+     */
+    public long getReuseCount() {
+        return reused.sum();
+    }
+
+    /**
+     * @return The number of sessions the pool has quit
+     */
+    public long getRetiredCount() {
+        return retired.sum();
+    }
+
+    /**
+     * Stops warming sessions and quits the idle ones. Sessions still lent are quit when they are released.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        maintainer.shutdownNow();
+        try {
+            maintainer.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        for (Partition partition : partitions.values()) {
+            PooledSession session;
+            while ((session = partition.idle.pollFirst()) != null) {
+                discard(session);
+            }
+        }
+    }
+
+    private Partition partition(DriverType type, BasePreferences preferences) {
+        return partitions.computeIfAbsent(RatSessionKey.of(type, preferences), key -> new Partition(key, preferences));
+    }
+
+    /**
+     * Starts a session in a slot already reserved in the partition
+     */
+    private PooledSession start(Partition partition) {
+        RatDriver driver;
+        try {
+            driver = factory.create(partition.key.getType(), partition.preferences);
+            if (driver == null || driver.getEncapsulatedDriver() == null) {
+                throw new WebDriverException("Could not start a " + partition.key + " session for the pool");
+            }
+        } catch (RuntimeException ex) {
+            partition.size.decrementAndGet();
+            throw ex;
+        }
+        started.increment();
+        return new PooledSession(partition, driver);
+    }
+
+    private boolean isExpired(PooledSession session) {
+        return session.uses >= MaxUses
+                || System.nanoTime() - session.idleSince > TimeUnit.MILLISECONDS.toNanos(MaxIdleMillis);
+    }
+
+    private boolean reset(PooledSession session) {
+        WebDriver driver = session.driver.getEncapsulatedDriver();
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                driver.switchTo().window(handles.get(i));
+                driver.close();
+            }
+            driver.switchTo().window(handles.get(0));
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE);
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (RuntimeException ex) {
+            RatLog.human("Unable to reset a pooled %s session, so it will be replaced.", session.partition.key);
+            return false;
+        }
+    }
+
+    private void discard(PooledSession session) {
+        session.partition.size.decrementAndGet();
+        retired.increment();
+        try {
+            session.driver.closePagesAndQuitDriver();
+        } catch (RuntimeException ex) {
+            RatLog.human("Unable to quit a pooled %s session.", session.partition.key);
+        }
+    }
+
+    private void replenish(Partition partition) {
+        if (closed.get() || partition.idle.size() >= WarmSessions || !partition.filling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            maintainer.execute(() -> fill(partition));
+        } catch (RuntimeException ex) {
+            partition.filling.set(false);
+        }
+    }
+
+    /**
+     * Starts sessions until the partition has WarmSessions idle, stopping at the first failure
+     */
+    private void fill(Partition partition) {
+        try {
+            while (!closed.get() && partition.idle.size() < WarmSessions && partition.reserve(MaxSessions)) {
+                PooledSession session;
+                try {
+                    session = start(partition);
+                } catch (RuntimeException ex) {
+                    RatLog.human("Unable to warm a %s session: %s", partition.key, ex.getMessage());
+                    return;
+                }
+                session.idleSince = System.nanoTime();
+                partition.idle.offerLast(session);
+            }
+        } finally {
+            partition.filling.set(false);
+        }
+    }
+
+    /**
+     * Quits sessions that have been idle too long and tops each partition back up
+     */
+    private void maintain() {
+        for (Partition partition : partitions.values()) {
+            Iterator<PooledSession> sessions = partition.idle.descendingIterator();
+            while (sessions.hasNext()) {
+                PooledSession session = sessions.next();
+                if (isExpired(session) && partition.idle.removeFirstOccurrence(session)) {
+                    discard(session);
+                }
+            }
+            if (partition.idle.size() < WarmSessions && partition.filling.compareAndSet(false, true)) {
+                fill(partition);
+            }
+        }
+    }
+
+    /**
+     * The sessions held for one key
+     */
+    private static final class Partition {
+        final RatSessionKey key;
+        final BasePreferences preferences;
+        final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicBoolean filling = new AtomicBoolean();
+
+        Partition(RatSessionKey key, BasePreferences preferences) {
+            this.key = key;
+            this.preferences = preferences;
+        }
+
+        /**
+         * Claims a slot for a new session if fewer than max are held
+         */
+        boolean reserve(int max) {
+            int current;
+            do {
+                current = size.get();
+                if (current >= max) {
+                    return false;
+                }
+            } while (!size.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+
+    /**
+     * A started session and its use so far
+     */
+    private static final class PooledSession {
+        final Partition partition;
+        final RatDriver driver;
+        int uses;
+        long idleSince;
+
+        PooledSession(Partition partition, RatDriver driver) {
+            this.partition = partition;
+            this.driver = driver;
+            this.idleSince = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.liberator.ratdriver.sessions;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.liberator.ratdriver.control.DriverServiceRegistry;
+import org.liberator.ratdriver.logging.RatLog;
+import org.liberator.ratdriver.performance.RatProcessMemory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of the live sessions of a JVM so that their browsers are never left running.
+ * <p>
+ * Browsers are quit on a pool of background threads, and each is given QuitTimeoutMillis to quit. A browser that
+ * fails to quit in time, or cannot be quit at all, has its process tree killed: the processes started with the
+ * session's profile or user data directory, and everything they started.
+ * <p>
+ * A session that is never quit is quit once it has been garbage collected, and every session still live when the
+ * JVM shuts down is quit, all in parallel, before the shared driver services are stopped.
+ */
+@SuppressWarnings("unused")
+public final class RatSessionRegistry {
+
+    /**
+     * How long a browser is given to quit before its processes are killed, ten seconds by default
+     */
+    @Getter
+    @Setter
+    public volatile long QuitTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+
+    private static RatSessionRegistry instance;
+
+    private final Map<Session, Boolean> live = new ConcurrentHashMap<>();
+    private final Cleaner cleaner;
+    private final ExecutorService quitters;
+
+    private final LongAdder quit = new LongAdder();
+    private final LongAdder killed = new LongAdder();
+    private final LongAdder reaped = new LongAdder();
+
+    /**
+     * Creates a registry. Only getInstance's registry quits sessions when the JVM shuts down.
+     */
+    public RatSessionRegistry() {
+        AtomicInteger threads = new AtomicInteger();
+        quitters = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ratdriver-quit-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner = Cleaner.create(runnable -> {
+            Thread thread = new Thread(runnable, "ratdriver-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return The registry shared by every session in this JVM, which quits the sessions still live at shutdown
+     */
+    public static synchronized RatSessionRegistry getInstance() {
+        if (instance == null) {
+            instance = new RatSessionRegistry();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::shutdown, "ratdriver-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Starts tracking a session
+     * @param owner The object that owns the browser, such as a RatDriver. The browser is quit if the owner is
+     *              garbage collected without quitting it.
+     * @param driver The started driver
+     * @param name The type of driver, for the log
+     * @param profileDirectory The profile or user data directory the browser was started with, used to find its
+     *                         processes if it will not quit, or null if it is not known
+     * @return The registration, which quits the browser
+     */
+    public Registration register(Object owner, WebDriver driver, String name, String profileDirectory) {
+        return register(owner, driver, name, profileDirectory, null, null);
+    }
+
+    /**
+     * Starts tracking a session, and tells the caller when it ends
+     * @param owner The object that owns the browser, such as a RatDriver. The browser is quit if the owner is
+     *              garbage collected without quitting it.
+     * @param driver The started driver
+     * @param name The type of driver, for the log
+     * @param profileDirectory The profile or user data directory the browser was started with, used to find its
+     *                         processes if it will not quit, or null if it is not known
+     * @param id The session's Id, passed to onClosed
+     * @param onClosed Called once with the Id when the session is quit, reaped or quit at shutdown, or null. Must not
+     *                 refer to the owner, or the owner will never be collected.
+     * @return The registration, which quits the browser
+     */
+    public Registration register(Object owner, WebDriver driver, String name, String profileDirectory,
+                                 UUID id, Consumer<UUID> onClosed) {
+        Session session = new Session(this, driver, name, profileDirectory, id, onClosed);
+        live.put(session, Boolean.TRUE);
+        return new Registration(session, cleaner.register(owner, session));
+    }
+
+    /**
+     * Quits a browser, killing its processes if it does not quit within a time
+     * @param driver The driver to quit
+     * @param name The type of driver, for the log
+     * @param profileDirectory The profile or user data directory the browser was started with, or null if not known
+     * @param timeoutMillis How long the browser is given to quit
+     * @throws WebDriverException if the browser did not quit cleanly, after its processes have been killed
+     */
+    public void quit(WebDriver driver, String name, String profileDirectory, long timeoutMillis) {
+        Future<?> quitting = quitters.submit(driver::quit);
+        try {
+            quitting.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            quit.increment();
+        } catch (TimeoutException ex) {
+            quitting.cancel(true);
+            kill(name, profileDirectory);
+            throw new WebDriverException("The " + name + " browser did not quit within " + timeoutMillis + " ms.");
+        } catch (ExecutionException ex) {
+            kill(name, profileDirectory);
+            throw new WebDriverException("The " + name + " browser could not be quit.", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            kill(name, profileDirectory);
+            throw new WebDriverException("Interrupted while quitting the " + name + " browser.", ex);
+        }
+    }
+
+    /**
+     * Quits every live session at once, giving each QuitTimeoutMillis
+     * @return The number of sessions that quit cleanly
+     */
+    public int quitAll() {
+        return quitAll(QuitTimeoutMillis);
+    }
+
+    /**
+     * Quits every live session at once
+     * @param timeoutMillis How long each browser is given to quit before its processes are killed
+     * @return The number of sessions that quit cleanly
+     */
+    public int quitAll(long timeoutMillis) {
+        List<CompletableFuture<Boolean>> quitting = new ArrayList<>();
+        for (Session session : live.keySet()) {
+            if (session.close()) {
+                quitting.add(CompletableFuture.supplyAsync(() -> session.quit(timeoutMillis), quitters));
+            }
+        }
+        int clean = 0;
+        for (CompletableFuture<Boolean> future : quitting) {
+            if (future.join()) {
+                clean++;
+            }
+        }
+        return clean;
+    }
+
+    /**
+     * @return The number of sessions being tracked
+     */
+    public int getLiveCount() {
+        return live.size();
+    }
+
+    /**
+     * @return The number of browsers that quit cleanly
+     */
+    public long getQuitCount() {
+        return quit.sum();
+    }
+
+    /**
+     * @return The number of browsers whose processes were killed because they did not quit
+     */
+    public long getKillCount() {
+        return killed.sum();
+    }
+
+    /**
+     * @return The number of sessions quit because they were garbage collected without being quit
+     */
+    public long getReapedCount() {
+        return reaped.sum();
+    }
+
+    private void shutdown() {
+        if (!live.isEmpty()) {
+            RatLog.human("Quitting %s sessions left running at shutdown.", live.size());
+            quitAll();
+        }
+        DriverServiceRegistry.getInstance().stopAll();
+    }
+
+    private void kill(String name, String profileDirectory) {
+        List<ProcessHandle> browsers = RatProcessMemory.browserProcesses(profileDirectory);
+        if (browsers.isEmpty()) {
+            RatLog.human("No processes were found for the %s browser, so it may still be running.", name);
+            return;
+        }
+        for (ProcessHandle browser : browsers) {
+            browser.descendants().forEach(ProcessHandle::destroyForcibly);
+            browser.destroyForcibly();
+        }
+        killed.increment();
+        RatLog.human("Killed the processes of the %s browser.", name);
+    }
+
+    /**
+     * A live session's browser. Holds nothing that refers back to its owner, so that the owner can be collected.
+     */
+    private static final class Session implements Runnable {
+        final RatSessionRegistry registry;
+        final AtomicBoolean closed = new AtomicBoolean();
+        final String name;
+        final UUID id;
+        final Consumer<UUID> onClosed;
+        volatile WebDriver driver;
+        volatile String profileDirectory;
+
+        Session(RatSessionRegistry registry, WebDriver driver, String name, String profileDirectory,
+                UUID id, Consumer<UUID> onClosed) {
+            this.registry = registry;
+            this.driver = driver;
+            this.name = name;
+            this.profileDirectory = profileDirectory;
+            this.id = id;
+            this.onClosed = onClosed;
+        }
+
+        /**
+         * Marks the session as ended and tells its owner's hook, the first time only
+         * @return Whether this call ended the session
+         */
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            if (onClosed != null) {
+                try {
+                    onClosed.accept(id);
+                } catch (RuntimeException ex) {
+                    RatLog.human("The end of a %s session could not be recorded: %s", name, ex.getMessage());
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Quits the browser of an owner that was collected without quitting it. Runs on the cleaner's thread.
+         */
+        @Override
+        public void run() {
+            if (close()) {
+                registry.reaped.increment();
+                RatLog.human("A %s session was never quit, so its browser will be quit now.", name);
+                registry.quitters.execute(() -> quit(registry.QuitTimeoutMillis));
+            }
+        }
+
+        boolean quit(long timeoutMillis) {
+            try {
+                registry.quit(driver, name, profileDirectory, timeoutMillis);
+                return true;
+            } catch (WebDriverException ex) {
+                RatLog.human("%s", ex.getMessage());
+                return false;
+            } finally {
+                registry.live.remove(this);
+            }
+        }
+    }
+
+    /**
+     * A tracked session, held by the session's owner
+     */
+    public static final class Registration {
+        private final Session session;
+        private final Cleaner.Cleanable cleanable;
+
+        private Registration(Session session, Cleaner.Cleanable cleanable) {
+            this.session = session;
+            this.cleanable = cleanable;
+        }
+
+        /**
+         * Tracks a replacement browser in place of the session's current one, which the caller quits
+         * @param driver The replacement driver
+         * @param profileDirectory The profile or user data directory of the replacement, or null if not known
+         */
+        public void update(WebDriver driver, String profileDirectory) {
+            session.driver = driver;
+            session.profileDirectory = profileDirectory;
+        }
+
+        /**
+         * @return Whether the browser has not yet been quit
+         */
+        public boolean isLive() {
+            return !session.closed.get();
+        }
+
+        /**
+         * Quits the browser, giving it the registry's QuitTimeoutMillis before its processes are killed, and stops
+         * tracking it. Does nothing if the browser has already been quit.
+         * @throws WebDriverException if the browser did not quit cleanly, after its processes have been killed
+         */
+        public void quit() {
+            if (!session.close()) {
+                return;
+            }
+            cleanable.clean();
+            try {
+                session.registry.quit(session.driver, session.name, session.profileDirectory, session.registry.QuitTimeoutMillis);
+            } finally {
+                session.registry.live.remove(session);
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.sun.javafx.PlatformUtil;
 import org.liberator.ratdriver.enums.ConsoleDebugLevel;
 import org.openqa.selenium.Proxy;
 
+import java.nio.file.Paths;
+
 /**
  * Base settings for RAT Driver
  */
@@ -119,6 +121,11 @@ public class BaseSettings {
      */
     public static String SafariDriverLocation;
 
+    /**
+     * Location of the index of verified driver executables. Defaults to .ratdriver/drivers.index in the user's home.
+     */
+    public static String DriverIndexLocation = Paths.get(System.getProperty("user.home"), ".ratdriver", "drivers.index").toString();
+
     /**
      * Location of the Chrome application
      */
@@ -23,6 +23,12 @@ public class ChromeSettings extends BaseSettings {
      */
     public static String LeaveBrowserRunning;
 
+    /**
+     * Gets or sets a value indicating whether the browser runs headless, with a curated set of low-overhead launch
+     * flags, so that no display is needed. Defaults to false.
+     */
+    public static Boolean Headless = false;
+
     /**
      * Gets or sets the directory in which to store minidump files.
      */
@@ -68,6 +74,16 @@ public class ChromeSettings extends BaseSettings {
      */
     public static String UserProfilePreferences = null;
 
+    /**
+     * Gets or sets a user data directory for Chrome to run on directly, for example to warm one up to capture as a template.
+     */
+    public static String UserDataDirectory = null;
+
+    /**
+     * Gets or sets a user data directory captured by ChromeUserDataTemplates. Each session is started on its own clone of it.
+     */
+    public static String UserDataTemplate = null;
+
     /**
      * Gets or sets the port on which the Android Debug Bridge is listening for commands.
      */
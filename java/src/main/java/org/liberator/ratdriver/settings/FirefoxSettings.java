@@ -26,6 +26,18 @@ public class FirefoxSettings extends BaseSettings {
      */
     public static Boolean CleanProfile;
 
+    /**
+     * Gets or sets a value indicating whether profiles are built once and cloned for each session,
+     * rather than being written out and sent to the driver on every launch. Set to true by default.
+     */
+    public static Boolean UseProfileTemplates;
+
+    /**
+     * Gets or sets a value indicating whether the browser runs headless, with a curated set of low-overhead launch
+     * flags, so that no display is needed. Defaults to false.
+     */
+    public static Boolean Headless;
+
     /**
      * Gets or sets a value indicating whether to use the legacy driver implementation.
      */
@@ -114,6 +126,8 @@ public class FirefoxSettings extends BaseSettings {
         LogLevel = FirefoxDriverLogLevel.INFO;
         ProfileDirectory = null;
         CleanProfile = null;
+        UseProfileTemplates = true;
+        Headless = false;
         UseLegacyImplementation = true;
 
         AcceptUntrustedCertificates = true;
@@ -17,6 +17,7 @@ public class OperaSettings extends BaseSettings {
         UnhandledPromptBehaviour = DISMISS.toString();
 
         LeaveBrowserRunning = true;
+        Headless = false;
         AndroidDebugBridgePort = -1;
         EnableVerboseLogging = false;
         HideCommandPromptWindow = true;
@@ -34,6 +35,12 @@ public class OperaSettings extends BaseSettings {
      */
     public static Boolean LeaveBrowserRunning;
 
+    /**
+     * Gets or sets a value indicating whether the browser runs headless, with a curated set of low-overhead launch
+     * flags, so that no display is needed. Defaults to false.
+     */
+    public static Boolean Headless;
+
     /**
      * Gets or sets the directory in which to store minidump files.
      */
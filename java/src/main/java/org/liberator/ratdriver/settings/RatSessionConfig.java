@@ -0,0 +1,119 @@
+package org.liberator.ratdriver.settings;
+
+import lombok.Getter;
+import org.liberator.ratdriver.preferences.BasePreferences;
+
+/**
+ * The settings one session was started with.
+ * <p>
+ * The settings classes hold a single static copy of each setting for the whole JVM, so two sessions started with
+ * different preferences would overwrite each other's timeouts. A session instead takes this snapshot when its driver
+ * is started and reads its waits and timeouts from it, so sessions with different preferences can run side by side.
+ */
+@SuppressWarnings("unused")
+public final class RatSessionConfig {
+
+    /**
+     * Standard timeout, in seconds
+     */
+    @Getter
+    private final Integer Timeout;
+
+    /**
+     * The length of time to sleep, in seconds
+     */
+    @Getter
+    private final Integer Sleep;
+
+    /**
+     * Implicit wait value for WebDriver, in seconds
+     */
+    @Getter
+    private final Integer ImplicitWait;
+
+    /**
+     * The amount of time to keep a hover active
+     */
+    @Getter
+    private final Integer MenuHoverTime;
+
+    /**
+     * Page Load wait time, in seconds
+     */
+    @Getter
+    private final Integer PageLoad;
+
+    /**
+     * Asynchronous JavaScript wait time, in seconds
+     */
+    @Getter
+    private final Integer AsyncJavaScript;
+
+    /**
+     * Whether to allow RatDriver to handle alerts
+     */
+    @Getter
+    private final Boolean AlertHandling;
+
+    /**
+     * Whether to use internal timers
+     */
+    @Getter
+    private final Boolean InternalTimers;
+
+    private RatSessionConfig(Integer timeout, Integer sleep, Integer implicitWait, Integer menuHoverTime,
+                             Integer pageLoad, Integer asyncJavaScript, Boolean alertHandling, Boolean internalTimers) {
+        Timeout = timeout;
+        Sleep = sleep;
+        ImplicitWait = implicitWait;
+        MenuHoverTime = menuHoverTime;
+        PageLoad = pageLoad;
+        AsyncJavaScript = asyncJavaScript;
+        AlertHandling = alertHandling;
+        InternalTimers = internalTimers;
+    }
+
+    /**
+     * Takes a snapshot of the static settings
+     * @return The current settings
+     */
+    public static RatSessionConfig fromSettings() {
+        return new RatSessionConfig(BaseSettings.Timeout, BaseSettings.Sleep, BaseSettings.ImplicitWait,
+                BaseSettings.MenuHoverTime, BaseSettings.PageLoad, BaseSettings.AsyncJavaScript,
+                BaseSettings.AlertHandling, BaseSettings.InternalTimers);
+    }
+
+    /**
+     * Takes a snapshot of a set of preferences. Preferences that are not set fall back to the static settings.
+     * @param preferences The preferences, or null for the static settings
+     * @return The settings
+     */
+    public static RatSessionConfig from(BasePreferences preferences) {
+        if (preferences == null) {
+            return fromSettings();
+        }
+        return new RatSessionConfig(
+                orElse(preferences.Timeout, BaseSettings.Timeout),
+                orElse(preferences.Sleep, BaseSettings.Sleep),
+                orElse(preferences.ImplicitWait, BaseSettings.ImplicitWait),
+                orElse(preferences.MenuHoverTime, BaseSettings.MenuHoverTime),
+                orElse(preferences.PageLoad, BaseSettings.PageLoad),
+                orElse(preferences.AsyncJavaScript, BaseSettings.AsyncJavaScript),
+                orElse(preferences.AlertHandling, BaseSettings.AlertHandling),
+                orElse(preferences.InternalTimers, BaseSettings.InternalTimers));
+    }
+
+    /**
+     * Creates a copy with a different standard timeout
+     * @param timeout The standard timeout, in seconds
+     * @return The new settings
+     */
+    public RatSessionConfig withTimeout(Integer timeout) {
+        return new RatSessionConfig(timeout, Sleep, ImplicitWait, MenuHoverTime, PageLoad, AsyncJavaScript,
+                AlertHandling, InternalTimers);
+    }
+
+    private static <T> T orElse(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,124 @@
+package org.liberator.ratdriver.benchmarks;
+
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.RatDriverFactory;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.preferences.BasePreferences;
+import org.liberator.ratdriver.preferences.ChromePreferences;
+import org.liberator.ratdriver.preferences.FirefoxPreferences;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time to start a session, and the memory held by the driver and browser processes once it has
+ * started, for headed and headless browsers.
+ * Run with: mvn -P benchmarks test-compile exec:exec
+ * The headed runs need a display, and the resident memory is read from /proc, so it is only reported on Linux.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeadlessStartupBenchmark {
+
+    @Param({"ChromeDriver", "FirefoxDriver"})
+    public DriverType browser;
+
+    @Param({"true", "false"})
+    public boolean headless;
+
+    private RatDriverFactory factory;
+    private RatDriver driver;
+
+    @Setup(Level.Trial)
+    public void createFactory() {
+        factory = new RatDriverFactory(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeFactory() {
+        factory.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void quitDriver() {
+        if (driver != null) {
+            driver.closePagesAndQuitDriver();
+            driver = null;
+        }
+    }
+
+    @Benchmark
+    public RatDriver startSession(Footprint footprint) {
+        driver = factory.create(browser, preferences());
+        footprint.residentKilobytes += residentKilobytes();
+        return driver;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HeadlessStartupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private BasePreferences preferences() {
+        if (browser == DriverType.FirefoxDriver) {
+            FirefoxPreferences preferences = new FirefoxPreferences();
+            preferences.Headless = headless;
+            return preferences;
+        }
+        ChromePreferences preferences = new ChromePreferences();
+        preferences.Headless = headless;
+        return preferences;
+    }
+
+    /**
+     * The resident memory of every process started by this JVM, such as the driver and the browser's processes
+     */
+    private static long residentKilobytes() {
+        return ProcessHandle.current().descendants()
+                .mapToLong(process -> residentKilobytes(Paths.get("/proc", String.valueOf(process.pid()), "status")))
+                .sum();
+    }
+
+    private static long residentKilobytes(Path status) {
+        try {
+            List<String> lines = Files.readAllLines(status);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // the process has exited, or this is not Linux
+        }
+        return 0;
+    }
+
+    /**
+     * Reports the resident memory of the driver and browser alongside each start time
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long residentKilobytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            residentKilobytes = 0;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.liberator.ratdriver.benchmarks;
+
+import org.javatuples.Pair;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.performance.RatWatch;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the recording overhead of the histogram backed RatWatch with the list backed recorder it replaced.
+ * Run with: mvn -P benchmarks test-compile exec:exec
+ * Add "-prof gc" to the JMH arguments to confirm that the histogram recorder allocates nothing per timing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RatWatchBenchmark {
+
+    private RatWatch ratWatch;
+    private LegacyRatWatch legacyRatWatch;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ratWatch = new RatWatch();
+        legacyRatWatch = new LegacyRatWatch();
+    }
+
+    @Benchmark
+    public void histogramRecorder() {
+        ratWatch.StartTimer();
+        ratWatch.StopTimer(Timing.ElementFindTime);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void histogramRecorderContended() {
+        ratWatch.StartTimer();
+        ratWatch.StopTimer(Timing.ElementFindTime);
+    }
+
+    @Benchmark
+    public void legacyRecorder() {
+        legacyRatWatch.StartTimer();
+        legacyRatWatch.StopTimer(Timing.ElementFindTime);
+    }
+
+    @Benchmark
+    public long clockOnly() {
+        return System.nanoTime() - System.nanoTime();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RatWatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * The recorder as it stood before the histogram rewrite: one timer and one tuple per measurement,
+     * appended to an unbounded list.
+     */
+    static class LegacyRatWatch {
+        final List<Pair<Timing, LegacyRatTimer>> Timings = new LinkedList<>();
+        LegacyRatTimer CurrentTimer;
+
+        void StartTimer() {
+            CurrentTimer = new LegacyRatTimer();
+            CurrentTimer.Start();
+        }
+
+        void StopTimer(Timing timerType) {
+            CurrentTimer.Stop();
+            Timings.add(new Pair<>(timerType, CurrentTimer));
+        }
+    }
+
+    static class LegacyRatTimer {
+        Instant startTime = Instant.now();
+        Instant endTime = Instant.now();
+        long duration = -1;
+
+        void Start() {
+            startTime = Instant.now();
+            endTime = Instant.now();
+            duration = 0;
+        }
+
+        void Stop() {
+            endTime = Instant.now();
+            duration = endTime.toEpochMilli() - startTime.toEpochMilli();
+        }
+    }
+}
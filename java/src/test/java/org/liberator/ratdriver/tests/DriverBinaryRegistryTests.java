@@ -0,0 +1,103 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.liberator.ratdriver.RatDriverFactory;
+import org.liberator.ratdriver.control.DriverBinaryRegistry;
+import org.liberator.ratdriver.entities.DriverBinary;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.profiles.ProfileCloner;
+import org.liberator.ratdriver.settings.FirefoxSettings;
+import org.openqa.selenium.SessionNotCreatedException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+public class DriverBinaryRegistryTests {
+
+    private Path directory;
+    private Path index;
+
+    @Before
+    public void createDirectory() throws Exception {
+        Assume.assumeFalse(System.getProperty("os.name").startsWith("Windows"));
+        directory = Files.createTempDirectory("ratdriver-binaries");
+        index = directory.resolve("drivers.index");
+    }
+
+    @After
+    public void deleteDirectory() {
+        ProfileCloner.delete(directory);
+    }
+
+    /**
+     * Writes a script that prints a version, standing in for a driver executable
+     */
+    private Path driver(String name, String version) throws Exception {
+        Path executable = directory.resolve(name);
+        Files.write(executable, ("#!/bin/sh\necho '" + version + "'\n").getBytes(StandardCharsets.UTF_8));
+        executable.toFile().setExecutable(true);
+        return executable;
+    }
+
+    @Test
+    public void testDriversAreVerifiedOnceAcrossRegistries() throws Exception {
+        Path chromedriver = driver("chromedriver", "ChromeDriver 99.0.4844.51");
+
+        DriverBinaryRegistry first = new DriverBinaryRegistry(index);
+        DriverBinary binary = first.resolve(DriverType.ChromeDriver, chromedriver.toString());
+        first.resolve(DriverType.ChromeDriver, chromedriver.toString());
+        Assert.assertEquals(1, first.getProbeCount());
+        Assert.assertEquals("ChromeDriver 99.0.4844.51", binary.getVersion());
+        Assert.assertEquals(64, binary.getSha256().length());
+
+        DriverBinaryRegistry second = new DriverBinaryRegistry(index);
+        Assert.assertEquals(binary.getSha256(), second.resolve(DriverType.ChromeDriver, chromedriver.toString()).getSha256());
+        Assert.assertEquals(0, second.getProbeCount());
+    }
+
+    @Test
+    public void testChangedDriversAreVerifiedAgain() throws Exception {
+        Path chromedriver = driver("chromedriver", "ChromeDriver 99.0.4844.51");
+        DriverBinaryRegistry registry = new DriverBinaryRegistry(index);
+        registry.resolve(DriverType.ChromeDriver, chromedriver.toString());
+
+        driver("chromedriver", "ChromeDriver 100.0.4896.60");
+        Files.setLastModifiedTime(chromedriver, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        Assert.assertEquals("ChromeDriver 100.0.4896.60", registry.resolve(DriverType.ChromeDriver, chromedriver.toString()).getVersion());
+        Assert.assertEquals(2, registry.getProbeCount());
+    }
+
+    @Test(expected = SessionNotCreatedException.class)
+    public void testTheWrongDriverFailsFast() throws Exception {
+        Path geckodriver = driver("chromedriver", "geckodriver 0.30.0");
+        new DriverBinaryRegistry(index).resolve(DriverType.ChromeDriver, geckodriver.toString());
+    }
+
+    @Test(expected = SessionNotCreatedException.class)
+    public void testMissingDriversFailFast() {
+        new DriverBinaryRegistry(index).resolve(DriverType.OperaDriver, directory.resolve("missing").toString()
+                + "/operadriver-that-is-not-on-the-path");
+    }
+
+    @Test
+    public void testMissingFirefoxDriversAreReportedToTheFactory() {
+        String location = FirefoxSettings.FirefoxDriverLocation;
+        FirefoxSettings.FirefoxDriverLocation = directory.resolve("geckodriver").toString();
+        try (RatDriverFactory factory = new RatDriverFactory(1)) {
+            factory.create(DriverType.FirefoxDriver, null);
+            Assert.fail("The launch should have failed");
+        } catch (SessionNotCreatedException ex) {
+            Assert.assertTrue(ex.getCause() instanceof SessionNotCreatedException);
+            Assert.assertTrue(ex.getCause().getMessage().contains("geckodriver"));
+        } finally {
+            FirefoxSettings.FirefoxDriverLocation = location;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.liberator.ratdriver.tests;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.liberator.ratdriver.control.DriverServiceRegistry;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DriverServiceRegistryTests {
+
+    private HttpServer server;
+    private final List<FakeService> services = new ArrayList<>();
+
+    /**
+     * A driver service that starts no process, and whose sessions are created by a local HTTP server
+     */
+    private class FakeService extends DriverService {
+        private boolean running;
+        private int starts;
+        private int stops;
+
+        FakeService(int port) throws IOException {
+            super(new File("fake-driver"), port, ImmutableList.of(), ImmutableMap.of());
+            services.add(this);
+        }
+
+        @Override
+        public URL getUrl() {
+            try {
+                return new URL("http://127.0.0.1:" + server.getAddress().getPort());
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public void start() {
+            running = true;
+            starts++;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+            stops++;
+        }
+    }
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::reply);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void reply(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            while (in.read() >= 0) {
+                // the request is not needed
+            }
+        }
+        String value = exchange.getRequestMethod().equals("POST")
+                ? "{\"sessionId\":\"" + UUID.randomUUID() + "\",\"capabilities\":{\"browserName\":\"chrome\"}}"
+                : "null";
+        byte[] body = ("{\"value\":" + value + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    public void testConcurrentlyAllocatedPortsNeverCollide() throws InterruptedException, ExecutionException {
+        DriverServiceRegistry registry = DriverServiceRegistry.getInstance();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(registry::allocatePort));
+            }
+            Set<Integer> ports = ConcurrentHashMap.newKeySet();
+            for (Future<Integer> future : futures) {
+                Assert.assertTrue(ports.add(future.get()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnknownServicesHaveNoSessions() {
+        Assert.assertEquals(0, DriverServiceRegistry.getInstance().getSessionCount("not-started"));
+    }
+
+    @Test
+    public void testServicesAreSharedUntilTheLastSessionQuits() {
+        DriverServiceRegistry registry = DriverServiceRegistry.getInstance();
+        String key = "fake-" + UUID.randomUUID();
+        AtomicInteger quits = new AtomicInteger();
+
+        RemoteWebDriver first = registry.startSession(key, 0, FakeService::new, new DesiredCapabilities(), quits::incrementAndGet);
+        RemoteWebDriver second = registry.startSession(key, 0, FakeService::new, new DesiredCapabilities(), quits::incrementAndGet);
+        Assert.assertEquals(1, services.size());
+        Assert.assertEquals(1, services.get(0).starts);
+        Assert.assertEquals(2, registry.getSessionCount(key));
+
+        first.quit();
+        first.quit();
+        Assert.assertEquals(1, registry.getSessionCount(key));
+        Assert.assertEquals(0, services.get(0).stops);
+        Assert.assertEquals(1, quits.get());
+
+        second.quit();
+        Assert.assertEquals(0, registry.getSessionCount(key));
+        Assert.assertEquals(1, services.get(0).stops);
+        Assert.assertEquals(2, quits.get());
+    }
+
+    @Test
+    public void testSessionsOfARestartedServiceDoNotReleaseTheNewOne() {
+        DriverServiceRegistry registry = DriverServiceRegistry.getInstance();
+        String key = "fake-" + UUID.randomUUID();
+
+        RemoteWebDriver stale = registry.startSession(key, 0, FakeService::new, new DesiredCapabilities());
+        services.get(0).running = false;
+        RemoteWebDriver current = registry.startSession(key, 0, FakeService::new, new DesiredCapabilities());
+        Assert.assertEquals(2, services.size());
+        Assert.assertTrue(services.get(1).isRunning());
+        Assert.assertEquals(1, registry.getSessionCount(key));
+
+        stale.quit();
+        Assert.assertEquals(1, registry.getSessionCount(key));
+        Assert.assertTrue(services.get(1).isRunning());
+
+        current.quit();
+        Assert.assertEquals(0, registry.getSessionCount(key));
+        Assert.assertFalse(services.get(1).isRunning());
+    }
+}
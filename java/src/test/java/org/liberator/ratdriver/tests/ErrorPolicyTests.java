@@ -0,0 +1,137 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.enums.ErrorAction;
+import org.liberator.ratdriver.errors.ErrorPolicy;
+import org.liberator.ratdriver.errors.ErrorRule;
+import org.liberator.ratdriver.errors.FailureArtifacts;
+import org.openqa.selenium.NoSuchCookieException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ErrorPolicyTests {
+
+    private Path directory;
+
+    @After
+    public void deleteArtifacts() throws IOException {
+        if (directory != null) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRulesAreFoundThroughTheClassHierarchy(){
+        ErrorPolicy policy = ErrorPolicy.defaults();
+        Assert.assertEquals(ErrorAction.LogAndContinue, policy.ruleFor(NoSuchCookieException.class).getAction());
+        Assert.assertEquals(ErrorAction.Retry, policy.ruleFor(StaleElementReferenceException.class).getAction());
+        Assert.assertEquals(ErrorAction.Quit, policy.ruleFor(NoSuchSessionException.class).getAction());
+        Assert.assertEquals(ErrorAction.Quit, policy.ruleFor(WebDriverException.class).getAction());
+        Assert.assertEquals(ErrorAction.Quit, policy.ruleFor(IllegalStateException.class).getAction());
+
+        policy.otherwise(ErrorRule.logAndContinue());
+        Assert.assertEquals(ErrorAction.LogAndContinue, policy.ruleFor(IllegalStateException.class).getAction());
+    }
+
+    @Test
+    public void testHandledErrorsAreRetried(){
+        ErrorPolicy policy = new ErrorPolicy().on(StaleElementReferenceException.class, ErrorRule.retry(3, 1));
+        AtomicInteger calls = new AtomicInteger();
+        String result = policy.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                ErrorHandler.HandleErrors(null, new StaleElementReferenceException("stale"), "ErrorPolicyTests", "testHandledErrorsAreRetried", "Stale element.");
+                return null;
+            }
+            return "found";
+        });
+        Assert.assertEquals("found", result);
+        Assert.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testThrownErrorsAreRetriedThenRethrown(){
+        ErrorPolicy policy = new ErrorPolicy().on(TimeoutException.class, ErrorRule.retry(2, 1));
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            policy.execute(() -> {
+                calls.incrementAndGet();
+                throw new TimeoutException("timed out");
+            });
+            Assert.fail("The exception should have been rethrown");
+        } catch (TimeoutException ex) {
+            Assert.assertEquals(3, calls.get());
+        }
+        Assert.assertEquals(400, ErrorRule.retry(5, 100).backoffMillis(3));
+        Assert.assertEquals(1000, ErrorRule.retry(5, 100).backoffMillis(9));
+    }
+
+    @Test
+    public void testFailureArtifactsAreWrittenInTheBackground() throws IOException, InterruptedException, ExecutionException {
+        WebDriver driver = new FakeDriver()
+                .on("getScreenshotAs", args -> Base64.getEncoder().encodeToString(new byte[]{(byte) 0x89, 'P', 'N', 'G'}))
+                .on("getCurrentUrl", args -> "https://example.com/")
+                .on("getPageSource", args -> "<html></html>")
+                .on("manage", args -> {
+                    throw new UnsupportedCommandException("logs");
+                })
+                .driver(TakesScreenshot.class);
+        directory = Files.createTempDirectory("artifacts");
+        Path failure;
+        try (FailureArtifacts artifacts = new FailureArtifacts(directory)) {
+            failure = artifacts.capture(driver, new NoSuchElementException("gone"), "RatDriver", "clickLink").get();
+        }
+        Assert.assertEquals(4, Files.readAllBytes(failure.resolve("screenshot.png")).length);
+        Assert.assertTrue(Files.exists(failure.resolve("page-source.html.gz")));
+        Assert.assertTrue(new String(Files.readAllBytes(failure.resolve("failure.txt"))).contains("Url: https://example.com/"));
+        Assert.assertFalse(Files.exists(failure.resolve("console.log.gz")));
+    }
+
+    @Test
+    public void testFailureArtifactsAreSkippedWhenTheSessionHasEnded() throws IOException, InterruptedException, ExecutionException {
+        AtomicInteger calls = new AtomicInteger();
+        FakeDriver.Answer ended = args -> {
+            calls.incrementAndGet();
+            throw new NoSuchSessionException("Session ID is null. Using WebDriver after calling quit()?");
+        };
+        WebDriver driver = new FakeDriver()
+                .on("getScreenshotAs", ended)
+                .on("getCurrentUrl", ended)
+                .on("getPageSource", ended)
+                .on("manage", ended)
+                .driver(TakesScreenshot.class);
+        directory = Files.createTempDirectory("artifacts");
+        try (FailureArtifacts artifacts = new FailureArtifacts(directory)) {
+            Assert.assertNull(artifacts.capture(driver, new NoSuchSessionException("gone"), "RatDriver", "clickLink").get());
+            Assert.assertEquals(0, calls.get());
+            Assert.assertNull(artifacts.capture(driver, new NoSuchElementException("gone"), "RatDriver", "clickLink").get());
+            Assert.assertEquals(1, calls.get());
+            Assert.assertEquals(2, artifacts.getSkippedCount());
+        }
+        try (Stream<Path> failures = Files.list(directory)) {
+            Assert.assertEquals(0, failures.count());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.liberator.ratdriver.tests;
+
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A driver that accepts every command without starting a browser. It has one window, titled "", and counts the times
+ * it is quit. Tests answer other commands by their method name with on, and these answers also apply to the objects
+ * the driver returns, such as its navigation. Commands without an answer return null, or a fake of the Selenium
+ * interface they return.
+ */
+public class FakeDriver {
+
+    /**
+     * Answers a command
+     */
+    public interface Answer {
+        Object answer(Object[] args) throws Throwable;
+    }
+
+    private final Map<String, Answer> answers = new ConcurrentHashMap<>();
+    private final AtomicInteger quits = new AtomicInteger();
+
+    public FakeDriver() {
+        on("getWindowHandle", args -> "main");
+        on("getWindowHandles", args -> new HashSet<>(Collections.singleton("main")));
+        on("getTitle", args -> "");
+        on("quit", args -> {
+            quits.incrementAndGet();
+            return null;
+        });
+    }
+
+    /**
+     * Answers a command, replacing any earlier answer
+     * @param method The name of the command's method
+     * @param answer The answer
+     * @return This fake
+     */
+    public FakeDriver on(String method, Answer answer) {
+        answers.put(method, answer);
+        return this;
+    }
+
+    /**
+     * @param types Further interfaces the driver implements, such as TakesScreenshot
+     * @return A driver answering as this fake does
+     */
+    public WebDriver driver(Class<?>... types) {
+        Class<?>[] interfaces = Arrays.copyOf(types, types.length + 1);
+        interfaces[types.length] = WebDriver.class;
+        return (WebDriver) fake(interfaces);
+    }
+
+    /**
+     * @param type A Selenium interface, such as WebElement
+     * @param <T> The interface
+     * @return An object answering as this fake does
+     */
+    public <T> T fake(Class<T> type) {
+        return type.cast(fake(new Class<?>[]{type}));
+    }
+
+    /**
+     * @return The number of times the driver has been quit
+     */
+    public int getQuitCount() {
+        return quits.get();
+    }
+
+    private Object fake(Class<?>[] types) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), types, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "FakeDriver";
+                default:
+                    Answer answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.answer(args);
+                    }
+                    Class<?> returned = method.getReturnType();
+                    return returned.isInterface() && returned.getName().startsWith("org.openqa") ? fake(new Class<?>[]{returned}) : null;
+            }
+        });
+    }
+}
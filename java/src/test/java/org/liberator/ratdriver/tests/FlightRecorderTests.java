@@ -0,0 +1,104 @@
+package org.liberator.ratdriver.tests;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.IRatDriver;
+import org.liberator.ratdriver.InstrumentedRatDriver;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.performance.RatCommandEvent;
+import org.liberator.ratdriver.performance.RatNavigationEvent;
+import org.liberator.ratdriver.performance.RatScreenshotEvent;
+import org.liberator.ratdriver.performance.RatWaitEvent;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FlightRecorderTests {
+
+    private String url = "about:blank";
+
+    /**
+     * A driver that remembers the page it was sent to, and whose screenshots are one kilobyte
+     */
+    private WebDriver driver() {
+        FakeDriver fake = new FakeDriver()
+                .on("getCurrentUrl", args -> url)
+                .on("to", args -> {
+                    url = args[0].toString();
+                    return null;
+                })
+                .on("getScreenshotAs", args -> {
+                    Path screenshot = Files.createTempFile("ratdriver-screenshot", ".png");
+                    Files.write(screenshot, new byte[1024]);
+                    return screenshot.toFile();
+                });
+        return fake.driver(TakesScreenshot.class);
+    }
+
+    private static List<RecordedEvent> events(Path file, String name) throws Exception {
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSessionsEmitFlightRecorderEvents() throws Exception {
+        WebDriver webDriver = driver();
+        RatDriver session = new RatDriver(webDriver, DriverType.ChromeDriver, false);
+        session.setDriver(webDriver);
+        IRatDriver driver = InstrumentedRatDriver.instrument(session);
+        Path screenshot = Files.createTempFile("ratdriver-screenshot", ".png");
+        Path file = Files.createTempFile("ratdriver", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(RatCommandEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(RatNavigationEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(RatWaitEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(RatScreenshotEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+
+            driver.navigateToPage("https://example.com/");
+            driver.waitForUrlToContain("example.com");
+            driver.takeScreenshot(screenshot.toString());
+
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> navigations = events(file, "org.liberator.ratdriver.Navigation");
+            Assert.assertEquals(1, navigations.size());
+            Assert.assertEquals("navigate", navigations.get(0).getString("action"));
+            Assert.assertEquals("https://example.com/", navigations.get(0).getString("url"));
+            Assert.assertEquals("ChromeDriver", navigations.get(0).getString("driverName"));
+
+            List<RecordedEvent> waits = events(file, "org.liberator.ratdriver.Wait");
+            Assert.assertEquals(1, waits.size());
+            Assert.assertEquals("waitForUrlToContain", waits.get(0).getString("waitName"));
+            Assert.assertTrue(waits.get(0).getBoolean("satisfied"));
+            Assert.assertEquals(1, waits.get(0).getInt("polls"));
+
+            List<RecordedEvent> screenshots = events(file, "org.liberator.ratdriver.Screenshot");
+            Assert.assertEquals(1, screenshots.size());
+            Assert.assertEquals(screenshot.toString(), screenshots.get(0).getString("path"));
+            Assert.assertEquals(1024, screenshots.get(0).getLong("size"));
+
+            List<String> commands = events(file, "org.liberator.ratdriver.Command").stream()
+                    .map(event -> event.getString("command"))
+                    .collect(Collectors.toList());
+            Assert.assertTrue(commands.contains("navigateToPage(String)"));
+            Assert.assertTrue(commands.contains("waitForUrlToContain(String)"));
+            Assert.assertTrue(commands.contains("takeScreenshot(String)"));
+        } finally {
+            Files.deleteIfExists(screenshot);
+            Files.deleteIfExists(file);
+        }
+    }
+}
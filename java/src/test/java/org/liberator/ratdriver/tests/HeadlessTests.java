@@ -0,0 +1,111 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.control.ChromeControl;
+import org.liberator.ratdriver.control.FirefoxControl;
+import org.liberator.ratdriver.control.OperaControl;
+import org.liberator.ratdriver.preferences.ChromePreferences;
+import org.liberator.ratdriver.preferences.FirefoxPreferences;
+import org.liberator.ratdriver.preferences.OperaPreferences;
+import org.liberator.ratdriver.settings.ChromeSettings;
+import org.liberator.ratdriver.settings.FirefoxSettings;
+import org.liberator.ratdriver.settings.OperaSettings;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.opera.OperaOptions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class HeadlessTests {
+
+    private final Boolean chromeHeadless = ChromeSettings.Headless;
+    private final String chromeExtensions = ChromeSettings.ExtensionsList;
+    private final Boolean operaHeadless = OperaSettings.Headless;
+    private final Boolean firefoxHeadless = FirefoxSettings.Headless;
+
+    @After
+    public void restoreSettings() {
+        ChromeSettings.Headless = chromeHeadless;
+        ChromeSettings.ExtensionsList = chromeExtensions;
+        OperaSettings.Headless = operaHeadless;
+        FirefoxSettings.Headless = firefoxHeadless;
+    }
+
+    /**
+     * Reads a browser's own options from its capabilities
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> browserOptions(Capabilities options, String capability) {
+        return (Map<String, Object>) options.asMap().get(capability);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> arguments(Capabilities options, String capability) {
+        return (List<String>) browserOptions(options, capability).get("args");
+    }
+
+    @Test
+    public void testChromeRunsHeadlessInAFullSizeWindow() {
+        ChromePreferences preferences = new ChromePreferences();
+        preferences.Headless = true;
+        List<String> arguments = arguments(new ChromeControl(preferences).buildOptions(), ChromeOptions.CAPABILITY);
+
+        Assert.assertTrue(arguments.contains("--headless"));
+        Assert.assertTrue(arguments.contains("--window-size=1920,1080"));
+        Assert.assertTrue(arguments.contains("--disable-extensions"));
+    }
+
+    @Test
+    public void testChromeKeepsItsExtensionsWhenHeadless() {
+        ChromePreferences preferences = new ChromePreferences();
+        preferences.Headless = true;
+        preferences.ExtensionsList = "first.crx,second.crx";
+        ChromeOptions options = new ChromeControl(preferences).buildOptions();
+        List<String> arguments = arguments(options, ChromeOptions.CAPABILITY);
+
+        Assert.assertTrue(arguments.contains("--headless"));
+        Assert.assertFalse(arguments.contains("--disable-extensions"));
+        Assert.assertEquals(Arrays.asList("first.crx", "second.crx"), Arrays.asList((String[]) options.getCapability("extensions")));
+    }
+
+    @Test
+    public void testChromeIsNotHeadlessByDefault() {
+        List<String> arguments = arguments(new ChromeControl(new ChromePreferences()).buildOptions(), ChromeOptions.CAPABILITY);
+
+        Assert.assertFalse(arguments.contains("--headless"));
+    }
+
+    @Test
+    public void testOperaRunsHeadlessInAFullSizeWindow() {
+        OperaPreferences preferences = new OperaPreferences();
+        preferences.Headless = true;
+        List<String> arguments = arguments(new OperaControl(preferences).buildOptions(), OperaOptions.CAPABILITY);
+
+        Assert.assertTrue(arguments.contains("--headless"));
+        Assert.assertTrue(arguments.contains("--window-size=1920,1080"));
+    }
+
+    @Test
+    public void testFirefoxRunsHeadlessWithItsPreferences() {
+        FirefoxPreferences preferences = new FirefoxPreferences();
+        preferences.Headless = true;
+        FirefoxOptions options = new FirefoxControl(preferences).buildOptions();
+        Map<String, Object> firefoxOptions = browserOptions(options, FirefoxOptions.FIREFOX_OPTIONS);
+        @SuppressWarnings("unchecked")
+        List<String> arguments = (List<String>) firefoxOptions.get("args");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> firefoxPreferences = (Map<String, Object>) firefoxOptions.get("prefs");
+
+        Assert.assertTrue(arguments.contains("-headless"));
+        Assert.assertTrue(arguments.contains("--width=1920"));
+        Assert.assertTrue(arguments.contains("--height=1080"));
+        Assert.assertEquals(true, firefoxPreferences.get("layers.acceleration.disabled"));
+        Assert.assertEquals(2, firefoxPreferences.get("dom.ipc.processCount"));
+        Assert.assertEquals(false, firefoxPreferences.get("toolkit.telemetry.enabled"));
+    }
+}
@@ -0,0 +1,128 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.IRatDriver;
+import org.liberator.ratdriver.InstrumentedRatDriver;
+import org.liberator.ratdriver.enums.CommandOutcome;
+import org.liberator.ratdriver.errors.ErrorPolicy;
+import org.liberator.ratdriver.errors.ErrorRule;
+import org.liberator.ratdriver.performance.RatCommandMetrics;
+import org.liberator.ratdriver.performance.RatCommandStats;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.NoSuchCookieException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InstrumentedRatDriverTests {
+
+    /**
+     * A session whose cookies named "missing" cannot be set. Like RatDriver, it hands the failure to the ErrorHandler
+     * rather than throwing it.
+     */
+    private IRatDriver session() {
+        FakeDriver fake = new FakeDriver();
+        WebDriver browser = fake.driver();
+        return fake.on("getCookies", args -> new HashSet<>())
+                .on("addCookie", args -> {
+                    if ("missing".equals(args[0])) {
+                        ErrorHandler.HandleErrors(browser, new NoSuchCookieException("missing"), "RatDriver",
+                                "addCookie", "Unable to set the cookie.");
+                    }
+                    return null;
+                })
+                .fake(IRatDriver.class);
+    }
+
+    private static RatCommandStats command(RatCommandMetrics metrics, String signature) {
+        for (RatCommandStats stats : metrics.getCommands()) {
+            if (stats.getName().equals(signature)) {
+                return stats;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testOverloadsAreRecordedSeparately() {
+        IRatDriver driver = InstrumentedRatDriver.instrument(session());
+        driver.addCookie("name", "value");
+        driver.addCookie("name", "value");
+        driver.addCookie(new Cookie("name", "value"));
+
+        RatCommandMetrics metrics = InstrumentedRatDriver.metricsOf(driver);
+        Assert.assertEquals(2, command(metrics, "addCookie(String,String)").getCalls());
+        Assert.assertEquals(1, command(metrics, "addCookie(Cookie)").getCalls());
+        Assert.assertNull(command(metrics, "addCookie"));
+    }
+
+    @Test
+    public void testHandledErrorsAreRecordedAsTheirOutcome() {
+        IRatDriver driver = InstrumentedRatDriver.instrument(session());
+        driver.addCookie("missing", "value");
+        driver.getCookies();
+
+        RatCommandMetrics metrics = InstrumentedRatDriver.metricsOf(driver);
+        Assert.assertEquals(1, command(metrics, "addCookie(String,String)").getCount(CommandOutcome.HandledError));
+        Assert.assertEquals(1, command(metrics, "getCookies()").getCount(CommandOutcome.Success));
+        Assert.assertEquals(Collections.emptySet(), driver.getCookies());
+    }
+
+    @Test
+    public void testInstrumentedDriversCanBeUnwrapped() {
+        IRatDriver session = session();
+        IRatDriver driver = InstrumentedRatDriver.instrument(session);
+        Assert.assertSame(session, InstrumentedRatDriver.unwrap(driver));
+        Assert.assertSame(session, InstrumentedRatDriver.unwrap(session));
+        Assert.assertNull(InstrumentedRatDriver.metricsOf(session));
+    }
+
+    @Test
+    public void testOnlyLookupsByLocatorAreRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        FakeDriver.Answer stale = args -> {
+            calls.incrementAndGet();
+            throw new StaleElementReferenceException("stale");
+        };
+        IRatDriver driver = InstrumentedRatDriver.instrument(new FakeDriver()
+                .on("getElementText", stale)
+                .on("sendValueToField", stale)
+                .fake(IRatDriver.class));
+        ErrorPolicy previous = ErrorHandler.getPolicy();
+        ErrorHandler.setPolicy(new ErrorPolicy().on(StaleElementReferenceException.class, ErrorRule.retry(2, 1)));
+        try {
+            try {
+                driver.getElementText(By.id("name"), false);
+                Assert.fail("The exception should have been rethrown");
+            } catch (StaleElementReferenceException ex) {
+                Assert.assertEquals(3, calls.getAndSet(0));
+            }
+            try {
+                driver.sendValueToField(By.id("name"), Keys.ENTER, false);
+                Assert.fail("The exception should have been rethrown");
+            } catch (StaleElementReferenceException ex) {
+                Assert.assertEquals(1, calls.getAndSet(0));
+            }
+            try {
+                driver.getElementText(new FakeDriver().fake(WebElement.class), false);
+                Assert.fail("The exception should have been rethrown");
+            } catch (StaleElementReferenceException ex) {
+                Assert.assertEquals(1, calls.getAndSet(0));
+            }
+        } finally {
+            ErrorHandler.setPolicy(previous);
+        }
+
+        RatCommandMetrics metrics = InstrumentedRatDriver.metricsOf(driver);
+        Assert.assertEquals(3, command(metrics, "getElementText(By,Boolean)").getCount(CommandOutcome.Exception));
+        Assert.assertEquals(1, command(metrics, "sendValueToField(By,Keys,Boolean)").getCount(CommandOutcome.Exception));
+    }
+}
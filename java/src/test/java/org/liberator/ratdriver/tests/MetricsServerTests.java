@@ -0,0 +1,95 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.enums.CommandOutcome;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.performance.RatCommandMetrics;
+import org.liberator.ratdriver.performance.RatMetricsServer;
+import org.liberator.ratdriver.performance.RatWatch;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MetricsServerTests {
+
+    private RatMetricsServer server;
+
+    @After
+    public void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    /**
+     * Scrapes the server, keeping each sample's value by its name and labels
+     */
+    private Map<String, String> scrape() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort()
+                + RatMetricsServer.METRICS_PATH).openConnection();
+        Assert.assertEquals(200, connection.getResponseCode());
+        Assert.assertTrue(connection.getContentType().startsWith("application/openmetrics-text"));
+
+        Map<String, String> samples = new LinkedHashMap<>();
+        String last = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                last = line;
+                if (!line.startsWith("#")) {
+                    int space = line.lastIndexOf(' ');
+                    samples.put(line.substring(0, space), line.substring(space + 1));
+                }
+            }
+        }
+        Assert.assertEquals("# EOF", last);
+        return samples;
+    }
+
+    @Test
+    public void testScrapesCountEachTimingInItsBucket() throws Exception {
+        AtomicLong now = new AtomicLong();
+        RatWatch watch = new RatWatch(now::get);
+        for (long duration : new long[]{500_000L, 1_000_001L, 2_000_000_000L}) {
+            watch.StartTimer();
+            now.addAndGet(duration);
+            watch.StopTimer(Timing.PageLoad);
+        }
+        server = RatMetricsServer.start(0);
+        server.register("test", watch);
+
+        Map<String, String> samples = scrape();
+        String series = "ratdriver_timing_seconds_bucket{source=\"test\",timing=\"PageLoad\",le=\"";
+        Assert.assertEquals("1", samples.get(series + "0.001\"}"));
+        Assert.assertEquals("2", samples.get(series + "0.005\"}"));
+        Assert.assertEquals("2", samples.get(series + "1\"}"));
+        Assert.assertEquals("3", samples.get(series + "2.5\"}"));
+        Assert.assertEquals("3", samples.get(series + "+Inf\"}"));
+        Assert.assertEquals("3", samples.get("ratdriver_timing_seconds_count{source=\"test\",timing=\"PageLoad\"}"));
+    }
+
+    @Test
+    public void testScrapesIncludeCommandOutcomes() throws Exception {
+        RatCommandMetrics metrics = new RatCommandMetrics();
+        metrics.getCommand("clickLink(By,Boolean)").record(1_000, CommandOutcome.HandledError);
+        server = RatMetricsServer.start(0);
+        server.register("test", metrics);
+
+        Map<String, String> samples = scrape();
+        Assert.assertEquals("1", samples.get("ratdriver_command_outcomes_total{source=\"test\",command=\"clickLink(By,Boolean)\",outcome=\"HandledError\"}"));
+        Assert.assertEquals("0", samples.get("ratdriver_command_outcomes_total{source=\"test\",command=\"clickLink(By,Boolean)\",outcome=\"Success\"}"));
+    }
+
+    @Test
+    public void testServersListenOnLoopbackByDefault() throws Exception {
+        server = RatMetricsServer.start(0);
+        Assert.assertTrue(server.getAddress().getAddress().isLoopbackAddress());
+    }
+}
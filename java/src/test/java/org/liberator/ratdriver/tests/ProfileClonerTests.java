@@ -0,0 +1,82 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.profiles.ChromeUserDataTemplates;
+import org.liberator.ratdriver.profiles.FirefoxProfileTemplates;
+import org.liberator.ratdriver.profiles.ProfileCloner;
+import org.openqa.selenium.firefox.FirefoxProfile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProfileClonerTests {
+
+    private final List<Path> directories = new ArrayList<>();
+
+    @After
+    public void deleteDirectories() {
+        directories.forEach(ProfileCloner::delete);
+        FirefoxProfileTemplates.getInstance().clear();
+    }
+
+    @Test
+    public void testClonesCanBeChangedWithoutChangingTheTemplate() throws Exception {
+        Path template = Files.createTempDirectory("ratdriver-template");
+        directories.add(template);
+        Files.createDirectories(template.resolve("extensions"));
+        Files.write(template.resolve("prefs.js"), "template".getBytes(StandardCharsets.UTF_8));
+        Files.write(template.resolve("extensions").resolve("addon.xpi"), "addon".getBytes(StandardCharsets.UTF_8));
+
+        Path clone = ProfileCloner.cloneToTemporaryDirectory(template, "ratdriver-clone");
+        directories.add(clone);
+        Files.write(clone.resolve("prefs.js"), "clone".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals("template", new String(Files.readAllBytes(template.resolve("prefs.js")), StandardCharsets.UTF_8));
+        Assert.assertEquals("addon", new String(Files.readAllBytes(clone.resolve("extensions").resolve("addon.xpi")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEachProfileIsBuiltOnce() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            Path clone = FirefoxProfileTemplates.getInstance().cloneTemplate("test", () -> {
+                builds.incrementAndGet();
+                FirefoxProfile profile = new FirefoxProfile();
+                profile.setPreference("browser.startup.homepage", "about:blank");
+                return profile;
+            });
+            directories.add(clone);
+            Assert.assertTrue(Files.exists(clone.resolve("user.js")));
+        }
+        Assert.assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void testCapturedChromeTemplatesKeepTheCacheButNotTheSession() throws Exception {
+        Path userData = Files.createTempDirectory("ratdriver-user-data");
+        directories.add(userData);
+        Files.createDirectories(userData.resolve("Default").resolve("Cache"));
+        Files.createDirectories(userData.resolve("Default").resolve("Sessions"));
+        Files.write(userData.resolve("Local State"), "{}".getBytes(StandardCharsets.UTF_8));
+        Files.write(userData.resolve("Default").resolve("Cache").resolve("data_0"), "cached".getBytes(StandardCharsets.UTF_8));
+        Files.write(userData.resolve("Default").resolve("Sessions").resolve("Session_1"), "tabs".getBytes(StandardCharsets.UTF_8));
+        Files.write(userData.resolve("lockfile"), new byte[0]);
+
+        Path template = userData.resolveSibling(userData.getFileName() + "-template");
+        directories.add(template);
+        ChromeUserDataTemplates.capture(userData, template);
+        Path clone = ChromeUserDataTemplates.cloneTemplate(template);
+        directories.add(clone);
+
+        Assert.assertTrue(Files.exists(clone.resolve("Local State")));
+        Assert.assertTrue(Files.exists(clone.resolve("Default").resolve("Cache").resolve("data_0")));
+        Assert.assertFalse(Files.exists(clone.resolve("Default").resolve("Sessions")));
+        Assert.assertFalse(Files.exists(clone.resolve("lockfile")));
+    }
+}
@@ -0,0 +1,65 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.enums.RegressionVerdict;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.performance.RatBaseline;
+import org.liberator.ratdriver.performance.RatBaselineStore;
+import org.liberator.ratdriver.performance.RatHistogram;
+import org.liberator.ratdriver.performance.RatRegressionDetector;
+import org.liberator.ratdriver.performance.RatRegressionReport;
+import org.liberator.ratdriver.performance.RatTimingComparison;
+import org.liberator.ratdriver.performance.RatWatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class RatBaselineTests {
+
+    @Test
+    public void testMannWhitneyWithTies(){
+        RatHistogram baseline = new RatHistogram();
+        RatHistogram current = new RatHistogram();
+        baseline.recordValue(1, 2);
+        baseline.recordValue(2, 2);
+        current.recordValue(2);
+        current.recordValue(3, 3);
+        RatRegressionDetector detector = new RatRegressionDetector();
+        detector.setMinimumSamples(4);
+        RatTimingComparison comparison = detector.compare(Timing.PageLoad, baseline, current);
+        Assert.assertEquals(15d, comparison.getU(), 0d);
+        Assert.assertEquals(1.98578, comparison.getZ(), 0.0001);
+        Assert.assertEquals(0.04706, comparison.getPValue(), 0.0001);
+    }
+
+    @Test
+    public void testBaselineComparisonFlagsSlowerRuns() throws IOException {
+        Random random = new Random(1);
+        RatWatch before = new RatWatch();
+        RatWatch after = new RatWatch();
+        for (int i = 0; i < 500; i++) {
+            before.getHistogram(Timing.PageLoad).recordValue((long) (100_000_000 * (1 + 0.2 * random.nextGaussian())));
+            after.getHistogram(Timing.PageLoad).recordValue((long) (112_000_000 * (1 + 0.2 * random.nextGaussian())));
+        }
+        Path directory = Files.createTempDirectory("baselines");
+        try {
+            RatBaselineStore store = new RatBaselineStore(directory);
+            Assert.assertNull(store.load("checkout"));
+            store.save(RatBaseline.of("checkout", before));
+            RatBaseline baseline = store.load("checkout");
+            Assert.assertEquals(500, baseline.getHistogram(Timing.PageLoad).getTotalCount());
+
+            RatRegressionDetector detector = new RatRegressionDetector();
+            RatRegressionReport report = detector.compare(baseline, RatBaseline.of("checkout", after));
+            Assert.assertTrue(report.isRegression());
+            Assert.assertTrue(report.toJson().startsWith("{\"journey\":\"checkout\",\"verdict\":\"Regression\""));
+            Assert.assertEquals(RegressionVerdict.NoChange, detector.compare(baseline, baseline).getVerdict());
+        } finally {
+            Files.deleteIfExists(new RatBaselineStore(directory).pathOf("checkout"));
+            Files.deleteIfExists(directory);
+        }
+    }
+}
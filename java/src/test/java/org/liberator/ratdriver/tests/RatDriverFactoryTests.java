@@ -0,0 +1,120 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.RatDriverFactory;
+import org.liberator.ratdriver.control.BrowserControl;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.preferences.BasePreferences;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RatDriverFactoryTests {
+
+    private final AtomicInteger launches = new AtomicInteger();
+    private final FakeDriver fake = new FakeDriver();
+
+    /**
+     * A control class that takes ten milliseconds to start each driver, and fails to start the given launch
+     */
+    private BrowserControl controller(int failingLaunch) {
+        return new BrowserControl() {
+            @Override
+            public WebDriver startDriver() {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return launches.incrementAndGet() == failingLaunch ? null : fake.driver();
+            }
+
+            @Override
+            public WebDriver startDriver(BasePreferences driverSettings) {
+                return startDriver();
+            }
+        };
+    }
+
+    @Test(expected = SessionNotCreatedException.class)
+    public void testFailedLaunchesThrow() {
+        try (RatDriverFactory factory = new RatDriverFactory(1)) {
+            factory.create(DriverType.RemoteDriver, null);
+        }
+    }
+
+    @Test
+    public void testFailedAsyncLaunchesCompleteExceptionally() {
+        try (RatDriverFactory factory = new RatDriverFactory(2)) {
+            factory.createAllAsync(DriverType.RemoteDriver, null, 4).join();
+            Assert.fail("The launches should have failed");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof SessionNotCreatedException);
+        }
+    }
+
+    @Test
+    public void testFailedLaunchesAreNotTimed() {
+        try (RatDriverFactory factory = new RatDriverFactory(1)) {
+            factory.createAsync(DriverType.RemoteDriver).exceptionally(ex -> null).join();
+            Assert.assertEquals(0, factory.getTimings().getCount(Timing.Instantiation));
+        }
+    }
+
+    @Test
+    public void testFailedConstructorLaunchesAreNotTimed() {
+        RatDriver driver = new RatDriver(DriverType.RemoteDriver, true);
+        Assert.assertNull(driver.getDriver());
+        Assert.assertEquals(0, driver.getRatTimerCollection().getCount(Timing.Instantiation));
+    }
+
+    @Test
+    public void testLaunchesAreTimedInTheFactoryAndTheSession() {
+        try (RatDriverFactory factory = new RatDriverFactory(1, type -> controller(0))) {
+            factory.setPerformanceTimings(true);
+            RatDriver driver = factory.create(DriverType.ChromeDriver, null);
+            try {
+                Assert.assertNotNull(driver.getEncapsulatedDriver());
+                Assert.assertEquals("ChromeDriver", driver.getDriverName());
+                Assert.assertEquals(1, factory.getTimings().getCount(Timing.Instantiation));
+                Assert.assertTrue(factory.getTimings().ArithmeticMean(Timing.Instantiation) >= 10);
+                Assert.assertEquals(1, driver.getRatTimerCollection().getCount(Timing.Instantiation));
+                Assert.assertEquals(factory.getTimings().ArithmeticMean(Timing.Instantiation),
+                        driver.getRatTimerCollection().ArithmeticMean(Timing.Instantiation), 0.0001);
+            } finally {
+                driver.closePagesAndQuitDriver();
+            }
+        }
+    }
+
+    @Test
+    public void testAsyncLaunchesStartEverySession() {
+        try (RatDriverFactory factory = new RatDriverFactory(2, type -> controller(0))) {
+            List<RatDriver> drivers = factory.createAllAsync(DriverType.ChromeDriver, null, 3).join();
+            Assert.assertEquals(3, drivers.size());
+            Assert.assertEquals(3, factory.getTimings().getCount(Timing.Instantiation));
+            for (RatDriver driver : drivers) {
+                driver.closePagesAndQuitDriver();
+            }
+            Assert.assertEquals(3, fake.getQuitCount());
+        }
+    }
+
+    @Test
+    public void testStartedSessionsAreQuitWhenAnotherLaunchFails() {
+        try (RatDriverFactory factory = new RatDriverFactory(2, type -> controller(2))) {
+            factory.createAllAsync(DriverType.ChromeDriver, null, 3).join();
+            Assert.fail("The launches should have failed");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof SessionNotCreatedException);
+        }
+        Assert.assertEquals(3, launches.get());
+        Assert.assertEquals(2, fake.getQuitCount());
+    }
+}
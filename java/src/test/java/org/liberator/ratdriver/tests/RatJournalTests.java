@@ -0,0 +1,45 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.enums.CommandOutcome;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.performance.RatJournal;
+import org.liberator.ratdriver.performance.RatJournalRecord;
+import org.liberator.ratdriver.performance.RatJournalReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public class RatJournalTests {
+
+    @Test
+    public void testJournalKeepsTheNewestRecords() throws IOException {
+        Path first = Files.createTempFile("ratjournal", ".bin");
+        Path second = Files.createTempFile("ratjournal", ".bin");
+        Files.delete(first);
+        Files.delete(second);
+        try (RatJournal journal = RatJournal.open(first, 4); RatJournal other = RatJournal.open(second, 4)) {
+            for (int i = 1; i <= 6; i++) {
+                journal.append(Timing.PageLoad, RatJournal.commandId("clickLink"), i * 10, i * 1_000, CommandOutcome.Success);
+            }
+            other.append(Timing.PageLoad, RatJournal.commandId("clickLink"), 45, 9_000, CommandOutcome.HandledError);
+
+            List<RatJournalRecord> records = RatJournal.read(first);
+            Assert.assertEquals(6, journal.getAppended());
+            Assert.assertEquals(4, records.size());
+            Assert.assertEquals(3_000, records.get(0).getDurationNanos());
+
+            RatJournalReport report = RatJournalReport.merge(Arrays.asList(first, second));
+            Assert.assertEquals(5, report.getHistogram(Timing.PageLoad).getTotalCount());
+            Assert.assertEquals(45, report.getRecords().get(2).getStartNanos());
+            Assert.assertEquals(1, report.getCommand("clickLink").getCount(CommandOutcome.HandledError));
+        } finally {
+            Files.deleteIfExists(first);
+            Files.deleteIfExists(second);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.liberator.ratdriver.enums.ConsoleDebugLevel;
+import org.liberator.ratdriver.logging.RatLog;
+import org.liberator.ratdriver.settings.BaseSettings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class RatLogTests {
+
+    private final String marker = UUID.randomUUID().toString();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private PrintStream console;
+    private ConsoleDebugLevel level;
+
+    @Before
+    public void captureOutput() {
+        console = System.out;
+        level = BaseSettings.DebugLevel;
+        RatLog.flush();
+        System.setOut(new PrintStream(output, true));
+    }
+
+    @After
+    public void restoreOutput() {
+        RatLog.flush();
+        System.setOut(console);
+        BaseSettings.DebugLevel = level;
+    }
+
+    /**
+     * The lines written by this test, in the order they were written
+     */
+    private List<String> lines() {
+        RatLog.flush();
+        return Arrays.stream(new String(output.toByteArray(), StandardCharsets.UTF_8).split(System.lineSeparator()))
+                .filter(line -> line.contains(marker))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testLinesAreGatedByTheDebugLevel() {
+        BaseSettings.DebugLevel = ConsoleDebugLevel.Silent;
+        RatLog.human("silent %s", marker);
+        Assert.assertFalse(RatLog.isEnabled(ConsoleDebugLevel.Human));
+
+        BaseSettings.DebugLevel = ConsoleDebugLevel.Human;
+        RatLog.human("human %s", marker);
+        RatLog.message(new IllegalStateException("message " + marker));
+        Assert.assertFalse(RatLog.isEnabled(ConsoleDebugLevel.Message));
+
+        BaseSettings.DebugLevel = ConsoleDebugLevel.Message;
+        RatLog.message(new IllegalStateException("message " + marker));
+        RatLog.stackTrace(new IllegalStateException(marker));
+        Assert.assertFalse(RatLog.isEnabled(ConsoleDebugLevel.StackTrace));
+
+        BaseSettings.DebugLevel = null;
+        Assert.assertTrue(RatLog.isEnabled(ConsoleDebugLevel.Message));
+        Assert.assertFalse(RatLog.isEnabled(ConsoleDebugLevel.StackTrace));
+
+        Assert.assertEquals(Arrays.asList("human " + marker, "message " + marker), lines());
+    }
+
+    @Test
+    public void testLinesFromOneThreadKeepTheirOrder() throws InterruptedException {
+        BaseSettings.DebugLevel = ConsoleDebugLevel.Human;
+        long dropped = RatLog.getDroppedCount();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String thread = "thread-" + t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    RatLog.human("%s %s %s", marker, thread, i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<String> lines = lines();
+        Assert.assertEquals(4000 - (RatLog.getDroppedCount() - dropped), lines.size());
+        for (int t = 0; t < 4; t++) {
+            String thread = marker + " thread-" + t + " ";
+            List<Integer> written = lines.stream()
+                    .filter(line -> line.startsWith(thread))
+                    .map(line -> Integer.parseInt(line.substring(thread.length())))
+                    .collect(Collectors.toList());
+            for (int i = 1; i < written.size(); i++) {
+                Assert.assertTrue(written.get(i) > written.get(i - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testLinesAreDroppedAndCountedWhenTheRingIsFull() throws InterruptedException {
+        BaseSettings.DebugLevel = ConsoleDebugLevel.Human;
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                output.write(bytes, offset, length);
+            }
+        }, true));
+
+        long dropped = RatLog.getDroppedCount();
+        RatLog.human("blocked %s", marker);
+        Assert.assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < RatLog.CAPACITY + 100; i++) {
+            RatLog.human("%s %s", marker, i);
+        }
+        Assert.assertTrue(RatLog.getDroppedCount() - dropped >= 100);
+
+        release.countDown();
+        Assert.assertEquals(RatLog.CAPACITY + 101 - (RatLog.getDroppedCount() - dropped), lines().size());
+        Assert.assertTrue(new String(output.toByteArray(), StandardCharsets.UTF_8)
+                .contains("log lines were dropped because the log buffer was full."));
+    }
+
+    @Test
+    public void testQueuedLinesAreWrittenAtShutdown() throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                RatLogTests.class.getName(), marker)
+                .redirectErrorStream(true)
+                .start();
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        process.getInputStream().transferTo(written);
+        Assert.assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+
+        List<String> lines = Arrays.stream(new String(written.toByteArray(), StandardCharsets.UTF_8).split("\\R"))
+                .filter(line -> line.startsWith(marker))
+                .collect(Collectors.toList());
+        Assert.assertEquals(1000, lines.size());
+        Assert.assertEquals(marker + " 999", lines.get(999));
+    }
+
+    /**
+     * Logs a thousand lines and exits straight away, leaving the shutdown hook to write them
+     * @param args The marker to start each line with
+     */
+    public static void main(String[] args) {
+        BaseSettings.DebugLevel = ConsoleDebugLevel.Human;
+        for (int i = 0; i < 1000; i++) {
+            RatLog.human("%s %s", args[0], i);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,37 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.performance.RatMetricsRegistry;
+import org.liberator.ratdriver.performance.RatWatch;
+
+import java.util.UUID;
+
+public class RatMetricsRegistryTests {
+
+    @Test
+    public void testRegistryKeepsTimingsOfRetiredSessions(){
+        RatMetricsRegistry registry = RatMetricsRegistry.getInstance();
+        long before = registry.snapshot(DriverType.SafariDriver, Timing.PageLoad).getTotalCount();
+        long live = registry.getLiveSessionCount(DriverType.SafariDriver);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        RatWatch firstWatch = new RatWatch();
+        RatWatch secondWatch = new RatWatch();
+        registry.register(first, DriverType.SafariDriver, firstWatch);
+        registry.register(second, DriverType.SafariDriver, secondWatch);
+        firstWatch.getHistogram(Timing.PageLoad).recordValue(1_000_000);
+        secondWatch.getHistogram(Timing.PageLoad).recordValue(2_000_000);
+        Assert.assertEquals(live + 2, registry.getLiveSessionCount(DriverType.SafariDriver));
+        Assert.assertEquals(before + 2, registry.snapshot(DriverType.SafariDriver, Timing.PageLoad).getTotalCount());
+
+        registry.retire(first);
+        registry.retire(second);
+        Assert.assertNull(registry.getSession(first));
+        Assert.assertEquals(live, registry.getLiveSessionCount(DriverType.SafariDriver));
+        Assert.assertEquals(before + 2, registry.snapshot(DriverType.SafariDriver, Timing.PageLoad).getTotalCount());
+        Assert.assertTrue(registry.snapshot(Timing.PageLoad).getTotalCount() >= before + 2);
+    }
+}
@@ -0,0 +1,68 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.performance.RatSpan;
+import org.liberator.ratdriver.performance.RatTraceExporter;
+import org.liberator.ratdriver.performance.RatTracer;
+import org.liberator.ratdriver.performance.RatWatch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RatTraceExporterTests {
+
+    @Test
+    public void testTraceExportWritesCompleteEvents() throws IOException {
+        AtomicLong now = new AtomicLong(1_000_000);
+        Path trace = Files.createTempFile("ratdriver", ".json");
+        try {
+            RatTracer tracer = new RatTracer();
+            tracer.setClock(now::get);
+            RatWatch watch = new RatWatch(now::get);
+            try (RatTraceExporter exporter = new RatTraceExporter(trace, now::get)) {
+                tracer.addListener(exporter);
+                watch.addTimingListener(exporter);
+                watch.StartTimer();
+                RatSpan span = tracer.startSpan("navigateToPage").tag("url", "https://example.com/");
+                now.addAndGet(2_500);
+                tracer.endSpan(span);
+                watch.StopTimer(Timing.PageLoad);
+            }
+            String json = new String(Files.readAllBytes(trace), StandardCharsets.UTF_8);
+            Assert.assertTrue(json.startsWith("[\n"));
+            Assert.assertTrue(json.endsWith("\n]\n"));
+            Assert.assertTrue(json.contains("\"name\":\"navigateToPage\",\"cat\":\"RatDriver\",\"ph\":\"X\""));
+            Assert.assertTrue(json.contains("\"ts\":0,\"dur\":2.500,\"args\":{\"path\":\"navigateToPage\",\"url\":\"https://example.com/\"}"));
+            Assert.assertTrue(json.contains("\"name\":\"PageLoad\",\"cat\":\"RatWatch\""));
+            Assert.assertTrue(json.contains("\"name\":\"thread_name\""));
+        } finally {
+            Files.deleteIfExists(trace);
+        }
+    }
+
+    @Test
+    public void testMalformedNamesAreReplaced() throws IOException {
+        AtomicLong now = new AtomicLong();
+        Path trace = Files.createTempFile("ratdriver", ".json");
+        try {
+            RatTracer tracer = new RatTracer();
+            tracer.setClock(now::get);
+            try (RatTraceExporter exporter = new RatTraceExporter(trace, now::get)) {
+                tracer.addListener(exporter);
+                tracer.endSpan(tracer.startSpan("find\ud800Element"));
+                tracer.endSpan(tracer.startSpan("clickLink"));
+            }
+            String json = new String(Files.readAllBytes(trace), StandardCharsets.UTF_8);
+            Assert.assertTrue(json.contains("\"name\":\"find?Element\""));
+            Assert.assertTrue(json.contains("\"name\":\"clickLink\""));
+            Assert.assertTrue(json.endsWith("\n]\n"));
+        } finally {
+            Files.deleteIfExists(trace);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.performance.RatSpan;
+import org.liberator.ratdriver.performance.RatSpanMetrics;
+import org.liberator.ratdriver.performance.RatTracer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RatTracerTests {
+
+    @Test
+    public void testTracersSharingAThreadKeepTheirOwnSpans(){
+        RatTracer first = new RatTracer();
+        RatTracer second = new RatTracer();
+        List<String> firstPaths = new ArrayList<>();
+        List<String> secondPaths = new ArrayList<>();
+        first.addListener(span -> firstPaths.add(span.getPath()));
+        second.addListener(span -> secondPaths.add(span.getPath()));
+
+        RatSpan firstCommand = first.startSpan("navigateToPage");
+        RatSpan secondCommand = second.startSpan("clickLink");
+        RatSpan firstWait = first.startSpan("waitForPageToLoad");
+        RatSpan secondFind = second.startSpan("findElementById");
+        first.endSpan(firstWait);
+        second.endSpan(secondFind);
+        first.endSpan(firstCommand);
+        Assert.assertSame(secondCommand, second.currentSpan());
+        second.endSpan(secondCommand);
+        first.endSpan(secondCommand);
+
+        Assert.assertEquals(Arrays.asList("navigateToPage/waitForPageToLoad", "navigateToPage"), firstPaths);
+        Assert.assertEquals(Arrays.asList("clickLink/findElementById", "clickLink"), secondPaths);
+        Assert.assertNull(first.currentSpan());
+        Assert.assertNull(second.currentSpan());
+    }
+
+    @Test
+    public void testSpansAreAggregatedByPath(){
+        AtomicLong now = new AtomicLong();
+        RatTracer tracer = new RatTracer();
+        tracer.setClock(now::get);
+        Assert.assertFalse(tracer.startSpan("untraced").isRecording());
+
+        RatSpanMetrics metrics = new RatSpanMetrics();
+        List<String> paths = new ArrayList<>();
+        tracer.addListener(metrics);
+        tracer.addListener(span -> paths.add(span.getPath()));
+        RatSpan command = tracer.startSpan("clickLinkAndWaitForUrl").tag("url", "/home");
+        RatSpan wait = tracer.startSpan("waitForPageToLoad");
+        now.addAndGet(5_000);
+        tracer.endSpan(wait);
+        tracer.startSpan("waitForUrlToContain").fail();
+        now.addAndGet(1_000);
+        tracer.endSpan(command);
+
+        Assert.assertEquals(3, paths.size());
+        Assert.assertEquals("clickLinkAndWaitForUrl/waitForPageToLoad", paths.get(0));
+        Assert.assertEquals("clickLinkAndWaitForUrl/waitForUrlToContain", paths.get(1));
+        Assert.assertEquals("clickLinkAndWaitForUrl", paths.get(2));
+        Assert.assertNull(tracer.currentSpan());
+        Assert.assertEquals(6_000, metrics.getMetrics().getCommand("clickLinkAndWaitForUrl").getLatency().getMaxValue());
+    }
+}
@@ -0,0 +1,213 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.enums.Timing;
+import org.liberator.ratdriver.performance.RatClockCalibration;
+import org.liberator.ratdriver.performance.RatHistogram;
+import org.liberator.ratdriver.performance.RatMoments;
+import org.liberator.ratdriver.performance.RatRollingHistogram;
+import org.liberator.ratdriver.performance.RatWatch;
+import org.liberator.ratdriver.settings.FirefoxSettings;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RatWatchTests {
+
+    @Test
+    public void testHistogramBucketsContainTheirValues(){
+        RatHistogram histogram = new RatHistogram();
+        long[] values = {0, 1, 63, 64, 127, 128, 129, 1000, 999_999, 123_456_789L, RatHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE};
+        for (long value : values) {
+            int index = histogram.bucketIndex(value);
+            Assert.assertTrue(histogram.lowestEquivalentValue(index) <= value);
+            Assert.assertTrue(histogram.highestEquivalentValue(index) >= value);
+        }
+    }
+
+    @Test
+    public void testHistogramPercentiles(){
+        RatHistogram histogram = new RatHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.recordValue(value * 1000);
+        }
+        Assert.assertEquals(100_000, histogram.getTotalCount());
+        Assert.assertEquals(50_000_000d, histogram.getValueAtPercentile(50), 50_000_000d * 0.02);
+        Assert.assertEquals(99_000_000d, histogram.getValueAtPercentile(99), 99_000_000d * 0.02);
+        Assert.assertEquals(100_000_000L, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(1000L, histogram.getMinValue());
+    }
+
+    @Test
+    public void testRatWatchRecordsPerTiming(){
+        RatWatch ratWatch = new RatWatch();
+        ratWatch.StartTimer();
+        ratWatch.StopTimer(Timing.PageLoad);
+        ratWatch.StartTimer();
+        ratWatch.StopTimer(Timing.ElementFindTime);
+        ratWatch.StartTimer();
+        ratWatch.StopTimer(Timing.ElementFindTime);
+        Assert.assertEquals(1, ratWatch.getCount(Timing.PageLoad));
+        Assert.assertEquals(2, ratWatch.getCount(Timing.ElementFindTime));
+        Assert.assertTrue(ratWatch.getTimings().isEmpty());
+    }
+
+    @Test
+    public void testRatWatchSharedBetweenThreads() throws InterruptedException {
+        RatWatch ratWatch = new RatWatch();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ratWatch.StartTimer();
+                    ratWatch.StopTimer(Timing.GenericTiming);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(80_000, ratWatch.getCount(Timing.GenericTiming));
+    }
+
+    @Test
+    public void testMomentsMatchDirectCalculation(){
+        RatMoments moments = new RatMoments();
+        double[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+        for (double value : values) {
+            moments.record(value);
+        }
+        Assert.assertEquals(5d, moments.getArithmeticMean(), 1e-9);
+        Assert.assertEquals(32d / 7d, moments.getVariance(), 1e-9);
+        Assert.assertEquals(Math.pow(2 * 4 * 4 * 4 * 5 * 5 * 7 * 9, 1d / 8d), moments.getGeometricMean(), 1e-9);
+        Assert.assertEquals(0.818487553, moments.getSkewness(), 1e-6);
+    }
+
+    @Test
+    public void testRatWatchStatisticsAreInMilliseconds() throws InterruptedException {
+        RatWatch ratWatch = new RatWatch();
+        for (int i = 0; i < 5; i++) {
+            ratWatch.StartTimer();
+            Thread.sleep(10);
+            ratWatch.StopTimer(Timing.PageLoad);
+        }
+        Assert.assertTrue(ratWatch.ArithmeticMean(Timing.PageLoad) >= 10d);
+        Assert.assertTrue(ratWatch.Median(Timing.PageLoad) >= 9d);
+        Assert.assertTrue(ratWatch.UpperQuartile(Timing.PageLoad) >= ratWatch.Median(Timing.PageLoad));
+        Assert.assertEquals(0d, ratWatch.ArithmeticMean(Timing.ElementFindTime), 0d);
+    }
+
+    @Test
+    public void testRatWatchKeepsNanosecondDurations(){
+        AtomicLong now = new AtomicLong(1_000);
+        RatWatch ratWatch = new RatWatch(now::get);
+        ratWatch.StartTimer();
+        now.addAndGet(250);
+        ratWatch.StopTimer(Timing.ElementFindTime);
+        Assert.assertEquals(250L, ratWatch.getHistogram(Timing.ElementFindTime).getMaxValue());
+        Assert.assertEquals(0.00025d, ratWatch.ArithmeticMean(Timing.ElementFindTime), 1e-12);
+    }
+
+    @Test
+    public void testClockCalibrationReportsOverhead(){
+        AtomicLong now = new AtomicLong();
+        RatClockCalibration calibration = RatClockCalibration.calibrate(() -> now.addAndGet(20), 1_000);
+        Assert.assertEquals(20L, calibration.getOverheadNanos());
+        Assert.assertEquals(20L, calibration.getGranularityNanos());
+        Assert.assertEquals(1_000, calibration.getSamples());
+    }
+
+    @Test
+    public void testRollingHistogramDropsExpiredIntervals(){
+        AtomicLong now = new AtomicLong();
+        long interval = TimeUnit.SECONDS.toNanos(10);
+        RatRollingHistogram rolling = new RatRollingHistogram(now::get, interval, 6, 1L << 40, 6);
+        rolling.recordValue(1_000);
+        now.addAndGet(interval);
+        rolling.recordValue(2_000);
+        Assert.assertEquals(2, rolling.getWindow(2 * interval).getTotalCount());
+        Assert.assertEquals(1, rolling.getWindow(interval).getTotalCount());
+
+        now.addAndGet(6 * interval);
+        Assert.assertEquals(0, rolling.getWindow(6 * interval).getTotalCount());
+        rolling.recordValue(3_000);
+        Assert.assertEquals(1, rolling.getWindow(6 * interval).getTotalCount());
+    }
+
+    @Test
+    public void testDecayedPercentileFavoursRecentIntervals(){
+        AtomicLong now = new AtomicLong();
+        long interval = TimeUnit.MINUTES.toNanos(1);
+        RatRollingHistogram rolling = new RatRollingHistogram(now::get, interval, 60, 1L << 40, 6);
+        for (int i = 0; i < 100; i++) {
+            rolling.recordValue(1_000_000);
+        }
+        now.addAndGet(30 * interval);
+        for (int i = 0; i < 50; i++) {
+            rolling.recordValue(9_000_000);
+        }
+        Assert.assertTrue(rolling.getDecayedPercentile(50, TimeUnit.MINUTES.toNanos(5)) > 8_000_000);
+        Assert.assertTrue(rolling.getDecayedPercentile(50, TimeUnit.HOURS.toNanos(100)) < 2_000_000);
+    }
+
+    @Test
+    public void testNestedTimersDoNotOverwriteEachOther(){
+        AtomicLong now = new AtomicLong();
+        RatWatch watch = new RatWatch(now::get);
+        watch.StartTimer();
+        now.addAndGet(1_000_000);
+        watch.StartTimer();
+        now.addAndGet(2_000_000);
+        watch.StopTimer(Timing.ElementFindTime);
+        now.addAndGet(3_000_000);
+        watch.StopTimer(Timing.PageLoad);
+        Assert.assertEquals(2d, watch.ArithmeticMean(Timing.ElementFindTime), 0.0001);
+        Assert.assertEquals(6d, watch.ArithmeticMean(Timing.PageLoad), 0.0001);
+    }
+
+    @Test
+    public void testFailedCommandsDiscardTheirTimers(){
+        WebDriver webDriver = new FakeDriver()
+                .on("findElement", args -> {
+                    throw new NoSuchElementException(args[0].toString());
+                })
+                .driver();
+        RatDriver driver = new RatDriver(webDriver, DriverType.ChromeDriver, true);
+        driver.findElementByCssSelector(".missing", false);
+
+        RatWatch watch = driver.getRatTimerCollection();
+        watch.StopTimer(Timing.NotSpecified);
+        Assert.assertEquals(0, watch.getHistogram(Timing.ElementFindTime).getTotalCount());
+        Assert.assertEquals(0, watch.getHistogram(Timing.NotSpecified).getTotalCount());
+    }
+
+    @Test
+    public void testDriversLeaveNoTimerRunning() throws IOException {
+        String location = FirefoxSettings.FirefoxDriverLocation;
+        Path missing = Files.createTempDirectory("ratdriver-binaries");
+        FirefoxSettings.FirefoxDriverLocation = missing.resolve("geckodriver").toString();
+        RatDriver driver;
+        try {
+            driver = new RatDriver(DriverType.FirefoxDriver, true);
+        } finally {
+            FirefoxSettings.FirefoxDriverLocation = location;
+            Files.delete(missing);
+        }
+
+        RatWatch watch = driver.getRatTimerCollection();
+        watch.StopTimer(Timing.NotSpecified);
+        Assert.assertEquals(0, watch.getHistogram(Timing.NotSpecified).getTotalCount());
+    }
+}
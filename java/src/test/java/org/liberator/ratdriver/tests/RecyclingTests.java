@@ -0,0 +1,116 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.IRatDriver;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.RecyclingRatDriver;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.sessions.RatRecyclingPolicy;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class RecyclingTests {
+
+    /**
+     * A driver that keeps its page and cookies
+     */
+    private static class FakeBrowser extends FakeDriver {
+        final Set<Cookie> cookies = new HashSet<>();
+        final List<String> visited = new ArrayList<>();
+        String url = "about:blank";
+
+        FakeBrowser() {
+            on("getCurrentUrl", args -> url);
+            on("to", args -> {
+                url = args[0].toString();
+                visited.add(url);
+                return null;
+            });
+            on("getCookies", args -> new HashSet<>(cookies));
+            on("addCookie", args -> {
+                cookies.add((Cookie) args[0]);
+                return null;
+            });
+        }
+    }
+
+    @Test
+    public void testBrowsersAreReplacedWithTheirPageAndCookies() {
+        FakeBrowser first = new FakeBrowser();
+        first.url = "https://example.com/account";
+        first.cookies.add(new Cookie("session", "1"));
+        FakeBrowser second = new FakeBrowser();
+
+        RatDriver session = new RatDriver(first.driver(), DriverType.ChromeDriver, false);
+        IRatDriver recycling = RecyclingRatDriver.recycle(session, RatRecyclingPolicy.of(2, 0, TimeUnit.MILLISECONDS),
+                () -> second.driver());
+
+        recycling.getCookies();
+        recycling.getCookies();
+        Assert.assertEquals(0, first.getQuitCount());
+        Assert.assertEquals(0, RecyclingRatDriver.recycleCountOf(recycling));
+        Assert.assertEquals(Collections.singleton(new Cookie("session", "1")), recycling.getCookies());
+
+        Assert.assertEquals(1, first.getQuitCount());
+        Assert.assertEquals(0, second.getQuitCount());
+        Assert.assertEquals(Collections.singletonList("https://example.com/account"), second.visited);
+        Assert.assertEquals(1, RecyclingRatDriver.recycleCountOf(recycling));
+    }
+
+    @Test
+    public void testEachBrowserRunsItsCommandLimit() {
+        List<FakeBrowser> browsers = new ArrayList<>();
+        browsers.add(new FakeBrowser());
+        RatDriver session = new RatDriver(browsers.get(0).driver(), DriverType.ChromeDriver, false);
+        IRatDriver recycling = RecyclingRatDriver.recycle(session, RatRecyclingPolicy.of(1, 0, TimeUnit.MILLISECONDS), () -> {
+            FakeBrowser browser = new FakeBrowser();
+            browsers.add(browser);
+            return browser.driver();
+        });
+
+        recycling.getCookies();
+        Assert.assertEquals(1, browsers.size());
+        Assert.assertEquals(0, RecyclingRatDriver.recycleCountOf(recycling));
+
+        recycling.getCookies();
+        recycling.getCookies();
+        Assert.assertEquals(3, browsers.size());
+        Assert.assertEquals(2, RecyclingRatDriver.recycleCountOf(recycling));
+        Assert.assertEquals(1, browsers.get(0).getQuitCount());
+        Assert.assertEquals(1, browsers.get(1).getQuitCount());
+        Assert.assertEquals(0, browsers.get(2).getQuitCount());
+    }
+
+    @Test
+    public void testBrowsersAreKeptWhenNoReplacementStarts() {
+        FakeBrowser first = new FakeBrowser();
+        RatDriver session = new RatDriver(first.driver(), DriverType.FirefoxDriver, false);
+        WebDriver original = session.getEncapsulatedDriver();
+        IRatDriver recycling = RecyclingRatDriver.recycle(session, RatRecyclingPolicy.of(1, 0, TimeUnit.MILLISECONDS),
+                () -> null);
+
+        recycling.getCookies();
+        recycling.getCookies();
+
+        Assert.assertEquals(0, first.getQuitCount());
+        Assert.assertSame(original, RecyclingRatDriver.unwrap(recycling).getEncapsulatedDriver());
+        Assert.assertEquals(0, RecyclingRatDriver.recycleCountOf(recycling));
+    }
+
+    @Test
+    public void testPoliciesWithoutLimitsNeverRecycle() {
+        RatRecyclingPolicy policy = new RatRecyclingPolicy();
+        Assert.assertNull(policy.reasonToRecycle(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE));
+        policy.setMaxResidentKilobytes(1024);
+        Assert.assertNotNull(policy.reasonToRecycle(1, 0, 2048));
+        Assert.assertNull(policy.reasonToRecycle(1, 0, -1));
+    }
+}
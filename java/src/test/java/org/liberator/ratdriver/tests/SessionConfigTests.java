@@ -0,0 +1,119 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.control.BrowserControl;
+import org.liberator.ratdriver.control.ChromeControl;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.preferences.ChromePreferences;
+import org.liberator.ratdriver.preferences.FirefoxPreferences;
+import org.liberator.ratdriver.settings.BaseSettings;
+import org.liberator.ratdriver.settings.RatSessionConfig;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+public class SessionConfigTests {
+
+    private final Integer timeout = BaseSettings.Timeout;
+
+    @After
+    public void restoreSettings() {
+        BaseSettings.Timeout = timeout;
+    }
+
+    @Test
+    public void testSessionsKeepTheirOwnPreferences() {
+        ChromePreferences chrome = new ChromePreferences();
+        chrome.Timeout = 5;
+        FirefoxPreferences firefox = new FirefoxPreferences();
+        firefox.Timeout = 30;
+
+        RatSessionConfig chromeConfig = RatSessionConfig.from(chrome);
+        RatSessionConfig firefoxConfig = RatSessionConfig.from(firefox);
+
+        Assert.assertEquals(Integer.valueOf(5), chromeConfig.getTimeout());
+        Assert.assertEquals(Integer.valueOf(30), firefoxConfig.getTimeout());
+    }
+
+    @Test
+    public void testSnapshotIsNotChangedByTheStaticSettings() {
+        BaseSettings.Timeout = 12;
+        RatSessionConfig config = RatSessionConfig.fromSettings();
+        BaseSettings.Timeout = 99;
+
+        Assert.assertEquals(Integer.valueOf(12), config.getTimeout());
+        Assert.assertEquals(Integer.valueOf(99), RatSessionConfig.fromSettings().getTimeout());
+    }
+
+    @Test
+    public void testWithTimeoutReturnsACopy() {
+        RatSessionConfig config = RatSessionConfig.fromSettings();
+        RatSessionConfig longer = config.withTimeout(120);
+
+        Assert.assertNotSame(config, longer);
+        Assert.assertEquals(timeout, config.getTimeout());
+        Assert.assertEquals(Integer.valueOf(120), longer.getTimeout());
+        Assert.assertEquals(config.getPageLoad(), longer.getPageLoad());
+    }
+
+    /**
+     * Exposes the lock held by the controllers while they copy their preferences into the static settings
+     */
+    private abstract static class SettingsLock extends BrowserControl {
+        static Object get() {
+            return SETTINGS_LOCK;
+        }
+    }
+
+    @Test
+    public void testControllersSnapshotTheirPreferencesUnderTheSettingsLock() throws InterruptedException {
+        ChromePreferences preferences = new ChromePreferences();
+        preferences.Timeout = 7;
+        ChromeControl controller = new ChromeControl(null);
+        Thread launch = new Thread(() -> controller.startDriver(preferences));
+
+        synchronized (SettingsLock.get()) {
+            BaseSettings.Timeout = 99;
+            launch.start();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (launch.getState() != Thread.State.BLOCKED && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            Assert.assertEquals(Thread.State.BLOCKED, launch.getState());
+            Assert.assertNull(controller.getConfig());
+            BaseSettings.Timeout = timeout;
+        }
+        launch.join(60_000);
+
+        Assert.assertEquals(Integer.valueOf(7), controller.getConfig().getTimeout());
+    }
+
+    @Test
+    public void testWaitsUseTheSessionTimeoutAfterTheSettingsChange() {
+        WebDriver webDriver = new FakeDriver()
+                .on("findElement", args -> {
+                    throw new NoSuchElementException(args[0].toString());
+                })
+                .driver();
+        BaseSettings.Timeout = 1;
+        RatDriver driver = new RatDriver(webDriver, DriverType.ChromeDriver, false, RatSessionConfig.fromSettings());
+        BaseSettings.Timeout = 60;
+
+        long start = System.nanoTime();
+        try {
+            driver.waitForElementToLoad(By.id("missing"));
+        } catch (TimeoutException ex) {
+            // the error policy may rethrow it
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        Assert.assertEquals(Integer.valueOf(1), driver.getConfig().getTimeout());
+        Assert.assertTrue("The wait took " + elapsed + " seconds", elapsed < 10);
+    }
+}
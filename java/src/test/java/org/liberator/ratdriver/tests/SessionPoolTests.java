@@ -0,0 +1,61 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.preferences.ChromePreferences;
+import org.liberator.ratdriver.sessions.RatSessionKey;
+import org.liberator.ratdriver.sessions.RatSessionPool;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+
+public class SessionPoolTests {
+
+    private final FakeDriver fake = new FakeDriver();
+
+    private RatSessionPool pool() {
+        return new RatSessionPool((type, preferences) ->
+                new RatDriver(fake.driver(JavascriptExecutor.class), type, false));
+    }
+
+    @Test
+    public void testReleasedSessionsAreLentAgainUntilMaxUses() {
+        try (RatSessionPool pool = pool()) {
+            pool.setWarmSessions(0);
+            pool.setMaxUses(2);
+            RatDriver first = pool.borrow(DriverType.ChromeDriver);
+            pool.release(first);
+            pool.release(first);
+            RatDriver second = pool.borrow(DriverType.ChromeDriver);
+            Assert.assertSame(first, second);
+            pool.release(second);
+            Assert.assertEquals(1, fake.getQuitCount());
+            Assert.assertNotSame(first, pool.borrow(DriverType.ChromeDriver));
+            Assert.assertEquals(1, pool.getReuseCount());
+        }
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testBorrowTimesOutWhenEverySessionIsLent() {
+        try (RatSessionPool pool = pool()) {
+            pool.setWarmSessions(0);
+            pool.setMaxSessions(1);
+            pool.setBorrowTimeoutMillis(100);
+            pool.borrow(DriverType.FirefoxDriver);
+            pool.borrow(DriverType.FirefoxDriver);
+        }
+    }
+
+    @Test
+    public void testSessionsAreKeyedByPreferenceValues() {
+        ChromePreferences preferences = new ChromePreferences();
+        Assert.assertEquals(RatSessionKey.of(DriverType.ChromeDriver, preferences),
+                RatSessionKey.of(DriverType.ChromeDriver, new ChromePreferences()));
+        preferences.Width = "1024";
+        Assert.assertNotEquals(RatSessionKey.of(DriverType.ChromeDriver, preferences),
+                RatSessionKey.of(DriverType.ChromeDriver, new ChromePreferences()));
+        Assert.assertNotEquals(RatSessionKey.of(DriverType.ChromeDriver, null),
+                RatSessionKey.of(DriverType.OperaDriver, null));
+    }
+}
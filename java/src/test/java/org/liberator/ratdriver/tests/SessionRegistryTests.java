@@ -0,0 +1,127 @@
+package org.liberator.ratdriver.tests;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.liberator.ratdriver.ErrorHandler;
+import org.liberator.ratdriver.RatDriver;
+import org.liberator.ratdriver.enums.DriverType;
+import org.liberator.ratdriver.performance.RatMetricsRegistry;
+import org.liberator.ratdriver.sessions.RatSessionRegistry;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+public class SessionRegistryTests {
+
+    private final AtomicInteger quits = new AtomicInteger();
+
+    /**
+     * A driver that takes a time to quit
+     */
+    private WebDriver driver(long quitMillis) {
+        return new FakeDriver()
+                .on("quit", args -> {
+                    Thread.sleep(quitMillis);
+                    quits.incrementAndGet();
+                    return null;
+                })
+                .driver();
+    }
+
+    @Test
+    public void testSessionsAreQuitInParallel() {
+        RatSessionRegistry registry = new RatSessionRegistry();
+        Object[] owners = new Object[4];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = new Object();
+            registry.register(owners[i], driver(500), "ChromeDriver", null);
+        }
+
+        long start = System.nanoTime();
+        Assert.assertEquals(4, registry.quitAll(5000));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+        Assert.assertEquals(4, quits.get());
+        Assert.assertEquals(0, registry.getLiveCount());
+    }
+
+    @Test
+    public void testBrowsersThatWillNotQuitAreKilled() throws Exception {
+        Assume.assumeFalse(System.getProperty("os.name").startsWith("Windows"));
+        String profile = "ratdriver-profile-" + UUID.randomUUID();
+        Process browser = new ProcessBuilder("tail", "-f", "/dev/null", profile).start();
+        RatSessionRegistry registry = new RatSessionRegistry();
+        try {
+            registry.quit(driver(10000), "ChromeDriver", profile, 200);
+            Assert.fail();
+        } catch (WebDriverException ex) {
+            Assert.assertTrue(browser.waitFor(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, registry.getKillCount());
+        } finally {
+            browser.destroyForcibly();
+        }
+    }
+
+    /**
+     * Collects garbage until a condition holds, for up to ten seconds
+     */
+    private static void collectUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void testSessionsThatAreNeverQuitAreReaped() throws Exception {
+        RatSessionRegistry registry = new RatSessionRegistry();
+        UUID id = UUID.randomUUID();
+        AtomicReference<UUID> closed = new AtomicReference<>();
+        registry.register(new Object(), driver(0), "FirefoxDriver", null, id, closed::set);
+
+        collectUntil(() -> quits.get() > 0);
+        Assert.assertEquals(1, registry.getReapedCount());
+        Assert.assertEquals(1, quits.get());
+        Assert.assertEquals(id, closed.get());
+    }
+
+    @Test
+    public void testSessionsAreClosedOnceWhenQuit() {
+        RatSessionRegistry registry = new RatSessionRegistry();
+        AtomicInteger closed = new AtomicInteger();
+        Object owner = new Object();
+        RatSessionRegistry.Registration registration = registry.register(owner, driver(0), "ChromeDriver", null,
+                UUID.randomUUID(), id -> closed.incrementAndGet());
+
+        registration.quit();
+        registration.quit();
+        Assert.assertEquals(0, registry.quitAll(1000));
+        Assert.assertEquals(1, closed.get());
+        Assert.assertEquals(0, registry.getReapedCount());
+    }
+
+    @Test
+    public void testReapedDriversAreRetired() throws Exception {
+        int liveSessions = RatDriver.getLiveSessionCount();
+        long liveMetrics = RatMetricsRegistry.getInstance().getLiveSessionCount(DriverType.ChromeDriver);
+        long reaped = RatSessionRegistry.getInstance().getReapedCount();
+        int errors = ErrorHandler.handledErrorCount();
+        new RatDriver(driver(0), DriverType.ChromeDriver, true);
+        Assert.assertEquals(errors, ErrorHandler.handledErrorCount());
+        Assert.assertEquals(0, quits.get());
+        Assert.assertEquals(liveSessions + 1, RatDriver.getLiveSessionCount());
+        Assert.assertEquals(liveMetrics + 1, RatMetricsRegistry.getInstance().getLiveSessionCount(DriverType.ChromeDriver));
+
+        collectUntil(() -> quits.get() > 0 && RatDriver.getLiveSessionCount() <= liveSessions);
+        Assert.assertEquals(1, quits.get());
+        Assert.assertTrue(RatSessionRegistry.getInstance().getReapedCount() > reaped);
+        Assert.assertTrue(RatDriver.getLiveSessionCount() <= liveSessions);
+        Assert.assertTrue(RatMetricsRegistry.getInstance().getLiveSessionCount(DriverType.ChromeDriver) <= liveMetrics);
+    }
+}